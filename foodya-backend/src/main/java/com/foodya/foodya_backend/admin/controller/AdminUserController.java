@@ -44,4 +44,11 @@ public class AdminUserController {
         UserProfileResponse updatedUser = userService.toggleUserActiveStatus(userId);
         return ResponseEntity.ok(updatedUser);
     }
+
+    @Operation(summary = "Revoke all sessions", description = "Admin only - Invalidate every access and refresh token of the user")
+    @PostMapping("/{userId}/revoke-sessions")
+    public ResponseEntity<Void> revokeSessions(@PathVariable UUID userId) {
+        userService.revokeAllSessions(userId);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -7,9 +7,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.foodya.foodya_backend.auth.dto.ChangePasswordRequest;
@@ -18,6 +20,7 @@ import com.foodya.foodya_backend.auth.dto.LoginRequest;
 import com.foodya.foodya_backend.auth.dto.RefreshTokenRequest;
 import com.foodya.foodya_backend.auth.dto.RegisterRequest;
 import com.foodya.foodya_backend.auth.service.AuthService;
+import com.foodya.foodya_backend.user.service.UserAvailabilityService;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.BadRequest;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.Conflict;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.Forbidden;
@@ -43,6 +46,7 @@ import lombok.RequiredArgsConstructor;
 public class AuthController {
 
   private final AuthService authService;
+  private final UserAvailabilityService userAvailabilityService;
 
   @Operation(
       summary = "Register new user",
@@ -68,6 +72,40 @@ public class AuthController {
     return new ResponseEntity<>(response, HttpStatus.CREATED);
   }
 
+  @Operation(
+      summary = "Check username/email availability",
+      description = "Quick check while the user fills in the registration form. Only the parameters given are checked. " +
+                    "\"false\" (taken) is always checked against the database. \"true\" is a hint: a value " +
+                    "registered a few seconds ago on another server may still show as available, and " +
+                    "registration returns 409 if the value is taken by then."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Availability of each given value",
+          content = @Content(
+              mediaType = "application/json",
+              examples = @ExampleObject(
+                  value = "{\"username\": true, \"email\": false}"
+              )
+          )
+      )
+  })
+  @SecurityRequirements()
+  @GetMapping("/availability")
+  public ResponseEntity<Map<String, Boolean>> availability(
+      @RequestParam(required = false) String username,
+      @RequestParam(required = false) String email) {
+    Map<String, Boolean> response = new HashMap<>();
+    if (username != null && !username.isBlank()) {
+      response.put("username", userAvailabilityService.isUsernameAvailable(username));
+    }
+    if (email != null && !email.isBlank()) {
+      response.put("email", userAvailabilityService.isEmailAvailable(email));
+    }
+    return ResponseEntity.ok(response);
+  }
+
   @Operation(
       summary = "User login",
       description = "Authenticate user with username and password. Returns access token and refresh token upon successful authentication."
@@ -93,7 +131,7 @@ public class AuthController {
 
   @Operation(
       summary = "Refresh access token",
-      description = "Generate a new access token using a valid refresh token. The refresh token remains unchanged."
+      description = "Exchange a valid refresh token for a new access token and a new refresh token. Each refresh token can be used only once; reusing one revokes all sessions of the user."
   )
   @ApiResponses(value = {
       @ApiResponse(
@@ -113,6 +151,20 @@ public class AuthController {
     return ResponseEntity.ok(response);
   }
 
+  @Operation(
+      summary = "Logout",
+      description = "Revoke the given refresh token. The access token stays valid until it expires."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "204", description = "Logged out")
+  })
+  @Unauthorized
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+    authService.logout(request);
+    return ResponseEntity.noContent().build();
+  }
+
   @Operation(
       summary = "Change password",
       description = "Change password for authenticated user. Requires current password for verification."
@@ -0,0 +1,178 @@
+package com.foodya.foodya_backend.auth.crypto;
+
+import com.foodya.foodya_backend.exception.business.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt on a dedicated, bounded pool so login and registration storms cannot take
+ * CPU from request threads serving everything else. When the queue is full, or a hash
+ * waits longer than the timeout, callers get a {@link ServiceUnavailableException} (503)
+ * instead of piling up.
+ * <p>
+ * Hashes made with a lower cost than the configured one report {@link #upgradeEncoding(String)}
+ * so they are rehashed on the next successful login. Higher costs are left alone: an instance
+ * configured lower must not downgrade them, nor rehash back and forth with its peers.
+ */
+public class BulkheadPasswordEncoder implements PasswordEncoder {
+  private static final Logger log = LoggerFactory.getLogger(BulkheadPasswordEncoder.class);
+
+  private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+  private static final int MIN_COST = 10;
+  private static final int MAX_COST = 16;
+
+  private final BCryptPasswordEncoder delegate;
+  private final int strength;
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMillis;
+  private final long retryAfterSeconds;
+
+  private final Timer encodeQueueTimer;
+  private final Timer matchesQueueTimer;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public BulkheadPasswordEncoder(int strength, int threads, int queueCapacity, long timeoutMillis,
+      long retryAfterSeconds, MeterRegistry meterRegistry) {
+    this.strength = strength;
+    this.delegate = new BCryptPasswordEncoder(strength);
+    this.timeoutMillis = timeoutMillis;
+    this.retryAfterSeconds = retryAfterSeconds;
+
+    AtomicInteger threadIds = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + threadIds.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    this.encodeQueueTimer = queueTimer(meterRegistry, "encode");
+    this.matchesQueueTimer = queueTimer(meterRegistry, "matches");
+    this.encodeTimer = hashTimer(meterRegistry, "encode");
+    this.matchesTimer = hashTimer(meterRegistry, "matches");
+    this.rejected = Counter.builder("foodya.password.hash.rejected")
+        .description("Password hashes rejected because the hashing pool was saturated")
+        .register(meterRegistry);
+    Gauge.builder("foodya.password.hash.queue.depth", executor, e -> e.getQueue().size())
+        .description("Password hashes waiting for a hashing thread")
+        .register(meterRegistry);
+
+    log.info("Password hashing: bcrypt cost {}, {} threads, queue {}", strength, threads, queueCapacity);
+  }
+
+  /**
+   * Highest bcrypt cost (at least 10) whose hash time stays under the target on this machine.
+   */
+  public static int calibrateStrength(long targetMillis) {
+    BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+    probe.encode("calibration-warmup");
+    long start = System.nanoTime();
+    probe.encode("calibration-probe");
+    double millisAtMin = (System.nanoTime() - start) / 1_000_000.0;
+
+    // Each cost step doubles the work
+    int cost = MIN_COST;
+    while (cost < MAX_COST && millisAtMin * (1L << (cost + 1 - MIN_COST)) <= targetMillis) {
+      cost++;
+    }
+    log.info("Calibrated bcrypt cost {} ({} ms at cost {}, target {} ms)",
+        cost, Math.round(millisAtMin), MIN_COST, targetMillis);
+    return cost;
+  }
+
+  public int getStrength() {
+    return strength;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> delegate.encode(rawPassword), encodeQueueTimer, encodeTimer);
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueTimer, matchesTimer);
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+  }
+
+  // Called by Spring as the inferred destroy method
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private <T> T submit(Callable<T> task, Timer queueTimer, Timer hashTimer) {
+    long enqueuedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        queueTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        return hashTimer.recordCallable(task);
+      });
+    } catch (RejectedExecutionException ex) {
+      rejected.increment();
+      throw new ServiceUnavailableException("Authentication service is busy, please retry", retryAfterSeconds);
+    }
+
+    try {
+      return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      rejected.increment();
+      throw new ServiceUnavailableException("Authentication service is busy, please retry", retryAfterSeconds);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new ServiceUnavailableException("Authentication was interrupted, please retry", retryAfterSeconds);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", ex.getCause());
+    }
+  }
+
+  private static Timer queueTimer(MeterRegistry registry, String operation) {
+    return Timer.builder("foodya.password.hash.queue")
+        .description("Time a password hash waited for a hashing thread")
+        .tag("operation", operation)
+        .register(registry);
+  }
+
+  private static Timer hashTimer(MeterRegistry registry, String operation) {
+    return Timer.builder("foodya.password.hash.duration")
+        .description("Time spent computing a password hash")
+        .tag("operation", operation)
+        .register(registry);
+  }
+}
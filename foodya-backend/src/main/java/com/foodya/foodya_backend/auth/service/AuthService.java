@@ -1,7 +1,10 @@
 package com.foodya.foodya_backend.auth.service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -15,13 +18,18 @@ import com.foodya.foodya_backend.auth.dto.LoginRequest;
 import com.foodya.foodya_backend.auth.dto.RefreshTokenRequest;
 import com.foodya.foodya_backend.auth.dto.RegisterRequest;
 import com.foodya.foodya_backend.exception.business.AccountDeactivatedException;
-import com.foodya.foodya_backend.exception.business.DuplicateResourceException;
 import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
 import com.foodya.foodya_backend.exception.security.UnauthorizedException;
 import com.foodya.foodya_backend.jwt.JwtService;
+import com.foodya.foodya_backend.jwt.VerifiedClaims;
 import com.foodya.foodya_backend.user.model.Role;
 import com.foodya.foodya_backend.user.model.User;
 import com.foodya.foodya_backend.user.repository.UserRepository;
+import com.foodya.foodya_backend.utils.persistence.UniqueConstraints;
+import com.foodya.foodya_backend.user.service.SecurityEpochService;
+import com.foodya.foodya_backend.user.service.UserAvailabilityService;
+import com.foodya.foodya_backend.user.service.UserActivityBuffer;
+import com.foodya.foodya_backend.user.service.UserService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,25 +41,36 @@ public class AuthService {
   private final PasswordEncoder passwordEncoder;
   private final AuthenticationManager authenticationManager;
   private final JwtService jwtService;
+  private final SecurityEpochService securityEpochService;
+  private final TokenRevocationService tokenRevocationService;
+  private final UserService userService;
+  private final UserActivityBuffer userActivityBuffer;
+  private final UserAvailabilityService userAvailabilityService;
+
+  // Same messages the exists-checks used to produce
+  private static final List<UniqueConstraints.Rule> USER_UNIQUE_RULES = List.of(
+      new UniqueConstraints.Rule(User.UK_USERNAME, "username", "Username already exists"),
+      new UniqueConstraints.Rule(User.UK_EMAIL, "email", "Email already exists"),
+      new UniqueConstraints.Rule(User.UK_PHONE_NUMBER, "phone_number", "Phone number already exists"));
 
   public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
-      AuthenticationManager authenticationManager, JwtService jwtService) {
+      AuthenticationManager authenticationManager, JwtService jwtService,
+      SecurityEpochService securityEpochService, TokenRevocationService tokenRevocationService,
+      UserService userService, UserActivityBuffer userActivityBuffer,
+      UserAvailabilityService userAvailabilityService) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.authenticationManager = authenticationManager;
     this.jwtService = jwtService;
+    this.securityEpochService = securityEpochService;
+    this.tokenRevocationService = tokenRevocationService;
+    this.userService = userService;
+    this.userActivityBuffer = userActivityBuffer;
+    this.userAvailabilityService = userAvailabilityService;
   }
 
   @Transactional
   public JwtAuthResponse registerUser(RegisterRequest registerRequest) {
-    // Validate unique constraints
-    if (userRepository.existsByUsername(registerRequest.getUsername())) {
-      throw new DuplicateResourceException("Username already exists");
-    }
-    if (userRepository.existsByEmail(registerRequest.getEmail())) {
-      throw new DuplicateResourceException("Email already exists");
-    }
-
     // Normalize phone number if provided
     String normalizedPhone = null;
     if (registerRequest.getPhoneNumber() != null && !registerRequest.getPhoneNumber().isBlank()) {
@@ -61,11 +80,6 @@ public class AuthService {
       } catch (IllegalArgumentException e) {
         throw new IllegalArgumentException("Invalid phone number format: " + e.getMessage());
       }
-
-      // Check if normalized phone already exists
-      if (userRepository.existsByPhoneNumber(normalizedPhone)) {
-        throw new DuplicateResourceException("Phone number already exists");
-      }
     }
 
     // Create new user
@@ -79,46 +93,72 @@ public class AuthService {
     user.setIsActive(true);
     user.setIsEmailVerified(false);
 
-    userRepository.save(user);
+    // Uniqueness is enforced by the users table constraints: one insert, no pre-checks
+    User savedUser;
+    try {
+      savedUser = userRepository.saveAndFlush(user);
+    } catch (DataIntegrityViolationException ex) {
+      throw UniqueConstraints.translate(ex, USER_UNIQUE_RULES);
+    }
+    userAvailabilityService.recordAfterCommit(savedUser.getUsername(), savedUser.getEmail());
 
-    // Authenticate and generate tokens
-    Authentication authentication = authenticationManager.authenticate(
-        new UsernamePasswordAuthenticationToken(
-            registerRequest.getUsername(),
-            registerRequest.getPassword()));
+    // The password was just hashed; checking it again would cost a second bcrypt round
+    Authentication authentication = new UsernamePasswordAuthenticationToken(
+        savedUser, null, savedUser.getAuthorities());
 
     return generateTokenResponse(authentication);
   }
 
   public JwtAuthResponse login(LoginRequest loginRequest) {
-    // Authenticate user
+    // Authenticate user (the provider loads the User once; it becomes the principal)
     Authentication authentication = authenticationManager.authenticate(
         new UsernamePasswordAuthenticationToken(
             loginRequest.getUsername(),
             loginRequest.getPassword()));
 
-    // Update last login time
-    User user = userRepository.findByUsername(loginRequest.getUsername())
-        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-    user.setLastLoginAt(LocalDateTime.now());
-    userRepository.save(user);
+    // Update last login time (buffered, written in the background)
+    User user = (User) authentication.getPrincipal();
+    userActivityBuffer.recordLogin(user.getId(), LocalDateTime.now());
 
     return generateTokenResponse(authentication);
   }
 
+  /**
+   * Exchange a refresh token for a new access and refresh token pair.
+   * Each refresh token can be used once: presenting a rotated or logged-out token
+   * again is treated as theft and revokes every session of the user.
+   */
   public JwtAuthResponse refreshToken(RefreshTokenRequest request) {
     String refreshToken = request.getRefreshToken();
 
     // Validate refresh token
-    if (!jwtService.validateToken(refreshToken)) {
-      throw new UnauthorizedException("Invalid refresh token");
+    VerifiedClaims claims = jwtService.verify(refreshToken)
+        .filter(verified -> verified.type() == null || verified.isRefreshToken())
+        .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+
+    // Refresh tokens issued before rotation have no jti; they are accepted once, keyed by digest
+    String tokenId = refreshTokenId(refreshToken, claims);
+    if (tokenRevocationService.isRevoked(tokenId)) {
+      revokeSessionsOnReuse(claims);
+      throw new UnauthorizedException("Refresh token reuse detected");
     }
 
-    // Extract username from refresh token
-    String username = jwtService.extractUsername(refreshToken);
+    // Stateless principal mode answers from the epoch table; otherwise load the user
+    if (securityEpochService.isEnabled() && claims.hasPrincipalClaims()) {
+      long currentEpoch = securityEpochService.currentEpoch(claims.userId());
+      if (currentEpoch == SecurityEpochService.REVOKED) {
+        throw new AccountDeactivatedException("Account is deactivated");
+      }
+      if (currentEpoch != claims.epoch()) {
+        throw new UnauthorizedException("Refresh token has been revoked");
+      }
+      rotate(tokenId, claims, claims.userId());
+      return buildTokenResponse(jwtService.generateToken(claims), jwtService.generateRefreshToken(claims),
+          claims.userId().toString(), claims.username(), Role.valueOf(claims.role()));
+    }
 
     // Load user
-    User user = userRepository.findByUsername(username)
+    User user = userRepository.findByUsername(claims.username())
         .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
     // Check if account is active
@@ -126,52 +166,78 @@ public class AuthService {
       throw new AccountDeactivatedException("Account is deactivated");
     }
 
-    // Create new authentication
+    // Refresh tokens issued before a password change or deactivation are revoked
+    if (claims.epoch() != null && claims.epoch() != user.getSecurityEpochOrZero()) {
+      throw new UnauthorizedException("Refresh token has been revoked");
+    }
+
+    rotate(tokenId, claims, user.getId());
+
+    // Create new authentication (User principal so the new token carries id, role and epoch)
     Authentication authentication = new UsernamePasswordAuthenticationToken(
-        username, null, null);
+        user, null, user.getAuthorities());
+    return buildTokenResponse(jwtService.generateToken(authentication),
+        jwtService.generateRefreshToken(authentication), user.getId().toString(), user.getUsername(), user.getRole());
+  }
+
+  /**
+   * Revoke the given refresh token. Access tokens already issued stay valid until they expire.
+   */
+  public void logout(RefreshTokenRequest request) {
+    String refreshToken = request.getRefreshToken();
+    VerifiedClaims claims = jwtService.verify(refreshToken)
+        .filter(verified -> verified.type() == null || verified.isRefreshToken())
+        .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+
+    tokenRevocationService.revoke(refreshTokenId(refreshToken, claims), claims.userId(), claims.expiresAt());
+    log.info("User {} logged out", claims.username());
+  }
+
+  // Mark the presented token as used; losing the insert race means another request already used it
+  private void rotate(String tokenId, VerifiedClaims claims, UUID userId) {
+    if (!tokenRevocationService.revoke(tokenId, userId, claims.expiresAt())) {
+      revokeSessionsOnReuse(claims);
+      throw new UnauthorizedException("Refresh token reuse detected");
+    }
+  }
+
+  private void revokeSessionsOnReuse(VerifiedClaims claims) {
+    log.warn("Refresh token reuse detected for user {}, revoking all sessions", claims.username());
+    if (claims.userId() != null) {
+      userService.revokeAllSessions(claims.userId());
+    } else {
+      userRepository.findByUsername(claims.username())
+          .ifPresent(user -> userService.revokeAllSessions(user.getId()));
+    }
+  }
 
-    // Generate new access token (keep the same refresh token)
-    String newAccessToken = jwtService.generateToken(authentication);
-    Long expireIn = getExpireIn(newAccessToken);
-    Long refreshExpiresIn = getRefreshTokenExpireIn(refreshToken);
-    String userId = user.getId().toString();
+  private String refreshTokenId(String refreshToken, VerifiedClaims claims) {
+    return claims.tokenId() != null ? claims.tokenId() : "legacy:" + jwtService.fingerprint(refreshToken);
+  }
 
+  private JwtAuthResponse buildTokenResponse(String accessToken, String refreshToken, String userId,
+      String username, Role role) {
     return JwtAuthResponse.builder()
-        .accessToken(newAccessToken)
+        .accessToken(accessToken)
         .refreshToken(refreshToken)
         .tokenType("Bearer")
-        .expiresIn(expireIn)
-        .refreshTokenExpiresIn(refreshExpiresIn)
+        .expiresIn(getExpireIn(accessToken))
+        .refreshTokenExpiresIn(getRefreshTokenExpireIn(refreshToken))
         .userId(userId)
         .username(username)
+        .role(role)
         .build();
   }
 
   // Helper method to generate token response
   private JwtAuthResponse generateTokenResponse(Authentication authentication) {
+    User user = authentication.getPrincipal() instanceof User principal
+        ? principal
+        : userRepository.findByUsername(authentication.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     String accessToken = jwtService.generateToken(authentication);
     String refreshToken = jwtService.generateRefreshToken(authentication);
-    Long expiresIn = getExpireIn(accessToken);
-    Long refreshTokenExpiresIn = getRefreshTokenExpireIn(refreshToken);
-    String userId = userRepository.findByUsername(authentication.getName())
-        .orElseThrow(() -> new ResourceNotFoundException("User not found"))
-        .getId()
-        .toString();
-    String username = authentication.getName();
-    Role role = userRepository.findByUsername(username)
-        .orElseThrow(() -> new ResourceNotFoundException("User not found"))
-        .getRole();
-
-    return JwtAuthResponse.builder()
-        .accessToken(accessToken)
-        .refreshToken(refreshToken)
-        .tokenType("Bearer")
-        .expiresIn(expiresIn)
-        .refreshTokenExpiresIn(refreshTokenExpiresIn)
-        .userId(userId)
-        .username(username)
-        .role(role)
-        .build();
+    return buildTokenResponse(accessToken, refreshToken, user.getId().toString(), user.getUsername(), user.getRole());
   }
 
   public Long getExpireIn(String token) {
@@ -208,14 +274,16 @@ public class AuthService {
       throw new IllegalArgumentException("Current password is incorrect");
     }
 
-    // Check new password is different from current
-    if (passwordEncoder.matches(request.getNewPassword(), user.getPassword())) {
+    // Check new password is different from current (the current one was just verified,
+    // so a plain comparison is enough and saves a bcrypt round)
+    if (request.getNewPassword().equals(request.getCurrentPassword())) {
       log.warn("New password same as old password for user: {}", username);
       throw new IllegalArgumentException("New password must be different from current password");
     }
 
-    // Update password
+    // Update password and invalidate every token issued with the old one
     user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+    securityEpochService.bump(user);
     userRepository.save(user);
 
     log.info("Password changed successfully for user: {}", username);
@@ -0,0 +1,151 @@
+package com.foodya.foodya_backend.auth.service;
+
+import com.foodya.foodya_backend.auth.repository.RevokedTokenRepository;
+import com.foodya.foodya_backend.utils.bloom.BloomFilter;
+import com.foodya.foodya_backend.utils.rebuild.RebuildableState;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked refresh token ids.
+ * <p>
+ * The {@code revoked_tokens} table is the source of truth and its primary key makes
+ * "revoke on rotation" atomic across instances. Lookups are answered from memory:
+ * a Bloom filter rejects the common never-revoked case, and an exact set confirms hits.
+ * Revocations made by other instances are pulled in by a periodic sync. Revocations that commit
+ * while a rebuild is loading are replayed onto the new filter and set before they are swapped in.
+ */
+@Service
+public class TokenRevocationService {
+  private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+  private final RevokedTokenRepository revokedTokenRepository;
+  private final long expectedEntries;
+  private final double falsePositiveRate;
+  private final long syncMillis;
+
+  private final RebuildableState<Revoked> revoked;
+  private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+  // The filter and the exact set it fronts, swapped together
+  private record Revoked(BloomFilter bloomFilter, Set<String> jtis) {
+
+    boolean contains(String jti) {
+      return bloomFilter.mightContain(jti) && jtis.contains(jti);
+    }
+
+    void add(String jti) {
+      bloomFilter.put(jti);
+      jtis.add(jti);
+    }
+  }
+
+  public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+      @Value("${app.jwt.revocation.expected-entries:100000}") long expectedEntries,
+      @Value("${app.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+      @Value("${app.jwt.revocation.sync-ms:15000}") long syncMillis) {
+    this.revokedTokenRepository = revokedTokenRepository;
+    this.expectedEntries = expectedEntries;
+    this.falsePositiveRate = falsePositiveRate;
+    this.syncMillis = syncMillis;
+    this.revoked = new RebuildableState<>(
+        new Revoked(new BloomFilter(expectedEntries, falsePositiveRate), ConcurrentHashMap.newKeySet()));
+  }
+
+  /** In-memory check; never touches the database. */
+  public boolean isRevoked(String jti) {
+    return revoked.get().contains(jti);
+  }
+
+  /**
+   * Record the token id as revoked.
+   *
+   * @return false if it was already revoked (on rotation this means the token was replayed)
+   */
+  @Transactional
+  public boolean revoke(String jti, UUID userId, long expiresAtMillis) {
+    LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault());
+    int inserted = revokedTokenRepository.insertIfAbsent(jti, userId, expiresAt, LocalDateTime.now());
+    rememberAfterCommit(jti);
+    return inserted == 1;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    LocalDateTime now = LocalDateTime.now();
+    Revoked rebuilt = revoked.rebuild(() -> {
+      List<String> active = revokedTokenRepository.findActiveJtis(now);
+      Revoked loaded = new Revoked(new BloomFilter(Math.max(expectedEntries, active.size() * 2L), falsePositiveRate),
+          ConcurrentHashMap.newKeySet(active.size()));
+      active.forEach(loaded::add);
+      return loaded;
+    });
+    if (rebuilt != null) {
+      lastSync = now;
+      log.info("Loaded {} revoked refresh tokens ({} KB bloom filter)",
+          rebuilt.jtis().size(), rebuilt.bloomFilter().sizeInBytes() / 1024);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-ms:15000}")
+  public void syncFromDatabase() {
+    LocalDateTime now = LocalDateTime.now();
+    // Overlap one interval so clock skew between instances does not hide a revocation
+    List<String> recent = revokedTokenRepository.findJtisRevokedSince(lastSync.minus(Duration.ofMillis(syncMillis)));
+    recent.forEach(this::remember);
+    lastSync = now;
+  }
+
+  // Expired tokens fail signature-time validation anyway, so their rows can go
+  @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-ms:3600000}")
+  @Transactional
+  public void purgeExpired() {
+    int purged = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    if (purged > 0) {
+      log.info("Purged {} expired revoked refresh tokens", purged);
+      // Bloom filters cannot forget, so start over from what is left
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          rebuild();
+        }
+      });
+    }
+  }
+
+  private void remember(String jti) {
+    revoked.apply(target -> target.add(jti));
+  }
+
+  // A rolled-back revocation must not reject a token that is still valid
+  private void rememberAfterCommit(String jti) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          remember(jti);
+        }
+      });
+    } else {
+      remember(jti);
+    }
+  }
+}
@@ -1,9 +1,13 @@
 package com.foodya.foodya_backend.config;
 
+import com.foodya.foodya_backend.auth.crypto.BulkheadPasswordEncoder;
 import com.foodya.foodya_backend.middleware.JwtAuthenticationFilter;
+import com.foodya.foodya_backend.middleware.PublicCatalogRoutes;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,8 +21,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -33,7 +37,8 @@ public class SecurityConfig {
   private final UserDetailsService userDetailsService;
 
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain securityFilterChain(HttpSecurity http,
+      AuthenticationProvider authenticationProvider) throws Exception {
     http
         .csrf(AbstractHttpConfigurer::disable)
         .authorizeHttpRequests(auth -> auth
@@ -46,8 +51,7 @@ public class SecurityConfig {
 
             // ========== MOBILE APP ENDPOINTS ==========
 
-            .requestMatchers(HttpMethod.GET, "/api/v1/restaurants/**").permitAll()
-            .requestMatchers(HttpMethod.GET, "/api/v1/restaurants/*/menu-items/**").permitAll()
+            .requestMatchers(HttpMethod.GET, PublicCatalogRoutes.GET_PATTERNS).permitAll()
 
             // ========== USER ENDPOINTS ==========
 
@@ -93,17 +97,21 @@ public class SecurityConfig {
               response.setContentType(MediaType.APPLICATION_JSON_VALUE);
               response.getWriter().write("{\"status\":403,\"error\":\"Forbidden\",\"message\":\"Forbidden\"}");
             }))
-        .authenticationProvider(authenticationProvider())
+        .authenticationProvider(authenticationProvider)
         .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
     return http.build();
   }
 
   @Bean
-  public AuthenticationProvider authenticationProvider() {
+  public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService);
-    authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setPasswordEncoder(passwordEncoder);
+    // Rehash on successful login when the stored bcrypt cost differs from the configured one
+    if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+      authProvider.setUserDetailsPasswordService(passwordService);
+    }
     return authProvider;
   }
 
@@ -112,8 +120,24 @@ public class SecurityConfig {
     return config.getAuthenticationManager();
   }
 
+  /**
+   * BCrypt on a bounded pool (see BulkheadPasswordEncoder).
+   * The cost is pinned so every instance hashes alike; a strength of 0 opts in to calibrating it
+   * at startup to target-hash-millis (each instance then picks its own cost).
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      MeterRegistry meterRegistry,
+      @Value("${app.security.password-hashing.strength:10}") int strength,
+      @Value("${app.security.password-hashing.target-hash-millis:250}") long targetHashMillis,
+      @Value("${app.security.password-hashing.threads:0}") int threads,
+      @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${app.security.password-hashing.timeout-ms:3000}") long timeoutMillis,
+      @Value("${app.security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+    int cost = strength > 0 ? strength : BulkheadPasswordEncoder.calibrateStrength(targetHashMillis);
+    // Default: half the cores, so hashing can never take the whole CPU
+    int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new BulkheadPasswordEncoder(cost, poolSize, queueCapacity, timeoutMillis, retryAfterSeconds,
+        meterRegistry);
   }
 }
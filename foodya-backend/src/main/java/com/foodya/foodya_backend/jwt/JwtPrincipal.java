@@ -0,0 +1,29 @@
+package com.foodya.foodya_backend.jwt;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal built from token claims alone (stateless principal mode).
+ * {@code Authentication.getName()} still returns the username, so callers that
+ * only need the name work the same as with a loaded {@code User}.
+ */
+public record JwtPrincipal(UUID userId, String username, String role) implements AuthenticatedPrincipal {
+
+  public static JwtPrincipal from(VerifiedClaims claims) {
+    return new JwtPrincipal(claims.userId(), claims.username(), claims.role());
+  }
+
+  @Override
+  public String getName() {
+    return username;
+  }
+
+  public List<GrantedAuthority> getAuthorities() {
+    return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+  }
+}
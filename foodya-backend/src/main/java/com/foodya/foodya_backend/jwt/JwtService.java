@@ -1,17 +1,30 @@
 package com.foodya.foodya_backend.jwt;
 
+import com.foodya.foodya_backend.user.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
@@ -28,82 +41,166 @@ public class JwtService {
   @Value("${app.jwt.refresh-expiration-time}")
   private Long refreshExpirationTime;
 
+  @Value("${app.jwt.verified-cache.max-size:10000}")
+  private long verifiedCacheMaxSize;
+
+  // Built once: decoding the secret and building a parser on every call is wasted work
+  private Key signingKey;
+  private JwtParser parser;
+
+  // Token digest -> verified claims, each entry expires together with its token
+  private Cache<ByteBuffer, VerifiedClaims> verifiedCache;
+
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    parser = Jwts.parserBuilder()
+        .setSigningKey(signingKey)
+        .build();
+    verifiedCache = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheMaxSize)
+        .expireAfter(new TokenExpiry())
+        .build();
+  }
+
+  // Expire each cached entry at its token's own exp claim
+  private static final class TokenExpiry implements Expiry<ByteBuffer, VerifiedClaims> {
+    @Override
+    public long expireAfterCreate(ByteBuffer digest, VerifiedClaims claims, long currentTime) {
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, claims.expiresAt() - System.currentTimeMillis()));
+    }
+
+    @Override
+    public long expireAfterUpdate(ByteBuffer digest, VerifiedClaims claims, long currentTime, long currentDuration) {
+      return expireAfterCreate(digest, claims, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(ByteBuffer digest, VerifiedClaims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+
   // Get signing key
   private Key key() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    return signingKey;
   }
 
   // Generate token
   public String generateToken(Authentication authentication) {
-    String username = authentication.getName();
-    Date now = new Date();
-    Date expirationDate = new Date(now.getTime() + jwtExpirationTime);
-
-    return Jwts.builder()
-        .setSubject(username) //
-        .setIssuedAt(now)
-        .setExpiration(expirationDate)
-        .signWith(key(), SignatureAlgorithm.HS256)
-        .compact(); // Tra ve token dang String
+    return buildToken(authentication, jwtExpirationTime, VerifiedClaims.TYPE_ACCESS);
   }
 
-  // Generate refresh token
+  // Generate refresh token (unique jti so it can be rotated and revoked)
   public String generateRefreshToken(Authentication authentication) {
-    String username = authentication.getName();
+    return buildToken(authentication, refreshExpirationTime, VerifiedClaims.TYPE_REFRESH);
+  }
+
+  // Re-issue tokens for a subject whose claims were already verified (refresh rotation)
+  public String generateToken(VerifiedClaims subject) {
+    return buildToken(subject.username(), subject.userId(), subject.role(), subject.epoch(),
+        jwtExpirationTime, VerifiedClaims.TYPE_ACCESS);
+  }
+
+  public String generateRefreshToken(VerifiedClaims subject) {
+    return buildToken(subject.username(), subject.userId(), subject.role(), subject.epoch(),
+        refreshExpirationTime, VerifiedClaims.TYPE_REFRESH);
+  }
+
+  // When the principal is a loaded User, embed id, role and security epoch so the
+  // filter can authenticate from claims alone (see app.jwt.stateless-principal)
+  private String buildToken(Authentication authentication, long ttlMillis, String type) {
+    if (authentication.getPrincipal() instanceof User user) {
+      return buildToken(user.getUsername(), user.getId(), user.getRole().name(), user.getSecurityEpochOrZero(),
+          ttlMillis, type);
+    }
+    return buildToken(authentication.getName(), null, null, null, ttlMillis, type);
+  }
+
+  private String buildToken(String username, UUID userId, String role, Long epoch, long ttlMillis, String type) {
     Date now = new Date();
-    Date expirationDate = new Date(now.getTime() + refreshExpirationTime);
+    Date expirationDate = new Date(now.getTime() + ttlMillis);
 
-    return Jwts.builder()
+    JwtBuilder builder = Jwts.builder()
         .setSubject(username) //
         .setIssuedAt(now)
         .setExpiration(expirationDate)
+        .claim(VerifiedClaims.TYPE, type);
+    if (VerifiedClaims.TYPE_REFRESH.equals(type)) {
+      builder.setId(UUID.randomUUID().toString());
+    }
+    if (userId != null) {
+      builder.claim(VerifiedClaims.USER_ID, userId.toString())
+          .claim(VerifiedClaims.ROLE, role)
+          .claim(VerifiedClaims.EPOCH, epoch);
+    }
+    return builder
         .signWith(key(), SignatureAlgorithm.HS256)
         .compact(); // Tra ve token dang String
   }
-  // Reuseable method to extract claims
-  private <T> T extractClaims(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = Jwts
-        .parserBuilder()
-        .setSigningKey(key())
-        .build()
-        .parseClaimsJws(token) // Validate signature and parse token
-        .getBody(); // return claims and get data in body
-    return claimsResolver.apply(claims);
 
-  }
+  /**
+   * Verify a token once and return its claims.
+   * Repeat calls with the same token are answered from the cache until the token expires.
+   */
+  public Optional<VerifiedClaims> verify(String token) {
+    if (token == null || token.isEmpty()) {
+      logger.error("JWT claims string is empty");
+      return Optional.empty();
+    }
+
+    ByteBuffer digest = digest(token);
+    VerifiedClaims cached = verifiedCache.getIfPresent(digest);
+    if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+      return Optional.of(cached);
+    }
 
-  // Validate token
-  public boolean validateToken(String token) {
     try {
-      Jwts.parserBuilder()
-          .setSigningKey(key()) // secret key
-          .build()
-          .parseClaimsJws(token); // if parse is successful, token is valid
-                                  // if signature is invalid, exception will be thrown
-      return true;
+      Claims claims = parser.parseClaimsJws(token).getBody(); // if signature is invalid, exception will be thrown
+      VerifiedClaims verified = VerifiedClaims.from(claims);
+      if (claims.getExpiration() != null) {
+        verifiedCache.put(digest, verified);
+      }
+      return Optional.of(verified);
     } catch (ExpiredJwtException ex) {
       logger.warn("JWT token is expired: {}", ex.getMessage());
     } catch (UnsupportedJwtException ex) {
       logger.error("JWT unsupported: {}", ex.getMessage());
     } catch (MalformedJwtException ex) {
       logger.error("JWT malformed: {}", ex.getMessage());
-    }
-    catch (SecurityException ex) {
-      logger.error("JWT security validation failed: {}", ex.getMessage());}
-     catch (IllegalArgumentException ex) {
+    } catch (JwtException ex) {
+      logger.error("JWT signature validation failed: {}", ex.getMessage());
+    } catch (SecurityException ex) {
+      logger.error("JWT security validation failed: {}", ex.getMessage());
+    } catch (IllegalArgumentException ex) {
       logger.error("JWT claims string is empty: {}", ex.getMessage());
     }
-    return false;
-  }
-    // Get username from token
-  public String extractUsername(String token) {
-    return extractClaims(token, Claims::getSubject);
+    return Optional.empty();
   }
-  //
-  public String extractRole(String token) {
-    return extractClaims(token, claims -> claims.get("role", String.class));
+
+  // Validate token
+  public boolean validateToken(String token) {
+    return verify(token).isPresent();
   }
+
+  // Goes through the verified-token cache: a token just issued is parsed once, here or in the filter
   public Long extractExpirationTime(String token) {
-    return extractClaims(token, claims -> claims.getExpiration().getTime());
+    return verify(token)
+        .map(VerifiedClaims::expiresAt)
+        .orElseThrow(() -> new IllegalArgumentException("Invalid or expired JWT token"));
+  }
+
+  // Stable hex id for a token that carries no jti
+  public String fingerprint(String token) {
+    return HexFormat.of().formatHex(digest(token).array());
+  }
+
+  private static ByteBuffer digest(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
   }
 }
@@ -0,0 +1,57 @@
+package com.foodya.foodya_backend.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.UUID;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been checked.
+ * Instances are shared through the verified-token cache, so they must never be mutated.
+ * {@code userId} and {@code epoch} are null for tokens issued without principal claims;
+ * {@code tokenId} and {@code type} are null for tokens issued before rotation existed.
+ */
+public record VerifiedClaims(
+    String username,
+    UUID userId,
+    String role,
+    Long epoch,
+    String tokenId,
+    String type,
+    long issuedAt,
+    long expiresAt) {
+
+  public static final String USER_ID = "uid";
+  public static final String ROLE = "role";
+  public static final String EPOCH = "epoch";
+  public static final String TYPE = "typ";
+
+  public static final String TYPE_ACCESS = "access";
+  public static final String TYPE_REFRESH = "refresh";
+
+  static VerifiedClaims from(Claims claims) {
+    String userId = claims.get(USER_ID, String.class);
+    Number epoch = claims.get(EPOCH, Number.class);
+    return new VerifiedClaims(
+        claims.getSubject(),
+        userId != null ? UUID.fromString(userId) : null,
+        claims.get(ROLE, String.class),
+        epoch != null ? epoch.longValue() : null,
+        claims.getId(),
+        claims.get(TYPE, String.class),
+        claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+        claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+  }
+
+  public boolean isExpired(long nowMillis) {
+    return expiresAt <= nowMillis;
+  }
+
+  public boolean isRefreshToken() {
+    return TYPE_REFRESH.equals(type);
+  }
+
+  /** True when the token carries everything needed to authenticate without a user lookup. */
+  public boolean hasPrincipalClaims() {
+    return userId != null && role != null && epoch != null;
+  }
+}
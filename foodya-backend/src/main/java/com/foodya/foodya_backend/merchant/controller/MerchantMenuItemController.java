@@ -3,7 +3,6 @@ package com.foodya.foodya_backend.merchant.controller;
 import com.foodya.foodya_backend.restaurant.dto.MenuItemRequest;
 import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
 import com.foodya.foodya_backend.restaurant.service.MenuItemService;
-import com.foodya.foodya_backend.restaurant.service.OwnershipService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,8 +30,8 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class MerchantMenuItemController {
 
+    // Ownership is enforced per method by @ownershipService (see OwnershipService)
     private final MenuItemService menuItemService;
-    private final OwnershipService ownershipService;
 
     // ========== GET ALL MENU ITEMS (INCLUDING INACTIVE) ==========
 
@@ -45,16 +44,12 @@ public class MerchantMenuItemController {
         @ApiResponse(responseCode = "403", description = "Forbidden - You don't own this restaurant"),
         @ApiResponse(responseCode = "404", description = "Restaurant not found")
     })
+    @PreAuthorize("hasAnyRole('MERCHANT', 'ADMIN') and @ownershipService.canManageRestaurant(#restaurantId)")
     @GetMapping  // ← SỬA:  Không cần thêm path
     public ResponseEntity<List<MenuItemResponse>> getAllMenuItems(
             @Parameter(description = "Restaurant ID")
             @PathVariable UUID restaurantId) {
 
-        // Check ownership
-        if (!ownershipService.isAdmin() && !ownershipService.isRestaurantOwner(restaurantId)) {
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-        }
-
         // Get all menu items (including inactive)
         List<MenuItemResponse> menuItems = menuItemService.getAllMenuItemsByRestaurant(restaurantId);
         return ResponseEntity.ok(menuItems);
@@ -71,16 +66,12 @@ public class MerchantMenuItemController {
         @ApiResponse(responseCode = "403", description = "Forbidden - You don't own this restaurant"),
         @ApiResponse(responseCode = "404", description = "Restaurant not found")
     })
+    @PreAuthorize("hasAnyRole('MERCHANT', 'ADMIN') and @ownershipService.canManageRestaurant(#restaurantId)")
     @GetMapping("/active")
     public ResponseEntity<List<MenuItemResponse>> getActiveMenuItems(
             @Parameter(description = "Restaurant ID")
             @PathVariable UUID restaurantId) {
 
-        // Check ownership
-        if (!ownershipService.isAdmin() && !ownershipService.isRestaurantOwner(restaurantId)) {
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-        }
-
         // Get only active menu items
         List<MenuItemResponse> menuItems = menuItemService.getActiveMenuItemsByRestaurant(restaurantId);
         return ResponseEntity.ok(menuItems);
@@ -102,17 +93,13 @@ public class MerchantMenuItemController {
         @ApiResponse(responseCode = "403", description = "Forbidden - You don't own this restaurant"),
         @ApiResponse(responseCode = "404", description = "Restaurant not found")
     })
+    @PreAuthorize("hasAnyRole('MERCHANT', 'ADMIN') and @ownershipService.canManageRestaurant(#restaurantId)")
     @PostMapping
     public ResponseEntity<MenuItemResponse> createMenuItem(
             @Parameter(description = "Restaurant ID")
             @PathVariable UUID restaurantId,
             @Valid @RequestBody MenuItemRequest request) {
 
-        // Check ownership
-        if (!ownershipService.isAdmin() && !ownershipService.isRestaurantOwner(restaurantId)) {
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-        }
-
         MenuItemResponse response = menuItemService.createMenuItem(restaurantId, request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
@@ -129,6 +116,7 @@ public class MerchantMenuItemController {
         @ApiResponse(responseCode = "404", description = "Menu item not found"),
         @ApiResponse(responseCode = "400", description = "Invalid input")
     })
+    @PreAuthorize("hasAnyRole('MERCHANT', 'ADMIN') and @ownershipService.canManageMenuItem(#restaurantId, #menuItemId)")
     @PutMapping("/{menuItemId}")
     public ResponseEntity<MenuItemResponse> updateMenuItem(
             @Parameter(description = "Restaurant ID")
@@ -137,11 +125,6 @@ public class MerchantMenuItemController {
             @PathVariable UUID menuItemId,
             @Valid @RequestBody MenuItemRequest request) {
 
-        // Check ownership
-        if (!ownershipService.isAdmin() && !ownershipService.isRestaurantOwner(restaurantId)) {
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-        }
-
         MenuItemResponse response = menuItemService.updateMenuItem(menuItemId, request);
         return ResponseEntity.ok(response);
     }
@@ -157,6 +140,7 @@ public class MerchantMenuItemController {
         @ApiResponse(responseCode = "403", description = "Forbidden - You don't own this restaurant"),
         @ApiResponse(responseCode = "404", description = "Menu item not found")
     })
+    @PreAuthorize("hasAnyRole('MERCHANT', 'ADMIN') and @ownershipService.canManageMenuItem(#restaurantId, #menuItemId)")
     @DeleteMapping("/{menuItemId}")
     public ResponseEntity<Void> deleteMenuItem(
             @Parameter(description = "Restaurant ID")
@@ -164,11 +148,6 @@ public class MerchantMenuItemController {
             @Parameter(description = "Menu item ID")
             @PathVariable UUID menuItemId) {
 
-        // Check ownership
-        if (!ownershipService.isAdmin() && !ownershipService.isRestaurantOwner(restaurantId)) {
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-        }
-
         menuItemService.softDeleteMenuItem(menuItemId);
         return ResponseEntity.noContent().build();
     }
@@ -184,6 +163,7 @@ public class MerchantMenuItemController {
         @ApiResponse(responseCode = "403", description = "Forbidden - You don't own this restaurant"),
         @ApiResponse(responseCode = "404", description = "Menu item not found")
     })
+    @PreAuthorize("hasAnyRole('MERCHANT', 'ADMIN') and @ownershipService.canManageMenuItem(#restaurantId, #menuItemId)")
     @PatchMapping("/{menuItemId}/toggle-availability")
     public ResponseEntity<MenuItemResponse> toggleAvailability(
             @Parameter(description = "Restaurant ID")
@@ -191,11 +171,6 @@ public class MerchantMenuItemController {
             @Parameter(description = "Menu item ID")
             @PathVariable UUID menuItemId) {
 
-        // Check ownership
-        if (!ownershipService.isAdmin() && !ownershipService.isRestaurantOwner(restaurantId)) {
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-        }
-
         MenuItemResponse response = menuItemService.toggleAvailability(menuItemId);
         return ResponseEntity.ok(response);
     }
@@ -1,12 +1,9 @@
 package com.foodya.foodya_backend.merchant.controller;
 
-import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
 import com.foodya.foodya_backend.restaurant.dto.RestaurantRequest;
 import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
 import com.foodya.foodya_backend.restaurant.service.RestaurantService;
-import com.foodya.foodya_backend.user.model.Role;
-import com.foodya.foodya_backend.user.model.User;
-import com.foodya.foodya_backend.user.repository.UserRepository;
+import com.foodya.foodya_backend.user.service.CurrentUserResolver;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.BadRequest;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.Conflict;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.Forbidden;
@@ -27,7 +24,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -42,18 +38,7 @@ import java.util.UUID;
 public class MerchantRestaurantController {
 
   private final RestaurantService restaurantService;
-  private final UserRepository userRepository;
-
-  private User getCurrentUser() {
-    String username = SecurityContextHolder.getContext().getAuthentication().getName();
-    return userRepository.findByUsername(username)
-        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-  }
-
-  private boolean isAdmin() {
-    User user = getCurrentUser();
-    return user.getRole() == Role.ADMIN;
-  }
+  private final CurrentUserResolver currentUserResolver;
 
   @Operation(summary = "Get my restaurants", description = "Get all restaurants owned by current merchant")
   @ApiResponses(value = {
@@ -65,8 +50,8 @@ public class MerchantRestaurantController {
   @Unauthorized
   @GetMapping("/me")
   public ResponseEntity<List<RestaurantResponse>> getMyRestaurants() {
-    User currentUser = getCurrentUser();
-    List<RestaurantResponse> restaurants = restaurantService.getRestaurantsByOwner(currentUser.getId());
+    UUID currentUserId = currentUserResolver.getCurrentUserId();
+    List<RestaurantResponse> restaurants = restaurantService.getRestaurantsByOwner(currentUserId);
     return ResponseEntity.ok(restaurants);
   }
 
@@ -85,8 +70,8 @@ public class MerchantRestaurantController {
   public ResponseEntity<RestaurantResponse> createRestaurant(
       @Valid @RequestBody RestaurantRequest request) {
 
-    User currentUser = getCurrentUser();
-    RestaurantResponse response = restaurantService.createRestaurant(request, currentUser.getId());
+    UUID currentUserId = currentUserResolver.getCurrentUserId();
+    RestaurantResponse response = restaurantService.createRestaurant(request, currentUserId);
     return new ResponseEntity<>(response, HttpStatus.CREATED);
   }
 
@@ -107,9 +92,8 @@ public class MerchantRestaurantController {
       @Parameter(description = "Restaurant ID") @PathVariable UUID id,
       @Valid @RequestBody RestaurantRequest request) {
 
-    User currentUser = getCurrentUser();
     RestaurantResponse response = restaurantService.updateRestaurant(
-        id, request, currentUser.getId(), isAdmin());
+        id, request, currentUserResolver.getCurrentUserId(), currentUserResolver.isAdmin());
     return ResponseEntity.ok(response);
   }
 
@@ -118,9 +102,8 @@ public class MerchantRestaurantController {
   public ResponseEntity<RestaurantResponse> toggleRestaurantStatus(
       @Parameter(description = "Restaurant ID") @PathVariable UUID id) {
 
-    User currentUser = getCurrentUser();
     RestaurantResponse response = restaurantService.toggleRestaurantStatus(
-        id, currentUser.getId(), isAdmin());
+        id, currentUserResolver.getCurrentUserId(), currentUserResolver.isAdmin());
     return ResponseEntity.ok(response);
   }
 }
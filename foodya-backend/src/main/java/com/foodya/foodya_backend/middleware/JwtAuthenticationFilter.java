@@ -1,7 +1,12 @@
 package com.foodya.foodya_backend.middleware;
 
+import com.foodya.foodya_backend.jwt.JwtPrincipal;
 import com.foodya.foodya_backend.jwt.JwtService;
+import com.foodya.foodya_backend.jwt.VerifiedClaims;
+import com.foodya.foodya_backend.middleware.accesslog.AccessLogFilter;
+import com.foodya.foodya_backend.user.model.User;
 import com.foodya.foodya_backend.user.service.CustomUserDetailsService;
+import com.foodya.foodya_backend.user.service.SecurityEpochService;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,14 +14,24 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -27,10 +42,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtService jwtService;
   private final CustomUserDetailsService customUserDetailsService;
+  private final SecurityEpochService securityEpochService;
+  private final boolean lazyPublicAuth;
 
-  public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService customUserDetailsService) {
+  public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService customUserDetailsService,
+      SecurityEpochService securityEpochService,
+      @Value("${app.security.lazy-public-auth:false}") boolean lazyPublicAuth) {
     this.jwtService = jwtService;
     this.customUserDetailsService = customUserDetailsService;
+    this.securityEpochService = securityEpochService;
+    this.lazyPublicAuth = lazyPublicAuth;
   }
 
   private static final String BEARER_PREFIX = "Bearer ";
@@ -40,88 +61,127 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       @NonNull HttpServletResponse response,
       @NonNull FilterChain filterChain) throws ServletException, IOException {
 
-    String requestPath = request.getRequestURI();
-    logger.debug("Processing request: {} {}", request.getMethod(), requestPath);
-
+    // Per-request outcome (user, status, latency) is recorded by AccessLogFilter
     String token = getJwtTokenFromRequest(request);
 
     // If no token, let it pass through (will be handled by SecurityConfig)
     if (!StringUtils.hasText(token)) {
-      logger.debug("No JWT token found in request: {}", requestPath);
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    // Public catalog reads: only verify the token if something actually asks for the principal
+    if (lazyPublicAuth && PublicCatalogRoutes.matches(request)) {
+      SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+      strategy.setDeferredContext(SingletonSupplier.of(() -> deferredContext(strategy, token, request)));
       filterChain.doFilter(request, response);
       return;
     }
 
     try {
-      // Validate token
-      if (!jwtService.validateToken(token)) {
-        logger.warn("Invalid or expired JWT token for request: {}", requestPath);
-        writeUnauthorized(response, "Invalid or expired JWT token");
-        return;
-      }
+      Authentication authentication = authenticate(token, request);
+      SecurityContextHolder.getContext().setAuthentication(authentication);
+      AccessLogFilter.recordUser(request, authentication);
+    } catch (UsernameNotFoundException ex) {
+      logger.debug("User not found: {}", ex.getMessage());
+      writeUnauthorized(response, "User not found");
+      return;
+    } catch (AuthenticationException ex) {
+      logger.debug("Rejected token: {}", ex.getMessage());
+      writeUnauthorized(response, ex.getMessage());
+      return;
+    } catch (Exception ex) {
+      logger.error("Could not set user authentication in security context for request: {}", request.getRequestURI(), ex);
+      writeUnauthorized(response, "Authentication failed: " + ex.getMessage());
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
 
-      // Extract username from token
-      String username = jwtService.extractUsername(token);
-      if (!StringUtils.hasText(username)) {
-        logger.warn("Username is null or empty in token for request: {}", requestPath);
-        writeUnauthorized(response, "Invalid JWT token: missing username");
-        return;
-      }
+  // A bad token on a public route leaves the request anonymous instead of failing it
+  private SecurityContext deferredContext(SecurityContextHolderStrategy strategy, String token,
+      HttpServletRequest request) {
+    SecurityContext context = strategy.createEmptyContext();
+    try {
+      Authentication authentication = authenticate(token, request);
+      context.setAuthentication(authentication);
+      AccessLogFilter.recordUser(request, authentication);
+    } catch (Exception ex) {
+      logger.debug("Ignoring unusable token on public route {}: {}", request.getRequestURI(), ex.getMessage());
+    }
+    return context;
+  }
 
-      logger.debug("Loading user details for username: {}", username);
+  /**
+   * Verify the token and build the authentication for it.
+   * Rejections are reported as {@link AuthenticationException}s whose message is sent to the client.
+   */
+  private Authentication authenticate(String token, HttpServletRequest request) {
+    // Validate token (single parse, cached per token until it expires)
+    VerifiedClaims claims = jwtService.verify(token)
+        .orElseThrow(() -> new BadCredentialsException("Invalid or expired JWT token"));
+    if (claims.isRefreshToken()) {
+      throw new BadCredentialsException("Refresh tokens cannot be used as access tokens");
+    }
 
-      // Load user details
-      UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+    // Extract username from token
+    String username = claims.username();
+    if (!StringUtils.hasText(username)) {
+      throw new BadCredentialsException("Invalid JWT token: missing username");
+    }
 
-      // Check if user account is enabled
-      if (!userDetails.isEnabled()) {
-        logger.warn("User account is disabled: {}", username);
-        writeUnauthorized(response, "User account is disabled");
-        return;
+    // Stateless principal mode: authenticate from claims, checked against the epoch table
+    if (securityEpochService.isEnabled() && claims.hasPrincipalClaims()) {
+      long currentEpoch = securityEpochService.currentEpoch(claims.userId());
+      if (currentEpoch == SecurityEpochService.REVOKED) {
+        throw new DisabledException("User account is disabled or locked");
       }
-
-      // Check if account is locked
-      if (!userDetails.isAccountNonLocked()) {
-        logger.warn("User account is locked: {}", username);
-        writeUnauthorized(response, "User account is locked");
-        return;
+      if (currentEpoch != claims.epoch()) {
+        throw new BadCredentialsException("Token has been revoked");
       }
 
-      // Create authentication token
+      JwtPrincipal principal = JwtPrincipal.from(claims);
       UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-          userDetails,
+          principal,
           null,
-          userDetails.getAuthorities());
+          principal.getAuthorities());
       authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+      return authentication;
+    }
 
-      // Set authentication in context
-      SecurityContextHolder.getContext().setAuthentication(authentication);
+    // Load user details
+    UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
 
-      logger.info("Successfully authenticated user: {} with roles: {} for request: {}",
-          username, userDetails.getAuthorities(), requestPath);
-      filterChain.doFilter(request, response);
+    // Check if user account is enabled
+    if (!userDetails.isEnabled()) {
+      throw new DisabledException("User account is disabled");
+    }
 
-    } catch (org.springframework.security.core.userdetails.UsernameNotFoundException ex) {
-      logger.error("User not found: {} for request: {}", ex.getMessage(), requestPath);
-      writeUnauthorized(response, "User not found");
-    } catch (Exception ex) {
-      logger.error("Could not set user authentication in security context for request: {}", requestPath, ex);
-      writeUnauthorized(response, "Authentication failed: " + ex.getMessage());
+    // Check if account is locked
+    if (!userDetails.isAccountNonLocked()) {
+      throw new LockedException("User account is locked");
+    }
+
+    // Reject tokens issued before a password change or deactivation
+    if (claims.epoch() != null && userDetails instanceof User user
+        && claims.epoch() != user.getSecurityEpochOrZero()) {
+      throw new BadCredentialsException("Token has been revoked");
     }
+
+    // Create authentication token
+    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+        userDetails,
+        null,
+        userDetails.getAuthorities());
+    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    return authentication;
   }
 
   private String getJwtTokenFromRequest(HttpServletRequest request) {
     String bearerToken = request.getHeader("Authorization");
-    logger.debug("Authorization header: {}", bearerToken != null ? "present" : "missing");
 
     if (bearerToken != null && StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
-      String token = bearerToken.substring(BEARER_PREFIX.length());
-      logger.debug("Extracted JWT token (length: {})", token.length());
-      return token;
-    }
-
-    if (bearerToken != null &&  StringUtils.hasText(bearerToken) && !bearerToken.startsWith(BEARER_PREFIX)) {
-      logger.warn("Authorization header does not start with 'Bearer ' prefix");
+      return bearerToken.substring(BEARER_PREFIX.length());
     }
 
     return null;
@@ -0,0 +1,35 @@
+package com.foodya.foodya_backend.middleware;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+
+/**
+ * Public catalog reads (restaurants, menus, categories, dishes, search).
+ * Shared by {@code SecurityConfig} (permitAll) and {@link JwtAuthenticationFilter}
+ * (lazy authentication) so the two can never disagree about what is public.
+ */
+public final class PublicCatalogRoutes {
+
+  public static final String[] GET_PATTERNS = {
+      "/api/v1/restaurants/**",
+      "/api/v1/restaurants/*/menu-items/**",
+      "/api/v1/dishes/**",
+      "/api/v1/search/**"
+  };
+
+  private static final RequestMatcher MATCHER = new OrRequestMatcher(Arrays.stream(GET_PATTERNS)
+      .map(pattern -> (RequestMatcher) AntPathRequestMatcher.antMatcher(HttpMethod.GET, pattern))
+      .toList());
+
+  private PublicCatalogRoutes() {
+  }
+
+  public static boolean matches(HttpServletRequest request) {
+    return MATCHER.matches(request);
+  }
+}
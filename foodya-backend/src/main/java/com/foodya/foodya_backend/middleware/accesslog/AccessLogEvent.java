@@ -0,0 +1,17 @@
+package com.foodya.foodya_backend.middleware.accesslog;
+
+import java.util.UUID;
+
+/**
+ * One finished request. Built on the request thread, formatted on the writer thread.
+ * {@code userId} is null for anonymous requests or when the principal was never resolved.
+ */
+public record AccessLogEvent(
+    long timestampMillis,
+    String method,
+    String route,
+    int status,
+    long latencyMicros,
+    int queryCount,
+    UUID userId) {
+}
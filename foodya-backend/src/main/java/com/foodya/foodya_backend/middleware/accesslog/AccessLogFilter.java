@@ -0,0 +1,127 @@
+package com.foodya.foodya_backend.middleware.accesslog;
+
+import com.foodya.foodya_backend.jwt.JwtPrincipal;
+import com.foodya.foodya_backend.user.model.User;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Emits one access log event per request: user, route template, status, latency and
+ * number of SQL statements.
+ * <p>
+ * Requests are sampled per route template ({@code app.access-log.route-sample-rates},
+ * falling back to {@code app.access-log.sample-rate}). Server errors, exceptions and
+ * requests slower than {@code app.access-log.slow-ms} are always logged. Unsampled
+ * requests allocate nothing.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+  private static final String USER_ID_ATTRIBUTE = AccessLogFilter.class.getName() + ".userId";
+  private static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+  private final AccessLogWriter writer;
+  private final boolean enabled;
+  private final double defaultSampleRate;
+  private final Map<String, Double> routeSampleRates;
+  private final long slowNanos;
+
+  public AccessLogFilter(AccessLogWriter writer,
+      @Value("${app.access-log.enabled:true}") boolean enabled,
+      @Value("${app.access-log.sample-rate:1.0}") double defaultSampleRate,
+      @Value("${app.access-log.route-sample-rates:}") String routeSampleRates,
+      @Value("${app.access-log.slow-ms:1000}") long slowMillis) {
+    this.writer = writer;
+    this.enabled = enabled;
+    this.defaultSampleRate = defaultSampleRate;
+    this.routeSampleRates = parseRates(routeSampleRates);
+    this.slowNanos = slowMillis * 1_000_000L;
+  }
+
+  /**
+   * Remember who made the request. The security context is cleared before this filter
+   * finishes, so the authentication filter hands the id over through a request attribute.
+   */
+  public static void recordUser(HttpServletRequest request, Authentication authentication) {
+    Object principal = authentication != null ? authentication.getPrincipal() : null;
+    if (principal instanceof User user) {
+      request.setAttribute(USER_ID_ATTRIBUTE, user.getId());
+    } else if (principal instanceof JwtPrincipal jwtPrincipal) {
+      request.setAttribute(USER_ID_ATTRIBUTE, jwtPrincipal.userId());
+    }
+  }
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain) throws ServletException, IOException {
+    if (!enabled) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    QueryCounter.reset();
+    long start = System.nanoTime();
+    boolean failed = false;
+    try {
+      filterChain.doFilter(request, response);
+    } catch (IOException | ServletException | RuntimeException ex) {
+      failed = true;
+      throw ex;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      String route = pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+
+      if (status >= 500 || elapsed >= slowNanos || sampled(route)) {
+        writer.submit(new AccessLogEvent(
+            System.currentTimeMillis(),
+            request.getMethod(),
+            route,
+            status,
+            elapsed / 1000,
+            QueryCounter.current(),
+            (UUID) request.getAttribute(USER_ID_ATTRIBUTE)));
+      }
+    }
+  }
+
+  private boolean sampled(String route) {
+    double rate = routeSampleRates.getOrDefault(route, defaultSampleRate);
+    return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+  }
+
+  // "/api/v1/restaurants=0.05,/api/v1/restaurants/{id}=0.1"
+  private static Map<String, Double> parseRates(String spec) {
+    Map<String, Double> rates = new HashMap<>();
+    if (spec == null || spec.isBlank()) {
+      return rates;
+    }
+    for (String entry : spec.split(",")) {
+      int separator = entry.lastIndexOf('=');
+      if (separator > 0) {
+        rates.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+      }
+    }
+    return rates;
+  }
+}
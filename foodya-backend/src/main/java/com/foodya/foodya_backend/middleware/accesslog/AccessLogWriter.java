@@ -0,0 +1,119 @@
+package com.foodya.foodya_backend.middleware.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes access log events from a single background thread.
+ * <p>
+ * Request threads only enqueue into a bounded buffer; when it is full the event is
+ * dropped and counted ({@code foodya.access_log.dropped}) instead of blocking the request.
+ */
+@Component
+public class AccessLogWriter {
+  private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+  // Separate logger name so appenders/levels can be configured for access lines only
+  private static final Logger accessLog = LoggerFactory.getLogger("foodya.access");
+
+  private static final int DRAIN_BATCH = 256;
+
+  private final BlockingQueue<AccessLogEvent> queue;
+  private final Counter dropped;
+  private final Counter written;
+  private volatile boolean running = true;
+  private Thread worker;
+
+  public AccessLogWriter(@Value("${app.access-log.buffer-size:8192}") int bufferSize,
+      MeterRegistry meterRegistry) {
+    this.queue = new ArrayBlockingQueue<>(bufferSize);
+    this.dropped = Counter.builder("foodya.access_log.dropped")
+        .description("Access log events dropped because the buffer was full")
+        .register(meterRegistry);
+    this.written = Counter.builder("foodya.access_log.written")
+        .description("Access log events written")
+        .register(meterRegistry);
+    Gauge.builder("foodya.access_log.buffer.depth", queue, BlockingQueue::size)
+        .description("Access log events waiting to be written")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    worker = new Thread(this::run, "access-log-writer");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /** Never blocks; drops the event when the buffer is full. */
+  public void submit(AccessLogEvent event) {
+    if (!queue.offer(event)) {
+      dropped.increment();
+    }
+  }
+
+  private void run() {
+    List<AccessLogEvent> batch = new ArrayList<>(DRAIN_BATCH);
+    StringBuilder line = new StringBuilder(160);
+    while (running || !queue.isEmpty()) {
+      try {
+        AccessLogEvent first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, DRAIN_BATCH - 1);
+        for (AccessLogEvent event : batch) {
+          write(event, line);
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException ex) {
+        log.warn("Failed to write access log batch", ex);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void write(AccessLogEvent event, StringBuilder line) {
+    line.setLength(0);
+    line.append("ts=").append(Instant.ofEpochMilli(event.timestampMillis()))
+        .append(" method=").append(event.method())
+        .append(" route=").append(event.route())
+        .append(" status=").append(event.status())
+        .append(" latencyMs=").append(event.latencyMicros() / 1000).append('.')
+        .append(millisFraction(event.latencyMicros() % 1000))
+        .append(" queries=").append(event.queryCount())
+        .append(" userId=").append(event.userId() != null ? event.userId() : "-");
+    accessLog.info(line.toString());
+    written.increment();
+  }
+
+  private static String millisFraction(long micros) {
+    return micros < 10 ? "00" + micros : micros < 100 ? "0" + micros : Long.toString(micros);
+  }
+
+  // The worker notices within one poll interval and drains what is left before exiting
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    if (worker != null) {
+      worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+}
@@ -86,7 +86,7 @@ public class RestaurantController {
 
     @Operation(
         summary = "Get popular restaurants",
-        description = "Retrieve the most popular restaurants based on reviews and ratings"
+        description = "Retrieve the restaurants with the most recent orders (older orders count less), optionally within one cuisine"
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -97,8 +97,10 @@ public class RestaurantController {
     @GetMapping("/popular")
     public ResponseEntity<List<RestaurantResponse>> getPopularRestaurants(
             @Parameter(description = "Number of restaurants to return", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
-        List<RestaurantResponse> restaurants = restaurantService.getPopularRestaurants(limit);
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Cuisine (case-insensitive)", example = "Vietnamese")
+            @RequestParam(required = false) String cuisine) {
+        List<RestaurantResponse> restaurants = restaurantService.getPopularRestaurants(limit, cuisine);
         return ResponseEntity.ok(restaurants);
     }
 
@@ -3,6 +3,7 @@ package com.foodya.foodya_backend.order.controller;
 import com.foodya.foodya_backend.order.dto.OrderRequest;
 import com.foodya.foodya_backend.order.dto.OrderResponse;
 import com.foodya.foodya_backend.order.service.OrderService;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -66,6 +67,23 @@ public class OrderController {
     return ResponseEntity.ok(orders);
   }
 
+  @Operation(summary = "Scroll my orders", description = "Cursor-paginated order history (newest first): pass nextCursor from the previous response as cursor")
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Orders retrieved successfully"
+      )
+  })
+  @com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.Unauthorized
+  @GetMapping("/me/scroll")
+  public ResponseEntity<CursorPage<OrderResponse>> scrollMyOrders(
+      Authentication authentication,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    CursorPage<OrderResponse> orders = orderService.scrollMyOrders(authentication, cursor, Math.min(Math.max(size, 1), 50));
+    return ResponseEntity.ok(orders);
+  }
+
   @Operation(summary = "Get my active orders", description = "Get my orders that are PENDING, PREPARING, or SHIPPING")
   @ApiResponses(value = {
       @ApiResponse(
@@ -0,0 +1,11 @@
+package com.foodya.foodya_backend.order.event;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction when an order moves to DELIVERED (once per order).
+ * {@code quantities} maps each ordered menu item id to its total quantity in the order.
+ */
+public record OrderDeliveredEvent(UUID orderId, UUID restaurantId, Map<UUID, Integer> quantities) {
+}
@@ -0,0 +1,10 @@
+package com.foodya.foodya_backend.order.event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction when a customer places an order.
+ * Listeners use {@code @TransactionalEventListener} so they only see committed orders.
+ */
+public record OrderPlacedEvent(UUID orderId, UUID restaurantId) {
+}
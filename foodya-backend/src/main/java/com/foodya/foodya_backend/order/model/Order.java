@@ -17,7 +17,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_delivered_at", columnList = "delivered_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -96,6 +98,11 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Thời điểm chuyển sang DELIVERED (null nếu chưa giao)
+     */
+    private LocalDateTime deliveredAt;
+
     // ========== HELPER METHODS ==========
 
     public UUID getCustomerId() {
@@ -138,6 +145,9 @@ public class Order {
     }
 
     public void updateStatus(OrderStatus newStatus) {
+        if (newStatus == OrderStatus.DELIVERED && this.status != OrderStatus.DELIVERED) {
+            this.deliveredAt = LocalDateTime.now();
+        }
         this.status = newStatus;
     }
 
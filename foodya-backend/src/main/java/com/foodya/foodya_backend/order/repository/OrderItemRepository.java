@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data. repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,4 +25,20 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
     // Get total revenue for a menu item
     @Query("SELECT SUM(oi.subtotal) FROM OrderItem oi WHERE oi.menuItem.id = : menuItemId")
     Double sumRevenueByMenuItemId(@Param("menuItemId") UUID menuItemId);
+
+    // Items of orders delivered since the given time, for trending dishes
+    @Query("SELECT o.id AS orderId, oi.menuItem.id AS menuItemId, oi.quantity AS quantity, " +
+           "o.deliveredAt AS deliveredAt FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.status = 'DELIVERED' AND o.deliveredAt >= :since")
+    List<DeliveredItem> findDeliveredSince(@Param("since") LocalDateTime since);
+
+    interface DeliveredItem {
+        UUID getOrderId();
+
+        UUID getMenuItemId();
+
+        Integer getQuantity();
+
+        LocalDateTime getDeliveredAt();
+    }
 }
@@ -3,6 +3,7 @@ package com.foodya.foodya_backend.order.repository;
 import com.foodya.foodya_backend.order.model.Order;
 import com.foodya.foodya_backend.order.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,7 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
 
   // ========== BASIC QUERIES ==========
 
@@ -72,6 +73,24 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
       @Param("startDate") LocalDateTime startDate,
       @Param("endDate") LocalDateTime endDate);
 
+  /**
+   * Orders placed since the given time (order, restaurant and server-side creation time), for the popularity ranking
+   */
+  @Query("""
+        SELECT o.id AS orderId, o.restaurant.id AS restaurantId, o.createdAt AS createdAt
+        FROM Order o
+        WHERE o.createdAt >= :since
+      """)
+  List<OrderPlacement> findPlacementsSince(@Param("since") LocalDateTime since);
+
+  interface OrderPlacement {
+    UUID getOrderId();
+
+    UUID getRestaurantId();
+
+    LocalDateTime getCreatedAt();
+  }
+
   @Query("""
         SELECT COALESCE(SUM(o.totalPrice), 0)
         FROM Order o
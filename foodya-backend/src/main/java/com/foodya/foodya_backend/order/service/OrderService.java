@@ -5,6 +5,8 @@ import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
 import com.foodya.foodya_backend.order.dto.OrderItemRequest;
 import com.foodya.foodya_backend.order.dto.OrderRequest;
 import com.foodya.foodya_backend.order.dto.OrderResponse;
+import com.foodya.foodya_backend.order.event.OrderDeliveredEvent;
+import com.foodya.foodya_backend.order.event.OrderPlacedEvent;
 import com.foodya.foodya_backend.order.model.Order;
 import com.foodya.foodya_backend.order.model.OrderItem;
 import com.foodya.foodya_backend.order.model.OrderStatus;
@@ -14,12 +16,17 @@ import com.foodya.foodya_backend.restaurant.model.Restaurant;
 import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
 import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
 import com.foodya.foodya_backend.user.model.User;
-import com.foodya.foodya_backend.user.repository.UserRepository;
+import com.foodya.foodya_backend.user.service.CurrentUserResolver;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
+import com.foodya.foodya_backend.utils.pagination.Keyset;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -29,6 +36,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -41,9 +49,10 @@ public class OrderService {
       OrderStatus.SHIPPING);
 
   private final OrderRepository orderRepository;
-  private final UserRepository userRepository;
+  private final CurrentUserResolver currentUserResolver;
   private final RestaurantRepository restaurantRepository;
   private final MenuItemRepository menuItemRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional
   public OrderResponse createOrder(@NonNull Authentication authentication, @NonNull OrderRequest request) {
@@ -122,34 +131,53 @@ public class OrderService {
     order.recalculateTotals();
 
     Order savedOrder = orderRepository.save(order);
+    eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), restaurant.getId()));
     return OrderResponse.fromEntity(savedOrder);
   }
 
   @Transactional(readOnly = true)
   public List<OrderResponse> getMyOrders(@NonNull Authentication authentication) {
-    User customer = getCurrentUser(authentication);
+    UUID customerId = currentUserResolver.getCurrentUserId(authentication);
 
-    List<Order> orders = orderRepository.findByCustomer_Id(customer.getId());
+    List<Order> orders = orderRepository.findByCustomer_Id(customerId);
     return orders.stream().map(OrderResponse::fromEntity).collect(Collectors.toList());
   }
 
+  // Newest first, like getMyOrders; id breaks ties between orders placed in the same instant
+  private static final Keyset<Order> NEWEST_FIRST = Keyset.<Order>named("newest")
+      .by("orderDate", LocalDateTime.class, Sort.Direction.DESC, Order::getOrderDate)
+      .by("id", UUID.class, Sort.Direction.DESC, Order::getId);
+
+  /**
+   * Cursor (keyset) variant of {@link #getMyOrders} for infinite scroll in order history
+   */
+  @Transactional(readOnly = true)
+  public CursorPage<OrderResponse> scrollMyOrders(@NonNull Authentication authentication, String cursor, int size) {
+    UUID customerId = currentUserResolver.getCurrentUserId(authentication);
+
+    Specification<Order> mine = (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+    List<Order> rows = orderRepository.findBy(mine.and(NEWEST_FIRST.after(cursor)),
+        q -> q.sortBy(NEWEST_FIRST.sort()).limit(size + 1).all());
+    return NEWEST_FIRST.page(rows, size, OrderResponse::fromEntity);
+  }
+
   @Transactional(readOnly = true)
   public List<OrderResponse> getMyActiveOrders(@NonNull Authentication authentication) {
-    User customer = getCurrentUser(authentication);
+    UUID customerId = currentUserResolver.getCurrentUserId(authentication);
 
-    List<Order> orders = orderRepository.findByCustomer_IdAndStatusIn(customer.getId(), List.copyOf(ACTIVE_STATUSES));
+    List<Order> orders = orderRepository.findByCustomer_IdAndStatusIn(customerId, List.copyOf(ACTIVE_STATUSES));
     return orders.stream().map(OrderResponse::fromEntity).collect(Collectors.toList());
   }
 
   @Transactional
   public OrderResponse cancelMyOrder(@NonNull Authentication authentication, @NonNull UUID orderId,
       String cancelReason) {
-    User customer = getCurrentUser(authentication);
+    UUID customerId = currentUserResolver.getCurrentUserId(authentication);
 
     Order order = orderRepository.findById(orderId)
         .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
 
-    if (order.getCustomerId() == null || !order.getCustomerId().equals(customer.getId())) {
+    if (order.getCustomerId() == null || !order.getCustomerId().equals(customerId)) {
       throw new AccessDeniedException("You are not allowed to cancel this order");
     }
 
@@ -181,8 +209,16 @@ public class OrderService {
     Order order = orderRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
 
+    boolean delivering = newStatus == OrderStatus.DELIVERED && !order.isDelivered();
     order.updateStatus(newStatus);
     Order updatedOrder = orderRepository.save(order);
+    if (delivering) {
+      Map<UUID, Integer> quantities = updatedOrder.getOrderItems().stream()
+          .filter(item -> item.getMenuItemId() != null)
+          .collect(Collectors.toMap(OrderItem::getMenuItemId, OrderItem::getQuantity, Integer::sum));
+      eventPublisher.publishEvent(
+          new OrderDeliveredEvent(updatedOrder.getId(), updatedOrder.getRestaurantId(), quantities));
+    }
     return OrderResponse.fromEntity(updatedOrder);
   }
 
@@ -226,11 +262,6 @@ public class OrderService {
   }
 
   private User getCurrentUser(Authentication authentication) {
-    if (authentication == null || authentication.getName() == null) {
-      throw new AccessDeniedException("Unauthenticated");
-    }
-    String username = authentication.getName();
-    return userRepository.findByUsername(username)
-        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    return currentUserResolver.getCurrentUser(authentication);
   }
 }
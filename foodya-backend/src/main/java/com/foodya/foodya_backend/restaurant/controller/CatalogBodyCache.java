@@ -0,0 +1,92 @@
+package com.foodya.foodya_backend.restaurant.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Final response bodies of per-restaurant catalog GETs: UTF-8 JSON bytes plus a gzip variant,
+ * keyed by request and catalog version, so a hit skips mapping, serialization and compression.
+ * <p>
+ * Serialized with the application's ObjectMapper, so bytes match what Spring MVC would write.
+ * Bounded by total bytes; the TTL covers restaurant counters that change without a version bump.
+ * Metrics: {@code cache.*{cache=catalog_body}} and {@code foodya.catalog.body-cache.bytes}.
+ */
+@Component
+class CatalogBodyCache {
+
+  /** {@code gzip} is null for bodies below the compression threshold. */
+  record Body(byte[] json, byte[] gzip) {
+  }
+
+  private final ObjectMapper objectMapper;
+  private final int gzipMinBytes;
+  private final Cache<String, Body> bodies;
+
+  CatalogBodyCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+      @Value("${app.catalog.body-cache.max-bytes:67108864}") long maxBytes,
+      @Value("${app.catalog.body-cache.ttl-seconds:30}") long ttlSeconds,
+      @Value("${app.catalog.body-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+    this.objectMapper = objectMapper;
+    this.gzipMinBytes = gzipMinBytes;
+    this.bodies = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String key, Body body) -> key.length() + body.json().length
+            + (body.gzip() != null ? body.gzip().length : 0))
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, bodies, "catalog_body");
+    Gauge.builder("foodya.catalog.body-cache.bytes", bodies,
+            cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+        .description("Bytes held by the catalog response body cache")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /** Cached body for {@code key}, or {@code value} serialized, compressed and cached. */
+  Body get(String key, Supplier<?> value) {
+    Body cached = bodies.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    // Not computed under the cache lock: concurrent misses may both serialize, the result is identical
+    Body body = encode(value.get());
+    bodies.put(key, body);
+    return body;
+  }
+
+  private Body encode(Object value) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(value);
+      return new Body(json, json.length >= gzipMinBytes ? gzip(json) : null);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not serialize catalog response", ex);
+    }
+  }
+
+  // GZIPOutputStream writes no timestamp, so equal input gives equal bytes
+  private static byte[] gzip(byte[] json) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(json);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+}
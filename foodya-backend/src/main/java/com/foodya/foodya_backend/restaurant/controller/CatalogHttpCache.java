@@ -0,0 +1,123 @@
+package com.foodya.foodya_backend.restaurant.controller;
+
+import com.foodya.foodya_backend.restaurant.service.CatalogVersionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for public catalog responses scoped to one restaurant.
+ * <p>
+ * The ETag is the restaurant's catalog version, read before the body is built: a matching
+ * If-None-Match gets 304 without loading or serializing anything. Otherwise the final bytes come
+ * from {@link CatalogBodyCache} (gzip when the client accepts it) and are written straight to the
+ * response. The ETag is weak: counters such as rating and order count change without a version
+ * bump, so two bodies sent under one version may differ in those fields. The gzip variant has its
+ * own tag so a cache never pairs it with the identity body.
+ * Anonymous responses are {@code public} with stale-while-revalidate so a reverse proxy can serve
+ * them; requests carrying a token get {@code private, no-cache} and revalidate every time.
+ */
+@Component
+class CatalogHttpCache {
+
+  private final CatalogVersionService catalogVersionService;
+  private final CatalogBodyCache bodyCache;
+  private final CacheControl anonymous;
+  private final CacheControl authenticated = CacheControl.noCache().cachePrivate();
+
+  CatalogHttpCache(CatalogVersionService catalogVersionService, CatalogBodyCache bodyCache,
+      @Value("${app.catalog.http-cache.max-age-seconds:30}") long maxAgeSeconds,
+      @Value("${app.catalog.http-cache.stale-while-revalidate-seconds:60}") long staleWhileRevalidateSeconds) {
+    this.catalogVersionService = catalogVersionService;
+    this.bodyCache = bodyCache;
+    this.anonymous = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+        .cachePublic()
+        .staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidateSeconds));
+  }
+
+  /**
+   * Returns null once the response (304 or cached bytes) has been written; Spring treats the
+   * request as handled. The version is read before the body, so a write landing in between only
+   * pairs a newer body with an older tag (one extra 200 later), never the reverse.
+   */
+  <T> ResponseEntity<T> respond(UUID restaurantId, ServletWebRequest request, Supplier<T> body) {
+    Optional<Long> version = catalogVersionService.version(restaurantId);
+    if (version.isEmpty()) {
+      // Unknown restaurant: let the endpoint answer as it always has
+      return ResponseEntity.ok(body.get());
+    }
+    boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    String etag = "W/\"v" + version.get() + (gzip ? "-gz" : "") + "\"";
+    CacheControl cacheControl = request.getHeader(HttpHeaders.AUTHORIZATION) == null ? anonymous : authenticated;
+
+    HttpServletResponse response = request.getResponse();
+    // Evaluated without the response, so nothing is written to it before the outcome is known
+    if (new ServletWebRequest(request.getRequest()).checkNotModified(etag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      cachingHeaders(response, etag, cacheControl);
+      return null;
+    }
+
+    // Built before any caching header is set: an error thrown here must not leave a cacheable response
+    CatalogBodyCache.Body cached = bodyCache.get(key(version.get(), request.getRequest()), body);
+    cachingHeaders(response, etag, cacheControl);
+    byte[] bytes = gzip && cached.gzip() != null ? cached.gzip() : cached.json();
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    if (bytes == cached.gzip()) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    response.setContentLength(bytes.length);
+    try {
+      response.getOutputStream().write(bytes);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return null;
+  }
+
+  private static void cachingHeaders(HttpServletResponse response, String etag, CacheControl cacheControl) {
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+  }
+
+  private static String key(long version, HttpServletRequest request) {
+    String query = request.getQueryString();
+    return version + " " + request.getRequestURI() + (query != null ? "?" + query : "");
+  }
+
+  // "gzip" listed without q=0
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+        continue;
+      }
+      for (int i = 1; i < parts.length; i++) {
+        if (parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+}
@@ -12,6 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,11 +24,12 @@ import java.util.UUID;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogHttpCache catalogHttpCache;
 
     @Operation(
             summary = "Get public categories by restaurant",
             description = "Retrieve all categories for a specific restaurant. " +
-                    "Results are sorted by name."
+                    "Results are sorted by name. Send the ETag back as If-None-Match to get 304 when unchanged."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -35,6 +37,10 @@ public class CategoryController {
                     description = "Categories retrieved successfully",
                     content = @Content(schema = @Schema(implementation = CategoryResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Restaurant not found"
@@ -43,9 +49,10 @@ public class CategoryController {
     @GetMapping
     public ResponseEntity<List<CategoryResponse>> getPublicCategories(
             @Parameter(description = "Restaurant ID")
-            @PathVariable UUID restaurantId) {
-        List<CategoryResponse> categories = categoryService.getPublicCategoriesByRestaurant(restaurantId);
-        return ResponseEntity.ok(categories);
+            @PathVariable UUID restaurantId,
+            ServletWebRequest request) {
+        return catalogHttpCache.respond(restaurantId, request,
+                () -> categoryService.getPublicCategoriesByRestaurant(restaurantId));
     }
 }
 
@@ -0,0 +1,79 @@
+package com.foodya.foodya_backend.restaurant.controller;
+
+import com.foodya.foodya_backend.restaurant.dish.DishFilter;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
+import com.foodya.foodya_backend.restaurant.service.MenuItemService;
+import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.BadRequest;
+import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.InternalServerError;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/dishes")
+@RequiredArgsConstructor
+@Tag(name = "Dishes", description = "Dishes across all restaurants for mobile app (read-only)")
+public class DishController {
+
+  private static final int MAX_PAGE_SIZE = 50;
+
+  private final MenuItemService menuItemService;
+
+  @Operation(summary = "Filter dishes across restaurants",
+      description = "Available dishes of active restaurants matching every given filter, cheapest first. "
+          + "Omitted filters are not applied; a dietary flag set to false excludes dishes marked with it.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Dishes retrieved successfully")
+  })
+  @BadRequest
+  @InternalServerError
+  @GetMapping
+  public ResponseEntity<Page<MenuItemResponse>> filterDishes(
+      @Parameter(description = "Vegetarian", example = "true") @RequestParam(required = false) Boolean vegetarian,
+
+      @Parameter(description = "Vegan", example = "true") @RequestParam(required = false) Boolean vegan,
+
+      @Parameter(description = "Gluten-free", example = "true") @RequestParam(required = false) Boolean glutenFree,
+
+      @Parameter(description = "Spicy", example = "false") @RequestParam(required = false) Boolean spicy,
+
+      @Parameter(description = "Category (case-insensitive)", example = "Noodles") @RequestParam(required = false) String category,
+
+      @Parameter(description = "Minimum price (VND, inclusive)", example = "20000") @RequestParam(required = false) Double minPrice,
+
+      @Parameter(description = "Maximum price (VND, inclusive)", example = "50000") @RequestParam(required = false) Double maxPrice,
+
+      @Parameter(description = "Only restaurants open now", example = "true") @RequestParam(defaultValue = "false") boolean openNow,
+
+      @Parameter(description = "Page number (0-based)", example = "0") @RequestParam(defaultValue = "0") int page,
+
+      @Parameter(description = "Page size (default: 20, max: 50)", example = "20") @RequestParam(defaultValue = "20") int size) {
+
+    DishFilter filter = new DishFilter(vegetarian, vegan, glutenFree, spicy, category, minPrice, maxPrice, openNow);
+    return ResponseEntity.ok(menuItemService.findDishes(filter, Math.max(page, 0),
+        Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+  }
+
+  @Operation(summary = "Trending dishes",
+      description = "Available dishes of active restaurants with the most delivered orders lately, across the city. "
+          + "Recent orders count fully, older ones less (one-hour half-life by default).")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Trending dishes retrieved successfully")
+  })
+  @InternalServerError
+  @GetMapping("/trending")
+  public ResponseEntity<List<MenuItemResponse>> getTrendingDishes(
+      @Parameter(description = "Number of dishes to return (default: 20, max: 50)", example = "20") @RequestParam(defaultValue = "20") int limit) {
+
+    return ResponseEntity.ok(menuItemService.getTrendingDishes(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)));
+  }
+}
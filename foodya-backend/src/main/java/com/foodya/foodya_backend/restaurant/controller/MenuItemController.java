@@ -2,6 +2,7 @@ package com.foodya.foodya_backend.restaurant.controller;
 
 import com. foodya.foodya_backend. restaurant.dto.MenuItemResponse;
 import com.foodya. foodya_backend.restaurant.service.MenuItemService;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework. web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +26,7 @@ import java.util.UUID;
 public class MenuItemController {
 
     private final MenuItemService menuItemService;
+    private final CatalogHttpCache catalogHttpCache;
 
     @Operation(
         summary = "Get menu items with pagination",
@@ -47,11 +50,42 @@ public class MenuItemController {
             @Parameter(description = "Sort field (name, price, orderCount)", example = "name")
             @RequestParam(defaultValue = "name") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)", example = "asc")
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            ServletWebRequest request) {
 
-        Page<MenuItemResponse> response = menuItemService.getMenuItemsByRestaurant(
-                restaurantId, page, size, sortBy, sortDirection);
-        return ResponseEntity.ok(response);
+        return catalogHttpCache.respond(restaurantId, request,
+                () -> menuItemService.getMenuItemsByRestaurant(
+                        restaurantId, page, size, sortBy, sortDirection));
+    }
+
+    @Operation(
+        summary = "Scroll menu items",
+        description = "Cursor-paginated variant of GET /menu-items for infinite scroll: pass nextCursor from the previous response as cursor. No total count"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Menu items retrieved successfully",
+            content = @Content(schema = @Schema(implementation = CursorPage.class))
+        )
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<MenuItemResponse>> scrollMenuItems(
+            @Parameter(description = "Restaurant ID")
+            @PathVariable UUID restaurantId,
+            @Parameter(description = "Cursor from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max: 50)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field (name, price, orderCount)", example = "name")
+            @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            ServletWebRequest request) {
+
+        return catalogHttpCache.respond(restaurantId, request,
+                () -> menuItemService.scrollMenuItemsByRestaurant(
+                        restaurantId, cursor, Math.min(Math.max(size, 1), 50), sortBy, sortDirection));
     }
 
     @Operation(
@@ -64,10 +98,11 @@ public class MenuItemController {
     @GetMapping("/all")
     public ResponseEntity<List<MenuItemResponse>> getAllMenuItems(
             @Parameter(description = "Restaurant ID")
-            @PathVariable UUID restaurantId) {
+            @PathVariable UUID restaurantId,
+            ServletWebRequest request) {
 
-        List<MenuItemResponse> response = menuItemService.getAllMenuItemsByRestaurant(restaurantId);
-        return ResponseEntity.ok(response);
+        return catalogHttpCache.respond(restaurantId, request,
+                () -> menuItemService.getAllMenuItemsByRestaurant(restaurantId));
     }
 
     @Operation(
@@ -105,10 +140,11 @@ public class MenuItemController {
             @Parameter(description = "Restaurant ID")
             @PathVariable UUID restaurantId,
             @Parameter(description = "Search keyword", example = "pizza")
-            @RequestParam String keyword) {
+            @RequestParam String keyword,
+            ServletWebRequest request) {
 
-        List<MenuItemResponse> response = menuItemService.searchMenuItems(restaurantId, keyword);
-        return ResponseEntity.ok(response);
+        return catalogHttpCache.respond(restaurantId, request,
+                () -> menuItemService.searchMenuItems(restaurantId, keyword));
     }
 
     @Operation(
@@ -123,10 +159,11 @@ public class MenuItemController {
             @Parameter(description = "Restaurant ID")
             @PathVariable UUID restaurantId,
             @Parameter(description = "Category name", example = "Main Course")
-            @PathVariable String category) {
+            @PathVariable String category,
+            ServletWebRequest request) {
 
-        List<MenuItemResponse> response = menuItemService.getMenuItemsByCategory(restaurantId, category);
-        return ResponseEntity.ok(response);
+        return catalogHttpCache.respond(restaurantId, request,
+                () -> menuItemService.getMenuItemsByCategory(restaurantId, category));
     }
 
     @Operation(
@@ -143,8 +180,8 @@ public class MenuItemController {
             @Parameter(description = "Number of items to return", example = "10")
             @RequestParam(defaultValue = "10") int limit) {
 
-        List<MenuItemResponse> response = menuItemService.getPopularMenuItems(restaurantId, limit);
-        return ResponseEntity.ok(response);
+        // Not behind the catalog ETag: counts move with deliveries, not with catalog versions
+        return ResponseEntity.ok(menuItemService.getPopularMenuItems(restaurantId, limit));
     }
 
     @Operation(
@@ -163,11 +200,12 @@ public class MenuItemController {
             @Parameter(description = "Vegan items only", example = "false")
             @RequestParam(required = false) Boolean vegan,
             @Parameter(description = "Gluten-free items only", example = "false")
-            @RequestParam(required = false) Boolean glutenFree) {
+            @RequestParam(required = false) Boolean glutenFree,
+            ServletWebRequest request) {
 
-        List<MenuItemResponse> response = menuItemService.getMenuItemsByDietaryPreferences(
-                restaurantId, vegetarian, vegan, glutenFree);
-        return ResponseEntity.ok(response);
+        return catalogHttpCache.respond(restaurantId, request,
+                () -> menuItemService.getMenuItemsByDietaryPreferences(
+                        restaurantId, vegetarian, vegan, glutenFree));
     }
 
 }
@@ -1,7 +1,11 @@
 package com.foodya.foodya_backend.restaurant.controller;
 
+import com.foodya.foodya_backend.restaurant.dto.NearbyRestaurantResponse;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantFullResponse;
 import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
+import com.foodya.foodya_backend.restaurant.service.RestaurantDetailService;
 import com.foodya.foodya_backend.restaurant.service.RestaurantService;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.BadRequest;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.InternalServerError;
 import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.NotFound;
@@ -17,6 +21,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -27,7 +32,11 @@ import java.util.UUID;
 @Tag(name = "Restaurant", description = "Restaurant APIs for mobile app")
 public class RestaurantController {
 
+  private static final int MAX_PAGE_SIZE = 50;
+
   private final RestaurantService restaurantService;
+  private final RestaurantDetailService restaurantDetailService;
+  private final CatalogHttpCache catalogHttpCache;
 
   @Operation(summary = "Get restaurants with filters", description = "Search and filter restaurants by keyword, cuisine, rating with pagination and sorting")
   @ApiResponses(value = {
@@ -54,28 +63,96 @@ public class RestaurantController {
     return ResponseEntity.ok(restaurants);
   }
 
-  @Operation(summary = "Get restaurant by ID", description = "Retrieve detailed information about a specific restaurant")
+  @Operation(summary = "Scroll restaurants with filters", description = "Cursor-paginated variant of GET /restaurants for infinite scroll: pass nextCursor from the previous response as cursor. No total count")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Restaurants retrieved successfully", content = @Content(schema = @Schema(implementation = CursorPage.class)))
+  })
+  @BadRequest
+  @InternalServerError
+  @GetMapping("/scroll")
+  public ResponseEntity<CursorPage<RestaurantResponse>> scrollRestaurants(
+      @Parameter(description = "Search keyword (searches in name, description)", example = "Pizza") @RequestParam(required = false) String keyword,
+
+      @Parameter(description = "Filter by cuisine type", example = "Italian") @RequestParam(required = false) String cuisine,
+
+      @Parameter(description = "Filter by minimum rating (1.0 - 5.0)", example = "4.0") @RequestParam(required = false) Double minRating,
+
+      @Parameter(description = "Sort by:  popular (default), rating, name", example = "popular") @RequestParam(required = false, defaultValue = "popular") String sortBy,
+
+      @Parameter(description = "Cursor from the previous page (omit for the first page)") @RequestParam(required = false) String cursor,
+
+      @Parameter(description = "Page size (default:  20, max: 50)", example = "20") @RequestParam(defaultValue = "20") int size) {
+
+    CursorPage<RestaurantResponse> restaurants = restaurantService.scrollRestaurantsWithFilters(
+        keyword, cuisine, minRating, sortBy, cursor, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    return ResponseEntity.ok(restaurants);
+  }
+
+  @Operation(summary = "Get restaurants near me", description = "Restaurants whose delivery radius covers the given point, nearest first. Combinable with cuisine, rating and open filters")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Restaurant found", content = @Content(schema = @Schema(implementation = RestaurantResponse.class)))
+      @ApiResponse(responseCode = "200", description = "Nearby restaurants retrieved successfully", content = @Content(schema = @Schema(implementation = Page.class)))
+  })
+  @BadRequest
+  @InternalServerError
+  @GetMapping("/nearby")
+  public ResponseEntity<Page<NearbyRestaurantResponse>> getNearbyRestaurants(
+      @Parameter(description = "Latitude of the user", example = "10.7769") @RequestParam double lat,
+
+      @Parameter(description = "Longitude of the user", example = "106.7009") @RequestParam double lng,
+
+      @Parameter(description = "Filter by cuisine type", example = "Vietnamese") @RequestParam(required = false) String cuisine,
+
+      @Parameter(description = "Filter by minimum rating (1.0 - 5.0)", example = "4.0") @RequestParam(required = false) Double minRating,
+
+      @Parameter(description = "Only restaurants that are open now", example = "true") @RequestParam(defaultValue = "false") boolean openOnly,
+
+      @Parameter(description = "Page number (0-based)", example = "0") @RequestParam(defaultValue = "0") int page,
+
+      @Parameter(description = "Page size (default:  20, max: 50)", example = "20") @RequestParam(defaultValue = "20") int size) {
+
+    Page<NearbyRestaurantResponse> restaurants = restaurantService.getNearbyRestaurants(
+        lat, lng, cuisine, minRating, openOnly, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    return ResponseEntity.ok(restaurants);
+  }
+
+  @Operation(summary = "Get restaurant by ID", description = "Retrieve detailed information about a specific restaurant. Send the ETag back as If-None-Match to get 304 when unchanged")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Restaurant found", content = @Content(schema = @Schema(implementation = RestaurantResponse.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
   })
   @NotFound
   @InternalServerError
   @GetMapping("/{id}")
   public ResponseEntity<RestaurantResponse> getRestaurantById(
-      @Parameter(description = "Restaurant ID") @PathVariable UUID id) {
-    RestaurantResponse restaurant = restaurantService.getRestaurantById(id);
-    return ResponseEntity.ok(restaurant);
+      @Parameter(description = "Restaurant ID") @PathVariable UUID id,
+      ServletWebRequest request) {
+    return catalogHttpCache.respond(id, request, () -> restaurantService.getRestaurantById(id));
+  }
+
+  @Operation(summary = "Get restaurant screen", description = "Restaurant, categories, menu grouped by category and popular items in one call (replaces /{id}, /{id}/categories, /{id}/menu-items and /{id}/menu-items/popular). Send the ETag back as If-None-Match to get 304 when unchanged")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Restaurant found", content = @Content(schema = @Schema(implementation = RestaurantFullResponse.class))),
+      @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+  })
+  @NotFound
+  @InternalServerError
+  @GetMapping("/{id}/full")
+  public ResponseEntity<RestaurantFullResponse> getRestaurantFull(
+      @Parameter(description = "Restaurant ID") @PathVariable UUID id,
+      ServletWebRequest request) {
+    return catalogHttpCache.respond(id, request, () -> restaurantDetailService.getRestaurantFull(id));
   }
 
-  @Operation(summary = "Get popular restaurants", description = "Retrieve the most popular restaurants based on reviews and ratings")
+  @Operation(summary = "Get popular restaurants", description = "Retrieve the restaurants with the most recent orders (older orders count less), optionally within one cuisine")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Popular restaurants retrieved successfully")
   })
   @InternalServerError
   @GetMapping("/popular")
   public ResponseEntity<List<RestaurantResponse>> getPopularRestaurants(
-      @Parameter(description = "Number of restaurants to return", example = "10") @RequestParam(defaultValue = "10") int limit) {
-    List<RestaurantResponse> restaurants = restaurantService.getPopularRestaurants(limit);
+      @Parameter(description = "Number of restaurants to return", example = "10") @RequestParam(defaultValue = "10") int limit,
+      @Parameter(description = "Cuisine (case-insensitive)", example = "Vietnamese") @RequestParam(required = false) String cuisine) {
+    List<RestaurantResponse> restaurants = restaurantService.getPopularRestaurants(limit, cuisine);
     return ResponseEntity.ok(restaurants);
   }
 
@@ -0,0 +1,615 @@
+package com.foodya.foodya_backend.restaurant.dish;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory index answering combined dish filters across every restaurant ("vegan, gluten-free,
+ * under 50k, restaurant open now") by intersecting compressed (Roaring) bitmaps of dish slots.
+ * <p>
+ * Bitmaps: live slots, one per dietary flag, one per category, and the dishes of listed (active)
+ * restaurants and of open ones. Each restaurant also keeps the sorted slots of its dishes, so
+ * opening or closing it is a single OR / ANDNOT.
+ * <p>
+ * A full build assigns slots in price order: the price column is sorted, a price range is a slot
+ * range found by binary search, and a result iterated in slot order is already cheapest first.
+ * Dishes written after the build are appended to a short unsorted tail that is scanned and merged
+ * in; updating a dish retires its slot and appends a new one. The next build compacts both.
+ * <p>
+ * Ids are kept in two long columns behind an open-addressing id -> slot table, so the index holds
+ * no object per dish. Reads share a read lock; writes take the write lock.
+ */
+public class DishBitmapIndex {
+
+  private static final int INITIAL_CAPACITY = 1024;
+  // Map entry, boxed ordinal and slot list of a restaurant, without the slots (approximate)
+  private static final int RESTAURANT_OVERHEAD_BYTES = 120;
+
+  private static final int VEGETARIAN = 1;
+  private static final int VEGAN = 2;
+  private static final int GLUTEN_FREE = 4;
+  private static final int SPICY = 8;
+
+  private long[] idHigh;
+  private long[] idLow;
+  private double[] prices;
+  private int[] restaurantOf;
+  // -1: no category
+  private int[] categoryOf;
+  private int size;
+  // Slots [0, sortedCount) are in price order
+  private int sortedCount;
+
+  // slot + 1, 0 = empty; an id keeps pointing at its last slot after it is retired
+  private int[] table;
+  private int tableEntries;
+
+  private final RoaringBitmap live = new RoaringBitmap();
+  private final RoaringBitmap vegetarian = new RoaringBitmap();
+  private final RoaringBitmap vegan = new RoaringBitmap();
+  private final RoaringBitmap glutenFree = new RoaringBitmap();
+  private final RoaringBitmap spicy = new RoaringBitmap();
+  private final RoaringBitmap listed = new RoaringBitmap();
+  private final RoaringBitmap open = new RoaringBitmap();
+
+  private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+  private final List<RoaringBitmap> categories = new ArrayList<>();
+
+  private final Map<UUID, Integer> restaurantOrdinals = new HashMap<>();
+  // A restaurant's dishes are scattered over the price-ordered slots: a sorted int array is far
+  // smaller than a bitmap with one near-empty container per 65536 slots
+  private final List<SlotList> restaurantDishes = new ArrayList<>();
+  private final RoaringBitmap listedRestaurants = new RoaringBitmap();
+  private final RoaringBitmap openRestaurants = new RoaringBitmap();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** One page of matching dish ids, cheapest first, with the total number of matches. */
+  public record Result(List<UUID> ids, long total) {
+  }
+
+  public DishBitmapIndex() {
+    idHigh = new long[INITIAL_CAPACITY];
+    idLow = new long[INITIAL_CAPACITY];
+    prices = new double[INITIAL_CAPACITY];
+    restaurantOf = new int[INITIAL_CAPACITY];
+    categoryOf = new int[INITIAL_CAPACITY];
+    table = new int[tableLengthFor(INITIAL_CAPACITY)];
+  }
+
+  /** Adds or replaces a dish; a dish of a restaurant the index has not seen stays hidden until it is. */
+  public void upsert(IndexedDish dish) {
+    long high = dish.id().getMostSignificantBits();
+    long low = dish.id().getLeastSignificantBits();
+    lock.writeLock().lock();
+    try {
+      int previous = slotOf(high, low);
+      if (previous >= 0 && live.contains(previous)) {
+        retire(previous);
+      }
+      append(high, low, priceOf(dish), restaurantOrdinal(dish.restaurantId()), categoryOrdinal(dish.category()),
+          flagsOf(dish));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(UUID id) {
+    lock.writeLock().lock();
+    try {
+      int slot = slotOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+      if (slot >= 0 && live.contains(slot)) {
+        retire(slot);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Shows or hides the restaurant's dishes in listings and in "open now" listings. */
+  public void restaurant(IndexedRestaurant restaurant) {
+    lock.writeLock().lock();
+    try {
+      restaurantState(restaurant);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void removeRestaurant(UUID restaurantId) {
+    lock.writeLock().lock();
+    try {
+      Integer ordinal = restaurantOrdinals.get(restaurantId);
+      if (ordinal == null) {
+        return;
+      }
+      for (int slot : restaurantDishes.get(ordinal).toArray()) {
+        retire(slot);
+      }
+      listedRestaurants.remove(ordinal);
+      openRestaurants.remove(ordinal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Page {@code [offset, offset + limit)} of the dishes matching {@code filter}, cheapest first. */
+  public Result query(DishFilter filter, int offset, int limit) {
+    String categoryKey = categoryKey(filter.category());
+    lock.readLock().lock();
+    try {
+      List<RoaringBitmap> required = new ArrayList<>();
+      required.add(live);
+      required.add(filter.openNow() ? open : listed);
+      addIfTrue(required, filter.vegetarian(), vegetarian);
+      addIfTrue(required, filter.vegan(), vegan);
+      addIfTrue(required, filter.glutenFree(), glutenFree);
+      addIfTrue(required, filter.spicy(), spicy);
+      if (categoryKey != null) {
+        Integer ordinal = categoryOrdinals.get(categoryKey);
+        if (ordinal == null) {
+          return new Result(List.of(), 0);
+        }
+        required.add(categories.get(ordinal));
+      }
+      if (filter.minPrice() != null || filter.maxPrice() != null) {
+        required.add(priceRange(filter.minPrice(), filter.maxPrice()));
+      }
+
+      // Smallest first keeps every intermediate result small
+      required.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+      RoaringBitmap matches = RoaringBitmap.and(required.get(0), required.get(1));
+      for (int i = 2; i < required.size() && !matches.isEmpty(); i++) {
+        matches.and(required.get(i));
+      }
+      andNotIfFalse(matches, filter.vegetarian(), vegetarian);
+      andNotIfFalse(matches, filter.vegan(), vegan);
+      andNotIfFalse(matches, filter.glutenFree(), glutenFree);
+      andNotIfFalse(matches, filter.spicy(), spicy);
+
+      return new Result(page(matches, offset, limit), matches.getLongCardinality());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Indexed (live) dishes. */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return live.getCardinality();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Slots appended since the last full build, live or retired. */
+  public int unsortedSlots() {
+    lock.readLock().lock();
+    try {
+      return size - sortedCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int categoryCount() {
+    lock.readLock().lock();
+    try {
+      return categories.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Approximate heap held by the columns, the id table and the bitmaps. */
+  public long estimatedBytes() {
+    lock.readLock().lock();
+    try {
+      long bytes = (long) idHigh.length * (Long.BYTES * 2 + Double.BYTES + Integer.BYTES * 2)
+          + (long) table.length * Integer.BYTES;
+      for (RoaringBitmap bitmap : List.of(live, vegetarian, vegan, glutenFree, spicy, listed, open,
+          listedRestaurants, openRestaurants)) {
+        bytes += bitmap.getLongSizeInBytes();
+      }
+      for (RoaringBitmap bitmap : categories) {
+        bytes += bitmap.getLongSizeInBytes();
+      }
+      for (SlotList slots : restaurantDishes) {
+        bytes += (long) slots.capacity() * Integer.BYTES;
+      }
+      return bytes + (long) restaurantOrdinals.size() * RESTAURANT_OVERHEAD_BYTES;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static void addIfTrue(List<RoaringBitmap> required, Boolean flag, RoaringBitmap bitmap) {
+    if (Boolean.TRUE.equals(flag)) {
+      required.add(bitmap);
+    }
+  }
+
+  private static void andNotIfFalse(RoaringBitmap matches, Boolean flag, RoaringBitmap bitmap) {
+    if (Boolean.FALSE.equals(flag)) {
+      matches.andNot(bitmap);
+    }
+  }
+
+  // Sorted slots by binary search, tail slots by scan; retired slots are dropped by the live bitmap
+  private RoaringBitmap priceRange(Double minPrice, Double maxPrice) {
+    double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+    double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+    int from = firstSortedSlotAbove(min, false);
+    int to = firstSortedSlotAbove(max, true);
+    RoaringBitmap range = from < to ? RoaringBitmap.bitmapOfRange(from, to) : new RoaringBitmap();
+    for (int slot = sortedCount; slot < size; slot++) {
+      if (prices[slot] >= min && prices[slot] <= max) {
+        range.add(slot);
+      }
+    }
+    return range;
+  }
+
+  // First sorted slot whose price is >= price (> price when inclusive is set)
+  private int firstSortedSlotAbove(double price, boolean inclusive) {
+    int low = 0;
+    int high = sortedCount;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      boolean below = inclusive ? prices[middle] <= price : prices[middle] < price;
+      if (below) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  // Sorted slots come out of the bitmap in price order; tail slots are sorted and merged in
+  private List<UUID> page(RoaringBitmap matches, int offset, int limit) {
+    List<Integer> tail = new ArrayList<>();
+    PeekableIntIterator tailSlots = matches.getIntIterator();
+    tailSlots.advanceIfNeeded(sortedCount);
+    while (tailSlots.hasNext()) {
+      tail.add(tailSlots.next());
+    }
+    tail.sort(Comparator.comparingDouble((Integer slot) -> prices[slot]).thenComparingInt(slot -> slot));
+    long sortedMatches = matches.getLongCardinality() - tail.size();
+
+    PeekableIntIterator sorted = matches.getIntIterator();
+    long sortedTaken = 0;
+    long position = 0;
+    if (tail.isEmpty()) {
+      if (offset >= sortedMatches) {
+        return List.of();
+      }
+      // Nothing to merge: jump straight to the offset
+      sorted.advanceIfNeeded(matches.select(offset));
+      sortedTaken = offset;
+      position = offset;
+    }
+
+    List<UUID> ids = new ArrayList<>((int) Math.min(limit, sortedMatches + tail.size()));
+    int tailIndex = 0;
+    while (ids.size() < limit) {
+      boolean hasSorted = sortedTaken < sortedMatches;
+      boolean hasTail = tailIndex < tail.size();
+      if (!hasSorted && !hasTail) {
+        break;
+      }
+      int slot;
+      if (hasSorted && (!hasTail || prices[sorted.peekNext()] <= prices[tail.get(tailIndex)])) {
+        slot = sorted.next();
+        sortedTaken++;
+      } else {
+        slot = tail.get(tailIndex++);
+      }
+      if (position++ >= offset) {
+        ids.add(new UUID(idHigh[slot], idLow[slot]));
+      }
+    }
+    return ids;
+  }
+
+  private void append(long high, long low, double price, int restaurant, int category, int flags) {
+    int slot = size;
+    ensureCapacity(slot + 1);
+    idHigh[slot] = high;
+    idLow[slot] = low;
+    prices[slot] = price;
+    restaurantOf[slot] = restaurant;
+    categoryOf[slot] = category;
+    size++;
+    putSlot(high, low, slot);
+
+    live.add(slot);
+    if ((flags & VEGETARIAN) != 0) {
+      vegetarian.add(slot);
+    }
+    if ((flags & VEGAN) != 0) {
+      vegan.add(slot);
+    }
+    if ((flags & GLUTEN_FREE) != 0) {
+      glutenFree.add(slot);
+    }
+    if ((flags & SPICY) != 0) {
+      spicy.add(slot);
+    }
+    if (category >= 0) {
+      categories.get(category).add(slot);
+    }
+    restaurantDishes.get(restaurant).add(slot);
+    if (listedRestaurants.contains(restaurant)) {
+      listed.add(slot);
+    }
+    if (openRestaurants.contains(restaurant)) {
+      open.add(slot);
+    }
+  }
+
+  private void retire(int slot) {
+    live.remove(slot);
+    vegetarian.remove(slot);
+    vegan.remove(slot);
+    glutenFree.remove(slot);
+    spicy.remove(slot);
+    if (categoryOf[slot] >= 0) {
+      categories.get(categoryOf[slot]).remove(slot);
+    }
+    restaurantDishes.get(restaurantOf[slot]).remove(slot);
+    listed.remove(slot);
+    open.remove(slot);
+  }
+
+  private void restaurantState(IndexedRestaurant restaurant) {
+    int ordinal = restaurantOrdinal(restaurant.id());
+    RoaringBitmap dishes = RoaringBitmap.bitmapOf(restaurantDishes.get(ordinal).toArray());
+    if (restaurant.listed()) {
+      if (listedRestaurants.checkedAdd(ordinal)) {
+        listed.or(dishes);
+      }
+    } else if (listedRestaurants.checkedRemove(ordinal)) {
+      listed.andNot(dishes);
+    }
+    if (restaurant.openNow()) {
+      if (openRestaurants.checkedAdd(ordinal)) {
+        open.or(dishes);
+      }
+    } else if (openRestaurants.checkedRemove(ordinal)) {
+      open.andNot(dishes);
+    }
+  }
+
+  private int restaurantOrdinal(UUID restaurantId) {
+    return restaurantOrdinals.computeIfAbsent(restaurantId, id -> {
+      restaurantDishes.add(new SlotList());
+      return restaurantDishes.size() - 1;
+    });
+  }
+
+  private int categoryOrdinal(String category) {
+    String key = categoryKey(category);
+    if (key == null) {
+      return -1;
+    }
+    return categoryOrdinals.computeIfAbsent(key, k -> {
+      categories.add(new RoaringBitmap());
+      return categories.size() - 1;
+    });
+  }
+
+  // Categories are free text on menu items: matched ignoring case and surrounding spaces
+  private static String categoryKey(String category) {
+    if (category == null || category.isBlank()) {
+      return null;
+    }
+    return category.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static double priceOf(IndexedDish dish) {
+    return dish.price() != null ? Math.max(0.0, dish.price()) : 0.0;
+  }
+
+  private static int flagsOf(IndexedDish dish) {
+    return (Boolean.TRUE.equals(dish.isVegetarian()) ? VEGETARIAN : 0)
+        | (Boolean.TRUE.equals(dish.isVegan()) ? VEGAN : 0)
+        | (Boolean.TRUE.equals(dish.isGlutenFree()) ? GLUTEN_FREE : 0)
+        | (Boolean.TRUE.equals(dish.isSpicy()) ? SPICY : 0);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= idHigh.length) {
+      return;
+    }
+    int grown = Math.max(capacity, idHigh.length + (idHigh.length >> 1));
+    idHigh = Arrays.copyOf(idHigh, grown);
+    idLow = Arrays.copyOf(idLow, grown);
+    prices = Arrays.copyOf(prices, grown);
+    restaurantOf = Arrays.copyOf(restaurantOf, grown);
+    categoryOf = Arrays.copyOf(categoryOf, grown);
+  }
+
+  private int slotOf(long high, long low) {
+    int mask = table.length - 1;
+    for (int i = hash(high, low) & mask; ; i = (i + 1) & mask) {
+      int entry = table[i];
+      if (entry == 0) {
+        return -1;
+      }
+      if (idHigh[entry - 1] == high && idLow[entry - 1] == low) {
+        return entry - 1;
+      }
+    }
+  }
+
+  private void putSlot(long high, long low, int slot) {
+    if ((tableEntries + 1) * 4L > table.length * 3L) {
+      rehash(tableLengthFor(tableEntries + 1));
+    }
+    int mask = table.length - 1;
+    for (int i = hash(high, low) & mask; ; i = (i + 1) & mask) {
+      int entry = table[i];
+      if (entry == 0) {
+        table[i] = slot + 1;
+        tableEntries++;
+        return;
+      }
+      if (idHigh[entry - 1] == high && idLow[entry - 1] == low) {
+        table[i] = slot + 1;
+        return;
+      }
+    }
+  }
+
+  // Only live slots are carried over, which also drops ids whose dish was removed
+  private void rehash(int length) {
+    table = new int[length];
+    tableEntries = 0;
+    live.forEach((int slot) -> putSlot(idHigh[slot], idLow[slot], slot));
+  }
+
+  // Linear probing at most 3/4 full
+  private static int tableLengthFor(int entries) {
+    return Integer.highestOneBit(Math.max(16, (int) (entries * 4L / 3))) << 1;
+  }
+
+  // Random UUIDs are already uniform; the mix covers sequential or time-based ones
+  private static int hash(long high, long low) {
+    long h = (high ^ low) * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private void optimize() {
+    for (RoaringBitmap bitmap : List.of(live, vegetarian, vegan, glutenFree, spicy, listed, open)) {
+      bitmap.runOptimize();
+    }
+    categories.forEach(RoaringBitmap::runOptimize);
+  }
+
+  // Ascending slots; new slots are always the highest, so appends keep the order
+  private static class SlotList {
+
+    private int[] slots = new int[4];
+    private int size;
+
+    void add(int slot) {
+      if (size == slots.length) {
+        slots = Arrays.copyOf(slots, size * 2);
+      }
+      slots[size++] = slot;
+    }
+
+    void remove(int slot) {
+      int at = Arrays.binarySearch(slots, 0, size, slot);
+      if (at >= 0) {
+        System.arraycopy(slots, at + 1, slots, at, size - at - 1);
+        size--;
+      }
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(slots, size);
+    }
+
+    int capacity() {
+      return slots.length;
+    }
+  }
+
+  /**
+   * Full build. Restaurants and dishes are accepted in any order into primitive columns; {@link #finish()}
+   * assigns slots in price order. Not thread-safe, the index is only shared once finished.
+   */
+  public static class Loader {
+
+    // Ordinals are assigned as rows arrive, so no per-row restaurant id or category string is kept
+    private final DishBitmapIndex index = new DishBitmapIndex();
+    private final List<IndexedRestaurant> restaurants = new ArrayList<>();
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int[] restaurantOf = new int[INITIAL_CAPACITY];
+    private int[] categoryOf = new int[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int count;
+
+    public void restaurant(IndexedRestaurant restaurant) {
+      restaurants.add(restaurant);
+    }
+
+    public void dish(IndexedDish dish) {
+      if (count == idHigh.length) {
+        int grown = count + (count >> 1);
+        idHigh = Arrays.copyOf(idHigh, grown);
+        idLow = Arrays.copyOf(idLow, grown);
+        prices = Arrays.copyOf(prices, grown);
+        restaurantOf = Arrays.copyOf(restaurantOf, grown);
+        categoryOf = Arrays.copyOf(categoryOf, grown);
+        flags = Arrays.copyOf(flags, grown);
+      }
+      idHigh[count] = dish.id().getMostSignificantBits();
+      idLow[count] = dish.id().getLeastSignificantBits();
+      prices[count] = priceOf(dish);
+      restaurantOf[count] = index.restaurantOrdinal(dish.restaurantId());
+      categoryOf[count] = index.categoryOrdinal(dish.category());
+      flags[count] = (byte) flagsOf(dish);
+      count++;
+    }
+
+    public DishBitmapIndex finish() {
+      // Float price in the high half, row in the low half: one primitive sort, no boxing
+      long[] order = new long[count];
+      for (int row = 0; row < count; row++) {
+        order[row] = ((long) Float.floatToIntBits((float) prices[row]) << 32) | row;
+      }
+      Arrays.parallelSort(order);
+      for (int start = 0, end = 1; end <= count; end++) {
+        if (end == count || order[end] >>> 32 != order[start] >>> 32) {
+          sortRunByExactPrice(order, start, end);
+          start = end;
+        }
+      }
+
+      index.ensureCapacity(count);
+      index.table = new int[tableLengthFor(count)];
+      restaurants.forEach(index::restaurantState);
+      for (long key : order) {
+        int row = (int) key;
+        index.append(idHigh[row], idLow[row], prices[row], restaurantOf[row], categoryOf[row], flags[row]);
+      }
+      index.sortedCount = index.size;
+      index.optimize();
+      return index;
+    }
+
+    // Distinct prices can share a float; order such a run by the exact price
+    private void sortRunByExactPrice(long[] order, int start, int end) {
+      boolean sorted = true;
+      for (int i = start + 1; i < end && sorted; i++) {
+        sorted = prices[(int) order[i - 1]] <= prices[(int) order[i]];
+      }
+      if (sorted) {
+        return;
+      }
+      long[] run = IntStream.range(start, end)
+          .mapToObj(i -> order[i])
+          .sorted(Comparator.comparingDouble((Long key) -> prices[(int) key.longValue()]).thenComparing(key -> key))
+          .mapToLong(Long::longValue)
+          .toArray();
+      System.arraycopy(run, 0, order, start, run.length);
+    }
+  }
+}
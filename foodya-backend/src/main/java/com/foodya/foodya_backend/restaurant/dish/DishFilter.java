@@ -0,0 +1,16 @@
+package com.foodya.foodya_backend.restaurant.dish;
+
+/**
+ * Cross-restaurant dish filter. Null flags and bounds are not filtered on; a false flag
+ * excludes dishes marked with it. Prices are inclusive.
+ */
+public record DishFilter(
+    Boolean vegetarian,
+    Boolean vegan,
+    Boolean glutenFree,
+    Boolean spicy,
+    String category,
+    Double minPrice,
+    Double maxPrice,
+    boolean openNow) {
+}
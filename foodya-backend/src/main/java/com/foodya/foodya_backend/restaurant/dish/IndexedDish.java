@@ -0,0 +1,23 @@
+package com.foodya.foodya_backend.restaurant.dish;
+
+import java.util.UUID;
+
+/**
+ * The filterable columns of a listed (active and available) menu item, as loaded into
+ * {@link DishBitmapIndex}. Selected with a JPQL constructor expression, no entity is hydrated.
+ */
+public record IndexedDish(
+    UUID id,
+    UUID restaurantId,
+    Double price,
+    String category,
+    Boolean isVegetarian,
+    Boolean isVegan,
+    Boolean isGlutenFree,
+    Boolean isSpicy) {
+
+  /** Select clause for repository queries; append the WHERE clause (alias {@code m}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.restaurant.dish.IndexedDish("
+      + "m.id, m.restaurant.id, m.price, m.category, m.isVegetarian, m.isVegan, m.isGlutenFree, m.isSpicy) "
+      + "FROM MenuItem m WHERE m.isActive = true AND m.isAvailable = true ";
+}
@@ -0,0 +1,19 @@
+package com.foodya.foodya_backend.restaurant.dish;
+
+import java.util.UUID;
+
+/** Restaurant state that decides whether its dishes are listed and whether they can be ordered now. */
+public record IndexedRestaurant(UUID id, Boolean isActive, Boolean isOpen) {
+
+  /** Select clause for repository queries (alias {@code r}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.restaurant.dish.IndexedRestaurant("
+      + "r.id, r.isActive, r.isOpen) FROM Restaurant r ";
+
+  public boolean listed() {
+    return Boolean.TRUE.equals(isActive);
+  }
+
+  public boolean openNow() {
+    return listed() && Boolean.TRUE.equals(isOpen);
+  }
+}
@@ -0,0 +1,36 @@
+package com.foodya.foodya_backend.restaurant.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only row for menu item list views, restaurant name included through a join.
+ * Selected with a JPQL constructor expression: neither MenuItem nor its Restaurant is hydrated.
+ */
+public record MenuItemCard(
+    UUID id,
+    UUID restaurantId,
+    String restaurantName,
+    String name,
+    String description,
+    Double price,
+    String imageUrl,
+    String category,
+    Boolean isAvailable,
+    Boolean isActive,
+    Integer preparationTime,
+    Integer calories,
+    Boolean isVegetarian,
+    Boolean isVegan,
+    Boolean isGlutenFree,
+    Boolean isSpicy,
+    Integer orderCount,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt) {
+
+  /** Select clause for repository queries; append the WHERE clause (aliases {@code m}, {@code r}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.restaurant.dto.MenuItemCard("
+      + "m.id, r.id, r.name, m.name, m.description, m.price, m.imageUrl, m.category, m.isAvailable, "
+      + "m.isActive, m.preparationTime, m.calories, m.isVegetarian, m.isVegan, m.isGlutenFree, m.isSpicy, "
+      + "m.orderCount, m.createdAt, m.updatedAt) FROM MenuItem m JOIN m.restaurant r ";
+}
@@ -37,6 +37,30 @@ public class MenuItemMapper {
                 .build();
     }
 
+    public MenuItemResponse toMenuItemResponse(MenuItemCard card) {
+        return MenuItemResponse.builder()
+                .id(card.id())
+                .restaurantId(card.restaurantId())
+                .restaurantName(card.restaurantName())
+                .name(card.name())
+                .description(card.description())
+                .price(card.price())
+                .imageUrl(card.imageUrl())
+                .category(card.category())
+                .isAvailable(card.isAvailable())
+                .isActive(card.isActive())
+                .preparationTime(card.preparationTime())
+                .calories(card.calories())
+                .isVegetarian(card.isVegetarian())
+                .isVegan(card.isVegan())
+                .isGlutenFree(card.isGlutenFree())
+                .isSpicy(card.isSpicy())
+                .orderCount(card.orderCount())
+                .createdAt(card.createdAt())
+                .updatedAt(card.updatedAt())
+                .build();
+    }
+
     public List<MenuItemResponse> toMenuItemResponseList(List<MenuItem> menuItems) {
         return menuItems.stream()
                 .map(this::toMenuItemResponse)
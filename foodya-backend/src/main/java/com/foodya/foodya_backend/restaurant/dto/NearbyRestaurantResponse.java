@@ -0,0 +1,52 @@
+package com.foodya.foodya_backend.restaurant.dto;
+
+import com.foodya.foodya_backend.restaurant.service.NearbyRestaurantIndex.NearbyRestaurant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRestaurantResponse {
+
+    private UUID id;
+    private String name;
+    private String address;
+    private String cuisine;
+    private String imageUrl;
+    private Double rating;
+    private Integer totalReviews;
+    private Boolean isOpen;
+    private Double deliveryFee;
+    private Integer estimatedDeliveryTime;
+    private Double maxDeliveryDistance;
+    private Double latitude;
+    private Double longitude;
+
+    // Great-circle distance from the requested point, in km
+    private Double distanceKm;
+
+    public static NearbyRestaurantResponse of(NearbyRestaurant restaurant, double distanceKm) {
+        return NearbyRestaurantResponse.builder()
+                .id(restaurant.id())
+                .name(restaurant.name())
+                .address(restaurant.address())
+                .cuisine(restaurant.cuisine())
+                .imageUrl(restaurant.imageUrl())
+                .rating(restaurant.rating())
+                .totalReviews(restaurant.totalReviews())
+                .isOpen(restaurant.open())
+                .deliveryFee(restaurant.deliveryFee())
+                .estimatedDeliveryTime(restaurant.estimatedDeliveryTime())
+                .maxDeliveryDistance(restaurant.maxDeliveryDistance())
+                .latitude(restaurant.latitude())
+                .longitude(restaurant.longitude())
+                .distanceKm(Math.round(distanceKm * 1000.0) / 1000.0)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.foodya.foodya_backend.restaurant.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only row for restaurant list views: only the columns the listing response shows.
+ * Selected with a JPQL constructor expression, so no Restaurant entity is hydrated,
+ * snapshotted for dirty checking or kept in the persistence context.
+ */
+public record RestaurantCard(
+    UUID id,
+    String name,
+    String address,
+    String phoneNumber,
+    String description,
+    String cuisine,
+    Double rating,
+    Integer totalReviews,
+    Boolean isOpen,
+    Boolean isActive,
+    String imageUrl,
+    String openingTime,
+    String closingTime,
+    Double deliveryFee,
+    Integer estimatedDeliveryTime,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt) {
+
+  /** Select clause for repository queries; append the WHERE clause (alias {@code r}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.restaurant.dto.RestaurantCard("
+      + "r.id, r.name, r.address, r.phoneNumber, r.description, r.cuisine, r.rating, r.totalReviews, "
+      + "r.isOpen, r.isActive, r.imageUrl, r.openingTime, r.closingTime, r.deliveryFee, "
+      + "r.estimatedDeliveryTime, r.createdAt, r.updatedAt) FROM Restaurant r ";
+}
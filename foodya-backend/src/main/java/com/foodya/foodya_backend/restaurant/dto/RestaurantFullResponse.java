@@ -0,0 +1,37 @@
+package com.foodya.foodya_backend.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything the restaurant screen shows, in one response:
+ * the restaurant, its categories, the menu grouped by category and the popular items.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantFullResponse {
+
+    private RestaurantResponse restaurant;
+    private List<CategoryResponse> categories;
+
+    // Active, available items grouped by category (restaurant's category order first)
+    private List<MenuSection> menu;
+
+    // Most ordered active items, same as GET /menu-items/popular
+    private List<MenuItemResponse> popularItems;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MenuSection {
+        private String category;
+        private List<MenuItemResponse> items;
+    }
+}
@@ -1,20 +1,33 @@
 package com.foodya.foodya_backend.restaurant.dto;
 
 import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class RestaurantMapper {
 
+    private final MenuItemRepository menuItemRepository;
+
     // Transform Restaurant entity to RestaurantResponse DTO
     public RestaurantResponse toRestaurantResponse(Restaurant restaurant) {
         if (restaurant == null) {
             return null;
         }
+        return toRestaurantResponse(restaurant, menuItemsCount(restaurant));
+    }
 
+    private RestaurantResponse toRestaurantResponse(Restaurant restaurant, int menuItemsCount) {
         return RestaurantResponse.builder()
                 .id(restaurant.getId())
                 .name(restaurant.getName())
@@ -33,14 +46,99 @@ public class RestaurantMapper {
                 .estimatedDeliveryTime(restaurant.getEstimatedDeliveryTime())
                 .createdAt(restaurant.getCreatedAt())
                 .updatedAt(restaurant.getUpdatedAt())
-                .menuItemsCount(restaurant.getMenuItems() != null ? restaurant.getMenuItems().size() : 0)
+                .menuItemsCount(menuItemsCount)
                 .build();
     }
 
-    // Transform list of Restaurant entities to list of RestaurantResponse DTOs
+    // Transform list of Restaurant entities to list of RestaurantResponse DTOs (one count query for the list)
     public List<RestaurantResponse> toRestaurantResponseList(List<Restaurant> restaurants) {
+        Map<UUID, Integer> counts = menuItemsCounts(restaurants);
+        return restaurants.stream()
+                .map(restaurant -> toRestaurantResponse(restaurant, counts.getOrDefault(restaurant.getId(), 0)))
+                .collect(Collectors.toList());
+    }
+
+    public Page<RestaurantResponse> toRestaurantResponsePage(Page<Restaurant> restaurants) {
+        Map<UUID, Integer> counts = menuItemsCounts(restaurants.getContent());
+        return restaurants.map(restaurant -> toRestaurantResponse(restaurant, counts.getOrDefault(restaurant.getId(), 0)));
+    }
+
+    // List cards: same response as toRestaurantResponse, built from the projection
+    public Page<RestaurantResponse> toRestaurantCardPage(Page<RestaurantCard> cards) {
+        Map<UUID, Integer> counts = countsById(cards.getContent().stream().map(RestaurantCard::id).toList());
+        return cards.map(card -> toRestaurantResponse(card, counts.getOrDefault(card.id(), 0)));
+    }
+
+    public List<RestaurantResponse> toRestaurantCardList(List<RestaurantCard> cards) {
+        Map<UUID, Integer> counts = countsById(cards.stream().map(RestaurantCard::id).toList());
+        return cards.stream()
+                .map(card -> toRestaurantResponse(card, counts.getOrDefault(card.id(), 0)))
+                .collect(Collectors.toList());
+    }
+
+    private RestaurantResponse toRestaurantResponse(RestaurantCard card, int menuItemsCount) {
+        return RestaurantResponse.builder()
+                .id(card.id())
+                .name(card.name())
+                .address(card.address())
+                .phoneNumber(card.phoneNumber())
+                .description(card.description())
+                .cuisine(card.cuisine())
+                .rating(card.rating())
+                .totalReviews(card.totalReviews())
+                .isOpen(card.isOpen())
+                .isActive(card.isActive())
+                .imageUrl(card.imageUrl())
+                .openingTime(card.openingTime())
+                .closingTime(card.closingTime())
+                .deliveryFee(card.deliveryFee())
+                .estimatedDeliveryTime(card.estimatedDeliveryTime())
+                .createdAt(card.createdAt())
+                .updatedAt(card.updatedAt())
+                .menuItemsCount(menuItemsCount)
+                .build();
+    }
+
+    // Full detail (merchant / write responses)
+    public RestaurantResponse toRestaurantDetail(Restaurant restaurant) {
+        return RestaurantResponse.fromEntity(restaurant, menuItemsCount(restaurant));
+    }
+
+    public List<RestaurantResponse> toRestaurantDetailList(List<Restaurant> restaurants) {
+        Map<UUID, Integer> counts = menuItemsCounts(restaurants);
         return restaurants.stream()
-                .map(this::toRestaurantResponse)
+                .map(restaurant -> RestaurantResponse.fromEntity(restaurant, counts.getOrDefault(restaurant.getId(), 0)))
                 .collect(Collectors.toList());
     }
+
+    // Never initializes the menuItems collection just to count it
+    private int menuItemsCount(Restaurant restaurant) {
+        if (restaurant.getMenuItems() != null && Hibernate.isInitialized(restaurant.getMenuItems())) {
+            return restaurant.getMenuItems().size();
+        }
+        return restaurant.getId() != null ? (int) menuItemRepository.countByRestaurantId(restaurant.getId()) : 0;
+    }
+
+    private Map<UUID, Integer> menuItemsCounts(List<Restaurant> restaurants) {
+        Map<UUID, Integer> counts = new HashMap<>();
+        List<UUID> toQuery = new java.util.ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant.getMenuItems() != null && Hibernate.isInitialized(restaurant.getMenuItems())) {
+                counts.put(restaurant.getId(), restaurant.getMenuItems().size());
+            } else if (restaurant.getId() != null) {
+                toQuery.add(restaurant.getId());
+            }
+        }
+        counts.putAll(countsById(toQuery));
+        return counts;
+    }
+
+    private Map<UUID, Integer> countsById(List<UUID> restaurantIds) {
+        Map<UUID, Integer> counts = new HashMap<>();
+        if (!restaurantIds.isEmpty()) {
+            menuItemRepository.countByRestaurantIds(restaurantIds)
+                    .forEach(count -> counts.put(count.getRestaurantId(), (int) count.getCount()));
+        }
+        return counts;
+    }
 }
@@ -77,6 +77,18 @@ public class RestaurantRequest {
   @Schema(description = "Maximum delivery distance in km", example = "10")
   private Double maxDeliveryDistance;
 
+  // ========== LOCATION ==========
+
+  @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+  @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+  @Schema(description = "Latitude of the restaurant", example = "10.7769")
+  private Double latitude;
+
+  @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+  @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+  @Schema(description = "Longitude of the restaurant", example = "106.7009")
+  private Double longitude;
+
   // ========== STATUS ==========
 
   @Schema(description = "Is restaurant currently open", example = "true")
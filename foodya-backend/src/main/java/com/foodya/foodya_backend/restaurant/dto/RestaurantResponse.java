@@ -75,9 +75,11 @@ public class RestaurantResponse {
     private Boolean isCurrentlyOpen;
 
     /**
-     * Convert Restaurant entity to RestaurantResponse DTO
+     * Convert Restaurant entity to RestaurantResponse DTO.
+     * The menu item count is passed in so the menuItems collection is never loaded just to be counted
+     * (see RestaurantMapper).
      */
-    public static RestaurantResponse fromEntity(Restaurant restaurant) {
+    public static RestaurantResponse fromEntity(Restaurant restaurant, int menuItemsCount) {
         return RestaurantResponse.builder()
                 // Basic Information
                 .id(restaurant.getId())
@@ -135,7 +137,7 @@ public class RestaurantResponse {
                 .updatedAt(restaurant.getUpdatedAt())
 
                 // Computed fields
-                .menuItemsCount(restaurant.getMenuItems() != null ? restaurant.getMenuItems().size() : 0)
+                .menuItemsCount(menuItemsCount)
                 .isCurrentlyOpen(restaurant.isCurrentlyOpen())
 
                 . build();
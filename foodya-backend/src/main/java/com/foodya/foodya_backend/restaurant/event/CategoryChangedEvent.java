@@ -0,0 +1,9 @@
+package com.foodya.foodya_backend.restaurant.event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction whenever a category is created, renamed or deleted.
+ */
+public record CategoryChangedEvent(UUID categoryId, UUID restaurantId, ChangeType type) {
+}
@@ -0,0 +1,7 @@
+package com.foodya.foodya_backend.restaurant.event;
+
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
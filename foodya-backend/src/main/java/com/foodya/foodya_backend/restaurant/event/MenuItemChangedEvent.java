@@ -0,0 +1,10 @@
+package com.foodya.foodya_backend.restaurant.event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction whenever a menu item is created, updated or deleted.
+ * Soft deletes are reported as {@link ChangeType#DELETED}.
+ */
+public record MenuItemChangedEvent(UUID menuItemId, UUID restaurantId, ChangeType type) {
+}
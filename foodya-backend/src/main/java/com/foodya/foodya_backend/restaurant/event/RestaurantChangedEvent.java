@@ -0,0 +1,25 @@
+package com.foodya.foodya_backend.restaurant.event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the writing transaction whenever a restaurant is created, updated or deleted.
+ * Caches listen with {@code @TransactionalEventListener} so they only react once the change is committed.
+ * {@code before} is null for {@link ChangeType#CREATED}, {@code after} is null for {@link ChangeType#DELETED}.
+ */
+public record RestaurantChangedEvent(
+    UUID restaurantId,
+    UUID ownerId,
+    ChangeType type,
+    RestaurantSnapshot before,
+    RestaurantSnapshot after) {
+
+  /** Change without field snapshots; listeners must assume any listing may be affected. */
+  public RestaurantChangedEvent(UUID restaurantId, UUID ownerId, ChangeType type) {
+    this(restaurantId, ownerId, type, null, null);
+  }
+
+  public boolean hasSnapshots() {
+    return before != null || after != null;
+  }
+}
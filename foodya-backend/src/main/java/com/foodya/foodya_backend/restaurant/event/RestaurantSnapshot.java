@@ -0,0 +1,19 @@
+package com.foodya.foodya_backend.restaurant.event;
+
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+
+/**
+ * The restaurant fields that decide whether it shows up in a filtered listing.
+ * Carried on {@link RestaurantChangedEvent} so caches can tell which listings a change can affect.
+ */
+public record RestaurantSnapshot(boolean active, String name, String description, String cuisine, double rating) {
+
+  public static RestaurantSnapshot of(Restaurant restaurant) {
+    return new RestaurantSnapshot(
+        Boolean.TRUE.equals(restaurant.getIsActive()),
+        restaurant.getName(),
+        restaurant.getDescription(),
+        restaurant.getCuisine(),
+        restaurant.getRating() != null ? restaurant.getRating() : 0.0);
+  }
+}
@@ -0,0 +1,324 @@
+package com.foodya.foodya_backend.restaurant.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of points that each cover a disc (a restaurant and its delivery radius),
+ * answering "which discs contain this point".
+ * <p>
+ * Points are grouped into radius bands (up to 1 km, 2 km, 4 km, ... 128 km). Each band is a
+ * lat/lng grid whose rows are as tall as the band's largest radius, so a disc can only reach the
+ * query point from the query row and its two neighbours. Longitude cells split 360 degrees evenly
+ * (no narrow cell at the antimeridian); a query scans as many of them as the radius spans at its
+ * latitude, and every one of them when the radius reaches a pole. Wider discs go to a small
+ * overflow list that is always scanned.
+ * <p>
+ * Cells store coordinates as parallel arrays of precomputed sines and cosines, so the haversine
+ * test for a whole cell is one branch-free multiply-add loop (no trigonometry per point) that the
+ * JIT can unroll and vectorize; {@code asin} only runs for points that actually match.
+ * Reads share a read lock; upserts and removals take the write lock.
+ */
+public class GeoGridIndex<T> {
+
+  public static final double EARTH_RADIUS_KM = 6371.0088;
+  private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+  private static final double SMALLEST_BAND_KM = 1.0;
+  private static final int BANDS = 8;
+
+  private final Band[] bands = new Band[BANDS];
+  private final Cell overflow = new Cell();
+  private final Map<UUID, Location> locations = new HashMap<>();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** A matching value with its great-circle distance from the query point. */
+  public record Hit<T>(T value, double distanceKm) {
+  }
+
+  // band == -1 means the overflow list
+  private record Location(int band, long cellKey) {
+  }
+
+  public GeoGridIndex() {
+    for (int band = 0; band < BANDS; band++) {
+      bands[band] = new Band(SMALLEST_BAND_KM * (1L << band));
+    }
+  }
+
+  public void upsert(UUID id, double latitude, double longitude, double radiusKm, T value) {
+    double radius = Math.max(0.0, radiusKm);
+    lock.writeLock().lock();
+    try {
+      removeLocked(id);
+      int band = bandOf(radius);
+      Location location;
+      if (band < 0) {
+        overflow.add(id, latitude, longitude, radius, value);
+        location = new Location(-1, 0L);
+      } else {
+        long cellKey = bands[band].cellKey(latitude, longitude);
+        bands[band].cells.computeIfAbsent(cellKey, k -> new Cell()).add(id, latitude, longitude, radius, value);
+        bands[band].size++;
+        location = new Location(band, cellKey);
+      }
+      locations.put(id, location);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(UUID id) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void removeLocked(UUID id) {
+    Location location = locations.remove(id);
+    if (location == null) {
+      return;
+    }
+    if (location.band() < 0) {
+      overflow.remove(id);
+      return;
+    }
+    Band band = bands[location.band()];
+    Cell cell = band.cells.get(location.cellKey());
+    if (cell != null && cell.remove(id)) {
+      band.size--;
+      if (cell.size == 0) {
+        band.cells.remove(location.cellKey());
+      }
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return locations.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int cellCount() {
+    lock.readLock().lock();
+    try {
+      int cells = 0;
+      for (Band band : bands) {
+        cells += band.cells.size();
+      }
+      return cells;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Every value whose disc contains the point and that passes {@code filter}, unordered.
+   */
+  public List<Hit<T>> covering(double latitude, double longitude, Predicate<? super T> filter) {
+    Query query = new Query(latitude, longitude);
+    List<Hit<T>> hits = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (Band band : bands) {
+        if (band.size == 0) {
+          continue;
+        }
+        int latIndex = band.latIndex(latitude);
+        int lngIndex = band.lngIndex(longitude);
+        int lngRing = band.lngRing(latitude);
+        int lngFrom = lngIndex - lngRing;
+        int lngTo = lngIndex + lngRing;
+        if (2 * lngRing + 1 >= band.lngCells) {
+          lngFrom = 0;
+          lngTo = band.lngCells - 1;
+        }
+        for (int dLat = -1; dLat <= 1; dLat++) {
+          for (int lng = lngFrom; lng <= lngTo; lng++) {
+            Cell cell = band.cells.get(band.key(latIndex + dLat, lng));
+            if (cell != null) {
+              cell.collect(query, filter, hits);
+            }
+          }
+        }
+      }
+      overflow.collect(query, filter, hits);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return hits;
+  }
+
+  private static int bandOf(double radiusKm) {
+    double limit = SMALLEST_BAND_KM;
+    for (int band = 0; band < BANDS; band++, limit *= 2) {
+      if (radiusKm <= limit) {
+        return band;
+      }
+    }
+    return -1;
+  }
+
+  // Haversine terms of sin^2(r / 2R): a point is inside the disc when its haversine is at most this
+  private static double maxHaversine(double radiusKm) {
+    double half = Math.min(Math.PI / 2, radiusKm / (2 * EARTH_RADIUS_KM));
+    double sin = Math.sin(half);
+    return sin * sin;
+  }
+
+  private static double distanceKm(double haversine) {
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, Math.max(0.0, haversine))));
+  }
+
+  private static final class Query {
+    final double sinLat;
+    final double cosLat;
+    final double sinLng;
+    final double cosLng;
+
+    Query(double latitude, double longitude) {
+      double lat = Math.toRadians(latitude);
+      double lng = Math.toRadians(longitude);
+      this.sinLat = Math.sin(lat);
+      this.cosLat = Math.cos(lat);
+      this.sinLng = Math.sin(lng);
+      this.cosLng = Math.cos(lng);
+    }
+  }
+
+  private static final class Band {
+    final double radiusKm;
+    final double cellDegrees;
+    final int lngCells;
+    final double lngCellDegrees;
+    final Map<Long, Cell> cells = new HashMap<>();
+    int size;
+
+    Band(double radiusKm) {
+      this.radiusKm = radiusKm;
+      this.cellDegrees = radiusKm / KM_PER_DEGREE;
+      this.lngCells = (int) Math.ceil(360.0 / cellDegrees);
+      this.lngCellDegrees = 360.0 / lngCells;
+    }
+
+    int latIndex(double latitude) {
+      return (int) Math.floor((latitude + 90.0) / cellDegrees);
+    }
+
+    int lngIndex(double longitude) {
+      return Math.floorMod((int) Math.floor((longitude + 180.0) / lngCellDegrees), lngCells);
+    }
+
+    long cellKey(double latitude, double longitude) {
+      return key(latIndex(latitude), lngIndex(longitude));
+    }
+
+    // Longitude wraps around the antimeridian
+    long key(int latIndex, int lngIndex) {
+      return ((long) latIndex << 32) | (Math.floorMod(lngIndex, lngCells) & 0xffffffffL);
+    }
+
+    // Cells each side of the query cell that a disc of the band's radius around the query touches:
+    // its half-width in longitude is asin(sin(r / R) / cos(lat)), or everything once it holds a pole
+    int lngRing(double latitude) {
+      if (Math.abs(latitude) + cellDegrees >= 90.0) {
+        return lngCells;
+      }
+      double sinHalfWidth = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+      if (sinHalfWidth >= 1.0) {
+        return lngCells;
+      }
+      return (int) Math.ceil(Math.toDegrees(Math.asin(sinHalfWidth)) / lngCellDegrees);
+    }
+  }
+
+  private static final class Cell {
+    UUID[] ids = new UUID[4];
+    Object[] values = new Object[4];
+    double[] sinLat = new double[4];
+    double[] cosLat = new double[4];
+    double[] sinLng = new double[4];
+    double[] cosLng = new double[4];
+    double[] maxHaversine = new double[4];
+    int size;
+
+    void add(UUID id, double latitude, double longitude, double radiusKm, Object value) {
+      if (size == ids.length) {
+        int capacity = size * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        values = Arrays.copyOf(values, capacity);
+        sinLat = Arrays.copyOf(sinLat, capacity);
+        cosLat = Arrays.copyOf(cosLat, capacity);
+        sinLng = Arrays.copyOf(sinLng, capacity);
+        cosLng = Arrays.copyOf(cosLng, capacity);
+        maxHaversine = Arrays.copyOf(maxHaversine, capacity);
+      }
+      double lat = Math.toRadians(latitude);
+      double lng = Math.toRadians(longitude);
+      ids[size] = id;
+      values[size] = value;
+      sinLat[size] = Math.sin(lat);
+      cosLat[size] = Math.cos(lat);
+      sinLng[size] = Math.sin(lng);
+      cosLng[size] = Math.cos(lng);
+      maxHaversine[size] = maxHaversine(radiusKm);
+      size++;
+    }
+
+    // Swap-remove: order inside a cell carries no meaning
+    boolean remove(UUID id) {
+      for (int i = 0; i < size; i++) {
+        if (ids[i].equals(id)) {
+          int last = --size;
+          ids[i] = ids[last];
+          values[i] = values[last];
+          sinLat[i] = sinLat[last];
+          cosLat[i] = cosLat[last];
+          sinLng[i] = sinLng[last];
+          cosLng[i] = cosLng[last];
+          maxHaversine[i] = maxHaversine[last];
+          ids[last] = null;
+          values[last] = null;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> void collect(Query query, Predicate<? super T> filter, List<Hit<T>> hits) {
+      int n = size;
+      if (n == 0) {
+        return;
+      }
+      // sin^2(d/2) = (1 - cos d) / 2, with cos of the differences from the angle-difference identities
+      double[] haversine = new double[n];
+      for (int i = 0; i < n; i++) {
+        double cosDLat = query.cosLat * cosLat[i] + query.sinLat * sinLat[i];
+        double cosDLng = query.cosLng * cosLng[i] + query.sinLng * sinLng[i];
+        haversine[i] = 0.5 * (1.0 - cosDLat) + 0.5 * query.cosLat * cosLat[i] * (1.0 - cosDLng);
+      }
+      for (int i = 0; i < n; i++) {
+        if (haversine[i] <= maxHaversine[i]) {
+          T value = (T) values[i];
+          if (filter.test(value)) {
+            hits.add(new Hit<>(value, distanceKm(haversine[i])));
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.foodya.foodya_backend.restaurant.geo;
+
+import java.util.UUID;
+
+/**
+ * The columns a nearby listing needs from an active restaurant with coordinates. Selected with a
+ * JPQL constructor expression, so a rebuild streams rows without hydrating {@code Restaurant} entities.
+ */
+public record LocatedRestaurant(
+    UUID id,
+    String name,
+    String address,
+    String cuisine,
+    String imageUrl,
+    Double rating,
+    Integer totalReviews,
+    Boolean isOpen,
+    Double deliveryFee,
+    Integer estimatedDeliveryTime,
+    Double maxDeliveryDistance,
+    Double latitude,
+    Double longitude) {
+
+  /** Select clause for repository queries; add conditions with {@code AND} (alias {@code r}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.restaurant.geo.LocatedRestaurant("
+      + "r.id, r.name, r.address, r.cuisine, r.imageUrl, r.rating, r.totalReviews, r.isOpen, r.deliveryFee, "
+      + "r.estimatedDeliveryTime, r.maxDeliveryDistance, r.latitude, r.longitude) "
+      + "FROM Restaurant r WHERE r.isActive = true AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL ";
+}
@@ -10,13 +10,17 @@ import lombok.NoArgsConstructor;
 import java.util.UUID;
 
 @Entity
-@Table(name = "category")
+@Table(name = "category", uniqueConstraints = {
+    @UniqueConstraint(name = Category.UK_RESTAURANT_NAME_KEY, columnNames = {"restaurant_id", "name_key"})
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
 
+  public static final String UK_RESTAURANT_NAME_KEY = "uk_category_restaurant_name_key";
+
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   @Column(columnDefinition = "UUID", updatable = false, nullable = false)
@@ -25,6 +29,13 @@ public class Category {
   @Column(nullable = false, length = 100)
   private String name;
 
+  /**
+   * Lower-cased, trimmed name; lets the database enforce case-insensitive uniqueness per restaurant.
+   * Nullable so existing rows survive the schema update; they are filled in on their next save.
+   */
+  @Column(name = "name_key", length = 100)
+  private String nameKey;
+
   /**
    * Many-to-One relationship with Restaurant
    * Một Category bắt buộc phải thuộc về một Restaurant
@@ -36,6 +47,12 @@ public class Category {
 
   // ========== HELPER METHODS ==========
 
+  @PrePersist
+  @PreUpdate
+  void syncNameKey() {
+    nameKey = name != null ? name.trim().toLowerCase(java.util.Locale.ROOT) : null;
+  }
+
   /**
    * Get restaurant ID
    */
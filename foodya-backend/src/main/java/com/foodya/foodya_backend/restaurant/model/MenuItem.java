@@ -15,13 +15,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "menu_items")
+@Table(name = "menu_items", uniqueConstraints = {
+    @UniqueConstraint(name = MenuItem.UK_RESTAURANT_NAME, columnNames = {"restaurant_id", "name"})
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class MenuItem {
 
+    public static final String UK_RESTAURANT_NAME = "uk_menu_items_restaurant_name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID  id;
@@ -57,10 +61,20 @@ public class MenuItem {
     private Boolean isGlutenFree;
     private Boolean isSpicy;
 
-    @Column(nullable = false)
+    // Popularity counters are written only by the dish popularity flush (DishPopularityService),
+    // never by entity saves, so a save carrying a stale copy cannot undo increments
+    @Column(nullable = false, updatable = false)
     @Builder.Default
     private Integer orderCount = 0; // Track popularity
 
+    // Delivered quantity decayed with the trending half-life, as of trendingAt
+    @Column(updatable = false)
+    @Builder.Default
+    private Double trendingScore = 0.0;
+
+    @Column(updatable = false)
+    private LocalDateTime trendingAt;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -15,13 +15,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "restaurants")
+@Table(name = "restaurants", uniqueConstraints = {
+    @UniqueConstraint(name = Restaurant.UK_NAME, columnNames = "name"),
+    @UniqueConstraint(name = Restaurant.UK_PHONE_NUMBER, columnNames = "phone_number")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Restaurant {
 
+  public static final String UK_NAME = "uk_restaurants_name";
+  public static final String UK_PHONE_NUMBER = "uk_restaurants_phone_number";
+
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   @Column(columnDefinition = "UUID", updatable = false, nullable = false)
@@ -29,13 +35,13 @@ public class Restaurant {
 
   // ========== BASIC INFORMATION ==========
 
-  @Column(nullable = false, unique = true, length = 200)
+  @Column(nullable = false, length = 200)
   private String name;
 
   @Column(nullable = false, length = 500)
   private String address;
 
-  @Column(nullable = false, unique = true, length = 20)
+  @Column(nullable = false, length = 20)
   private String phoneNumber;
 
   @Column(length = 100)
@@ -120,11 +126,13 @@ public class Restaurant {
 
   // ========== STATISTICS ==========
 
-  @Column(nullable = false)
+  // Counters are written only by the popularity flush (RestaurantPopularityService), never by entity saves,
+  // so a save carrying a stale copy cannot undo increments
+  @Column(nullable = false, updatable = false)
   @Builder.Default
   private Integer totalOrders = 0;
 
-  @Column(nullable = false)
+  @Column(nullable = false, updatable = false)
   @Builder.Default
   private Integer orderCount = 0; // ← THÊM MỚI - Số đơn (dùng cho sort popular)
 
@@ -161,6 +169,14 @@ public class Restaurant {
 
   private LocalDateTime deletedAt; // ← THÊM MỚI - Soft delete
 
+  /**
+   * Bumped in the writing transaction on every restaurant, menu item or category change
+   * (see CatalogVersionService); the ETag of the restaurant's public catalog responses.
+   * Only written by that bulk update, never from the entity. Null (= 0) on rows that predate it.
+   */
+  @Column(name = "catalog_version", insertable = false, updatable = false)
+  private Long catalogVersion;
+
   // ========== RELATIONSHIPS ==========
 
   // Relationship with MenuItem
@@ -0,0 +1,19 @@
+package com.foodya.foodya_backend.restaurant.popularity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/** How far back a rebuild of a decayed score looks. */
+public final class DecayWindow {
+
+  // Older orders weigh less than 1/128 of a fresh one
+  private static final int HALF_LIVES = 7;
+
+  private DecayWindow() {
+  }
+
+  /** Orders before this time no longer move a score with the given half-life. */
+  public static LocalDateTime since(long halfLifeMillis) {
+    return LocalDateTime.now().minus(Duration.ofMillis(halfLifeMillis * HALF_LIVES));
+  }
+}
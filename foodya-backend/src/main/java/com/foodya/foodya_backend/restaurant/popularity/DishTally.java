@@ -0,0 +1,108 @@
+package com.foodya.foodya_backend.restaurant.popularity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-dish order counts: all-time quantity and a "trending" quantity that decays exponentially.
+ * <p>
+ * Each dish has its own {@link LongAdder} / {@link DoubleAdder}, so concurrent deliveries never
+ * take a lock once the dish is known. The trending score uses forward decay: a quantity q
+ * delivered at time t adds q * e^(λ(t - L)) for the landmark L this tally was created with, and the
+ * score at time {@code now} is that sum times e^(-λ(now - L)). The landmark is fixed for the life
+ * of the tally, which is meant to be replaced regularly (a rebuild); the exponent stays far from
+ * overflow for weeks at a one-hour half-life.
+ */
+public class DishTally {
+
+  private final double lambdaPerMilli;
+  private final long landmarkMillis;
+  private final ConcurrentHashMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+  public DishTally(long halfLifeMillis, long landmarkMillis) {
+    this.lambdaPerMilli = Math.log(2) / Math.max(1, halfLifeMillis);
+    this.landmarkMillis = landmarkMillis;
+  }
+
+  /** Adds to the all-time count only (counts already stored, deliveries not flushed yet). */
+  public void addOrders(UUID menuItemId, long quantity) {
+    counter(menuItemId).orders.add(quantity);
+  }
+
+  /** Adds to the trending score only (deliveries already in the all-time count). */
+  public void addTrending(UUID menuItemId, long quantity, long atMillis) {
+    counter(menuItemId).weight.add(quantity * Math.exp(lambdaPerMilli * (atMillis - landmarkMillis)));
+  }
+
+  /** A delivery happening now: both counts. */
+  public void recordDelivered(UUID menuItemId, long quantity, long atMillis) {
+    Counter counter = counter(menuItemId);
+    counter.orders.add(quantity);
+    counter.weight.add(quantity * Math.exp(lambdaPerMilli * (atMillis - landmarkMillis)));
+  }
+
+  /** All-time quantity, or {@code fallback} for a dish this tally has never seen. */
+  public long orders(UUID menuItemId, long fallback) {
+    Counter counter = counters.get(menuItemId);
+    return counter != null ? counter.orders.sum() : fallback;
+  }
+
+  /** Decayed quantity as of {@code nowMillis}: recent deliveries count fully, older ones less. */
+  public double trending(UUID menuItemId, long nowMillis) {
+    Counter counter = counters.get(menuItemId);
+    return counter != null ? decay(counter.weight.sum(), nowMillis) : 0.0;
+  }
+
+  /**
+   * The {@code limit} dishes with the highest trending score, best first. A full scan with a
+   * bounded heap: meant for a periodic refresh, not for every request.
+   */
+  public List<UUID> topTrending(int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    // Ranking by the undecayed sum is the same as by the score: the decay factor is shared
+    PriorityQueue<Map.Entry<UUID, Double>> heap = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+    counters.forEach((id, counter) -> {
+      double weight = counter.weight.sum();
+      if (weight <= 0.0) {
+        return;
+      }
+      if (heap.size() < limit) {
+        heap.add(Map.entry(id, weight));
+      } else if (weight > heap.peek().getValue()) {
+        heap.poll();
+        heap.add(Map.entry(id, weight));
+      }
+    });
+    List<Map.Entry<UUID, Double>> best = new ArrayList<>(heap);
+    best.sort(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder()));
+    return best.stream().map(Map.Entry::getKey).toList();
+  }
+
+  public int size() {
+    return counters.size();
+  }
+
+  private double decay(double weight, long nowMillis) {
+    return weight * Math.exp(-lambdaPerMilli * (nowMillis - landmarkMillis));
+  }
+
+  private Counter counter(UUID menuItemId) {
+    // get first: computeIfAbsent may lock the bin even when the key is present
+    Counter counter = counters.get(menuItemId);
+    return counter != null ? counter : counters.computeIfAbsent(menuItemId, id -> new Counter());
+  }
+
+  private static final class Counter {
+    private final LongAdder orders = new LongAdder();
+    private final DoubleAdder weight = new DoubleAdder();
+  }
+}
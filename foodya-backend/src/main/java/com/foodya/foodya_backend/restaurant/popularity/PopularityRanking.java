@@ -0,0 +1,352 @@
+package com.foodya.foodya_backend.restaurant.popularity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Restaurant popularity from recent orders, with the top K overall and per cuisine kept up to date.
+ * <p>
+ * Scores use forward decay: an order placed at time t adds e^(λ(t - L)) for a fixed landmark L and
+ * λ = ln 2 / half-life. Dividing by e^(λ(now - L)) gives the usual exponentially decayed order
+ * count, but that divisor is shared by every restaurant, so the stored scores rank the same way at
+ * any instant and never have to be decayed. They only grow, so a top-K min-heap stays exact under
+ * increments alone. When the exponent gets large every score is rescaled and the landmark moved,
+ * which keeps the order. Ties, including restaurants without recent orders, fall back to the
+ * delivered order count, then reviews, then rating.
+ * <p>
+ * Per-restaurant state is kept in primitive arrays indexed by a dense ordinal. Reads share a read
+ * lock; writes take the write lock.
+ */
+public class PopularityRanking {
+
+  // Rescale before e^exponent gets anywhere near overflow (e^700)
+  private static final double MAX_EXPONENT = 60.0;
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final double lambdaPerMilli;
+  private final int topK;
+  private long landmarkMillis;
+
+  private final Map<UUID, Integer> ordinals = new HashMap<>();
+  private UUID[] ids = new UUID[INITIAL_CAPACITY];
+  private double[] scores = new double[INITIAL_CAPACITY];
+  private int[] orderCounts = new int[INITIAL_CAPACITY];
+  private int[] totalReviews = new int[INITIAL_CAPACITY];
+  private double[] ratings = new double[INITIAL_CAPACITY];
+  // -1: inactive or unknown, not ranked
+  private int[] cuisineOf = new int[INITIAL_CAPACITY];
+  private int size;
+
+  private final Map<String, Integer> cuisineOrdinals = new HashMap<>();
+  private final List<TopK> cuisineTops = new ArrayList<>();
+  private final TopK overall;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public PopularityRanking(long halfLifeMillis, int topK, long landmarkMillis) {
+    this.lambdaPerMilli = Math.log(2) / Math.max(1, halfLifeMillis);
+    this.topK = topK;
+    this.landmarkMillis = landmarkMillis;
+    this.overall = new TopK(topK);
+  }
+
+  public int topK() {
+    return topK;
+  }
+
+  /** Bulk load: sets every restaurant, then builds the heaps once. */
+  public void restaurants(Collection<RankedRestaurant> restaurants) {
+    lock.writeLock().lock();
+    try {
+      restaurants.forEach(this::set);
+      rebuildAll();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds or updates a restaurant; the heaps it was or is now part of are rebuilt. A restaurant
+   * already known keeps its delivered count: deliveries are counted here, the stored one may lag.
+   */
+  public void restaurant(RankedRestaurant restaurant) {
+    lock.writeLock().lock();
+    try {
+      Integer known = ordinals.get(restaurant.id());
+      int previousCuisine = known != null ? cuisineOf[known] : -1;
+      int orderCount = known != null ? orderCounts[known] : 0;
+      int ordinal = set(restaurant);
+      if (known != null) {
+        orderCounts[ordinal] = orderCount;
+      }
+      rebuildAround(previousCuisine, cuisineOf[ordinal]);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void removeRestaurant(UUID restaurantId) {
+    lock.writeLock().lock();
+    try {
+      Integer ordinal = ordinals.get(restaurantId);
+      if (ordinal == null || cuisineOf[ordinal] < 0) {
+        return;
+      }
+      int previousCuisine = cuisineOf[ordinal];
+      cuisineOf[ordinal] = -1;
+      rebuildAround(previousCuisine, -1);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** An order placed at {@code atMillis}; counts for a restaurant not loaded yet once it is. */
+  public void recordOrder(UUID restaurantId, long atMillis) {
+    lock.writeLock().lock();
+    try {
+      double exponent = lambdaPerMilli * (atMillis - landmarkMillis);
+      if (exponent > MAX_EXPONENT) {
+        rescale(atMillis);
+        exponent = 0.0;
+      }
+      int ordinal = ordinal(restaurantId);
+      scores[ordinal] += Math.exp(exponent);
+      promote(ordinal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Delivered orders, the first tie-breaker. */
+  public void recordDelivered(UUID restaurantId, int count) {
+    lock.writeLock().lock();
+    try {
+      int ordinal = ordinal(restaurantId);
+      orderCounts[ordinal] += count;
+      promote(ordinal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Up to {@code limit} (at most K) restaurant ids, most popular first; {@code cuisine} null for all. */
+  public List<UUID> top(String cuisine, int limit) {
+    String key = cuisineKey(cuisine);
+    lock.readLock().lock();
+    try {
+      TopK heap = overall;
+      if (key != null) {
+        Integer cuisineOrdinal = cuisineOrdinals.get(key);
+        if (cuisineOrdinal == null) {
+          return List.of();
+        }
+        heap = cuisineTops.get(cuisineOrdinal);
+      }
+      return heap.best(limit).stream().map(ordinal -> ids[ordinal]).toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Ranked (active) restaurants. */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      int ranked = 0;
+      for (int ordinal = 0; ordinal < size; ordinal++) {
+        if (cuisineOf[ordinal] >= 0) {
+          ranked++;
+        }
+      }
+      return ranked;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int set(RankedRestaurant restaurant) {
+    int ordinal = ordinal(restaurant.id());
+    orderCounts[ordinal] = restaurant.orderCount() != null ? restaurant.orderCount() : 0;
+    totalReviews[ordinal] = restaurant.totalReviews() != null ? restaurant.totalReviews() : 0;
+    ratings[ordinal] = restaurant.rating() != null ? restaurant.rating() : 0.0;
+    cuisineOf[ordinal] = Boolean.TRUE.equals(restaurant.isActive()) ? cuisineOrdinal(restaurant.cuisine()) : -1;
+    return ordinal;
+  }
+
+  // The key of a ranked restaurant went up: it may enter or move within its heaps
+  private void promote(int ordinal) {
+    if (cuisineOf[ordinal] < 0) {
+      return;
+    }
+    overall.increased(ordinal);
+    cuisineTops.get(cuisineOf[ordinal]).increased(ordinal);
+  }
+
+  private void rebuildAround(int previousCuisine, int cuisine) {
+    overall.clear();
+    if (previousCuisine >= 0) {
+      cuisineTops.get(previousCuisine).clear();
+    }
+    if (cuisine >= 0) {
+      cuisineTops.get(cuisine).clear();
+    }
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      int of = cuisineOf[ordinal];
+      if (of >= 0) {
+        overall.increased(ordinal);
+        if (of == previousCuisine || of == cuisine) {
+          cuisineTops.get(of).increased(ordinal);
+        }
+      }
+    }
+  }
+
+  private void rebuildAll() {
+    overall.clear();
+    cuisineTops.forEach(TopK::clear);
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      promote(ordinal);
+    }
+  }
+
+  // Same factor for everyone: order (and so every heap) is unchanged
+  private void rescale(long newLandmarkMillis) {
+    double factor = Math.exp(-lambdaPerMilli * (newLandmarkMillis - landmarkMillis));
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      scores[ordinal] *= factor;
+    }
+    landmarkMillis = newLandmarkMillis;
+  }
+
+  // > 0 when a ranks above b
+  private int compare(int a, int b) {
+    int result = Double.compare(scores[a], scores[b]);
+    if (result == 0) {
+      result = Integer.compare(orderCounts[a], orderCounts[b]);
+    }
+    if (result == 0) {
+      result = Integer.compare(totalReviews[a], totalReviews[b]);
+    }
+    if (result == 0) {
+      result = Double.compare(ratings[a], ratings[b]);
+    }
+    return result != 0 ? result : Integer.compare(b, a);
+  }
+
+  private int ordinal(UUID restaurantId) {
+    Integer existing = ordinals.get(restaurantId);
+    if (existing != null) {
+      return existing;
+    }
+    if (size == ids.length) {
+      int grown = size * 2;
+      ids = Arrays.copyOf(ids, grown);
+      scores = Arrays.copyOf(scores, grown);
+      orderCounts = Arrays.copyOf(orderCounts, grown);
+      totalReviews = Arrays.copyOf(totalReviews, grown);
+      ratings = Arrays.copyOf(ratings, grown);
+      cuisineOf = Arrays.copyOf(cuisineOf, grown);
+    }
+    int ordinal = size++;
+    ids[ordinal] = restaurantId;
+    cuisineOf[ordinal] = -1;
+    ordinals.put(restaurantId, ordinal);
+    return ordinal;
+  }
+
+  private int cuisineOrdinal(String cuisine) {
+    String key = cuisineKey(cuisine);
+    return cuisineOrdinals.computeIfAbsent(key != null ? key : "", k -> {
+      cuisineTops.add(new TopK(topK));
+      return cuisineTops.size() - 1;
+    });
+  }
+
+  // Cuisines are free text: matched ignoring case and surrounding spaces
+  private static String cuisineKey(String cuisine) {
+    if (cuisine == null || cuisine.isBlank()) {
+      return null;
+    }
+    return cuisine.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /** Min-heap of the K best ordinals: the root is the weakest entry, the one a newcomer must beat. */
+  private class TopK {
+
+    private final int[] heap;
+    private int count;
+
+    TopK(int capacity) {
+      this.heap = new int[Math.max(1, capacity)];
+    }
+
+    void clear() {
+      count = 0;
+    }
+
+    // Keys only go up, so an entry moves towards the leaves and a newcomer only has to beat the root
+    void increased(int ordinal) {
+      for (int i = 0; i < count; i++) {
+        if (heap[i] == ordinal) {
+          siftDown(i);
+          return;
+        }
+      }
+      if (count < heap.length) {
+        heap[count] = ordinal;
+        siftUp(count++);
+      } else if (compare(ordinal, heap[0]) > 0) {
+        heap[0] = ordinal;
+        siftDown(0);
+      }
+    }
+
+    List<Integer> best(int limit) {
+      Integer[] sorted = new Integer[count];
+      for (int i = 0; i < count; i++) {
+        sorted[i] = heap[i];
+      }
+      Arrays.sort(sorted, (a, b) -> compare(b, a));
+      return Arrays.asList(sorted).subList(0, Math.min(Math.max(limit, 0), count));
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (compare(heap[index], heap[parent]) >= 0) {
+          return;
+        }
+        swap(index, parent);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int left = 2 * index + 1;
+        if (left >= count) {
+          return;
+        }
+        int smallest = left + 1 < count && compare(heap[left + 1], heap[left]) < 0 ? left + 1 : left;
+        if (compare(heap[smallest], heap[index]) >= 0) {
+          return;
+        }
+        swap(index, smallest);
+        index = smallest;
+      }
+    }
+
+    private void swap(int a, int b) {
+      int value = heap[a];
+      heap[a] = heap[b];
+      heap[b] = value;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.foodya.foodya_backend.restaurant.popularity;
+
+import java.util.UUID;
+
+/** Restaurant columns the popularity ranking needs: cuisine, visibility and tie-breakers. */
+public record RankedRestaurant(
+    UUID id,
+    String cuisine,
+    Boolean isActive,
+    Integer orderCount,
+    Integer totalReviews,
+    Double rating) {
+
+  /** Select clause for repository queries (alias {@code r}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.restaurant.popularity.RankedRestaurant("
+      + "r.id, r.cuisine, r.isActive, r.orderCount, r.totalReviews, r.rating) FROM Restaurant r ";
+}
@@ -2,9 +2,11 @@ package com.foodya.foodya_backend.restaurant.repository;
 
 import com.foodya.foodya_backend.restaurant.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -38,5 +40,13 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
      */
     @Query("SELECT c FROM Category c WHERE c.restaurant.id = :restaurantId AND LOWER(c.name) = LOWER(:name)")
     Optional<Category> findByNameAndRestaurantId(@Param("name") String name, @Param("restaurantId") UUID restaurantId);
+
+    /**
+     * Điền name_key cho các category tạo trước khi có unique constraint
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Category c SET c.nameKey = LOWER(TRIM(c.name)) WHERE c.nameKey IS NULL")
+    int backfillNameKeys();
 }
 
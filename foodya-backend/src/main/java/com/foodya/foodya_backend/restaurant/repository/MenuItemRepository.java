@@ -1,23 +1,50 @@
 package com.foodya.foodya_backend.restaurant.repository;
 
+import com.foodya.foodya_backend.restaurant.dish.IndexedDish;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemCard;
 import com.foodya.foodya_backend.restaurant.model.MenuItem;
+import com.foodya.foodya_backend.search.index.SearchableDish;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
+public interface MenuItemRepository extends JpaRepository<MenuItem, UUID>, JpaSpecificationExecutor<MenuItem> {
 
   // Find by restaurant
   List<MenuItem> findByRestaurantId(UUID restaurantId);
 
+  // Ownership index: resolve the owning restaurant without loading the item
+  @Query("SELECT m.restaurant.id FROM MenuItem m WHERE m.id = :id")
+  Optional<UUID> findRestaurantIdById(@Param("id") UUID id);
+
+  // Menu item counts for a page of restaurants: one grouped query instead of loading every menu
+  @Query("SELECT m.restaurant.id AS restaurantId, COUNT(m) AS count FROM MenuItem m " +
+      "WHERE m.restaurant.id IN :restaurantIds GROUP BY m.restaurant.id")
+  List<MenuItemCount> countByRestaurantIds(@Param("restaurantIds") Collection<UUID> restaurantIds);
+
+  long countByRestaurantId(UUID restaurantId);
+
+  interface MenuItemCount {
+    UUID getRestaurantId();
+
+    long getCount();
+  }
+
   // Find active menu items by restaurant
   List<MenuItem> findByRestaurantIdAndIsActiveTrue(UUID restaurantId);
 
@@ -36,6 +63,10 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
   // Find by restaurant and category (active and available only)
   List<MenuItem> findByRestaurantIdAndIsActiveTrueAndIsAvailableTrue(UUID restaurantId);
 
+  // Search index rebuild: every active item, restaurant left as an unloaded proxy
+  @Query("SELECT m FROM MenuItem m WHERE m.isActive = true")
+  List<MenuItem> findAllActive();
+
   // Search by name
   @Query("SELECT m FROM MenuItem m WHERE LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) AND m.isActive = true")
   List<MenuItem> searchByName(@Param("keyword") String keyword);
@@ -44,44 +75,52 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
   @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) AND m.isActive = true")
   List<MenuItem> searchByRestaurantAndName(@Param("restaurantId") UUID restaurantId, @Param("keyword") String keyword);
 
-  // Find by price range
-  @Query("SELECT m FROM MenuItem m WHERE m.price BETWEEN :minPrice AND :maxPrice AND m.isActive = true")
-  List<MenuItem> findByPriceRange(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
-
   // Find by restaurant and price range
   @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.price BETWEEN :minPrice AND :maxPrice AND m.isActive = true")
   List<MenuItem> findByRestaurantAndPriceRange(@Param("restaurantId") UUID restaurantId,
       @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
 
-  // Find vegetarian items
-  List<MenuItem> findByIsVegetarianTrue();
+  Page<MenuItem> findByRestaurantIdAndIsActiveTrueAndIsAvailableTrue(UUID restaurantId, Pageable pageable);
 
-  // Find vegan items
-  List<MenuItem> findByIsVeganTrue();
+  // Whole menu of a restaurant as cards, inactive items included (menu snapshots)
+  @Query(MenuItemCard.SELECT + "WHERE r.id = :restaurantId ORDER BY m.name ASC")
+  List<MenuItemCard> findCardsByRestaurantId(@Param("restaurantId") UUID restaurantId);
 
-  // Find gluten-free items
-  List<MenuItem> findByIsGlutenFreeTrue();
+  // One page of dish filter results, in no particular order
+  @Query(MenuItemCard.SELECT + "WHERE m.id IN :ids")
+  List<MenuItemCard> findCardsByIds(@Param("ids") Collection<UUID> ids);
 
-  // Find spicy items
-  List<MenuItem> findByIsSpicyTrue();
+  // Trending dishes: listed items among the given ids, in no particular order
+  @Query(MenuItemCard.SELECT + "WHERE m.id IN :ids AND m.isActive = true AND m.isAvailable = true AND r.isActive = true")
+  List<MenuItemCard> findListedCardsByIds(@Param("ids") Collection<UUID> ids);
 
-  // Find popular items by restaurant
-  @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.isActive = true ORDER BY m.orderCount DESC")
-  Page<MenuItem> findPopularItemsByRestaurant(@Param("restaurantId") UUID restaurantId, Pageable pageable);
+  // Dish popularity rebuild: stored all-time counts (items never ordered are left out)
+  @Query("SELECT m.id AS menuItemId, m.orderCount AS orderCount FROM MenuItem m WHERE m.orderCount > 0")
+  List<MenuItemOrderCount> findOrderCounts();
 
-  // Find items by dietary preferences
-  @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId " +
-      "AND (:vegetarian IS NULL OR m.isVegetarian = :vegetarian) " +
-      "AND (:vegan IS NULL OR m.isVegan = :vegan) " +
-      "AND (:glutenFree IS NULL OR m.isGlutenFree = :glutenFree) " +
-      "AND m.isActive = true")
-  List<MenuItem> findByDietaryPreferences(
-      @Param("restaurantId") UUID restaurantId,
-      @Param("vegetarian") Boolean vegetarian,
-      @Param("vegan") Boolean vegan,
-      @Param("glutenFree") Boolean glutenFree);
+  interface MenuItemOrderCount {
+    UUID getMenuItemId();
 
-  Page<MenuItem> findByRestaurantIdAndIsActiveTrueAndIsAvailableTrue(UUID restaurantId, Pageable pageable);
+    int getOrderCount();
+  }
+
+  // Dish filter index rebuild: filterable columns of every listed item, streamed without entities
+  @Query(IndexedDish.SELECT)
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+  Stream<IndexedDish> streamIndexedDishes();
+
+  // Empty when the item is gone, inactive or unavailable
+  @Query(IndexedDish.SELECT + "AND m.id = :id")
+  Optional<IndexedDish> findIndexedDishById(@Param("id") UUID id);
+
+  // Search index rebuild: searchable columns of every active item, streamed without entities
+  @Query(SearchableDish.SELECT)
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+  Stream<SearchableDish> streamSearchableDishes();
+
+  // Empty when the item is gone or inactive
+  @Query(SearchableDish.SELECT + "AND m.id = :id")
+  Optional<SearchableDish> findSearchableDishById(@Param("id") UUID id);
 
   // Check if menu item exists by name and restaurant
   boolean existsByNameAndRestaurantId(String name, UUID restaurantId);
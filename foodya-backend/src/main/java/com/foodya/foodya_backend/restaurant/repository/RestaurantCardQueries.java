@@ -0,0 +1,16 @@
+package com.foodya.foodya_backend.restaurant.repository;
+
+import com.foodya.foodya_backend.restaurant.dto.RestaurantCard;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/** Criteria-built card listings (dynamic filters plus keyset predicates), mixed into {@link RestaurantRepository}. */
+public interface RestaurantCardQueries {
+
+  /** Up to {@code limit} cards matching {@code filter}, in {@code sort} order; no entity is hydrated. */
+  List<RestaurantCard> findCards(Specification<Restaurant> filter, Sort sort, int limit);
+}
@@ -0,0 +1,44 @@
+package com.foodya.foodya_backend.restaurant.repository;
+
+import com.foodya.foodya_backend.restaurant.dto.RestaurantCard;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class RestaurantCardQueriesImpl implements RestaurantCardQueries {
+
+  // Same columns, in the same order, as RestaurantCard.SELECT
+  private static final List<String> CARD_ATTRIBUTES = List.of(
+      "id", "name", "address", "phoneNumber", "description", "cuisine", "rating", "totalReviews",
+      "isOpen", "isActive", "imageUrl", "openingTime", "closingTime", "deliveryFee",
+      "estimatedDeliveryTime", "createdAt", "updatedAt");
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<RestaurantCard> findCards(Specification<Restaurant> filter, Sort sort, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<RestaurantCard> query = cb.createQuery(RestaurantCard.class);
+    Root<Restaurant> root = query.from(Restaurant.class);
+    query.select(cb.construct(RestaurantCard.class,
+        CARD_ATTRIBUTES.stream().map(root::get).toArray(Selection[]::new)));
+    Predicate where = filter != null ? filter.toPredicate(root, query, cb) : null;
+    if (where != null) {
+      query.where(where);
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, cb));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+}
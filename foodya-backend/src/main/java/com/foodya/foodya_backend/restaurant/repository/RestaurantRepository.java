@@ -1,20 +1,34 @@
 package com.foodya.foodya_backend.restaurant.repository;
 
+import com.foodya.foodya_backend.restaurant.dish.IndexedRestaurant;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantCard;
+import com.foodya.foodya_backend.restaurant.geo.LocatedRestaurant;
 import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.popularity.RankedRestaurant;
+import com.foodya.foodya_backend.search.index.SearchableRestaurant;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
+public interface RestaurantRepository extends JpaRepository<Restaurant, UUID>, JpaSpecificationExecutor<Restaurant>,
+    RestaurantCardQueries, RestaurantSearchQueries {
 
   // Find by name
   Optional<Restaurant> findByName(String name);
@@ -22,6 +36,54 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
   // Find by owner
   List<Restaurant> findByOwnerId(UUID ownerId);
 
+  // Ownership index: ids only, no entity load
+  @Query("SELECT r.id FROM Restaurant r WHERE r.ownerId = :ownerId")
+  List<UUID> findIdsByOwnerId(@Param("ownerId") UUID ownerId);
+
+  @Query("SELECT r.ownerId FROM Restaurant r WHERE r.id = :id")
+  Optional<UUID> findOwnerIdById(@Param("id") UUID id);
+
+  // Conditional GET: the only column read to answer If-None-Match
+  @Query("SELECT COALESCE(r.catalogVersion, 0) FROM Restaurant r WHERE r.id = :id")
+  Optional<Long> findCatalogVersionById(@Param("id") UUID id);
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE Restaurant r SET r.catalogVersion = COALESCE(r.catalogVersion, 0) + 1 WHERE r.id = :id")
+  int bumpCatalogVersion(@Param("id") UUID id);
+
+  // Dish filter index: whether each restaurant's dishes are listed and open
+  @Query(IndexedRestaurant.SELECT)
+  List<IndexedRestaurant> findAllIndexed();
+
+  @Query(IndexedRestaurant.SELECT + "WHERE r.id = :id")
+  Optional<IndexedRestaurant> findIndexedById(@Param("id") UUID id);
+
+  // Popularity ranking: cuisine, visibility and tie-breakers of each restaurant
+  @Query(RankedRestaurant.SELECT)
+  List<RankedRestaurant> findAllRanked();
+
+  @Query(RankedRestaurant.SELECT + "WHERE r.id = :id")
+  Optional<RankedRestaurant> findRankedById(@Param("id") UUID id);
+
+  // Search index rebuild: searchable columns of every active restaurant, streamed without entities
+  @Query(SearchableRestaurant.SELECT)
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+  Stream<SearchableRestaurant> streamSearchableRestaurants();
+
+  // Empty when the restaurant is gone or inactive
+  @Query(SearchableRestaurant.SELECT + "AND r.id = :id")
+  Optional<SearchableRestaurant> findSearchableById(@Param("id") UUID id);
+
+  // Nearby index rebuild: listing columns of every active restaurant with coordinates, without entities
+  @Query(LocatedRestaurant.SELECT)
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+  Stream<LocatedRestaurant> streamLocatedRestaurants();
+
+  // Empty when the restaurant is gone, inactive or has no coordinates
+  @Query(LocatedRestaurant.SELECT + "AND r.id = :id")
+  Optional<LocatedRestaurant> findLocatedById(@Param("id") UUID id);
+
   // Find active restaurants
   List<Restaurant> findByIsActiveTrue();
 
@@ -61,6 +123,38 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
    */
   Page<Restaurant> findByIsActiveTrue(Pageable pageable);
 
+  /**
+   * Active restaurants as list cards (see RestaurantCard)
+   */
+  @Query(value = RestaurantCard.SELECT + "WHERE r.isActive = true",
+      countQuery = "SELECT COUNT(r) FROM Restaurant r WHERE r.isActive = true")
+  Page<RestaurantCard> findActiveCards(Pageable pageable);
+
+  /**
+   * Active restaurants among the given ids, as list cards (in no particular order)
+   */
+  @Query(RestaurantCard.SELECT + "WHERE r.id IN :ids AND r.isActive = true")
+  List<RestaurantCard> findActiveCardsByIds(@Param("ids") Collection<UUID> ids);
+
+  /**
+   * Same filters as findByFilters, as list cards
+   */
+  @Query(value = RestaurantCard.SELECT + "WHERE r.isActive = true " +
+      "AND (:keyword IS NULL OR LOWER(r.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+      "    OR LOWER(r.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+      "AND (:cuisine IS NULL OR LOWER(r.cuisine) = LOWER(:cuisine)) " +
+      "AND (:minRating IS NULL OR r.rating >= :minRating)",
+      countQuery = "SELECT COUNT(r) FROM Restaurant r WHERE r.isActive = true " +
+          "AND (:keyword IS NULL OR LOWER(r.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+          "    OR LOWER(r.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+          "AND (:cuisine IS NULL OR LOWER(r.cuisine) = LOWER(:cuisine)) " +
+          "AND (:minRating IS NULL OR r.rating >= :minRating)")
+  Page<RestaurantCard> findCardsByFilters(
+      @Param("keyword") String keyword,
+      @Param("cuisine") String cuisine,
+      @Param("minRating") Double minRating,
+      Pageable pageable);
+
   /**
    * Search restaurants by keyword with pagination
    */
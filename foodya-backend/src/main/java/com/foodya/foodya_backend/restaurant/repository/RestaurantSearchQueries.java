@@ -0,0 +1,23 @@
+package com.foodya.foodya_backend.restaurant.repository;
+
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Full-text search whose SQL depends on where pg_trgm is installed, so it cannot be a static {@code @Query}.
+ */
+public interface RestaurantSearchQueries {
+
+  /**
+   * Ranked full-text search (requires db/search/restaurant_search.sql, see RestaurantSearchSchema).
+   * Matches the accent-insensitive tsvector or a fuzzy name match on the trigram index.
+   * Results are ordered by relevance, then by {@code sortBy} (popular, rating or name) among equally
+   * relevant rows; the pageable must be unsorted.
+   *
+   * @param trigramSchema schema of the pg_trgm extension, used to qualify its operator and functions
+   */
+  Page<Restaurant> searchFullText(String keyword, String cuisine, Double minRating, String trigramSchema,
+      String sortBy, Pageable pageable);
+}
@@ -0,0 +1,73 @@
+package com.foodya.foodya_backend.restaurant.repository;
+
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class RestaurantSearchQueriesImpl implements RestaurantSearchQueries {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public Page<Restaurant> searchFullText(String keyword, String cuisine, Double minRating, String trigramSchema,
+      String sortBy, Pageable pageable) {
+    String where = where(trigramSchema);
+    Query select = entityManager.createNativeQuery(
+        "SELECT r.* FROM restaurants r " + where + orderBy(trigramSchema, sortBy), Restaurant.class);
+    bind(select, keyword, cuisine, minRating);
+    select.setFirstResult((int) pageable.getOffset());
+    select.setMaxResults(pageable.getPageSize());
+    @SuppressWarnings("unchecked")
+    List<Restaurant> content = select.getResultList();
+
+    return PageableExecutionUtils.getPage(content, pageable, () -> {
+      Query count = entityManager.createNativeQuery("SELECT COUNT(*) FROM restaurants r " + where);
+      bind(count, keyword, cuisine, minRating);
+      return ((Number) count.getSingleResult()).longValue();
+    });
+  }
+
+  /**
+   * pg_trgm may live outside "public" (Supabase installs it in "extensions"), so its operator is
+   * called as OPERATOR(schema.%&gt;), like the functions the search script creates in "public".
+   */
+  static String where(String trigramSchema) {
+    return "WHERE r.is_active = true "
+        + "AND (r.search_vector @@ websearch_to_tsquery('public.foodya_unaccent', :keyword) "
+        + "    OR public.f_unaccent(lower(r.name)) OPERATOR(" + quote(trigramSchema) + ".%>) "
+        + "public.f_unaccent(lower(:keyword))) "
+        + "AND (CAST(:cuisine AS text) IS NULL OR lower(r.cuisine) = lower(CAST(:cuisine AS text))) "
+        + "AND (CAST(:minRating AS double precision) IS NULL OR r.rating >= CAST(:minRating AS double precision)) ";
+  }
+
+  // Relevance first; sortBy only orders rows the ranking cannot tell apart
+  static String orderBy(String trigramSchema, String sortBy) {
+    String tieBreak = switch (sortBy == null ? "popular" : sortBy) {
+      case "rating" -> "r.rating DESC, r.total_reviews DESC";
+      case "name" -> "r.name ASC";
+      default -> "r.total_reviews DESC, r.rating DESC";
+    };
+    return "ORDER BY ts_rank_cd(r.search_vector, websearch_to_tsquery('public.foodya_unaccent', :keyword)) DESC, "
+        + "    " + quote(trigramSchema) + ".word_similarity(public.f_unaccent(lower(:keyword)), "
+        + "public.f_unaccent(lower(r.name))) DESC, "
+        + "    " + tieBreak + ", r.id";
+  }
+
+  static String quote(String identifier) {
+    return "\"" + identifier.replace("\"", "\"\"") + "\"";
+  }
+
+  private static void bind(Query query, String keyword, String cuisine, Double minRating) {
+    query.setParameter("keyword", keyword);
+    query.setParameter("cuisine", cuisine);
+    query.setParameter("minRating", minRating);
+  }
+}
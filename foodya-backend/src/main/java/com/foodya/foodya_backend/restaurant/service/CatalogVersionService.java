@@ -0,0 +1,83 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.restaurant.event.CategoryChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-restaurant catalog version (restaurants.catalog_version), the validator behind ETags on
+ * public restaurant, menu and category responses, and the freshness check of in-memory menu snapshots.
+ * <p>
+ * Bumped before commit, in the same transaction as the write, so the new version and the new data
+ * become visible together on every instance. Kept in the database rather than in memory so ETags
+ * survive restarts and agree across instances.
+ * <p>
+ * Reads are remembered for {@code revalidate-ms}: local writes drop the entry on commit, writes on
+ * other instances are seen within that interval. A version read earlier in a request is never
+ * newer than data read later, so a response never carries a tag newer than its body.
+ */
+@Service
+public class CatalogVersionService {
+
+  private final RestaurantRepository restaurantRepository;
+  private final Cache<UUID, Long> versions;
+
+  public CatalogVersionService(RestaurantRepository restaurantRepository,
+      @Value("${app.catalog.version.revalidate-ms:1000}") long revalidateMs,
+      @Value("${app.catalog.version.max-size:10000}") long maxSize) {
+    this.restaurantRepository = restaurantRepository;
+    this.versions = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofMillis(revalidateMs))
+        .build();
+  }
+
+  /** Current version; empty if the restaurant does not exist. */
+  public Optional<Long> version(@NonNull UUID restaurantId) {
+    return Optional.ofNullable(versions.get(restaurantId,
+        id -> restaurantRepository.findCatalogVersionById(id).orElse(null)));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    restaurantRepository.bumpCatalogVersion(event.restaurantId());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onMenuItemChanged(MenuItemChangedEvent event) {
+    restaurantRepository.bumpCatalogVersion(event.restaurantId());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    restaurantRepository.bumpCatalogVersion(event.restaurantId());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void afterRestaurantChanged(RestaurantChangedEvent event) {
+    versions.invalidate(event.restaurantId());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void afterMenuItemChanged(MenuItemChangedEvent event) {
+    versions.invalidate(event.restaurantId());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void afterCategoryChanged(CategoryChangedEvent event) {
+    versions.invalidate(event.restaurantId());
+  }
+}
@@ -6,14 +6,21 @@ import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
 import com.foodya.foodya_backend.exception.security.UnauthorizedException;
 import com.foodya.foodya_backend.restaurant.dto.CategoryRequest;
 import com.foodya.foodya_backend.restaurant.dto.CategoryResponse;
+import com.foodya.foodya_backend.restaurant.event.CategoryChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
 import com.foodya.foodya_backend.restaurant.model.Category;
 import com.foodya.foodya_backend.restaurant.model.Restaurant;
 import com.foodya.foodya_backend.restaurant.repository.CategoryRepository;
 import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.utils.persistence.UniqueConstraints;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +35,23 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final RestaurantRepository restaurantRepository;
     private final OwnershipService ownershipService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Rows created before name_key existed are not covered by the unique constraint until it is filled.
+     * Fails as a whole (and only logs) if legacy data already holds case-insensitive duplicates.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillNameKeys() {
+        try {
+            int updated = categoryRepository.backfillNameKeys();
+            if (updated > 0) {
+                log.info("Backfilled name_key for {} categories", updated);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Could not backfill category name_key, duplicate names exist: {}", ex.getMostSpecificCause().getMessage());
+        }
+    }
 
     // ========== OWNER/ADMIN METHODS ==========
 
@@ -44,23 +68,27 @@ public class CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
 
         // Check ownership
-        if (!ownershipService.isRestaurantOwner(restaurantId) && !ownershipService.isAdmin()) {
+        if (!ownershipService.canManageRestaurant(restaurantId)) {
             throw new UnauthorizedException("You don't have permission to create categories for this restaurant");
         }
 
-        // Validate: Tên không được trùng trong cùng một nhà hàng
-        if (categoryRepository.existsByNameAndRestaurantId(request.getName(), restaurantId)) {
-            throw new DuplicateResourceException("Category with name '" + request.getName() + "' already exists for this restaurant");
-        }
-
         // Create category
         Category category = Category.builder()
                 .name(request.getName())
                 .restaurant(restaurant)
                 .build();
 
-        Category savedCategory = categoryRepository.save(category);
+        // Validate: Tên không được trùng trong cùng một nhà hàng (uk_category_restaurant_name_key, case-insensitive)
+        Category savedCategory;
+        try {
+            savedCategory = categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException ex) {
+            throw UniqueConstraints.translate(ex, List.of(
+                    new UniqueConstraints.Rule(Category.UK_RESTAURANT_NAME_KEY, "restaurant_id, name_key",
+                            "Category with name '" + request.getName() + "' already exists for this restaurant")));
+        }
         log.info("Category created successfully with ID: {}", savedCategory.getId());
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId(), restaurantId, ChangeType.CREATED));
 
         return CategoryResponse.fromEntity(savedCategory);
     }
@@ -74,7 +102,7 @@ public class CategoryService {
         log.info("Updating category ID: {} for restaurant ID: {}", categoryId, restaurantId);
 
         // Check ownership
-        if (!ownershipService.isRestaurantOwner(restaurantId) && !ownershipService.isAdmin()) {
+        if (!ownershipService.canManageRestaurant(restaurantId)) {
             throw new UnauthorizedException("You don't have permission to update categories for this restaurant");
         }
 
@@ -103,6 +131,7 @@ public class CategoryService {
 
         Category updatedCategory = categoryRepository.save(category);
         log.info("Category updated successfully: {}", categoryId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId, restaurantId, ChangeType.UPDATED));
 
         return CategoryResponse.fromEntity(updatedCategory);
     }
@@ -115,7 +144,7 @@ public class CategoryService {
         log.info("Deleting category ID: {} for restaurant ID: {}", categoryId, restaurantId);
 
         // Check ownership
-        if (!ownershipService.isRestaurantOwner(restaurantId) && !ownershipService.isAdmin()) {
+        if (!ownershipService.canManageRestaurant(restaurantId)) {
             throw new UnauthorizedException("You don't have permission to delete categories for this restaurant");
         }
 
@@ -129,6 +158,7 @@ public class CategoryService {
 
         // Delete category
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId, restaurantId, ChangeType.DELETED));
 
         log.info("Category deleted successfully: {}", categoryId);
     }
@@ -147,7 +177,7 @@ public class CategoryService {
         }
 
         // Check ownership (optional - có thể cho phép admin xem)
-        if (!ownershipService.isRestaurantOwner(restaurantId) && !ownershipService.isAdmin()) {
+        if (!ownershipService.canManageRestaurant(restaurantId)) {
             throw new UnauthorizedException("You don't have permission to view all categories for this restaurant");
         }
 
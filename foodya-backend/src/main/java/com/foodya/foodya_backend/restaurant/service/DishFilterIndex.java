@@ -0,0 +1,119 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.restaurant.dish.DishBitmapIndex;
+import com.foodya.foodya_backend.restaurant.dish.DishFilter;
+import com.foodya.foodya_backend.restaurant.dish.IndexedDish;
+import com.foodya.foodya_backend.restaurant.dish.IndexedRestaurant;
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.utils.rebuild.RebuildableState;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bitmap index of listed dishes (active, available) across every restaurant, answering combined
+ * dietary / category / price / open-now filters without touching the database.
+ * <p>
+ * Built at startup and rebuilt periodically (puts dishes written since back in price order and
+ * drops retired slots). Committed menu item and restaurant changes are applied one at a time;
+ * changes that land while a rebuild is loading are replayed onto the new index.
+ */
+@Component
+@Slf4j
+public class DishFilterIndex {
+
+  private final MenuItemRepository menuItemRepository;
+  private final RestaurantRepository restaurantRepository;
+  private final TransactionTemplate readOnly;
+
+  private final RebuildableState<DishBitmapIndex> index = new RebuildableState<>(new DishBitmapIndex());
+
+  public DishFilterIndex(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+    this.menuItemRepository = menuItemRepository;
+    this.restaurantRepository = restaurantRepository;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    Gauge.builder("foodya.dish.index.dishes", this, dishes -> dishes.index.get().size())
+        .description("Dishes in the dish filter index")
+        .register(meterRegistry);
+    Gauge.builder("foodya.dish.index.unsorted", this, dishes -> dishes.index.get().unsortedSlots())
+        .description("Dish slots appended since the last rebuild, scanned on price filters")
+        .register(meterRegistry);
+    Gauge.builder("foodya.dish.index.memory", this, dishes -> dishes.index.get().estimatedBytes())
+        .description("Approximate heap held by the dish filter index")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /** Page {@code [offset, offset + limit)} of matching dish ids, cheapest first. */
+  public DishBitmapIndex.Result query(DishFilter filter, int offset, int limit) {
+    return index.get().query(filter, offset, limit);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${app.dish.index.rebuild-ms:600000}",
+      fixedDelayString = "${app.dish.index.rebuild-ms:600000}")
+  public void rebuild() {
+    long start = System.currentTimeMillis();
+    DishBitmapIndex rebuilt = index.rebuild(() -> {
+      DishBitmapIndex.Loader loader = new DishBitmapIndex.Loader();
+      readOnly.executeWithoutResult(status -> {
+        restaurantRepository.findAllIndexed().forEach(loader::restaurant);
+        try (Stream<IndexedDish> dishes = menuItemRepository.streamIndexedDishes()) {
+          dishes.forEach(loader::dish);
+        }
+      });
+      return loader.finish();
+    });
+    if (rebuilt != null) {
+      log.info("Dish filter index built: {} dishes, {} categories (~{} MB) in {} ms",
+          rebuilt.size(), rebuilt.categoryCount(), rebuilt.estimatedBytes() / (1024 * 1024),
+          System.currentTimeMillis() - start);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onMenuItemChanged(MenuItemChangedEvent event) {
+    UUID menuItemId = event.menuItemId();
+    Optional<IndexedDish> dish = event.type() == ChangeType.DELETED
+        ? Optional.empty()
+        : menuItemRepository.findIndexedDishById(menuItemId);
+    // The restaurant state comes along so a dish of a restaurant created since the build is not hidden
+    Optional<IndexedRestaurant> restaurant = dish
+        .flatMap(found -> restaurantRepository.findIndexedById(found.restaurantId()));
+    index.apply(target -> {
+      restaurant.ifPresent(target::restaurant);
+      dish.ifPresentOrElse(target::upsert, () -> target.remove(menuItemId));
+    });
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    UUID restaurantId = event.restaurantId();
+    Optional<IndexedRestaurant> restaurant = event.type() == ChangeType.DELETED
+        ? Optional.empty()
+        : restaurantRepository.findIndexedById(restaurantId);
+    index.apply(target -> restaurant.ifPresentOrElse(target::restaurant, () -> target.removeRestaurant(restaurantId)));
+  }
+}
@@ -0,0 +1,207 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.order.event.OrderDeliveredEvent;
+import com.foodya.foodya_backend.order.repository.OrderItemRepository;
+import com.foodya.foodya_backend.restaurant.popularity.DecayWindow;
+import com.foodya.foodya_backend.restaurant.popularity.DishTally;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.utils.rebuild.RebuildableState;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dish popularity from delivered orders: the all-time quantity behind "popular" menu items and a
+ * decayed "trending" quantity behind city-wide trending dishes, both counted in memory
+ * (see {@link DishTally}).
+ * <p>
+ * Built at startup and rebuilt periodically: all-time counts from {@code menu_items.order_count},
+ * trending scores from the orders delivered within the last few half-lives, so every instance
+ * converges. Deliveries are applied as they commit; those landing while a rebuild is loading are
+ * replayed onto the new tally, except orders the load already saw. The live all-time count is the
+ * stored one plus what is still pending: a rebuild loads the first and adds the second as it swaps,
+ * with flushes held off. Every few seconds, and on shutdown, dishes with new deliveries get
+ * one JDBC batch: the quantity is added to {@code order_count} and the current trending score is
+ * stored with its timestamp. The trending top list is refreshed on the same tick.
+ */
+@Component
+@Slf4j
+public class DishPopularityService {
+
+  // order_count is relative, so flushes from several instances add up; the trending score is this
+  // instance's view as of trending_at, read with the same decay
+  private static final String ADD_DELIVERIES =
+      "UPDATE menu_items SET order_count = COALESCE(order_count, 0) + ?, trending_score = ?, trending_at = ? "
+          + "WHERE id = ?";
+
+  private final MenuItemRepository menuItemRepository;
+  private final OrderItemRepository orderItemRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnly;
+  private final long halfLifeMillis;
+  private final int topK;
+
+  private final RebuildableState<DishTally> tally;
+  private volatile List<UUID> trending = List.of();
+  // Delivered quantities not flushed yet. Entries are never removed (one per dish delivered since
+  // startup): dropping one could lose an add racing with the flush
+  private final ConcurrentHashMap<UUID, LongAdder> pendingDeliveries = new ConcurrentHashMap<>();
+  private final Object flushLock = new Object();
+  // Recently delivered orders the running rebuild loaded: replaying them would count them twice
+  private volatile Set<UUID> reloadedOrders = Set.of();
+
+  public DishPopularityService(MenuItemRepository menuItemRepository, OrderItemRepository orderItemRepository,
+      JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${app.dish.popularity.half-life-minutes:60}") long halfLifeMinutes,
+      @Value("${app.dish.popularity.top-k:100}") int topK) {
+    this.menuItemRepository = menuItemRepository;
+    this.orderItemRepository = orderItemRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.halfLifeMillis = Duration.ofMinutes(halfLifeMinutes).toMillis();
+    this.topK = topK;
+    this.tally = new RebuildableState<>(new DishTally(halfLifeMillis, System.currentTimeMillis()));
+
+    Gauge.builder("foodya.dish.popularity.tracked", this, popularity -> popularity.tally.get().size())
+        .description("Dishes with an order count in the dish popularity tally")
+        .register(meterRegistry);
+    Gauge.builder("foodya.dish.popularity.pending", this, DishPopularityService::pendingQuantity)
+        .description("Delivered dish quantity not yet added to menu_items.order_count")
+        .register(meterRegistry);
+  }
+
+  /** All-time delivered quantity, or {@code fallback} for a dish never counted here (e.g. before the first build). */
+  public int orderCount(UUID menuItemId, int fallback) {
+    return (int) Math.min(Integer.MAX_VALUE, tally.get().orders(menuItemId, fallback));
+  }
+
+  /** Up to top-k dish ids with the highest trending score, best first, as of the last refresh. */
+  public List<UUID> trending() {
+    return trending;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${app.dish.popularity.rebuild-ms:600000}",
+      fixedDelayString = "${app.dish.popularity.rebuild-ms:600000}")
+  public void rebuild() {
+    long start = System.currentTimeMillis();
+    DishTally rebuilt;
+    // No flush may move deliveries from pending into the stored counts between load and swap
+    synchronized (flushLock) {
+      rebuilt = tally.rebuild(() -> {
+        DishTally loaded = new DishTally(halfLifeMillis, start);
+        LocalDateTime recent = LocalDateTime.now().minus(RebuildableState.COMMIT_LAG);
+        Set<UUID> recentOrders = new HashSet<>();
+        readOnly.executeWithoutResult(status -> {
+          menuItemRepository.findOrderCounts()
+              .forEach(count -> loaded.addOrders(count.getMenuItemId(), count.getOrderCount()));
+          orderItemRepository.findDeliveredSince(DecayWindow.since(halfLifeMillis)).forEach(item -> {
+            loaded.addTrending(item.getMenuItemId(), item.getQuantity(),
+                item.getDeliveredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            if (!item.getDeliveredAt().isBefore(recent)) {
+              recentOrders.add(item.getOrderId());
+            }
+          });
+        });
+        reloadedOrders = recentOrders;
+        return loaded;
+      }, loaded -> pendingDeliveries.forEach((id, quantity) -> loaded.addOrders(id, quantity.sum())));
+      reloadedOrders = Set.of();
+    }
+    if (rebuilt != null) {
+      trending = rebuilt.topTrending(topK);
+      log.info("Dish popularity built: {} dishes in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onOrderDelivered(OrderDeliveredEvent event) {
+    long at = System.currentTimeMillis();
+    // Pending and the live counts move together; a rebuild adds what is pending as it swaps, so only
+    // the trending part is replayed, and not for an order the load already saw
+    tally.apply(target -> event.quantities().forEach((menuItemId, quantity) -> {
+      pendingDeliveries.computeIfAbsent(menuItemId, id -> new LongAdder()).add(quantity);
+      target.recordDelivered(menuItemId, quantity, at);
+    }), rebuilt -> {
+      if (!reloadedOrders.contains(event.orderId())) {
+        event.quantities().forEach((menuItemId, quantity) -> rebuilt.addTrending(menuItemId, quantity, at));
+      }
+    });
+  }
+
+  @Scheduled(fixedDelayString = "${app.dish.popularity.flush-ms:10000}")
+  public void flush() {
+    synchronized (flushLock) {
+      flushPending();
+    }
+  }
+
+  private void flushPending() {
+    long now = System.currentTimeMillis();
+    Timestamp at = new Timestamp(now);
+    DishTally current = tally.get();
+    List<Object[]> batch = new ArrayList<>();
+    List<LongAdder> drained = new ArrayList<>();
+    List<Long> quantities = new ArrayList<>();
+    pendingDeliveries.forEach((id, pending) -> {
+      long quantity = pending.sum();
+      if (quantity > 0) {
+        batch.add(new Object[] { quantity, current.trending(id, now), at, id });
+        drained.add(pending);
+        quantities.add(quantity);
+      }
+    });
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      jdbcTemplate.batchUpdate(ADD_DELIVERIES, batch);
+      // Subtract what was written rather than reset: deliveries added meanwhile stay pending
+      for (int i = 0; i < drained.size(); i++) {
+        drained.get(i).add(-quantities.get(i));
+      }
+      log.debug("Flushed delivered quantities of {} dishes", batch.size());
+    } catch (RuntimeException ex) {
+      // Still pending: retried on the next tick
+      log.warn("Could not flush delivered quantities of {} dishes, will retry: {}", batch.size(), ex.getMessage());
+    }
+    // Order by trending score only changes with deliveries (the decay is shared), so only refresh then
+    trending = current.topTrending(topK);
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private long pendingQuantity() {
+    return pendingDeliveries.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+}
@@ -1,27 +1,44 @@
 package com.foodya.foodya_backend.restaurant.service;
 
+import com.foodya.foodya_backend.exception.business.BadRequestException;
 import com.foodya.foodya_backend.exception.business.DuplicateResourceException;
 import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
+import com.foodya.foodya_backend.restaurant.dish.DishBitmapIndex;
+import com.foodya.foodya_backend.restaurant.dish.DishFilter;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemCard;
 import com.foodya.foodya_backend.restaurant.dto.MenuItemMapper;
 import com.foodya.foodya_backend.restaurant.dto.MenuItemRequest;
 import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
 import com.foodya.foodya_backend.restaurant.model.MenuItem;
 import com.foodya.foodya_backend.restaurant.model.Restaurant;
 import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
 import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
+import com.foodya.foodya_backend.utils.pagination.Keyset;
+import com.foodya.foodya_backend.utils.persistence.UniqueConstraints;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +48,26 @@ public class MenuItemService {
   private final MenuItemRepository menuItemRepository;
   private final RestaurantRepository restaurantRepository;
   private final MenuItemMapper menuItemMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MenuSnapshotService menuSnapshotService;
+  private final DishFilterIndex dishFilterIndex;
+  private final DishPopularityService dishPopularityService;
+
+  // Keyset orderings for the cursor listing: "sortBy:direction" -> sort key plus id as tie-breaker
+  private static final Map<String, Keyset<MenuItem>> KEYSETS = Map.of(
+      "name:asc", keyset("name", String.class, Sort.Direction.ASC, MenuItem::getName),
+      "name:desc", keyset("name", String.class, Sort.Direction.DESC, MenuItem::getName),
+      "price:asc", keyset("price", Double.class, Sort.Direction.ASC, MenuItem::getPrice),
+      "price:desc", keyset("price", Double.class, Sort.Direction.DESC, MenuItem::getPrice),
+      "orderCount:asc", keyset("orderCount", Integer.class, Sort.Direction.ASC, MenuItem::getOrderCount),
+      "orderCount:desc", keyset("orderCount", Integer.class, Sort.Direction.DESC, MenuItem::getOrderCount));
+
+  private static <V extends Comparable<? super V>> Keyset<MenuItem> keyset(String attribute, Class<V> type,
+      Sort.Direction direction, Function<MenuItem, V> value) {
+    return Keyset.<MenuItem>named(attribute + ":" + direction.name().toLowerCase(Locale.ROOT))
+        .by(attribute, type, direction, value)
+        .by("id", UUID.class, direction, MenuItem::getId);
+  }
 
   /**
    * Create new menu item for a restaurant
@@ -43,20 +80,23 @@ public class MenuItemService {
     Restaurant restaurant = restaurantRepository.findById(restaurantId)
         .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
 
-    // Check if menu item name already exists for this restaurant
-    if (menuItemRepository.existsByNameAndRestaurantId(request.getName(), restaurantId)) {
-      throw new DuplicateResourceException(
-          "Menu item with name '" + request.getName() + "' already exists for this restaurant");
-    }
-
     // Create menu item
     MenuItem menuItem = menuItemMapper.toMenuItem(request);
     menuItem.setRestaurant(restaurant);
     menuItem.setIsActive(true);
     menuItem.setOrderCount(0);
 
-    MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+    // Name uniqueness per restaurant comes from uk_menu_items_restaurant_name
+    MenuItem savedMenuItem;
+    try {
+      savedMenuItem = menuItemRepository.saveAndFlush(menuItem);
+    } catch (DataIntegrityViolationException ex) {
+      throw UniqueConstraints.translate(ex, List.of(
+          new UniqueConstraints.Rule(MenuItem.UK_RESTAURANT_NAME, "restaurant_id, name",
+              "Menu item with name '" + request.getName() + "' already exists for this restaurant")));
+    }
     log.info("Menu item created successfully with ID: {}", savedMenuItem.getId());
+    eventPublisher.publishEvent(new MenuItemChangedEvent(savedMenuItem.getId(), restaurantId, ChangeType.CREATED));
 
     return menuItemMapper.toMenuItemResponse(savedMenuItem);
   }
@@ -81,6 +121,8 @@ public class MenuItemService {
 
     menuItemMapper.updateMenuItemFromRequest(menuItem, request);
     MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
+    eventPublisher.publishEvent(
+        new MenuItemChangedEvent(menuItemId, menuItem.getRestaurant().getId(), ChangeType.UPDATED));
 
     log.info("Menu item updated successfully: {}", menuItemId);
     return menuItemMapper.toMenuItemResponse(updatedMenuItem);
@@ -100,6 +142,8 @@ public class MenuItemService {
     menuItem.setIsActive(false);
     menuItem.setIsAvailable(false);
     menuItemRepository.save(menuItem);
+    eventPublisher.publishEvent(
+        new MenuItemChangedEvent(menuItemId, menuItem.getRestaurant().getId(), ChangeType.DELETED));
 
     log.info("Menu item soft deleted successfully: {}", menuItemId);
   }
@@ -112,11 +156,11 @@ public class MenuItemService {
   public void hardDeleteMenuItem(@NonNull UUID menuItemId) {
     log.info("Hard deleting menu item with ID: {}", menuItemId);
 
-    if (!menuItemRepository.existsById(menuItemId)) {
-      throw new ResourceNotFoundException("Menu item not found with id: " + menuItemId);
-    }
+    UUID restaurantId = menuItemRepository.findRestaurantIdById(menuItemId)
+        .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with id: " + menuItemId));
 
     menuItemRepository.deleteById(menuItemId);
+    eventPublisher.publishEvent(new MenuItemChangedEvent(menuItemId, restaurantId, ChangeType.DELETED));
     log.info("Menu item hard deleted successfully: {}", menuItemId);
   }
 
@@ -134,9 +178,8 @@ public class MenuItemService {
   }
 
   /**
-   * Get all menu items for a restaurant (with pagination and sorting)
+   * Get all menu items for a restaurant (with pagination and sorting), from the menu snapshot
    */
-  @Transactional(readOnly = true)
   public Page<MenuItemResponse> getMenuItemsByRestaurant(
       @NonNull UUID restaurantId,
       int page,
@@ -147,13 +190,36 @@ public class MenuItemService {
     log.info("Fetching menu items for restaurant ID: {} (page: {}, size: {}, sort: {} {})",
         restaurantId, page, size, sortBy, sortDirection);
 
-    Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-    Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+    return menuSnapshotService.snapshot(restaurantId)
+        .map(menu -> menu.availablePage(page, size, sortBy, sortDirection))
+        .orElseGet(() -> new PageImpl<>(List.of(), PageRequest.of(page, size), 0));
+  }
+
+  /**
+   * Cursor (keyset) variant of {@link #getMenuItemsByRestaurant} for infinite scroll: no OFFSET, no COUNT
+   */
+  @Transactional(readOnly = true)
+  public CursorPage<MenuItemResponse> scrollMenuItemsByRestaurant(
+      @NonNull UUID restaurantId,
+      String cursor,
+      int size,
+      String sortBy,
+      String sortDirection) {
+
+    String direction = "desc".equalsIgnoreCase(sortDirection) ? "desc" : "asc";
+    Keyset<MenuItem> keyset = KEYSETS.get(sortBy + ":" + direction);
+    if (keyset == null) {
+      throw new BadRequestException("Unsupported sort field: " + sortBy + " (use name, price or orderCount)");
+    }
 
-    Page<MenuItem> menuItemsPage = menuItemRepository.findByRestaurantIdAndIsActiveTrueAndIsAvailableTrue(restaurantId,
-        pageable);
+    Specification<MenuItem> filters = (root, query, cb) -> cb.and(
+        cb.equal(root.get("restaurant").get("id"), restaurantId),
+        cb.isTrue(root.get("isActive")),
+        cb.isTrue(root.get("isAvailable")));
 
-    return menuItemsPage.map(menuItemMapper::toMenuItemResponse);
+    List<MenuItem> rows = menuItemRepository.findBy(filters.and(keyset.after(cursor)),
+        q -> q.sortBy(keyset.sort()).limit(size + 1).all());
+    return keyset.page(rows, size, menuItemMapper::toMenuItemResponse);
   }
 
   /**
@@ -162,18 +228,12 @@ public class MenuItemService {
   /**
    * Get all menu items by restaurant (including inactive) - FOR MERCHANT
    */
-  @Transactional(readOnly = true)
   public List<MenuItemResponse> getAllMenuItemsByRestaurant(@NonNull UUID restaurantId) {
     log.info("Fetching all menu items (including inactive) for restaurant ID: {}", restaurantId);
 
-    // Verify restaurant exists
-    Restaurant restaurant = restaurantRepository.findById(restaurantId)
+    return menuSnapshotService.snapshot(restaurantId)
+        .map(MenuSnapshot::items)
         .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
-
-    List<MenuItem> menuItems = menuItemRepository.findByRestaurantId(restaurantId);
-    return menuItems.stream()
-        .map(menuItemMapper::toMenuItemResponse)
-        .collect(java.util.stream.Collectors.toList());
   }
 
   /**
@@ -196,35 +256,35 @@ public class MenuItemService {
   /**
    * Search menu items by name
    */
-  @Transactional(readOnly = true)
   public List<MenuItemResponse> searchMenuItems(@NonNull UUID restaurantId, String keyword) {
     log.info("Searching menu items for restaurant ID: {} with keyword: {}", restaurantId, keyword);
 
-    List<MenuItem> menuItems = menuItemRepository.searchByRestaurantAndName(restaurantId, keyword);
-    return menuItemMapper.toMenuItemResponseList(menuItems);
+    return menuSnapshotService.snapshot(restaurantId)
+        .map(menu -> menu.search(keyword))
+        .orElse(List.of());
   }
 
   /**
    * Get menu items by category
    */
-  @Transactional(readOnly = true)
   public List<MenuItemResponse> getMenuItemsByCategory(@NonNull UUID restaurantId, String category) {
     log.info("Fetching menu items for restaurant ID: {} with category: {}", restaurantId, category);
 
-    List<MenuItem> menuItems = menuItemRepository.findByRestaurantIdAndCategoryAndIsActiveTrue(restaurantId, category);
-    return menuItemMapper.toMenuItemResponseList(menuItems);
+    return menuSnapshotService.snapshot(restaurantId)
+        .map(menu -> menu.byCategory(category))
+        .orElse(List.of());
   }
 
   /**
-   * Get popular menu items for a restaurant
+   * Get popular menu items for a restaurant: the menu snapshot ranked by live delivered counts
    */
-  @Transactional(readOnly = true)
   public List<MenuItemResponse> getPopularMenuItems(@NonNull UUID restaurantId, int limit) {
     log.info("Fetching popular menu items for restaurant ID: {} (limit: {})", restaurantId, limit);
 
-    Pageable pageable = PageRequest.of(0, limit);
-    List<MenuItem> menuItems = menuItemRepository.findPopularItemsByRestaurant(restaurantId, pageable).getContent();
-    return menuItemMapper.toMenuItemResponseList(menuItems);
+    return menuSnapshotService.snapshot(restaurantId)
+        .map(menu -> menu.popular(limit, item -> dishPopularityService.orderCount(item.getId(),
+            item.getOrderCount() != null ? item.getOrderCount() : 0)))
+        .orElse(List.of());
   }
 
   /**
@@ -239,15 +299,65 @@ public class MenuItemService {
 
     menuItem.setIsAvailable(!menuItem.getIsAvailable());
     MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
+    eventPublisher.publishEvent(
+        new MenuItemChangedEvent(menuItemId, menuItem.getRestaurant().getId(), ChangeType.UPDATED));
 
     log.info("Menu item availability toggled to: {}", updatedMenuItem.getIsAvailable());
     return menuItemMapper.toMenuItemResponse(updatedMenuItem);
   }
 
   /**
-   * Get menu items by dietary preferences
+   * Dishes across all restaurants matching the filter, cheapest first, from the dish filter index
+   */
+  @Transactional(readOnly = true)
+  public Page<MenuItemResponse> findDishes(DishFilter filter, int page, int size) {
+    if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice() > filter.maxPrice()) {
+      throw new BadRequestException("minPrice must not be greater than maxPrice");
+    }
+    long offset = (long) page * size;
+    if (offset > Integer.MAX_VALUE) {
+      return new PageImpl<>(List.of(), PageRequest.of(page, size), 0);
+    }
+
+    DishBitmapIndex.Result result = dishFilterIndex.query(filter, (int) offset, size);
+    if (result.ids().isEmpty()) {
+      return new PageImpl<>(List.of(), PageRequest.of(page, size), result.total());
+    }
+    // One query for the page; a dish removed since the index answered is skipped
+    Map<UUID, MenuItemCard> cards = menuItemRepository.findCardsByIds(result.ids()).stream()
+        .collect(Collectors.toMap(MenuItemCard::id, Function.identity()));
+    List<MenuItemResponse> content = result.ids().stream()
+        .map(cards::get)
+        .filter(Objects::nonNull)
+        .map(menuItemMapper::toMenuItemResponse)
+        .toList();
+    return new PageImpl<>(content, PageRequest.of(page, size), result.total());
+  }
+
+  /**
+   * Listed dishes across all restaurants with the highest trending (recently delivered) quantity,
+   * best first, from the in-memory trending list
    */
   @Transactional(readOnly = true)
+  public List<MenuItemResponse> getTrendingDishes(int limit) {
+    List<UUID> ids = dishPopularityService.trending();
+    if (ids.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    // One query; dishes no longer listed are skipped, which is why the list is longer than a page
+    Map<UUID, MenuItemCard> cards = menuItemRepository.findListedCardsByIds(ids).stream()
+        .collect(Collectors.toMap(MenuItemCard::id, Function.identity()));
+    return ids.stream()
+        .map(cards::get)
+        .filter(Objects::nonNull)
+        .limit(limit)
+        .map(menuItemMapper::toMenuItemResponse)
+        .toList();
+  }
+
+  /**
+   * Get menu items by dietary preferences
+   */
   public List<MenuItemResponse> getMenuItemsByDietaryPreferences(
       UUID restaurantId,
       Boolean vegetarian,
@@ -257,9 +367,8 @@ public class MenuItemService {
     log.info("Fetching menu items for restaurant ID: {} with dietary preferences - veg: {}, vegan: {}, gf: {}",
         restaurantId, vegetarian, vegan, glutenFree);
 
-    List<MenuItem> menuItems = menuItemRepository.findByDietaryPreferences(
-        restaurantId, vegetarian, vegan, glutenFree);
-
-    return menuItemMapper.toMenuItemResponseList(menuItems);
+    return menuSnapshotService.snapshot(restaurantId)
+        .map(menu -> menu.dietary(vegetarian, vegan, glutenFree))
+        .orElse(List.of());
   }
 }
@@ -0,0 +1,201 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.exception.business.BadRequestException;
+import com.foodya.foodya_backend.restaurant.dto.CategoryResponse;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantFullResponse;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable menu of one restaurant at one catalog version, built by {@link MenuSnapshotService}.
+ * Every public menu listing is a filter over these lists; nothing here touches the database.
+ * <p>
+ * Filters keep the semantics of the repository queries they replace: "active" is
+ * {@code isActive = true}, the paged listing also requires {@code isAvailable = true},
+ * and category matches are exact.
+ */
+public final class MenuSnapshot {
+
+  private static final Map<String, Function<MenuItemResponse, Comparable<?>>> SORT_KEYS = Map.of(
+      "name", MenuItemResponse::getName,
+      "price", MenuItemResponse::getPrice,
+      "orderCount", MenuItemResponse::getOrderCount,
+      "calories", MenuItemResponse::getCalories,
+      "preparationTime", MenuItemResponse::getPreparationTime,
+      "category", MenuItemResponse::getCategory,
+      "createdAt", MenuItemResponse::getCreatedAt,
+      "updatedAt", MenuItemResponse::getUpdatedAt);
+
+  private static final Comparator<MenuItemResponse> BY_ID = Comparator.comparing(MenuItemResponse::getId);
+
+  private final UUID restaurantId;
+  private final long version;
+  private final Instant builtAt;
+  private final List<CategoryResponse> categories;
+  // Every item (inactive too), by name
+  private final List<MenuItemResponse> items;
+  private final List<MenuItemResponse> active;
+  // Active and available, by name: the default page order
+  private final List<MenuItemResponse> available;
+  // Active items by orderCount desc (as of the build)
+  private final List<MenuItemResponse> popular;
+  // Active items grouped by category: the restaurant's categories in order, then other category names
+  private final Map<String, List<MenuItemResponse>> activeByCategory;
+  private final List<RestaurantFullResponse.MenuSection> sections;
+
+  private MenuSnapshot(UUID restaurantId, long version, List<CategoryResponse> categories,
+      List<MenuItemResponse> itemsByName) {
+    this.restaurantId = restaurantId;
+    this.version = version;
+    this.builtAt = Instant.now();
+    this.categories = List.copyOf(categories);
+    this.items = List.copyOf(itemsByName);
+    this.active = items.stream().filter(item -> Boolean.TRUE.equals(item.getIsActive())).toList();
+    this.available = active.stream().filter(item -> Boolean.TRUE.equals(item.getIsAvailable())).toList();
+    this.popular = active.stream()
+        .sorted(Comparator.comparing(MenuItemResponse::getOrderCount, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+            .reversed())
+        .toList();
+
+    Map<String, List<MenuItemResponse>> groups = new LinkedHashMap<>();
+    categories.forEach(category -> groups.put(category.getName(), new ArrayList<>()));
+    for (MenuItemResponse item : active) {
+      groups.computeIfAbsent(item.getCategory(), c -> new ArrayList<>()).add(item);
+    }
+    Map<String, List<MenuItemResponse>> byCategory = new LinkedHashMap<>();
+    List<RestaurantFullResponse.MenuSection> menuSections = new ArrayList<>();
+    groups.forEach((category, categoryItems) -> {
+      byCategory.put(category, List.copyOf(categoryItems));
+      List<MenuItemResponse> sectionItems = categoryItems.stream()
+          .filter(item -> Boolean.TRUE.equals(item.getIsAvailable()))
+          .toList();
+      if (!sectionItems.isEmpty()) {
+        menuSections.add(RestaurantFullResponse.MenuSection.builder().category(category).items(sectionItems).build());
+      }
+    });
+    this.activeByCategory = Collections.unmodifiableMap(byCategory);
+    this.sections = List.copyOf(menuSections);
+  }
+
+  /** {@code itemsByName}: every menu item of the restaurant, sorted by name. */
+  static MenuSnapshot of(UUID restaurantId, long version, List<CategoryResponse> categories,
+      List<MenuItemResponse> itemsByName) {
+    return new MenuSnapshot(restaurantId, version, categories, itemsByName);
+  }
+
+  public UUID restaurantId() {
+    return restaurantId;
+  }
+
+  /** Catalog version the snapshot was built at; its content is at least this recent. */
+  public long version() {
+    return version;
+  }
+
+  public Instant builtAt() {
+    return builtAt;
+  }
+
+  public int size() {
+    return items.size();
+  }
+
+  public List<CategoryResponse> categories() {
+    return categories;
+  }
+
+  /** Every item, inactive ones included. */
+  public List<MenuItemResponse> items() {
+    return items;
+  }
+
+  /** Available items by category, for the restaurant screen; empty categories are left out. */
+  public List<RestaurantFullResponse.MenuSection> sections() {
+    return sections;
+  }
+
+  /** Page of active, available items sorted by {@code sortBy} (id breaks ties). */
+  public Page<MenuItemResponse> availablePage(int page, int size, String sortBy, String sortDirection) {
+    Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+    Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+    List<MenuItemResponse> sorted = "name".equals(sortBy) && direction.isAscending()
+        ? available
+        : available.stream().sorted(comparator(sortBy, direction)).toList();
+    int from = (int) Math.min(pageable.getOffset(), sorted.size());
+    int to = Math.min(from + size, sorted.size());
+    return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+  }
+
+  /** Active items whose name contains {@code keyword}, ignoring case. */
+  public List<MenuItemResponse> search(String keyword) {
+    if (keyword == null) {
+      return List.of();
+    }
+    String needle = keyword.toLowerCase(Locale.ROOT);
+    return active.stream()
+        .filter(item -> item.getName() != null && item.getName().toLowerCase(Locale.ROOT).contains(needle))
+        .toList();
+  }
+
+  public List<MenuItemResponse> byCategory(String category) {
+    return activeByCategory.getOrDefault(category, List.of());
+  }
+
+  /** Active items, most ordered first as of the build (what a catalog-versioned response can carry). */
+  public List<MenuItemResponse> popular(int limit) {
+    return popular.subList(0, Math.max(0, Math.min(limit, popular.size())));
+  }
+
+  /**
+   * Active items, most ordered first by the given live counts (ties keep the snapshot's order), as
+   * copies carrying those counts. A menu is small, so it is ranked per call.
+   */
+  public List<MenuItemResponse> popular(int limit, ToIntFunction<MenuItemResponse> orderCount) {
+    record Ranked(MenuItemResponse item, int orderCount) {
+    }
+    return popular.stream()
+        .map(item -> new Ranked(item, orderCount.applyAsInt(item)))
+        .sorted(Comparator.comparingInt(Ranked::orderCount).reversed())
+        .limit(Math.max(0, limit))
+        .map(ranked -> ranked.item().toBuilder().orderCount(ranked.orderCount()).build())
+        .toList();
+  }
+
+  /** Active items matching every flag that is not null. */
+  public List<MenuItemResponse> dietary(Boolean vegetarian, Boolean vegan, Boolean glutenFree) {
+    return active.stream()
+        .filter(item -> vegetarian == null || vegetarian.equals(item.getIsVegetarian()))
+        .filter(item -> vegan == null || vegan.equals(item.getIsVegan()))
+        .filter(item -> glutenFree == null || glutenFree.equals(item.getIsGlutenFree()))
+        .toList();
+  }
+
+  // Nulls sort as in Postgres: last ascending, first descending
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Comparator<MenuItemResponse> comparator(String sortBy, Sort.Direction direction) {
+    Function<MenuItemResponse, Comparable<?>> key = SORT_KEYS.get(sortBy);
+    if (key == null) {
+      throw new BadRequestException("Unsupported sort field: " + sortBy + " (use one of " + SORT_KEYS.keySet() + ")");
+    }
+    Comparator<MenuItemResponse> ascending = Comparator.comparing(item -> (Comparable) key.apply(item),
+        Comparator.nullsLast(Comparator.naturalOrder()));
+    return (direction.isAscending() ? ascending : ascending.reversed()).thenComparing(BY_ID);
+  }
+}
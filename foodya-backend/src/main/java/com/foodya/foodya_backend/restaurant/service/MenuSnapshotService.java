@@ -0,0 +1,192 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.restaurant.dto.CategoryResponse;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemMapper;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
+import com.foodya.foodya_backend.restaurant.event.CategoryChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.repository.CategoryRepository;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * One immutable {@link MenuSnapshot} per restaurant, behind every public menu listing.
+ * <p>
+ * Built on first access. A committed menu item, category or restaurant change rebuilds the
+ * restaurant's snapshot and swaps it in; readers keep the old one until then. Each access also
+ * compares the snapshot with the catalog version (see {@link CatalogVersionService}), so changes
+ * written on another instance are picked up within its revalidation interval.
+ * Idle snapshots are evicted.
+ */
+@Service
+@Slf4j
+public class MenuSnapshotService {
+
+  private final RestaurantRepository restaurantRepository;
+  private final CategoryRepository categoryRepository;
+  private final MenuItemRepository menuItemRepository;
+  private final MenuItemMapper menuItemMapper;
+  private final CatalogVersionService catalogVersionService;
+  private final TransactionTemplate readOnly;
+  private final Cache<UUID, MenuSnapshot> snapshots;
+
+  private final Timer missBuilds;
+  private final Timer staleBuilds;
+  private final Timer writeBuilds;
+  private final DistributionSummary snapshotItems;
+
+  public MenuSnapshotService(RestaurantRepository restaurantRepository, CategoryRepository categoryRepository,
+      MenuItemRepository menuItemRepository, MenuItemMapper menuItemMapper,
+      CatalogVersionService catalogVersionService, PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${app.menu-snapshot.max-size:5000}") long maxSize,
+      @Value("${app.menu-snapshot.idle-minutes:60}") long idleMinutes) {
+    this.restaurantRepository = restaurantRepository;
+    this.categoryRepository = categoryRepository;
+    this.menuItemRepository = menuItemRepository;
+    this.menuItemMapper = menuItemMapper;
+    this.catalogVersionService = catalogVersionService;
+    // Own transaction: rebuilds also run after commit, while the writer's transaction is still bound
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.snapshots = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "menu_snapshot");
+
+    this.missBuilds = buildTimer(meterRegistry, "miss");
+    this.staleBuilds = buildTimer(meterRegistry, "stale");
+    this.writeBuilds = buildTimer(meterRegistry, "write");
+    this.snapshotItems = DistributionSummary.builder("foodya.menu.snapshot.items")
+        .description("Menu items per built snapshot")
+        .register(meterRegistry);
+    Gauge.builder("foodya.menu.snapshot.age.max", this, MenuSnapshotService::oldestAgeSeconds)
+        .description("Age of the oldest cached menu snapshot")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  /** Current menu of the restaurant; empty if the restaurant does not exist. */
+  public Optional<MenuSnapshot> snapshot(@NonNull UUID restaurantId) {
+    Optional<Long> version = catalogVersionService.version(restaurantId);
+    if (version.isEmpty()) {
+      snapshots.invalidate(restaurantId);
+      return Optional.empty();
+    }
+    MenuSnapshot cached = snapshots.getIfPresent(restaurantId);
+    if (cached == null) {
+      // Concurrent first accesses share one build
+      return Optional.ofNullable(snapshots.get(restaurantId, id -> build(id, missBuilds)));
+    }
+    if (cached.version() >= version.get()) {
+      return Optional.of(cached);
+    }
+    return Optional.ofNullable(rebuild(restaurantId, staleBuilds));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onMenuItemChanged(MenuItemChangedEvent event) {
+    refreshIfCached(event.restaurantId());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    refreshIfCached(event.restaurantId());
+  }
+
+  // Restaurant name is part of every item response
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    if (event.type() == ChangeType.DELETED) {
+      snapshots.invalidate(event.restaurantId());
+    } else {
+      refreshIfCached(event.restaurantId());
+    }
+  }
+
+  private void refreshIfCached(UUID restaurantId) {
+    if (snapshots.getIfPresent(restaurantId) == null) {
+      return;
+    }
+    try {
+      rebuild(restaurantId, writeBuilds);
+    } catch (RuntimeException ex) {
+      // The write is already committed; the next read rebuilds instead
+      log.warn("Could not rebuild menu snapshot for restaurant {}: {}", restaurantId, ex.getMessage());
+      snapshots.invalidate(restaurantId);
+    }
+  }
+
+  // Builds and swaps in a new snapshot unless a newer one got there first
+  private MenuSnapshot rebuild(UUID restaurantId, Timer timer) {
+    MenuSnapshot built = build(restaurantId, timer);
+    if (built == null) {
+      snapshots.invalidate(restaurantId);
+      return null;
+    }
+    return snapshots.asMap().merge(restaurantId, built,
+        (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+  }
+
+  private MenuSnapshot build(UUID restaurantId, Timer timer) {
+    return timer.record(() -> readOnly.execute(status -> {
+      // Version first: the items read after it are at least that recent
+      Optional<Long> version = restaurantRepository.findCatalogVersionById(restaurantId);
+      if (version.isEmpty()) {
+        return null;
+      }
+      List<CategoryResponse> categories = CategoryResponse.fromEntityList(
+          categoryRepository.findPublicCategoriesByRestaurantId(restaurantId));
+      List<MenuItemResponse> items = menuItemRepository.findCardsByRestaurantId(restaurantId).stream()
+          .map(menuItemMapper::toMenuItemResponse)
+          .toList();
+      snapshotItems.record(items.size());
+      log.debug("Built menu snapshot for restaurant {} at version {} ({} items)", restaurantId, version.get(),
+          items.size());
+      return MenuSnapshot.of(restaurantId, version.get(), categories, items);
+    }));
+  }
+
+  private double oldestAgeSeconds() {
+    Instant now = Instant.now();
+    return snapshots.asMap().values().stream()
+        .mapToLong(snapshot -> Duration.between(snapshot.builtAt(), now).toSeconds())
+        .max()
+        .orElse(0);
+  }
+
+  private static Timer buildTimer(MeterRegistry registry, String trigger) {
+    return Timer.builder("foodya.menu.snapshot.build")
+        .description("Menu snapshot builds: first access (miss), behind the catalog version (stale), after a local write")
+        .tag("trigger", trigger)
+        .register(registry);
+  }
+}
@@ -0,0 +1,131 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.geo.GeoGridIndex;
+import com.foodya.foodya_backend.restaurant.geo.LocatedRestaurant;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.utils.rebuild.RebuildableState;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Spatial index of active restaurants that have coordinates, keyed by their delivery radius.
+ * <p>
+ * Built at startup and rebuilt periodically (picks up ratings and counters changed outside the
+ * restaurant service); the rebuild streams only the listing columns, no entities are hydrated.
+ * Committed restaurant changes are applied one restaurant at a time; changes that land while a
+ * rebuild is loading are replayed onto the new grid.
+ */
+@Component
+@Slf4j
+public class NearbyRestaurantIndex {
+
+  /** What a nearby listing shows, kept in the grid so queries never touch the database. */
+  public record NearbyRestaurant(
+      UUID id,
+      String name,
+      String address,
+      String cuisine,
+      String imageUrl,
+      double rating,
+      int totalReviews,
+      boolean open,
+      Double deliveryFee,
+      Integer estimatedDeliveryTime,
+      double maxDeliveryDistance,
+      double latitude,
+      double longitude) {
+  }
+
+  private final RestaurantRepository restaurantRepository;
+  private final TransactionTemplate readOnly;
+
+  private final RebuildableState<GeoGridIndex<NearbyRestaurant>> grid = new RebuildableState<>(new GeoGridIndex<>());
+
+  public NearbyRestaurantIndex(RestaurantRepository restaurantRepository,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+    this.restaurantRepository = restaurantRepository;
+    // Streaming needs an open connection for the whole read
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    Gauge.builder("foodya.restaurant.nearby.indexed", this, index -> index.grid.get().size())
+        .description("Restaurants in the nearby (geo) index")
+        .register(meterRegistry);
+  }
+
+  /** Restaurants delivering to the point that pass {@code filter}, unordered. */
+  public List<GeoGridIndex.Hit<NearbyRestaurant>> covering(double latitude, double longitude,
+      Predicate<NearbyRestaurant> filter) {
+    return grid.get().covering(latitude, longitude, filter);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${app.restaurant.nearby.rebuild-ms:600000}",
+      fixedDelayString = "${app.restaurant.nearby.rebuild-ms:600000}")
+  public void rebuild() {
+    long start = System.currentTimeMillis();
+    GeoGridIndex<NearbyRestaurant> rebuilt = grid.rebuild(() -> {
+      GeoGridIndex<NearbyRestaurant> loaded = new GeoGridIndex<>();
+      readOnly.executeWithoutResult(status -> {
+        try (Stream<LocatedRestaurant> restaurants = restaurantRepository.streamLocatedRestaurants()) {
+          restaurants.forEach(restaurant -> upsert(loaded, toListing(restaurant)));
+        }
+      });
+      return loaded;
+    });
+    if (rebuilt != null) {
+      log.info("Nearby index built: {} restaurants in {} cells in {} ms",
+          rebuilt.size(), rebuilt.cellCount(), System.currentTimeMillis() - start);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    UUID restaurantId = event.restaurantId();
+    Optional<NearbyRestaurant> listing = event.type() == ChangeType.DELETED
+        ? Optional.empty()
+        : restaurantRepository.findLocatedById(restaurantId).map(NearbyRestaurantIndex::toListing);
+    grid.apply(target -> listing.ifPresentOrElse(found -> upsert(target, found), () -> target.remove(restaurantId)));
+  }
+
+  private static void upsert(GeoGridIndex<NearbyRestaurant> target, NearbyRestaurant listing) {
+    target.upsert(listing.id(), listing.latitude(), listing.longitude(), listing.maxDeliveryDistance(), listing);
+  }
+
+  // Inactive restaurants and restaurants without coordinates are not selected, so are not discoverable by location
+  static NearbyRestaurant toListing(LocatedRestaurant restaurant) {
+    return new NearbyRestaurant(
+        restaurant.id(),
+        restaurant.name(),
+        restaurant.address(),
+        restaurant.cuisine(),
+        restaurant.imageUrl(),
+        restaurant.rating() != null ? restaurant.rating() : 0.0,
+        restaurant.totalReviews() != null ? restaurant.totalReviews() : 0,
+        Boolean.TRUE.equals(restaurant.isOpen()),
+        restaurant.deliveryFee(),
+        restaurant.estimatedDeliveryTime(),
+        restaurant.maxDeliveryDistance() != null ? restaurant.maxDeliveryDistance() : 0.0,
+        restaurant.latitude(),
+        restaurant.longitude());
+  }
+}
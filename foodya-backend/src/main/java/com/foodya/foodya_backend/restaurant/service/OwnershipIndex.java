@@ -0,0 +1,97 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded in-memory index behind the ownership checks:
+ * owner id -> ids of the restaurants they own, and menu item id -> restaurant id.
+ * Entries are loaded with id-only queries and dropped when a committed change touches them.
+ * Only changes committed on this instance are seen, so a "not owner" answer is always
+ * confirmed against the table before it is returned (see {@link #owns}).
+ */
+@Component
+public class OwnershipIndex {
+
+  private final RestaurantRepository restaurantRepository;
+  private final MenuItemRepository menuItemRepository;
+
+  private final LoadingCache<UUID, Set<UUID>> restaurantsByOwner;
+  private final LoadingCache<UUID, Optional<UUID>> restaurantByMenuItem;
+
+  public OwnershipIndex(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+      @Value("${app.ownership-index.max-size:10000}") long maxSize,
+      @Value("${app.ownership-index.ttl-minutes:30}") long ttlMinutes) {
+    this.restaurantRepository = restaurantRepository;
+    this.menuItemRepository = menuItemRepository;
+    this.restaurantsByOwner = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+        .build(ownerId -> Set.copyOf(restaurantRepository.findIdsByOwnerId(ownerId)));
+    this.restaurantByMenuItem = Caffeine.newBuilder()
+        .maximumSize(maxSize * 10)
+        .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+        .build(menuItemRepository::findRestaurantIdById);
+  }
+
+  /**
+   * Whether {@code ownerId} owns {@code restaurantId} (false for an unknown restaurant).
+   * A miss may come from a restaurant created or transferred on another instance: it is
+   * checked with the owner column, and the owner's entry is reloaded when the cache was stale.
+   */
+  public boolean owns(UUID ownerId, UUID restaurantId) {
+    if (restaurantsByOwner.get(ownerId).contains(restaurantId)) {
+      return true;
+    }
+    boolean owner = restaurantRepository.findOwnerIdById(restaurantId).filter(ownerId::equals).isPresent();
+    if (owner) {
+      restaurantsByOwner.invalidate(ownerId);
+    }
+    return owner;
+  }
+
+  public Optional<UUID> restaurantOf(UUID menuItemId) {
+    Optional<UUID> restaurantId = restaurantByMenuItem.get(menuItemId);
+    if (restaurantId.isEmpty()) {
+      // Do not remember misses: the item may be created a moment later
+      restaurantByMenuItem.invalidate(menuItemId);
+    }
+    return restaurantId;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    if (event.ownerId() != null) {
+      restaurantsByOwner.invalidate(event.ownerId());
+    }
+    if (event.type() != ChangeType.CREATED) {
+      // Deleted, or possibly transferred: no other owner keeps it
+      restaurantsByOwner.asMap().values().removeIf(owned -> owned.contains(event.restaurantId()));
+    }
+    if (event.type() == ChangeType.DELETED) {
+      restaurantByMenuItem.asMap().values().removeIf(restaurantId -> restaurantId.filter(event.restaurantId()::equals).isPresent());
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onMenuItemChanged(MenuItemChangedEvent event) {
+    if (event.type() == ChangeType.DELETED) {
+      restaurantByMenuItem.invalidate(event.menuItemId());
+    }
+  }
+}
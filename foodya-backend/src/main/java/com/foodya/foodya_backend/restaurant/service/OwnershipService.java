@@ -1,66 +1,82 @@
 package com.foodya.foodya_backend.restaurant.service;
 
-import com.foodya.foodya_backend.restaurant.model.Restaurant;
 import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
-import com.foodya.foodya_backend.restaurant.model.MenuItem;
 import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
-import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
 import com.foodya.foodya_backend.user.model.User;
-import com.foodya.foodya_backend.user.repository.UserRepository;
+import com.foodya.foodya_backend.user.service.CurrentUserResolver;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 
+/**
+ * Ownership checks, usable from {@code @PreAuthorize} as {@code @ownershipService}.
+ * Decisions come from {@link OwnershipIndex}; the database is hit on a cache miss, to confirm
+ * a "not yours" and to tell it apart from "does not exist".
+ */
 @Service
 @RequiredArgsConstructor
 public class OwnershipService {
 
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final RestaurantRepository restaurantRepository;
-    private final MenuItemRepository menuItemRepository;
+    private final OwnershipIndex ownershipIndex;
 
     /**
      * Get current authenticated user
      */
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return currentUserResolver.getCurrentUser();
     }
 
     /**
      * Check if current user owns the restaurant
      */
     public boolean isRestaurantOwner(@NonNull UUID restaurantId) {
-        User currentUser = getCurrentUser();
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
-
-        return restaurant.getOwnerId().equals(currentUser.getId());
+        if (ownershipIndex.owns(currentUserResolver.getCurrentUserId(), restaurantId)) {
+            return true;
+        }
+        // Keep the 404 for unknown restaurants
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant not found");
+        }
+        return false;
     }
 
     /**
      * Check if current user owns the restaurant that contains the menu item
      */
     public boolean isMenuItemOwner(@NonNull UUID menuItemId) {
-        User currentUser = getCurrentUser();
-        MenuItem menuItem = menuItemRepository.findById(menuItemId)
+        UUID restaurantId = ownershipIndex.restaurantOf(menuItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found"));
-
-        return menuItem.getRestaurant().getOwnerId().equals(currentUser.getId());
+        return ownershipIndex.owns(currentUserResolver.getCurrentUserId(), restaurantId);
     }
 
     /**
      * Check if current user is admin
      */
     public boolean isAdmin() {
-        User currentUser = getCurrentUser();
-        return currentUser.getRole().name().equals("ADMIN");
+        return currentUserResolver.isAdmin();
+    }
+
+    /**
+     * Admin, or owner of the restaurant
+     */
+    public boolean canManageRestaurant(@NonNull UUID restaurantId) {
+        return isAdmin() || isRestaurantOwner(restaurantId);
+    }
+
+    /**
+     * Admin or owner of the restaurant, and the menu item must belong to that restaurant
+     */
+    public boolean canManageMenuItem(@NonNull UUID restaurantId, @NonNull UUID menuItemId) {
+        UUID itemRestaurantId = ownershipIndex.restaurantOf(menuItemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Menu item not found"));
+        if (!itemRestaurantId.equals(restaurantId)) {
+            throw new ResourceNotFoundException("Menu item not found in this restaurant");
+        }
+        return canManageRestaurant(restaurantId);
     }
 }
@@ -0,0 +1,129 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantFullResponse;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantMapper;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Composite restaurant screen (GET /restaurants/{id}/full): restaurant, categories, menu by
+ * category and popular items in one call instead of four.
+ * <p>
+ * On a miss the restaurant read and the menu snapshot (categories, sections and popular items,
+ * see {@link MenuSnapshotService}) are fetched concurrently on virtual threads. Results are cached
+ * per restaurant with the catalog version they were built at, and reloaded as soon as the
+ * restaurant's version moves past it. The TTL covers counters written outside the catalog services.
+ */
+@Service
+@Slf4j
+public class RestaurantDetailService {
+
+  private final RestaurantRepository restaurantRepository;
+  private final RestaurantMapper restaurantMapper;
+  private final MenuSnapshotService menuSnapshotService;
+  private final CatalogVersionService catalogVersionService;
+  private final TransactionTemplate readOnly;
+  private final int popularItems;
+
+  private final Cache<UUID, VersionedResponse> cache;
+
+  // Content is at least as recent as version
+  private record VersionedResponse(long version, RestaurantFullResponse response) {
+  }
+
+  public RestaurantDetailService(RestaurantRepository restaurantRepository, RestaurantMapper restaurantMapper,
+      MenuSnapshotService menuSnapshotService, CatalogVersionService catalogVersionService,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${app.restaurant-full-cache.max-size:2000}") long maxSize,
+      @Value("${app.restaurant-full-cache.ttl-seconds:30}") long ttlSeconds,
+      @Value("${app.restaurant-full.popular-items:10}") int popularItems) {
+    this.restaurantRepository = restaurantRepository;
+    this.restaurantMapper = restaurantMapper;
+    this.menuSnapshotService = menuSnapshotService;
+    this.catalogVersionService = catalogVersionService;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.popularItems = popularItems;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "restaurant_full");
+  }
+
+  public RestaurantFullResponse getRestaurantFull(@NonNull UUID restaurantId) {
+    long version = catalogVersionService.version(restaurantId)
+        .orElseThrow(() -> notFound(restaurantId));
+    VersionedResponse cached = cache.getIfPresent(restaurantId);
+    if (cached != null && cached.version() >= version) {
+      return cached.response();
+    }
+    VersionedResponse loaded = load(restaurantId);
+    cache.asMap().merge(restaurantId, loaded,
+        (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    return loaded.response();
+  }
+
+  private VersionedResponse load(UUID restaurantId) {
+    log.debug("Loading full restaurant view for {}", restaurantId);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<VersionedResponse> restaurant = executor.submit(() -> readOnly.execute(status -> {
+        // Version first: the restaurant read after it is at least that recent
+        long version = restaurantRepository.findCatalogVersionById(restaurantId)
+            .orElseThrow(() -> notFound(restaurantId));
+        RestaurantResponse response = restaurantRepository.findById(restaurantId)
+            .map(restaurantMapper::toRestaurantResponse)
+            .orElseThrow(() -> notFound(restaurantId));
+        return new VersionedResponse(version, RestaurantFullResponse.builder().restaurant(response).build());
+      }));
+      Future<MenuSnapshot> menu = executor.submit(() -> menuSnapshotService.snapshot(restaurantId)
+          .orElseThrow(() -> notFound(restaurantId)));
+
+      VersionedResponse restaurantPart = join(restaurant);
+      MenuSnapshot snapshot = join(menu);
+      RestaurantFullResponse full = restaurantPart.response();
+      full.setCategories(snapshot.categories());
+      full.setMenu(snapshot.sections());
+      full.setPopularItems(snapshot.popular(popularItems));
+      return new VersionedResponse(Math.min(restaurantPart.version(), snapshot.version()), full);
+    }
+  }
+
+  private static ResourceNotFoundException notFound(UUID restaurantId) {
+    return new ResourceNotFoundException("Restaurant not found with id: " + restaurantId);
+  }
+
+  private static <T> T join(Future<T> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while loading restaurant", ex);
+    }
+  }
+}
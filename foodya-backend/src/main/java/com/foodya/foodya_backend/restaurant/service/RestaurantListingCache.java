@@ -0,0 +1,134 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of restaurant listing pages, keyed by normalized filter, sort, page and size.
+ * <p>
+ * A committed restaurant change drops only the pages it can affect: pages showing that
+ * restaurant, and pages whose filter the restaurant matched before or after the change
+ * (it may enter, leave or move within them, and their total changes). Menu item changes
+ * drop the pages showing the restaurant, since the listing carries its item count.
+ * Hit/miss/eviction metrics are published as {@code cache.*{cache=restaurant_listing}}.
+ */
+@Component
+public class RestaurantListingCache {
+
+  private final Cache<ListingKey, CachedPage> pages;
+  // Bumped by every invalidation; a load that raced with one is returned but not cached
+  private final AtomicLong generation = new AtomicLong();
+
+  public RestaurantListingCache(MeterRegistry meterRegistry,
+      @Value("${app.restaurant-listing-cache.max-size:1000}") long maxSize,
+      @Value("${app.restaurant-listing-cache.ttl-seconds:30}") long ttlSeconds) {
+    this.pages = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, pages, "restaurant_listing");
+  }
+
+  public Page<RestaurantResponse> get(ListingKey key, Supplier<Page<RestaurantResponse>> loader) {
+    CachedPage cached = pages.getIfPresent(key);
+    if (cached != null) {
+      return cached.page();
+    }
+    long startGeneration = generation.get();
+    Page<RestaurantResponse> page = loader.get();
+    if (generation.get() == startGeneration) {
+      Set<UUID> ids = page.getContent().stream()
+          .map(RestaurantResponse::getId)
+          .collect(Collectors.toUnmodifiableSet());
+      pages.put(key, new CachedPage(page, ids));
+    }
+    return page;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    generation.incrementAndGet();
+    if (!event.hasSnapshots()) {
+      pages.invalidateAll();
+      return;
+    }
+    pages.asMap().entrySet().removeIf(entry ->
+        entry.getValue().restaurantIds().contains(event.restaurantId())
+            || entry.getKey().matches(event.before())
+            || entry.getKey().matches(event.after()));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onMenuItemChanged(MenuItemChangedEvent event) {
+    generation.incrementAndGet();
+    pages.asMap().values().removeIf(page -> page.restaurantIds().contains(event.restaurantId()));
+  }
+
+  private record CachedPage(Page<RestaurantResponse> page, Set<UUID> restaurantIds) {
+  }
+
+  /**
+   * Listing query after normalization: blank filters are null, keyword and cuisine are
+   * lower-cased (the query compares them case-insensitively), unknown sorts fall back to popular.
+   * {@code fullText} marks keys served by the full-text query, whose keyword match is fuzzy.
+   */
+  public record ListingKey(String keyword, String cuisine, Double minRating, String sortBy, int page, int size,
+      boolean fullText) {
+
+    public static ListingKey of(String keyword, String cuisine, Double minRating, String sortBy, int page, int size,
+        boolean fullText) {
+      String sort = sortBy != null ? sortBy.toLowerCase(Locale.ROOT) : "popular";
+      if (!sort.equals("rating") && !sort.equals("name")) {
+        sort = "popular";
+      }
+      return new ListingKey(normalize(keyword), normalize(cuisine), minRating, sort, page, size, fullText);
+    }
+
+    private static String normalize(String value) {
+      return value != null && !value.isBlank() ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * In-memory mirror of the listing query's WHERE clause.
+     * Full-text keyword matching (accents, fuzzy names) is not reproduced; any keyword is assumed to match.
+     */
+    boolean matches(RestaurantSnapshot restaurant) {
+      if (restaurant == null || !restaurant.active()) {
+        return false;
+      }
+      if (keyword != null && !fullText && !contains(restaurant.name(), keyword) && !contains(restaurant.description(), keyword)) {
+        return false;
+      }
+      if (cuisine != null && (restaurant.cuisine() == null
+          || !restaurant.cuisine().toLowerCase(Locale.ROOT).equals(cuisine))) {
+        return false;
+      }
+      return minRating == null || restaurant.rating() >= minRating;
+    }
+
+    private static boolean contains(String text, String lowerCaseNeedle) {
+      return text != null && text.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle);
+    }
+  }
+}
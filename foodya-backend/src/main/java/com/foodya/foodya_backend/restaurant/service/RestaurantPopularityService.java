@@ -0,0 +1,211 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import com.foodya.foodya_backend.order.event.OrderDeliveredEvent;
+import com.foodya.foodya_backend.order.event.OrderPlacedEvent;
+import com.foodya.foodya_backend.order.repository.OrderRepository;
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.popularity.DecayWindow;
+import com.foodya.foodya_backend.restaurant.popularity.PopularityRanking;
+import com.foodya.foodya_backend.restaurant.popularity.RankedRestaurant;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.utils.rebuild.RebuildableState;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live restaurant popularity: recent orders with exponential decay, top K overall and per cuisine,
+ * served from memory (see {@link PopularityRanking}).
+ * <p>
+ * Built at startup and rebuilt periodically from the orders placed within the last few half-lives,
+ * so every instance converges on the same ranking. Committed orders and restaurant changes are
+ * applied as they happen; changes that land while a rebuild is loading are replayed onto the new
+ * ranking, except orders the load already saw. Deliveries also bump
+ * {@code restaurants.order_count / total_orders}, coalesced per restaurant and written as one JDBC
+ * batch every few seconds and on shutdown. The live delivered count is the stored one plus what is
+ * still pending: a rebuild loads the first and adds the second as it swaps, with flushes held off.
+ */
+@Component
+@Slf4j
+public class RestaurantPopularityService {
+
+  // Relative, so concurrent flushes from several instances add up
+  private static final String ADD_ORDERS =
+      "UPDATE restaurants SET order_count = COALESCE(order_count, 0) + ?, "
+          + "total_orders = COALESCE(total_orders, 0) + ? WHERE id = ?";
+
+  private final RestaurantRepository restaurantRepository;
+  private final OrderRepository orderRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnly;
+  private final long halfLifeMillis;
+  private final int topK;
+
+  private final RebuildableState<PopularityRanking> ranking;
+  private final ConcurrentHashMap<UUID, Integer> pendingDeliveries = new ConcurrentHashMap<>();
+  private final Object flushLock = new Object();
+  // Recent orders the running rebuild loaded: their replayed placement would count them twice
+  private volatile Set<UUID> reloadedOrders = Set.of();
+
+  public RestaurantPopularityService(RestaurantRepository restaurantRepository, OrderRepository orderRepository,
+      JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${app.restaurant.popularity.half-life-hours:24}") long halfLifeHours,
+      @Value("${app.restaurant.popularity.top-k:50}") int topK) {
+    this.restaurantRepository = restaurantRepository;
+    this.orderRepository = orderRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.halfLifeMillis = Duration.ofHours(halfLifeHours).toMillis();
+    this.topK = topK;
+    this.ranking = new RebuildableState<>(newRanking());
+
+    Gauge.builder("foodya.restaurant.popularity.ranked", this, popularity -> popularity.ranking.get().size())
+        .description("Restaurants in the popularity ranking")
+        .register(meterRegistry);
+    Gauge.builder("foodya.restaurant.popularity.pending", pendingDeliveries, Map::size)
+        .description("Restaurants with delivered orders not yet added to their order count")
+        .register(meterRegistry);
+  }
+
+  /** The longest list {@link #top} returns. */
+  public int topK() {
+    return topK;
+  }
+
+  /** Most popular restaurant ids first, overall or within a cuisine (case-insensitive). */
+  public List<UUID> top(String cuisine, int limit) {
+    return ranking.get().top(cuisine, limit);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${app.restaurant.popularity.rebuild-ms:300000}",
+      fixedDelayString = "${app.restaurant.popularity.rebuild-ms:300000}")
+  public void rebuild() {
+    long start = System.currentTimeMillis();
+    PopularityRanking rebuilt;
+    // No flush may move deliveries from pending into the stored counts between load and swap
+    synchronized (flushLock) {
+      rebuilt = ranking.rebuild(() -> {
+        PopularityRanking loaded = newRanking();
+        LocalDateTime recent = LocalDateTime.now().minus(RebuildableState.COMMIT_LAG);
+        Set<UUID> recentOrders = new HashSet<>();
+        readOnly.executeWithoutResult(status -> {
+          loaded.restaurants(restaurantRepository.findAllRanked());
+          orderRepository.findPlacementsSince(DecayWindow.since(halfLifeMillis)).forEach(placement -> {
+            loaded.recordOrder(placement.getRestaurantId(),
+                placement.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            if (!placement.getCreatedAt().isBefore(recent)) {
+              recentOrders.add(placement.getOrderId());
+            }
+          });
+        });
+        reloadedOrders = recentOrders;
+        return loaded;
+      }, loaded -> pendingDeliveries.forEach(loaded::recordDelivered));
+      reloadedOrders = Set.of();
+    }
+    if (rebuilt != null) {
+      log.info("Restaurant popularity built: {} restaurants in {} ms",
+          rebuilt.size(), System.currentTimeMillis() - start);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onOrderPlaced(OrderPlacedEvent event) {
+    long at = System.currentTimeMillis();
+    ranking.apply(target -> target.recordOrder(event.restaurantId(), at), rebuilt -> {
+      if (!reloadedOrders.contains(event.orderId())) {
+        rebuilt.recordOrder(event.restaurantId(), at);
+      }
+    });
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onOrderDelivered(OrderDeliveredEvent event) {
+    // Pending and the live count move together; a rebuild adds what is pending as it swaps
+    ranking.apply(target -> {
+      pendingDeliveries.merge(event.restaurantId(), 1, Integer::sum);
+      target.recordDelivered(event.restaurantId(), 1);
+    }, null);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    UUID restaurantId = event.restaurantId();
+    Optional<RankedRestaurant> restaurant = event.type() == ChangeType.DELETED
+        ? Optional.empty()
+        : restaurantRepository.findRankedById(restaurantId);
+    ranking.apply(target -> restaurant.ifPresentOrElse(target::restaurant,
+        () -> target.removeRestaurant(restaurantId)));
+  }
+
+  @Scheduled(fixedDelayString = "${app.restaurant.popularity.flush-ms:10000}")
+  public void flush() {
+    if (pendingDeliveries.isEmpty()) {
+      return;
+    }
+    synchronized (flushLock) {
+      flushPending();
+    }
+  }
+
+  private void flushPending() {
+    List<Object[]> batch = new ArrayList<>(pendingDeliveries.size());
+    List<Map.Entry<UUID, Integer>> drained = new ArrayList<>(pendingDeliveries.size());
+    for (Map.Entry<UUID, Integer> entry : pendingDeliveries.entrySet()) {
+      // Only drop the entry if no delivery was added meanwhile
+      if (pendingDeliveries.remove(entry.getKey(), entry.getValue())) {
+        batch.add(new Object[] { entry.getValue(), entry.getValue(), entry.getKey() });
+        drained.add(entry);
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      jdbcTemplate.batchUpdate(ADD_ORDERS, batch);
+      log.debug("Flushed order counts of {} restaurants", batch.size());
+    } catch (RuntimeException ex) {
+      // Put them back for the next attempt, on top of anything delivered since
+      drained.forEach(entry -> pendingDeliveries.merge(entry.getKey(), entry.getValue(), Integer::sum));
+      log.warn("Could not flush order counts of {} restaurants, will retry: {}", batch.size(), ex.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private PopularityRanking newRanking() {
+    return new PopularityRanking(halfLifeMillis, topK, System.currentTimeMillis());
+  }
+}
@@ -0,0 +1,68 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Installs the Postgres full-text/trigram search objects (db/search/restaurant_search.sql)
+ * when {@code app.search.fulltext.enabled} is set.
+ * <p>
+ * Runs once all singletons exist, so Hibernate has already created the tables, and before
+ * the web server accepts requests. If the script fails (e.g. the database user may not
+ * create extensions) search stays on the LIKE queries.
+ * <p>
+ * The script creates its own objects in "public", but pg_trgm may be installed elsewhere; its
+ * schema is looked up here so the search query can qualify the trigram operator and functions.
+ */
+@Component
+@Slf4j
+public class RestaurantSearchSchema implements SmartInitializingSingleton {
+
+  private static final String SCRIPT = "db/search/restaurant_search.sql";
+  private static final String TRIGRAM_SCHEMA = "SELECT n.nspname FROM pg_extension e "
+      + "JOIN pg_namespace n ON n.oid = e.extnamespace WHERE e.extname = 'pg_trgm'";
+
+  private final DataSource dataSource;
+  private final boolean enabled;
+  private volatile String trigramSchema;
+
+  public RestaurantSearchSchema(DataSource dataSource,
+      @Value("${app.search.fulltext.enabled:false}") boolean enabled) {
+    this.dataSource = dataSource;
+    this.enabled = enabled;
+  }
+
+  /** True once the search column, indexes and text search configuration are in place. */
+  public boolean isAvailable() {
+    return trigramSchema != null;
+  }
+
+  /** Schema of the pg_trgm extension; null while full-text search is unavailable. */
+  public String trigramSchema() {
+    return trigramSchema;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(SCRIPT));
+      populator.setSeparator("@@");
+      populator.execute(dataSource);
+      trigramSchema = new JdbcTemplate(dataSource).queryForObject(TRIGRAM_SCHEMA, String.class);
+      log.info("Full-text restaurant search enabled (pg_trgm in schema {})", trigramSchema);
+    } catch (RuntimeException ex) {
+      log.warn("Full-text restaurant search unavailable, falling back to LIKE queries: {}", ex.getMessage());
+    }
+  }
+}
@@ -1,34 +1,73 @@
 package com.foodya.foodya_backend.restaurant.service;
 
+import com.foodya.foodya_backend.exception.business.BadRequestException;
 import com.foodya.foodya_backend.exception.business.DuplicateResourceException;
 import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
 import com.foodya.foodya_backend.exception.security.UnauthorizedException;
+import com.foodya.foodya_backend.restaurant.dto.NearbyRestaurantResponse;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantCard;
 import com.foodya.foodya_backend.restaurant.dto.RestaurantMapper;
 import com.foodya.foodya_backend.restaurant.dto.RestaurantRequest;
 import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantSnapshot;
+import com.foodya.foodya_backend.restaurant.geo.GeoGridIndex;
 import com.foodya.foodya_backend.restaurant.model.Restaurant;
 import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
+import com.foodya.foodya_backend.utils.pagination.Keyset;
+import com.foodya.foodya_backend.utils.persistence.UniqueConstraints;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RestaurantService {
 
+  // Keyset orderings for the cursor listing; same orders as sortBy in the page listing, plus id as tie-breaker
+  private static final Keyset<RestaurantCard> BY_POPULAR = Keyset.<RestaurantCard>named("popular")
+      .by("totalReviews", Integer.class, Sort.Direction.DESC, RestaurantCard::totalReviews)
+      .by("rating", Double.class, Sort.Direction.DESC, RestaurantCard::rating)
+      .by("id", UUID.class, Sort.Direction.DESC, RestaurantCard::id);
+  private static final Keyset<RestaurantCard> BY_RATING = Keyset.<RestaurantCard>named("rating")
+      .by("rating", Double.class, Sort.Direction.DESC, RestaurantCard::rating)
+      .by("id", UUID.class, Sort.Direction.DESC, RestaurantCard::id);
+  private static final Keyset<RestaurantCard> BY_NAME = Keyset.<RestaurantCard>named("name")
+      .by("name", String.class, Sort.Direction.ASC, RestaurantCard::name)
+      .by("id", UUID.class, Sort.Direction.ASC, RestaurantCard::id);
+
   private final RestaurantRepository restaurantRepository;
   private final RestaurantMapper restaurantMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final RestaurantListingCache restaurantListingCache;
+  private final PlatformTransactionManager transactionManager;
+  private final RestaurantSearchSchema restaurantSearchSchema;
+  private final NearbyRestaurantIndex nearbyRestaurantIndex;
+  private final RestaurantPopularityService restaurantPopularityService;
 
   /**
    * Get all active restaurants (for internal)
@@ -42,8 +81,8 @@ public class RestaurantService {
 
   /**
    * Get restaurants with filters and pagination (for mobile app)
+   * Served from the listing cache; a read-only transaction is only opened on a miss.
    */
-  @Transactional(readOnly = true)
   public Page<RestaurantResponse> getRestaurantsWithFilters(
       String keyword,
       String cuisine,
@@ -52,12 +91,32 @@ public class RestaurantService {
       int page,
       int size) {
 
-    log.info("Fetching restaurants - keyword: {}, cuisine: {}, minRating: {}, sortBy:  {}, page: {}, size:  {}",
+    log.debug("Fetching restaurants - keyword: {}, cuisine: {}, minRating: {}, sortBy:  {}, page: {}, size:  {}",
         keyword, cuisine, minRating, sortBy, page, size);
 
+    RestaurantListingCache.ListingKey key = RestaurantListingCache.ListingKey.of(
+        keyword, cuisine, minRating, sortBy, page, size, restaurantSearchSchema.isAvailable());
+    return restaurantListingCache.get(key, () -> {
+      TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+      readOnly.setReadOnly(true);
+      return readOnly.execute(status -> findRestaurantsWithFilters(key));
+    });
+  }
+
+  private Page<RestaurantResponse> findRestaurantsWithFilters(RestaurantListingCache.ListingKey key) {
+    String keyword = key.keyword();
+    String cuisine = key.cuisine();
+    Double minRating = key.minRating();
+
+    // Full-text mode: keyword searches are ranked by relevance, sortBy orders equally relevant rows
+    if (key.fullText() && keyword != null) {
+      return restaurantMapper.toRestaurantResponsePage(restaurantRepository.searchFullText(keyword, cuisine,
+          minRating, restaurantSearchSchema.trigramSchema(), key.sortBy(), PageRequest.of(key.page(), key.size())));
+    }
+
     // Xử lý sorting
     Sort sort;
-    switch (sortBy != null ? sortBy.toLowerCase() : "popular") {
+    switch (key.sortBy()) {
       case "rating":
         sort = Sort.by("rating").descending();
         break;
@@ -70,25 +129,97 @@ public class RestaurantService {
         break;
     }
 
-    Pageable pageable = PageRequest.of(page, size, sort);
-    Page<Restaurant> restaurants;
-
-    // Nếu có bất kỳ filter nào, dùng query tổng hợp
-    if ((keyword != null && !keyword.isBlank()) ||
-        (cuisine != null && !cuisine.isBlank()) ||
-        minRating != null) {
+    Pageable pageable = PageRequest.of(key.page(), key.size(), sort);
+    Page<RestaurantCard> restaurants;
 
-      restaurants = restaurantRepository.findByFilters(
-          keyword != null && !keyword.isBlank() ? keyword : null,
-          cuisine != null && !cuisine.isBlank() ? cuisine : null,
-          minRating,
-          pageable);
+    // Nếu có bất kỳ filter nào, dùng query tổng hợp (key đã chuẩn hóa: chuỗi rỗng -> null)
+    // Card projections: only the listed columns, no entities in the persistence context
+    if (keyword != null || cuisine != null || minRating != null) {
+      restaurants = restaurantRepository.findCardsByFilters(keyword, cuisine, minRating, pageable);
     } else {
       // Không có filter, lấy tất cả
-      restaurants = restaurantRepository.findByIsActiveTrue(pageable);
+      restaurants = restaurantRepository.findActiveCards(pageable);
+    }
+
+    return restaurantMapper.toRestaurantCardPage(restaurants);
+  }
+
+  /**
+   * Cursor (keyset) variant of {@link #getRestaurantsWithFilters} for infinite scroll:
+   * seeks past the previous page's last row instead of OFFSET, and runs no COUNT query.
+   */
+  @Transactional(readOnly = true)
+  public CursorPage<RestaurantResponse> scrollRestaurantsWithFilters(
+      String keyword,
+      String cuisine,
+      Double minRating,
+      String sortBy,
+      String cursor,
+      int size) {
+
+    // Normalized like the page listing, so a cursor is always decoded under the keyset that issued it
+    String sort = sortBy == null || sortBy.isBlank() ? "popular" : sortBy.trim().toLowerCase(Locale.ROOT);
+    Keyset<RestaurantCard> keyset = switch (sort) {
+      case "popular" -> BY_POPULAR;
+      case "rating" -> BY_RATING;
+      case "name" -> BY_NAME;
+      default -> throw new BadRequestException("Unsupported sort field: " + sortBy + " (use popular, rating or name)");
+    };
+    String keywordFilter = keyword != null && !keyword.isBlank() ? keyword.trim().toLowerCase(Locale.ROOT) : null;
+    String cuisineFilter = cuisine != null && !cuisine.isBlank() ? cuisine.trim().toLowerCase(Locale.ROOT) : null;
+
+    // Same filters as RestaurantRepository.findByFilters
+    Specification<Restaurant> filters = (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    if (keywordFilter != null) {
+      String pattern = "%" + keywordFilter + "%";
+      filters = filters.and((root, query, cb) -> cb.or(
+          cb.like(cb.lower(root.get("name")), pattern),
+          cb.like(cb.lower(root.get("description")), pattern)));
+    }
+    if (cuisineFilter != null) {
+      filters = filters.and((root, query, cb) -> cb.equal(cb.lower(root.get("cuisine")), cuisineFilter));
+    }
+    if (minRating != null) {
+      filters = filters.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("rating"), minRating));
     }
 
-    return restaurants.map(restaurantMapper::toRestaurantResponse);
+    // Card projections: only the listed columns, no entities in the persistence context
+    List<RestaurantCard> rows = restaurantRepository.findCards(filters.and(keyset.after(cursor)), keyset.sort(),
+        size + 1);
+    return keyset.pageAll(rows, size, restaurantMapper::toRestaurantCardList);
+  }
+
+  /**
+   * Restaurants that deliver to the given point, nearest first (for mobile "near me").
+   * Answered from the in-memory geo index; no database access.
+   */
+  public Page<NearbyRestaurantResponse> getNearbyRestaurants(
+      double latitude,
+      double longitude,
+      String cuisine,
+      Double minRating,
+      boolean openOnly,
+      int page,
+      int size) {
+
+    if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+      throw new BadRequestException("Invalid coordinates: latitude must be in [-90, 90], longitude in [-180, 180]");
+    }
+    String cuisineFilter = cuisine != null && !cuisine.isBlank() ? cuisine.trim() : null;
+
+    List<GeoGridIndex.Hit<NearbyRestaurantIndex.NearbyRestaurant>> hits = nearbyRestaurantIndex.covering(
+        latitude, longitude, restaurant -> (cuisineFilter == null || cuisineFilter.equalsIgnoreCase(restaurant.cuisine()))
+            && (minRating == null || restaurant.rating() >= minRating)
+            && (!openOnly || restaurant.open()));
+    hits.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+
+    Pageable pageable = PageRequest.of(page, size);
+    int from = (int) Math.min(pageable.getOffset(), hits.size());
+    int to = Math.min(from + size, hits.size());
+    List<NearbyRestaurantResponse> content = hits.subList(from, to).stream()
+        .map(hit -> NearbyRestaurantResponse.of(hit.value(), hit.distanceKm()))
+        .toList();
+    return new PageImpl<>(content, pageable, hits.size());
   }
 
   /**
@@ -113,35 +244,43 @@ public class RestaurantService {
   }
 
   /**
-   * Get popular restaurants - for mobile
+   * Get popular restaurants - for mobile. Ranked in memory by recent orders (see
+   * RestaurantPopularityService), optionally within one cuisine; only the page rows are loaded.
    */
   @Transactional(readOnly = true)
-  public List<RestaurantResponse> getPopularRestaurants(int limit) {
-    log.info("Fetching top {} popular restaurants", limit);
-    Pageable pageable = PageRequest.of(0, limit,
-        Sort.by("totalReviews").descending().and(Sort.by("rating").descending()));
-    Page<Restaurant> restaurants = restaurantRepository.findByIsActiveTrue(pageable);
-    return restaurantMapper.toRestaurantResponseList(restaurants.getContent());
+  public List<RestaurantResponse> getPopularRestaurants(int limit, String cuisine) {
+    int capped = Math.max(1, Math.min(limit, restaurantPopularityService.topK()));
+    log.info("Fetching top {} popular restaurants (cuisine: {})", capped, cuisine);
+    List<UUID> ids = restaurantPopularityService.top(cuisine, capped);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<UUID, Integer> rank = new HashMap<>(ids.size() * 2);
+    for (int i = 0; i < ids.size(); i++) {
+      rank.put(ids.get(i), i);
+    }
+    List<RestaurantCard> cards = new ArrayList<>(restaurantRepository.findActiveCardsByIds(ids));
+    cards.sort(Comparator.comparing(card -> rank.get(card.id())));
+    return restaurantMapper.toRestaurantCardList(cards);
   }
 
   // Delete restaurant by ID (for admin)
   @Transactional(readOnly = false)
   public void deleteRestaurantById(@NonNull UUID id) {
     log.info("Deleting restaurant with id: {}", id);
-    if (!restaurantRepository.existsById(id)) {
-      throw new ResourceNotFoundException("Restaurant not found with id: " + id);
-    }
-    restaurantRepository.deleteById(id);
+    // deleteById would load the entity anyway; loading it here also gives the listing snapshot
+    Restaurant restaurant = restaurantRepository.findById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
+    RestaurantSnapshot before = RestaurantSnapshot.of(restaurant);
+    restaurantRepository.delete(restaurant);
+    eventPublisher.publishEvent(
+        new RestaurantChangedEvent(id, restaurant.getOwnerId(), ChangeType.DELETED, before, null));
   }
 
   @Transactional
   public RestaurantResponse createRestaurant(RestaurantRequest request,@NonNull UUID ownerId) {
     log.info("Creating restaurant '{}' for owner ID:  {}", request.getName(), ownerId);
 
-    // Validation
-    if (restaurantRepository.existsByName(request.getName())) {
-      throw new DuplicateResourceException("Restaurant with name '" + request.getName() + "' already exists");
-    }
     // Normalize phone number
     String normalizedPhone = null;
     if (request.getPhoneNumber() != null && !request.getPhoneNumber().isBlank()) {
@@ -151,10 +290,6 @@ public class RestaurantService {
       } catch (IllegalArgumentException e) {
         throw new IllegalArgumentException("Invalid phone number format: " + e.getMessage());
       }
-
-      if (restaurantRepository.existsByPhoneNumber(normalizedPhone)) {
-        throw new DuplicateResourceException("Restaurant with phone number '" + normalizedPhone + "' already exists");
-      }
     }
 
     // Build restaurant entity
@@ -194,10 +329,30 @@ public class RestaurantService {
         .ownerId(ownerId)
         .build();
 
-    Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+    // Location and delivery radius make the restaurant discoverable by /nearby; entity defaults otherwise
+    restaurant.setLatitude(request.getLatitude());
+    restaurant.setLongitude(request.getLongitude());
+    if (request.getMinimumOrder() != null)
+      restaurant.setMinimumOrder(request.getMinimumOrder());
+    if (request.getMaxDeliveryDistance() != null)
+      restaurant.setMaxDeliveryDistance(request.getMaxDeliveryDistance());
+
+    // Name and phone uniqueness come from the table constraints: one insert, no pre-checks
+    Restaurant savedRestaurant;
+    try {
+      savedRestaurant = restaurantRepository.saveAndFlush(restaurant);
+    } catch (DataIntegrityViolationException ex) {
+      throw UniqueConstraints.translate(ex, List.of(
+          new UniqueConstraints.Rule(Restaurant.UK_NAME, "name",
+              "Restaurant with name '" + request.getName() + "' already exists"),
+          new UniqueConstraints.Rule(Restaurant.UK_PHONE_NUMBER, "phone_number",
+              "Restaurant with phone number '" + normalizedPhone + "' already exists")));
+    }
     log.info("Restaurant created successfully with ID: {}", savedRestaurant.getId());
+    eventPublisher.publishEvent(new RestaurantChangedEvent(savedRestaurant.getId(), ownerId, ChangeType.CREATED,
+        null, RestaurantSnapshot.of(savedRestaurant)));
 
-    return RestaurantResponse.fromEntity(savedRestaurant);
+    return restaurantMapper.toRestaurantDetail(savedRestaurant);
   }
 
   @Transactional
@@ -212,6 +367,7 @@ public class RestaurantService {
     if (!isAdmin && !restaurant.getOwnerId().equals(currentUserId)) {
       throw new UnauthorizedException("You don't have permission to update this restaurant");
     }
+    RestaurantSnapshot before = RestaurantSnapshot.of(restaurant);
 
     // Check duplicates
     if (!restaurant.getName().equals(request.getName())) {
@@ -256,11 +412,17 @@ public class RestaurantService {
       restaurant.setMaxDeliveryDistance(request.getMaxDeliveryDistance());
     if (request.getIsOpen() != null)
       restaurant.setIsOpen(request.getIsOpen());
+    if (request.getLatitude() != null)
+      restaurant.setLatitude(request.getLatitude());
+    if (request.getLongitude() != null)
+      restaurant.setLongitude(request.getLongitude());
 
     Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
     log.info("Restaurant updated successfully: {}", id);
+    eventPublisher.publishEvent(new RestaurantChangedEvent(id, updatedRestaurant.getOwnerId(), ChangeType.UPDATED,
+        before, RestaurantSnapshot.of(updatedRestaurant)));
 
-    return RestaurantResponse.fromEntity(updatedRestaurant);
+    return restaurantMapper.toRestaurantDetail(updatedRestaurant);
   }
 
   /**
@@ -270,9 +432,7 @@ public class RestaurantService {
   public List<RestaurantResponse> getRestaurantsByOwner(UUID ownerId) {
     log.info("Fetching restaurants for owner ID: {}", ownerId);
     List<Restaurant> restaurants = restaurantRepository.findByOwnerId(ownerId);
-    return restaurants.stream()
-        .map(RestaurantResponse::fromEntity)
-        .collect(java.util.stream.Collectors.toList());
+    return restaurantMapper.toRestaurantDetailList(restaurants);
   }
 
   /**
@@ -290,11 +450,14 @@ public class RestaurantService {
       throw new UnauthorizedException("You don't have permission to update this restaurant");
     }
 
+    RestaurantSnapshot before = RestaurantSnapshot.of(restaurant);
     restaurant.setIsOpen(!restaurant.getIsOpen());
     Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+    eventPublisher.publishEvent(new RestaurantChangedEvent(id, updatedRestaurant.getOwnerId(), ChangeType.UPDATED,
+        before, RestaurantSnapshot.of(updatedRestaurant)));
 
     log.info("Restaurant status toggled to: {}", updatedRestaurant.getIsOpen() ? "OPEN" : "CLOSED");
-    return RestaurantResponse.fromEntity(updatedRestaurant);
+    return restaurantMapper.toRestaurantDetail(updatedRestaurant);
   }
 
 }
@@ -0,0 +1,68 @@
+package com.foodya.foodya_backend.search.controller;
+
+import com.foodya.foodya_backend.search.dto.SearchResultResponse;
+import com.foodya.foodya_backend.search.dto.SuggestionResponse;
+import com.foodya.foodya_backend.search.service.SearchService;
+import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.BadRequest;
+import com.foodya.foodya_backend.utils.swagger.ApiResponseExamples.InternalServerError;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Search restaurants and dishes for mobile app")
+public class SearchController {
+
+  private static final int MAX_PAGE_SIZE = 50;
+  private static final int MAX_SUGGESTIONS = 10;
+
+  private final SearchService searchService;
+
+  @Operation(summary = "Search restaurants and dishes",
+      description = "Ranked search over restaurant name, cuisine, description and dish name, category, description. "
+          + "Accents are optional (\"pho\" finds \"Phở\"). Matching dishes are grouped under their restaurant.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+  })
+  @BadRequest
+  @InternalServerError
+  @GetMapping
+  public ResponseEntity<Page<SearchResultResponse>> search(
+      @Parameter(description = "Search text", example = "phở bò") @RequestParam("q") String query,
+
+      @Parameter(description = "Page number (0-based)", example = "0") @RequestParam(defaultValue = "0") int page,
+
+      @Parameter(description = "Page size (default:  20, max: 50)", example = "20") @RequestParam(defaultValue = "20") int size) {
+
+    Page<SearchResultResponse> results = searchService.search(query, Math.max(page, 0),
+        Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    return ResponseEntity.ok(results);
+  }
+
+  @Operation(summary = "Autocomplete suggestions",
+      description = "Restaurant names, cuisines and dish names starting with the typed text (or with a later word of it), "
+          + "most popular first. Accents are optional.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+  })
+  @InternalServerError
+  @GetMapping("/suggest")
+  public ResponseEntity<List<SuggestionResponse>> suggest(
+      @Parameter(description = "Text typed so far", example = "pho") @RequestParam("q") String query,
+
+      @Parameter(description = "Maximum number of suggestions (max: 10)", example = "8") @RequestParam(defaultValue = "8") int limit) {
+
+    return ResponseEntity.ok(searchService.suggest(query, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS)));
+  }
+}
@@ -0,0 +1,43 @@
+package com.foodya.foodya_backend.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One restaurant in the search results, with the dishes of that restaurant that matched.
+ * {@code dishes} is empty when only the restaurant itself matched.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultResponse {
+
+    private UUID restaurantId;
+    private String restaurantName;
+    private String cuisine;
+    private Double rating;
+    private String imageUrl;
+    private Boolean isOpen;
+    private Double score;
+    private List<DishHit> dishes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DishHit {
+        private UUID id;
+        private String name;
+        private String category;
+        private Double price;
+        private String imageUrl;
+        private Boolean isAvailable;
+        private Double score;
+    }
+}
@@ -0,0 +1,191 @@
+package com.foodya.foodya_backend.search.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index with BM25F scoring over three fields (name, tag, description).
+ * <p>
+ * Term frequencies are normalized per field against that field's average length, combined
+ * with the field weights, then saturated once per term (BM25F). Reads share a read lock;
+ * upserts and removals take the write lock and are cheap, so a full rebuild is only needed
+ * to reclaim the slots of removed documents.
+ */
+public class InvertedIndex {
+
+  static final int NAME = 0;
+  static final int TAG = 1;
+  static final int DESCRIPTION = 2;
+  private static final int FIELDS = 3;
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private final double[] fieldWeights;
+
+  private final Map<UUID, Integer> slots = new HashMap<>();
+  private final List<Entry> entries = new ArrayList<>();
+  // term -> slot -> per-field term frequency
+  private final Map<String, Map<Integer, int[]>> postings = new HashMap<>();
+  private final long[] totalFieldLength = new long[FIELDS];
+  private int liveCount;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private record Entry(SearchDocument document, int[] fieldLengths, Set<String> terms) {
+  }
+
+  /** A document with its relevance score (before popularity boosts). */
+  public record Hit(SearchDocument document, double score) {
+  }
+
+  public InvertedIndex(double nameWeight, double tagWeight, double descriptionWeight) {
+    this.fieldWeights = new double[] {nameWeight, tagWeight, descriptionWeight};
+  }
+
+  public void upsert(SearchDocument document) {
+    List<List<String>> fields = List.of(
+        TextFolding.tokens(document.name()),
+        TextFolding.tokens(document.tag()),
+        TextFolding.tokens(document.description()));
+
+    lock.writeLock().lock();
+    try {
+      removeLocked(document.id());
+      int slot = entries.size();
+      int[] lengths = new int[FIELDS];
+      Set<String> terms = new LinkedHashSet<>();
+      for (int field = 0; field < FIELDS; field++) {
+        List<String> tokens = fields.get(field);
+        lengths[field] = tokens.size();
+        totalFieldLength[field] += tokens.size();
+        for (String token : tokens) {
+          terms.add(token);
+          postings.computeIfAbsent(token, t -> new HashMap<>())
+              .computeIfAbsent(slot, s -> new int[FIELDS])[field]++;
+        }
+      }
+      entries.add(new Entry(document, lengths, terms));
+      slots.put(document.id(), slot);
+      liveCount++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(UUID id) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** @return the removed documents */
+  public List<SearchDocument> removeIf(Predicate<SearchDocument> filter) {
+    lock.writeLock().lock();
+    try {
+      List<SearchDocument> matching = new ArrayList<>();
+      for (Entry entry : entries) {
+        if (entry != null && filter.test(entry.document())) {
+          matching.add(entry.document());
+        }
+      }
+      matching.forEach(document -> removeLocked(document.id()));
+      return matching;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public SearchDocument get(UUID id) {
+    lock.readLock().lock();
+    try {
+      Integer slot = slots.get(id);
+      return slot != null ? entries.get(slot).document() : null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return liveCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Every document containing at least one of the (already folded) terms, unordered. */
+  public List<Hit> search(Set<String> terms) {
+    lock.readLock().lock();
+    try {
+      if (liveCount == 0) {
+        return List.of();
+      }
+      double[] averageLength = new double[FIELDS];
+      for (int field = 0; field < FIELDS; field++) {
+        averageLength[field] = Math.max(1.0, (double) totalFieldLength[field] / liveCount);
+      }
+
+      Map<Integer, Double> scores = new HashMap<>();
+      for (String term : terms) {
+        Map<Integer, int[]> posting = postings.get(term);
+        if (posting == null) {
+          continue;
+        }
+        double idf = Math.log(1.0 + (liveCount - posting.size() + 0.5) / (posting.size() + 0.5));
+        for (Map.Entry<Integer, int[]> occurrence : posting.entrySet()) {
+          int[] lengths = entries.get(occurrence.getKey()).fieldLengths();
+          int[] frequencies = occurrence.getValue();
+          double weightedTf = 0.0;
+          for (int field = 0; field < FIELDS; field++) {
+            if (frequencies[field] > 0) {
+              weightedTf += fieldWeights[field] * frequencies[field]
+                  / (1.0 - B + B * lengths[field] / averageLength[field]);
+            }
+          }
+          scores.merge(occurrence.getKey(), idf * weightedTf * (K1 + 1.0) / (K1 + weightedTf), Double::sum);
+        }
+      }
+
+      List<Hit> hits = new ArrayList<>(scores.size());
+      scores.forEach((slot, score) -> hits.add(new Hit(entries.get(slot).document(), score)));
+      return hits;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void removeLocked(UUID id) {
+    Integer slot = slots.remove(id);
+    if (slot == null) {
+      return;
+    }
+    Entry entry = entries.get(slot);
+    for (String term : entry.terms()) {
+      Map<Integer, int[]> posting = postings.get(term);
+      if (posting != null) {
+        posting.remove(slot);
+        if (posting.isEmpty()) {
+          postings.remove(term);
+        }
+      }
+    }
+    for (int field = 0; field < FIELDS; field++) {
+      totalFieldLength[field] -= entry.fieldLengths()[field];
+    }
+    // Slots are not reused; the periodic rebuild compacts them
+    entries.set(slot, null);
+    liveCount--;
+  }
+}
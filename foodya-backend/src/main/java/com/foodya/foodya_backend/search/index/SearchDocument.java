@@ -0,0 +1,28 @@
+package com.foodya.foodya_backend.search.index;
+
+import java.util.UUID;
+
+/**
+ * One searchable catalog entry: a restaurant or a dish.
+ * Text fields are indexed as name / tag / description; for a restaurant the tag is its cuisine,
+ * for a dish its category. {@code available} means "open" for a restaurant and "available" for a dish.
+ * {@code price} is null for restaurants.
+ */
+public record SearchDocument(
+    UUID id,
+    Kind kind,
+    UUID restaurantId,
+    String name,
+    String tag,
+    String description,
+    double rating,
+    int orderCount,
+    Double price,
+    String imageUrl,
+    boolean available) {
+
+  public enum Kind {
+    RESTAURANT,
+    DISH
+  }
+}
@@ -0,0 +1,39 @@
+package com.foodya.foodya_backend.search.index;
+
+import java.util.UUID;
+
+/**
+ * The searchable columns of an active menu item. Selected with a JPQL constructor expression,
+ * so a rebuild streams rows without hydrating (and keeping) {@code MenuItem} entities.
+ */
+public record SearchableDish(
+    UUID id,
+    UUID restaurantId,
+    String name,
+    String category,
+    String description,
+    Integer orderCount,
+    Double price,
+    String imageUrl,
+    Boolean isAvailable) {
+
+  /** Select clause for repository queries; add conditions with {@code AND} (alias {@code m}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.search.index.SearchableDish("
+      + "m.id, m.restaurant.id, m.name, m.category, m.description, m.orderCount, m.price, m.imageUrl, "
+      + "m.isAvailable) FROM MenuItem m WHERE m.isActive = true ";
+
+  public SearchDocument toDocument() {
+    return new SearchDocument(
+        id,
+        SearchDocument.Kind.DISH,
+        restaurantId,
+        name,
+        category,
+        description,
+        0.0,
+        orderCount != null ? orderCount : 0,
+        price,
+        imageUrl,
+        Boolean.TRUE.equals(isAvailable));
+  }
+}
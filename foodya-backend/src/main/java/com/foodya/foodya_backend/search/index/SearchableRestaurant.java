@@ -0,0 +1,38 @@
+package com.foodya.foodya_backend.search.index;
+
+import java.util.UUID;
+
+/**
+ * The searchable columns of an active restaurant. Selected with a JPQL constructor expression,
+ * so a rebuild streams rows without hydrating (and keeping) {@code Restaurant} entities.
+ */
+public record SearchableRestaurant(
+    UUID id,
+    String name,
+    String cuisine,
+    String description,
+    Double rating,
+    Integer orderCount,
+    String imageUrl,
+    Boolean isOpen) {
+
+  /** Select clause for repository queries; add conditions with {@code AND} (alias {@code r}). */
+  public static final String SELECT = "SELECT new com.foodya.foodya_backend.search.index.SearchableRestaurant("
+      + "r.id, r.name, r.cuisine, r.description, r.rating, r.orderCount, r.imageUrl, r.isOpen) "
+      + "FROM Restaurant r WHERE r.isActive = true ";
+
+  public SearchDocument toDocument() {
+    return new SearchDocument(
+        id,
+        SearchDocument.Kind.RESTAURANT,
+        id,
+        name,
+        cuisine,
+        description,
+        rating != null ? rating : 0.0,
+        orderCount != null ? orderCount : 0,
+        null,
+        imageUrl,
+        Boolean.TRUE.equals(isOpen));
+  }
+}
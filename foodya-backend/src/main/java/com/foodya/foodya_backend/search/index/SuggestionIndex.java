@@ -0,0 +1,370 @@
+package com.foodya.foodya_backend.search.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix autocomplete over restaurant names, cuisines and dish names.
+ * <p>
+ * A character trie over folded text (see {@link TextFolding}) where every node caches the ids
+ * of its K heaviest suggestions, so a lookup is one walk down the typed prefix. Each suggestion
+ * is also reachable from the start of its second and third word ("thin" finds "Phở Thìn").
+ * <p>
+ * Suggestions are deduplicated by kind and folded text: the thousands of "Cơm rang" dishes are
+ * one suggestion whose weight is the sum of their popularity. When a weight changes, the cached
+ * top-K lists are recomputed bottom-up along the affected paths only; a node's top-K is derived
+ * from its own suggestions and its children's top-K lists.
+ * <p>
+ * Heap use is tracked incrementally ({@link #estimatedBytes()}), assuming a 64-bit JVM with
+ * compressed oops.
+ */
+public class SuggestionIndex {
+
+  public enum Kind {
+    RESTAURANT,
+    CUISINE,
+    DISH
+  }
+
+  /** A suggestion as returned to callers. */
+  public record Suggestion(String text, Kind kind, long weight) {
+  }
+
+  private static final int MAX_WORD_STARTS = 3;
+  private static final int[] NO_IDS = new int[0];
+
+  // Approximate object sizes (bytes), compressed oops
+  private static final int NODE_BYTES = 32;
+  private static final int ARRAY_HEADER_BYTES = 16;
+  private static final int ENTRY_BYTES = 40;
+  private static final int STRING_BYTES = 24;
+  private static final int MAP_ENTRY_BYTES = 36;
+
+  private final int topK;
+  private final Node root = new Node();
+  private final List<Entry> entries = new ArrayList<>();
+  private final Map<String, Integer> entryIds = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private long nodeCount = 1;
+  private long arrayBytes;
+  private long entryBytes;
+  private int liveEntries;
+
+  private static final class Node {
+    char[] labels = new char[0];
+    Node[] children = new Node[0];
+    int[] own = NO_IDS;
+    int[] top = NO_IDS;
+  }
+
+  private static final class Entry {
+    final String display;
+    final String key;
+    final Kind kind;
+    long weight;
+    int sources;
+
+    Entry(String display, String key, Kind kind) {
+      this.display = display;
+      this.key = key;
+      this.kind = kind;
+    }
+  }
+
+  public SuggestionIndex(int topK) {
+    this.topK = topK;
+  }
+
+  /** Add a source (a restaurant, cuisine or dish) contributing {@code weight} to the suggestion {@code text}. */
+  public void add(Kind kind, String text, long weight) {
+    change(kind, text, weight, 1, true);
+  }
+
+  /** Withdraw a source previously passed to {@link #add}. */
+  public void remove(Kind kind, String text, long weight) {
+    change(kind, text, -weight, -1, true);
+  }
+
+  /**
+   * Add without maintaining the top-K lists; call {@link #finishBulkLoad()} before the first lookup.
+   * Used to build a fresh index, where per-source path updates would dominate the build time.
+   */
+  public void bulkAdd(Kind kind, String text, long weight) {
+    change(kind, text, weight, 1, false);
+  }
+
+  public void finishBulkLoad() {
+    lock.writeLock().lock();
+    try {
+      recomputeSubtree(root);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public List<Suggestion> suggest(String prefix, int limit) {
+    String key = String.join(" ", TextFolding.tokens(prefix));
+    if (key.isEmpty()) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      Node node = root;
+      for (int i = 0; i < key.length() && node != null; i++) {
+        node = child(node, key.charAt(i));
+      }
+      if (node == null) {
+        return List.of();
+      }
+      int count = Math.min(limit, node.top.length);
+      List<Suggestion> suggestions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        Entry entry = entries.get(node.top[i]);
+        suggestions.add(new Suggestion(entry.display, entry.kind, entry.weight));
+      }
+      return suggestions;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return liveEntries;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long nodeCount() {
+    lock.readLock().lock();
+    try {
+      return nodeCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Approximate heap held by the trie, the suggestions and the lookup map. */
+  public long estimatedBytes() {
+    lock.readLock().lock();
+    try {
+      return nodeCount * NODE_BYTES + arrayBytes + entryBytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void change(Kind kind, String text, long weightDelta, int sourceDelta, boolean maintainTop) {
+    List<String> tokens = TextFolding.tokens(text);
+    if (tokens.isEmpty()) {
+      return;
+    }
+    String key = String.join(" ", tokens);
+    String lookupKey = kind.ordinal() + key;
+
+    lock.writeLock().lock();
+    try {
+      Integer id = entryIds.get(lookupKey);
+      if (id == null) {
+        if (sourceDelta < 0) {
+          return;
+        }
+        id = entries.size();
+        // Entries whose last source goes away keep their id (and memory) until the next rebuild
+        entries.add(new Entry(text.trim(), key, kind));
+        entryIds.put(lookupKey, id);
+        entryBytes += ENTRY_BYTES + 2L * STRING_BYTES + MAP_ENTRY_BYTES
+            + stringBytes(text.trim()) + 2L * stringBytes(key);
+      }
+      Entry entry = entries.get(id);
+      boolean wasLive = entry.sources > 0;
+      if (sourceDelta < 0 && !wasLive) {
+        // Nothing left to withdraw
+        return;
+      }
+      entry.weight = Math.max(0, entry.weight + weightDelta);
+      entry.sources += sourceDelta;
+      boolean live = entry.sources > 0;
+      if (!live) {
+        entry.weight = 0;
+      }
+      if (wasLive && !live) {
+        liveEntries--;
+      } else if (!wasLive && live) {
+        liveEntries++;
+      }
+
+      for (int start : wordStarts(tokens)) {
+        String suffix = key.substring(start);
+        List<Node> path = pathFor(suffix, live);
+        if (path == null) {
+          continue;
+        }
+        Node leaf = path.get(path.size() - 1);
+        setOwn(leaf, live ? withId(leaf.own, id) : withoutId(leaf.own, id));
+        if (maintainTop) {
+          for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeTop(path.get(i));
+          }
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Offsets in the folded key where the first MAX_WORD_STARTS words begin
+  private static int[] wordStarts(List<String> tokens) {
+    int count = Math.min(tokens.size(), MAX_WORD_STARTS);
+    int[] starts = new int[count];
+    int offset = 0;
+    for (int i = 0; i < count; i++) {
+      starts[i] = offset;
+      offset += tokens.get(i).length() + 1;
+    }
+    return starts;
+  }
+
+  private List<Node> pathFor(String key, boolean create) {
+    List<Node> path = new ArrayList<>(key.length() + 1);
+    Node node = root;
+    path.add(node);
+    for (int i = 0; i < key.length(); i++) {
+      Node next = child(node, key.charAt(i));
+      if (next == null) {
+        if (!create) {
+          return null;
+        }
+        next = addChild(node, key.charAt(i));
+      }
+      node = next;
+      path.add(node);
+    }
+    return path;
+  }
+
+  private static Node child(Node node, char label) {
+    int index = Arrays.binarySearch(node.labels, label);
+    return index >= 0 ? node.children[index] : null;
+  }
+
+  private Node addChild(Node node, char label) {
+    int insertAt = -Arrays.binarySearch(node.labels, label) - 1;
+    int size = node.labels.length;
+    char[] labels = new char[size + 1];
+    Node[] children = new Node[size + 1];
+    System.arraycopy(node.labels, 0, labels, 0, insertAt);
+    System.arraycopy(node.children, 0, children, 0, insertAt);
+    System.arraycopy(node.labels, insertAt, labels, insertAt + 1, size - insertAt);
+    System.arraycopy(node.children, insertAt, children, insertAt + 1, size - insertAt);
+    Node created = new Node();
+    labels[insertAt] = label;
+    children[insertAt] = created;
+    arrayBytes += charArrayBytes(size + 1) - charArrayBytes(size) + intArrayBytes(size + 1) - intArrayBytes(size);
+    node.labels = labels;
+    node.children = children;
+    nodeCount++;
+    return created;
+  }
+
+  private void setOwn(Node node, int[] own) {
+    arrayBytes += intArrayBytes(own.length) - intArrayBytes(node.own.length);
+    node.own = own;
+  }
+
+  private void recomputeSubtree(Node node) {
+    for (Node child : node.children) {
+      recomputeSubtree(child);
+    }
+    recomputeTop(node);
+  }
+
+  // Top-K of a node = best K of its own suggestions and its children's top-K lists
+  private void recomputeTop(Node node) {
+    int[] best = new int[topK];
+    int size = offerAll(best, 0, node.own);
+    for (Node child : node.children) {
+      size = offerAll(best, size, child.top);
+    }
+    int[] top = size == 0 ? NO_IDS : Arrays.copyOf(best, size);
+    arrayBytes += intArrayBytes(top.length) - intArrayBytes(node.top.length);
+    node.top = top;
+  }
+
+  // Insertion into a small array kept sorted by weight, descending
+  private int offerAll(int[] best, int size, int[] candidates) {
+    for (int id : candidates) {
+      Entry entry = entries.get(id);
+      if (entry.sources <= 0 || contains(best, size, id)) {
+        continue;
+      }
+      int position = size;
+      while (position > 0 && entries.get(best[position - 1]).weight < entry.weight) {
+        position--;
+      }
+      if (position >= best.length) {
+        continue;
+      }
+      int moved = Math.min(size, best.length - 1) - position;
+      System.arraycopy(best, position, best, position + 1, moved);
+      best[position] = id;
+      size = Math.min(size + 1, best.length);
+    }
+    return size;
+  }
+
+  private static boolean contains(int[] ids, int size, int id) {
+    for (int i = 0; i < size; i++) {
+      if (ids[i] == id) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean contains(int[] ids, int id) {
+    return contains(ids, ids.length, id);
+  }
+
+  private static int[] withId(int[] ids, int id) {
+    if (contains(ids, id)) {
+      return ids;
+    }
+    int[] result = Arrays.copyOf(ids, ids.length + 1);
+    result[ids.length] = id;
+    return result;
+  }
+
+  private static int[] withoutId(int[] ids, int id) {
+    if (!contains(ids, id)) {
+      return ids;
+    }
+    int[] result = Arrays.stream(ids).filter(existing -> existing != id).toArray();
+    return result.length == 0 ? NO_IDS : result;
+  }
+
+  private static long charArrayBytes(int length) {
+    return length == 0 ? 0 : align(ARRAY_HEADER_BYTES + 2L * length);
+  }
+
+  private static long intArrayBytes(int length) {
+    return length == 0 ? 0 : align(ARRAY_HEADER_BYTES + 4L * length);
+  }
+
+  // Latin-1 strings take a byte per char; anything with Vietnamese letters is UTF-16
+  private static long stringBytes(String text) {
+    boolean latin1 = text.chars().allMatch(c -> c < 256);
+    return align(ARRAY_HEADER_BYTES + (long) text.length() * (latin1 ? 1 : 2));
+  }
+
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+}
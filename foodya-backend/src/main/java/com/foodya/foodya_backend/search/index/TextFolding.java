@@ -0,0 +1,51 @@
+package com.foodya.foodya_backend.search.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Accent- and case-insensitive tokenization shared by indexing and querying.
+ * Vietnamese diacritics are stripped ("Phở Bò" -> "pho", "bo") and "đ" folds to "d",
+ * so users can search with or without a Vietnamese keyboard.
+ */
+public final class TextFolding {
+
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+  private TextFolding() {
+  }
+
+  /** Lower-cased text without diacritics; null becomes an empty string. */
+  public static String fold(String text) {
+    if (text == null || text.isEmpty()) {
+      return "";
+    }
+    String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+    // "đ" has no decomposition, it is a separate letter
+    return COMBINING_MARKS.matcher(decomposed).replaceAll("").replace('đ', 'd');
+  }
+
+  /** Folded tokens: runs of letters and digits. */
+  public static List<String> tokens(String text) {
+    String folded = fold(text);
+    List<String> tokens = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i < folded.length(); i++) {
+      if (Character.isLetterOrDigit(folded.charAt(i))) {
+        if (start < 0) {
+          start = i;
+        }
+      } else if (start >= 0) {
+        tokens.add(folded.substring(start, i));
+        start = -1;
+      }
+    }
+    if (start >= 0) {
+      tokens.add(folded.substring(start));
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,218 @@
+package com.foodya.foodya_backend.search.service;
+
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.search.index.InvertedIndex;
+import com.foodya.foodya_backend.search.index.SearchDocument;
+import com.foodya.foodya_backend.search.index.SearchableDish;
+import com.foodya.foodya_backend.search.index.SearchableRestaurant;
+import com.foodya.foodya_backend.search.index.SuggestionIndex;
+import com.foodya.foodya_backend.utils.rebuild.RebuildableState;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory catalog search index and the autocomplete index current.
+ * <p>
+ * Built from the database at startup and rebuilt periodically (picks up counters changed
+ * outside the catalog services and compacts removed slots); the rebuild streams only the
+ * searchable columns, no entities are hydrated. Committed catalog changes are
+ * applied one document at a time. Changes that land while a rebuild is loading are replayed
+ * onto the new indexes before they are used alone.
+ */
+@Component
+@Slf4j
+public class CatalogSearchIndex {
+
+  private final RestaurantRepository restaurantRepository;
+  private final MenuItemRepository menuItemRepository;
+  private final TransactionTemplate readOnly;
+  private final double nameWeight;
+  private final double tagWeight;
+  private final double descriptionWeight;
+
+  private final int suggestionsPerNode;
+
+  private final RebuildableState<Indexes> indexes;
+  private final AtomicLong version = new AtomicLong();
+
+  public CatalogSearchIndex(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${app.search.index.weight.name:3.0}") double nameWeight,
+      @Value("${app.search.index.weight.tag:1.5}") double tagWeight,
+      @Value("${app.search.index.weight.description:1.0}") double descriptionWeight,
+      @Value("${app.search.suggest.top-k:10}") int suggestionsPerNode) {
+    this.restaurantRepository = restaurantRepository;
+    this.menuItemRepository = menuItemRepository;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.nameWeight = nameWeight;
+    this.tagWeight = tagWeight;
+    this.descriptionWeight = descriptionWeight;
+    this.suggestionsPerNode = suggestionsPerNode;
+    this.indexes = new RebuildableState<>(emptyIndexes());
+
+    Gauge.builder("foodya.search.documents", this, index -> index.indexes.get().search().size())
+        .description("Restaurants and dishes in the search index")
+        .register(meterRegistry);
+    Gauge.builder("foodya.search.suggest.entries", this, index -> index.indexes.get().suggestions().size())
+        .description("Distinct autocomplete suggestions")
+        .register(meterRegistry);
+    Gauge.builder("foodya.search.suggest.nodes", this, index -> index.indexes.get().suggestions().nodeCount())
+        .description("Autocomplete trie nodes")
+        .register(meterRegistry);
+    Gauge.builder("foodya.search.suggest.memory", this, index -> index.indexes.get().suggestions().estimatedBytes())
+        .description("Approximate heap held by the autocomplete index")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * The search index and the autocomplete index, changed together.
+   * Writes are serialized so the previous document read for an update is the one being replaced.
+   */
+  private record Indexes(InvertedIndex search, SuggestionIndex suggestions) {
+
+    synchronized void upsert(SearchDocument document) {
+      SearchDocument previous = search.get(document.id());
+      search.upsert(document);
+      if (previous != null) {
+        forEachSuggestion(previous, suggestions::remove);
+      }
+      forEachSuggestion(document, suggestions::add);
+    }
+
+    synchronized void remove(UUID id) {
+      SearchDocument previous = search.get(id);
+      if (previous != null) {
+        search.remove(id);
+        forEachSuggestion(previous, suggestions::remove);
+      }
+    }
+
+    synchronized void removeDishesOf(UUID restaurantId) {
+      search.removeIf(document -> document.kind() == SearchDocument.Kind.DISH
+          && restaurantId.equals(document.restaurantId()))
+          .forEach(dish -> forEachSuggestion(dish, suggestions::remove));
+    }
+  }
+
+  private interface SuggestionChange {
+    void apply(SuggestionIndex.Kind kind, String text, long weight);
+  }
+
+  // A restaurant suggests its name and cuisine, a dish its name; weight grows with popularity
+  private static void forEachSuggestion(SearchDocument document, SuggestionChange change) {
+    long weight = 1L + document.orderCount();
+    if (document.kind() == SearchDocument.Kind.RESTAURANT) {
+      change.apply(SuggestionIndex.Kind.RESTAURANT, document.name(), weight);
+      if (document.tag() != null) {
+        change.apply(SuggestionIndex.Kind.CUISINE, document.tag(), weight);
+      }
+    } else {
+      change.apply(SuggestionIndex.Kind.DISH, document.name(), weight);
+    }
+  }
+
+  private Indexes emptyIndexes() {
+    return new Indexes(new InvertedIndex(nameWeight, tagWeight, descriptionWeight),
+        new SuggestionIndex(suggestionsPerNode));
+  }
+
+  public InvertedIndex index() {
+    return indexes.get().search();
+  }
+
+  public SuggestionIndex suggestions() {
+    return indexes.get().suggestions();
+  }
+
+  /** Changes whenever the index content changes; used to key cached query results. */
+  public long version() {
+    return version.get();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${app.search.index.rebuild-ms:600000}",
+      fixedDelayString = "${app.search.index.rebuild-ms:600000}")
+  public void rebuild() {
+    long start = System.currentTimeMillis();
+    Indexes rebuilt = indexes.rebuild(() -> {
+      Indexes loaded = emptyIndexes();
+      readOnly.executeWithoutResult(status -> {
+        try (Stream<SearchableRestaurant> restaurants = restaurantRepository.streamSearchableRestaurants()) {
+          restaurants.forEach(restaurant -> load(loaded, restaurant.toDocument()));
+        }
+        try (Stream<SearchableDish> dishes = menuItemRepository.streamSearchableDishes()) {
+          dishes.forEach(dish -> load(loaded, dish.toDocument()));
+        }
+      });
+      loaded.suggestions().finishBulkLoad();
+      return loaded;
+    });
+    if (rebuilt != null) {
+      version.incrementAndGet();
+      log.info("Search index built: {} documents, {} suggestions (~{} MB) in {} ms",
+          rebuilt.search().size(), rebuilt.suggestions().size(),
+          rebuilt.suggestions().estimatedBytes() / (1024 * 1024), System.currentTimeMillis() - start);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    UUID restaurantId = event.restaurantId();
+    if (event.type() == ChangeType.DELETED) {
+      apply(target -> {
+        target.remove(restaurantId);
+        target.removeDishesOf(restaurantId);
+      });
+      return;
+    }
+    // Dishes of an inactive restaurant stay indexed but are hidden while it has no document
+    Optional<SearchDocument> document = restaurantRepository.findSearchableById(restaurantId)
+        .map(SearchableRestaurant::toDocument);
+    apply(target -> document.ifPresentOrElse(target::upsert, () -> target.remove(restaurantId)));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onMenuItemChanged(MenuItemChangedEvent event) {
+    UUID menuItemId = event.menuItemId();
+    Optional<SearchDocument> document = event.type() == ChangeType.DELETED
+        ? Optional.empty()
+        : menuItemRepository.findSearchableDishById(menuItemId).map(SearchableDish::toDocument);
+    apply(target -> document.ifPresentOrElse(target::upsert, () -> target.remove(menuItemId)));
+  }
+
+  // Fresh index, not visible yet: no previous documents to replace, top-K computed once at the end
+  private static void load(Indexes target, SearchDocument document) {
+    target.search().upsert(document);
+    forEachSuggestion(document, target.suggestions()::bulkAdd);
+  }
+
+  private void apply(Consumer<Indexes> change) {
+    indexes.apply(change);
+    version.incrementAndGet();
+  }
+}
@@ -0,0 +1,183 @@
+package com.foodya.foodya_backend.search.service;
+
+import com.foodya.foodya_backend.search.dto.SearchResultResponse;
+import com.foodya.foodya_backend.search.dto.SuggestionResponse;
+import com.foodya.foodya_backend.search.index.InvertedIndex;
+import com.foodya.foodya_backend.search.index.SearchDocument;
+import com.foodya.foodya_backend.search.index.TextFolding;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Unified restaurant + dish search, answered from {@link CatalogSearchIndex} without touching the database.
+ * <p>
+ * BM25F relevance is boosted by popularity ({@code orderCount}) and rating, then dish hits are
+ * grouped under their restaurant. Ranked result lists are kept in an LRU keyed by index version
+ * and folded query, so repeated queries (and page 2, 3, ...) only slice a cached list.
+ */
+@Service
+public class SearchService {
+
+  private static final Comparator<Scored> BY_SCORE = Comparator.comparingDouble(Scored::score).reversed();
+
+  private final CatalogSearchIndex catalogSearchIndex;
+  private final int maxResults;
+  private final int dishesPerRestaurant;
+  private final double orderCountBoost;
+  private final double ratingBoost;
+  private final Cache<ResultKey, List<SearchResultResponse>> results;
+
+  private record ResultKey(long indexVersion, String query) {
+  }
+
+  private record Scored(SearchDocument document, double score) {
+  }
+
+  public SearchService(CatalogSearchIndex catalogSearchIndex, MeterRegistry meterRegistry,
+      @Value("${app.search.max-results:200}") int maxResults,
+      @Value("${app.search.dishes-per-restaurant:3}") int dishesPerRestaurant,
+      @Value("${app.search.boost.order-count:0.1}") double orderCountBoost,
+      @Value("${app.search.boost.rating:0.2}") double ratingBoost,
+      @Value("${app.search.result-cache.max-size:2000}") long resultCacheSize) {
+    this.catalogSearchIndex = catalogSearchIndex;
+    this.maxResults = maxResults;
+    this.dishesPerRestaurant = dishesPerRestaurant;
+    this.orderCountBoost = orderCountBoost;
+    this.ratingBoost = ratingBoost;
+    this.results = Caffeine.newBuilder()
+        .maximumSize(resultCacheSize)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, results, "search_results");
+  }
+
+  public Page<SearchResultResponse> search(String query, int page, int size) {
+    PageRequest pageRequest = PageRequest.of(page, size);
+    Set<String> terms = new LinkedHashSet<>(TextFolding.tokens(query));
+    if (terms.isEmpty()) {
+      return Page.empty(pageRequest);
+    }
+
+    ResultKey key = new ResultKey(catalogSearchIndex.version(), String.join(" ", terms));
+    List<SearchResultResponse> ranked = results.get(key, k -> rank(terms));
+
+    int from = (int) Math.min(pageRequest.getOffset(), ranked.size());
+    int to = Math.min(from + size, ranked.size());
+    return new PageImpl<>(ranked.subList(from, to), pageRequest, ranked.size());
+  }
+
+  /** Completions for what has been typed so far, most popular first; never touches the database. */
+  public List<SuggestionResponse> suggest(String prefix, int limit) {
+    return catalogSearchIndex.suggestions().suggest(prefix, limit).stream()
+        .map(suggestion -> SuggestionResponse.builder()
+            .text(suggestion.text())
+            .type(suggestion.kind().name())
+            .build())
+        .toList();
+  }
+
+  private List<SearchResultResponse> rank(Set<String> terms) {
+    InvertedIndex index = catalogSearchIndex.index();
+
+    Map<UUID, Scored> restaurantHits = new HashMap<>();
+    Map<UUID, List<Scored>> dishHits = new HashMap<>();
+    for (InvertedIndex.Hit hit : index.search(terms)) {
+      Scored scored = new Scored(hit.document(), boosted(hit));
+      if (hit.document().kind() == SearchDocument.Kind.RESTAURANT) {
+        restaurantHits.put(hit.document().id(), scored);
+      } else {
+        dishHits.computeIfAbsent(hit.document().restaurantId(), id -> new ArrayList<>()).add(scored);
+      }
+    }
+
+    Set<UUID> restaurantIds = new LinkedHashSet<>(restaurantHits.keySet());
+    restaurantIds.addAll(dishHits.keySet());
+
+    List<Scored> groups = new ArrayList<>(restaurantIds.size());
+    Map<UUID, List<Scored>> topDishes = new HashMap<>();
+    for (UUID restaurantId : restaurantIds) {
+      Scored restaurantHit = restaurantHits.get(restaurantId);
+      SearchDocument restaurant = restaurantHit != null ? restaurantHit.document() : index.get(restaurantId);
+      if (restaurant == null) {
+        // Inactive or deleted restaurant: its dishes are not shown
+        continue;
+      }
+      List<Scored> dishes = dishHits.getOrDefault(restaurantId, List.of()).stream()
+          .sorted(BY_SCORE)
+          .limit(dishesPerRestaurant)
+          .toList();
+      topDishes.put(restaurantId, dishes);
+      groups.add(new Scored(restaurant, groupScore(restaurantHit, dishes)));
+    }
+
+    groups.sort(BY_SCORE);
+    List<SearchResultResponse> ranked = new ArrayList<>(Math.min(groups.size(), maxResults));
+    for (Scored group : groups.subList(0, Math.min(groups.size(), maxResults))) {
+      ranked.add(toResponse(group, topDishes.get(group.document().id())));
+    }
+    return List.copyOf(ranked);
+  }
+
+  private double boosted(InvertedIndex.Hit hit) {
+    SearchDocument document = hit.document();
+    return hit.score()
+        * (1.0 + orderCountBoost * Math.log1p(document.orderCount()))
+        * (1.0 + ratingBoost * document.rating() / 5.0);
+  }
+
+  // Best single match, plus a little for each further matching dish
+  private static double groupScore(Scored restaurantHit, List<Scored> dishes) {
+    double best = restaurantHit != null ? restaurantHit.score() : 0.0;
+    double rest = 0.0;
+    for (Scored dish : dishes) {
+      if (dish.score() > best) {
+        rest += best;
+        best = dish.score();
+      } else {
+        rest += dish.score();
+      }
+    }
+    return best + 0.25 * rest;
+  }
+
+  private static SearchResultResponse toResponse(Scored group, List<Scored> dishes) {
+    SearchDocument restaurant = group.document();
+    return SearchResultResponse.builder()
+        .restaurantId(restaurant.id())
+        .restaurantName(restaurant.name())
+        .cuisine(restaurant.tag())
+        .rating(restaurant.rating())
+        .imageUrl(restaurant.imageUrl())
+        .isOpen(restaurant.available())
+        .score(group.score())
+        .dishes(dishes.stream()
+            .map(dish -> SearchResultResponse.DishHit.builder()
+                .id(dish.document().id())
+                .name(dish.document().name())
+                .category(dish.document().tag())
+                .price(dish.document().price())
+                .imageUrl(dish.document().imageUrl())
+                .isAvailable(dish.document().available())
+                .score(dish.score())
+                .build())
+            .toList())
+        .build();
+  }
+}
@@ -14,7 +14,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+    @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email"),
+    @UniqueConstraint(name = User.UK_PHONE_NUMBER, columnNames = "phone_number")
+}, indexes = {
+    @Index(name = "idx_users_updated_at", columnList = "updated_at")
+})
 @Getter
 @Setter
 @Builder
@@ -22,14 +28,18 @@ import java.util.UUID;
 @AllArgsConstructor
 public class User implements UserDetails {
 
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+    public static final String UK_PHONE_NUMBER = "uk_users_phone_number";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(unique = true, nullable = false, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -38,7 +48,7 @@ public class User implements UserDetails {
     @Column(name = "full_name", nullable = false)
     private String fullName;
 
-    @Column(name = "phone_number", unique = true)
+    @Column(name = "phone_number")
     private String phoneNumber;
 
     @Enumerated(EnumType.STRING)
@@ -67,6 +77,11 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean accountLocked = false;
 
+    // Bumped on deactivation, lock and password change; tokens carrying an older epoch are rejected
+    @Column(name = "security_epoch")
+    @Builder.Default
+    private Long securityEpoch = 0L;
+
     // ========== TIMESTAMPS ==========
 
     @Column(name = "last_login_at")
@@ -80,6 +95,11 @@ public class User implements UserDetails {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Rows created before the column existed hold NULL
+    public long getSecurityEpochOrZero() {
+        return securityEpoch != null ? securityEpoch : 0L;
+    }
+
     // ========== UserDetails Implementation ==========
 
     @Override
@@ -1,11 +1,19 @@
 package com.foodya.foodya_backend.user.repository;
 
 import com.foodya.foodya_backend.user.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -16,4 +24,22 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByPhoneNumber(String phoneNumber);
+
+    // Security epoch table (stateless principal mode)
+    Optional<UserSecurityView> findSecurityViewById(UUID id);
+    List<UserSecurityView> findSecurityViewsByUpdatedAtAfter(LocalDateTime since);
+
+    // Availability filters: every handle streamed for a rebuild, recent changes for the sync
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<UserHandle> streamHandles();
+
+    @Query("SELECT u.username AS username, u.email AS email FROM User u WHERE u.updatedAt > :since")
+    List<UserHandle> findHandlesUpdatedSince(@Param("since") LocalDateTime since);
+
+    interface UserHandle {
+        String getUsername();
+
+        String getEmail();
+    }
 }
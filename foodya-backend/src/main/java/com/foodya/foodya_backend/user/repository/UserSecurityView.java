@@ -0,0 +1,16 @@
+package com.foodya.foodya_backend.user.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns needed to decide whether an access token is still acceptable,
+ * without loading the whole {@code User} entity.
+ */
+public interface UserSecurityView {
+    UUID getId();
+    Long getSecurityEpoch();
+    Boolean getIsActive();
+    Boolean getAccountLocked();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,120 @@
+package com.foodya.foodya_backend.user.service;
+
+import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
+import com.foodya.foodya_backend.jwt.JwtPrincipal;
+import com.foodya.foodya_backend.user.model.User;
+import com.foodya.foodya_backend.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.UUID;
+
+/**
+ * Single place services go to for "who is calling".
+ * <p>
+ * When the filter already loaded the {@code User} it is returned as-is. In stateless
+ * principal mode the id and role come from the token, and the entity is loaded at most
+ * once per request (memoized in request attributes) and only by callers that need it.
+ */
+@Component
+public class CurrentUserResolver {
+
+  private static final String REQUEST_ATTRIBUTE = CurrentUserResolver.class.getName() + ".user";
+
+  private final UserRepository userRepository;
+  private final EntityManager entityManager;
+  private final Counter lookups;
+
+  public CurrentUserResolver(UserRepository userRepository, EntityManager entityManager,
+      MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    this.entityManager = entityManager;
+    this.lookups = Counter.builder("foodya.auth.current_user.lookups")
+        .description("User rows loaded to resolve the current principal")
+        .register(meterRegistry);
+  }
+
+  public User getCurrentUser() {
+    return getCurrentUser(SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  public User getCurrentUser(Authentication authentication) {
+    Object principal = requireAuthenticated(authentication).getPrincipal();
+    if (principal instanceof User user) {
+      return user;
+    }
+
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null
+        && attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User cached) {
+      return cached;
+    }
+
+    lookups.increment();
+    String username = authentication.getName();
+    User user = (principal instanceof JwtPrincipal jwtPrincipal
+        ? userRepository.findById(jwtPrincipal.userId())
+        : userRepository.findByUsername(username))
+        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    if (attributes != null) {
+      attributes.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+    }
+    return user;
+  }
+
+  /**
+   * The current user, managed by the caller's transaction so edits are flushed on commit.
+   * A user the filter (or this request) already loaded is reattached instead of read again.
+   */
+  public User getManagedCurrentUser() {
+    User user = getCurrentUser();
+    if (!entityManager.contains(user)) {
+      // Loaded in another persistence context moments ago and private to this request: no SELECT
+      entityManager.unwrap(Session.class).lock(user, LockMode.NONE);
+    }
+    return user;
+  }
+
+  public UUID getCurrentUserId() {
+    return getCurrentUserId(SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  // Does not touch the database in stateless principal mode
+  public UUID getCurrentUserId(Authentication authentication) {
+    if (requireAuthenticated(authentication).getPrincipal() instanceof JwtPrincipal jwtPrincipal) {
+      return jwtPrincipal.userId();
+    }
+    return getCurrentUser(authentication).getId();
+  }
+
+  // Answered from granted authorities, never from the database
+  public boolean isAdmin() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null && authentication.getAuthorities().stream()
+        .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+  }
+
+  /** Total user rows loaded by this resolver; lets tests assert at most one per request. */
+  public long lookupCount() {
+    return (long) lookups.count();
+  }
+
+  private static Authentication requireAuthenticated(Authentication authentication) {
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+        || authentication.getName() == null) {
+      throw new AccessDeniedException("Unauthenticated");
+    }
+    return authentication;
+  }
+}
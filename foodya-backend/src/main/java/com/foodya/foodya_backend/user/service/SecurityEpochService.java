@@ -0,0 +1,120 @@
+package com.foodya.foodya_backend.user.service;
+
+import com.foodya.foodya_backend.user.model.User;
+import com.foodya.foodya_backend.user.repository.UserRepository;
+import com.foodya.foodya_backend.user.repository.UserSecurityView;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory table of the current security epoch per user, used to reject access tokens
+ * issued before a deactivation, lock or password change without loading the user row.
+ * Local changes are evicted on commit; changes made by other instances are picked up
+ * by a periodic "updated since" query.
+ */
+@Service
+@Slf4j
+public class SecurityEpochService {
+
+  /** Table value for users that are missing, inactive or locked. */
+  public static final long REVOKED = -1L;
+
+  private final UserRepository userRepository;
+  private final boolean enabled;
+  private final long refreshMillis;
+  private final LoadingCache<UUID, Long> epochs;
+
+  private volatile LocalDateTime lastRefresh = LocalDateTime.now();
+
+  public SecurityEpochService(UserRepository userRepository,
+      @Value("${app.jwt.stateless-principal.enabled:false}") boolean enabled,
+      @Value("${app.jwt.stateless-principal.epoch-refresh-ms:30000}") long refreshMillis,
+      @Value("${app.jwt.stateless-principal.epoch-cache-max-size:100000}") long maxSize) {
+    this.userRepository = userRepository;
+    this.enabled = enabled;
+    this.refreshMillis = refreshMillis;
+    this.epochs = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        // Backstop in case a refresh is missed; deleted users fall out this way too
+        .expireAfterWrite(Duration.ofMillis(refreshMillis).multipliedBy(20))
+        .build(this::load);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Current epoch for the user, or {@link #REVOKED} if the account cannot authenticate. */
+  public long currentEpoch(UUID userId) {
+    return epochs.get(userId);
+  }
+
+  /**
+   * Increment the user's epoch so every token issued so far is rejected.
+   * The caller saves the entity; the table entry is dropped once that transaction commits.
+   */
+  public void bump(User user) {
+    user.setSecurityEpoch(user.getSecurityEpochOrZero() + 1);
+    evictAfterCommit(user.getId());
+  }
+
+  public void evictAfterCommit(UUID userId) {
+    if (userId == null) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          epochs.invalidate(userId);
+        }
+      });
+    } else {
+      epochs.invalidate(userId);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.jwt.stateless-principal.epoch-refresh-ms:30000}")
+  public void refreshChangedUsers() {
+    LocalDateTime now = LocalDateTime.now();
+    if (!enabled || epochs.estimatedSize() == 0) {
+      lastRefresh = now;
+      return;
+    }
+    // Overlap one interval so clock skew between instances does not hide an update
+    LocalDateTime since = lastRefresh.minus(Duration.ofMillis(refreshMillis));
+    List<UserSecurityView> changed = userRepository.findSecurityViewsByUpdatedAtAfter(since);
+    for (UserSecurityView view : changed) {
+      epochs.asMap().computeIfPresent(view.getId(), (id, old) -> encode(view));
+    }
+    lastRefresh = now;
+    if (!changed.isEmpty()) {
+      log.debug("Refreshed security epoch for {} users", changed.size());
+    }
+  }
+
+  private Long load(UUID userId) {
+    return userRepository.findSecurityViewById(userId)
+        .map(SecurityEpochService::encode)
+        .orElse(REVOKED);
+  }
+
+  private static long encode(UserSecurityView view) {
+    if (!Boolean.TRUE.equals(view.getIsActive()) || Boolean.TRUE.equals(view.getAccountLocked())) {
+      return REVOKED;
+    }
+    return view.getSecurityEpoch() != null ? view.getSecurityEpoch() : 0L;
+  }
+}
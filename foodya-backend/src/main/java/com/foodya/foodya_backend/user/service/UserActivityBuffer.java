@@ -0,0 +1,77 @@
+package com.foodya.foodya_backend.user.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for user activity stamps (currently {@code last_login_at}).
+ * Stamps are coalesced per user, keeping the latest, and written as one JDBC batch
+ * every few seconds and on shutdown, so logins never wait on a write.
+ */
+@Component
+@Slf4j
+public class UserActivityBuffer {
+
+  // Never moves a stamp backwards, and leaves updated_at alone: this is not a profile change
+  private static final String UPDATE_LAST_LOGIN =
+      "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ConcurrentHashMap<UUID, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+  public UserActivityBuffer(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void recordLogin(UUID userId, LocalDateTime at) {
+    pendingLogins.merge(userId, at, (current, next) -> next.isAfter(current) ? next : current);
+  }
+
+  public int pendingCount() {
+    return pendingLogins.size();
+  }
+
+  @Scheduled(fixedDelayString = "${app.user-activity.flush-ms:5000}")
+  public void flush() {
+    if (pendingLogins.isEmpty()) {
+      return;
+    }
+    List<Object[]> batch = new ArrayList<>(pendingLogins.size());
+    List<Map.Entry<UUID, LocalDateTime>> drained = new ArrayList<>(pendingLogins.size());
+    for (Map.Entry<UUID, LocalDateTime> entry : pendingLogins.entrySet()) {
+      // Only drop the entry if no newer stamp arrived meanwhile
+      if (pendingLogins.remove(entry.getKey(), entry.getValue())) {
+        Timestamp at = Timestamp.valueOf(entry.getValue());
+        batch.add(new Object[] { at, entry.getKey(), at });
+        drained.add(entry);
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch);
+      log.debug("Flushed {} last-login stamps", batch.size());
+    } catch (RuntimeException ex) {
+      // Put them back for the next attempt; a newer stamp wins
+      drained.forEach(entry -> recordLogin(entry.getKey(), entry.getValue()));
+      log.warn("Could not flush {} last-login stamps, will retry: {}", batch.size(), ex.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+}
@@ -0,0 +1,144 @@
+package com.foodya.foodya_backend.user.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.foodya.foodya_backend.user.repository.UserRepository;
+import com.foodya.foodya_backend.utils.bloom.BloomFilter;
+import com.foodya.foodya_backend.utils.rebuild.RebuildableState;
+
+/**
+ * Username/email availability hints for the registration form.
+ * <p>
+ * Taken usernames and emails are kept in Bloom filters, so a name nobody has is
+ * answered without touching the database. A "maybe taken" is confirmed with an
+ * exists query, so "taken" is always accurate. "Available" is a hint: a name
+ * registered on another instance is only known here after the next sync (a few
+ * seconds). Registration does not rely on this: the unique constraints on
+ * {@code users} decide, and a lost race is a 409.
+ * <p>
+ * The filters are rebuilt now and then, streaming every handle, to drop deleted
+ * users; names recorded while a rebuild loads are replayed onto the new filters.
+ */
+@Service
+public class UserAvailabilityService {
+  private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate readOnly;
+  private final long expectedEntries;
+  private final double falsePositiveRate;
+  private final long syncMillis;
+
+  private final RebuildableState<Filters> filters;
+  private volatile boolean loaded;
+  private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+  // Swapped together on a rebuild
+  private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+    void add(String username, String email) {
+      if (username != null) {
+        usernames.put(username);
+      }
+      if (email != null) {
+        emails.put(email);
+      }
+    }
+  }
+
+  public UserAvailabilityService(UserRepository userRepository, PlatformTransactionManager transactionManager,
+      @Value("${app.auth.availability.expected-entries:100000}") long expectedEntries,
+      @Value("${app.auth.availability.false-positive-rate:0.01}") double falsePositiveRate,
+      @Value("${app.auth.availability.sync-ms:5000}") long syncMillis) {
+    this.userRepository = userRepository;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.expectedEntries = expectedEntries;
+    this.falsePositiveRate = falsePositiveRate;
+    this.syncMillis = syncMillis;
+    this.filters = new RebuildableState<>(newFilters(expectedEntries));
+  }
+
+  public boolean isUsernameAvailable(String username) {
+    if (loaded && !filters.get().usernames().mightContain(username)) {
+      return true;
+    }
+    return !userRepository.existsByUsername(username);
+  }
+
+  public boolean isEmailAvailable(String email) {
+    if (loaded && !filters.get().emails().mightContain(email)) {
+      return true;
+    }
+    return !userRepository.existsByEmail(email);
+  }
+
+  /** Add a username and/or email once the surrounding transaction commits. */
+  public void recordAfterCommit(String username, String email) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          record(username, email);
+        }
+      });
+    } else {
+      record(username, email);
+    }
+  }
+
+  // Periodic rebuild drops deleted users and resizes the filters as the user base grows
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${app.auth.availability.rebuild-ms:600000}",
+      fixedDelayString = "${app.auth.availability.rebuild-ms:600000}")
+  public void rebuild() {
+    LocalDateTime now = LocalDateTime.now();
+    Filters rebuilt = filters.rebuild(() -> readOnly.execute(status -> {
+      Filters loading = newFilters(Math.max(expectedEntries, userRepository.count() * 2));
+      try (Stream<UserRepository.UserHandle> handles = userRepository.streamHandles()) {
+        handles.forEach(handle -> loading.add(handle.getUsername(), handle.getEmail()));
+      }
+      return loading;
+    }));
+    if (rebuilt != null) {
+      lastSync = now;
+      loaded = true;
+      log.info("Loaded availability filters ({} KB)",
+          (rebuilt.usernames().sizeInBytes() + rebuilt.emails().sizeInBytes()) / 1024);
+    }
+  }
+
+  // Picks up users registered (or emails changed) on other instances
+  @Scheduled(fixedDelayString = "${app.auth.availability.sync-ms:5000}")
+  public void syncFromDatabase() {
+    LocalDateTime now = LocalDateTime.now();
+    // Overlap one interval so clock skew between instances does not hide a registration
+    userRepository.findHandlesUpdatedSince(lastSync.minus(Duration.ofMillis(syncMillis)))
+        .forEach(handle -> record(handle.getUsername(), handle.getEmail()));
+    lastSync = now;
+  }
+
+  private Filters newFilters(long entries) {
+    return new Filters(new BloomFilter(entries, falsePositiveRate), new BloomFilter(entries, falsePositiveRate));
+  }
+
+  private void record(String username, String email) {
+    filters.apply(target -> target.add(username, email));
+  }
+}
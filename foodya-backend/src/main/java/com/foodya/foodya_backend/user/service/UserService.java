@@ -4,8 +4,6 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.foodya.foodya_backend.exception.business.DuplicateResourceException;
@@ -24,9 +22,16 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class UserService {
   private final UserRepository userRepository;
+  private final SecurityEpochService securityEpochService;
+  private final CurrentUserResolver currentUserResolver;
+  private final UserAvailabilityService userAvailabilityService;
 
-  public UserService(UserRepository userRepository) {
+  public UserService(UserRepository userRepository, SecurityEpochService securityEpochService,
+      CurrentUserResolver currentUserResolver, UserAvailabilityService userAvailabilityService) {
     this.userRepository = userRepository;
+    this.securityEpochService = securityEpochService;
+    this.currentUserResolver = currentUserResolver;
+    this.userAvailabilityService = userAvailabilityService;
   }
 
   public List<UserProfileResponse> getAllUsers() {
@@ -44,32 +49,41 @@ public class UserService {
       throw new ResourceNotFoundException("User not found with id: " + userId);
     }
     userRepository.deleteById(userId);
+    securityEpochService.evictAfterCommit(userId);
   }
 
+  @Transactional
   public UserProfileResponse toggleUserActiveStatus(@NonNull UUID userId) {
     User updateUser = userRepository.findById(userId)
         .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
     updateUser.setIsActive(!updateUser.getIsActive());
+    // Deactivation must cut off tokens already issued; reactivation starts a fresh epoch
+    securityEpochService.bump(updateUser);
     userRepository.save(updateUser);
     return mapToUserProfileResponse(updateUser);
   }
 
-  public UserProfileResponse getCurrentUserProfile() {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    String username = authentication.getName();
+  /**
+   * Invalidate every access and refresh token issued to the user so far.
+   */
+  @Transactional
+  public void revokeAllSessions(@NonNull UUID userId) {
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    securityEpochService.bump(user);
+    userRepository.save(user);
+    log.info("Revoked all sessions for user: {}", user.getUsername());
+  }
 
-    User user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+  public UserProfileResponse getCurrentUserProfile() {
+    User user = currentUserResolver.getCurrentUser();
     return mapToUserProfileResponse(user);
   }
 
   @Transactional
   public UserProfileResponse updateProfile(@Valid UpdateProfileRequest request) {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    String username = authentication.getName();
-
-    User user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    User user = currentUserResolver.getManagedCurrentUser();
+    String username = user.getUsername();
 
     // Debug logging
     log.info("Received updateProfile request for user: {}", username);
@@ -95,6 +109,7 @@ public class UserService {
         }
         user.setEmail(newEmail);
         user.setIsEmailVerified(false);
+        userAvailabilityService.recordAfterCommit(null, newEmail);
       }
     }
 
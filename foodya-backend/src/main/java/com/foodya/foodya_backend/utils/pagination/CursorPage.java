@@ -0,0 +1,29 @@
+package com.foodya.foodya_backend.utils.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated list (no total count).
+ * Pass {@code nextCursor} back as {@code ?cursor=} to get the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    // Requested page size
+    private int size;
+
+    private boolean hasNext;
+
+    // Null on the last page
+    private String nextCursor;
+}
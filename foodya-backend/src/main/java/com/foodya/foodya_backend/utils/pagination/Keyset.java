@@ -0,0 +1,163 @@
+package com.foodya.foodya_backend.utils.pagination;
+
+import com.foodya.foodya_backend.exception.business.BadRequestException;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) ordering for cursor pagination.
+ * <p>
+ * The next page is "rows strictly after the last row of this page" in sort order, so the database
+ * seeks through an index instead of skipping OFFSET rows, and no COUNT query is needed.
+ * The last row's sort values travel in an opaque cursor; the last key must be unique (usually id)
+ * and every key column must be non-null. Rows may be entities or projections of the entity the
+ * predicate is applied to, as long as attribute names match.
+ *
+ * <pre>
+ * List&lt;T&gt; rows = repository.findBy(filters.and(keyset.after(cursor)),
+ *     q -&gt; q.sortBy(keyset.sort()).limit(size + 1).all());
+ * return keyset.page(rows, size, mapper);
+ * </pre>
+ */
+public final class Keyset<T> {
+
+  private static final String SEPARATOR = "\u001f";
+
+  private final String name;
+  private final List<Key<T>> keys = new ArrayList<>();
+
+  private record Key<T>(String attribute, Class<?> type, Sort.Direction direction, Function<T, ?> value) {
+  }
+
+  private Keyset(String name) {
+    this.name = name;
+  }
+
+  /** {@code name} is written into cursors so a cursor from another ordering is rejected. */
+  public static <T> Keyset<T> named(String name) {
+    return new Keyset<>(name);
+  }
+
+  public <V extends Comparable<? super V>> Keyset<T> by(String attribute, Class<V> type, Sort.Direction direction,
+      Function<T, V> value) {
+    keys.add(new Key<>(attribute, type, direction, value));
+    return this;
+  }
+
+  public Sort sort() {
+    return Sort.by(keys.stream().map(key -> new Sort.Order(key.direction(), key.attribute())).toList());
+  }
+
+  /**
+   * Rows after the cursor position; no restriction for a null or blank cursor (first page).
+   * (k1 &gt; v1) OR (k1 = v1 AND k2 &gt; v2) OR ... with &lt; for descending keys.
+   */
+  public <E> Specification<E> after(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    List<Object> values = decode(cursor);
+    return (root, query, cb) -> {
+      List<Predicate> branches = new ArrayList<>();
+      List<Predicate> equalSoFar = new ArrayList<>();
+      for (int i = 0; i < keys.size(); i++) {
+        Key<T> key = keys.get(i);
+        Path<?> path = path(root, key.attribute());
+        List<Predicate> branch = new ArrayList<>(equalSoFar);
+        branch.add(beyond(cb, path, values.get(i), key.direction()));
+        branches.add(cb.and(branch.toArray(Predicate[]::new)));
+        equalSoFar.add(cb.equal(path, values.get(i)));
+      }
+      return cb.or(branches.toArray(Predicate[]::new));
+    };
+  }
+
+  /**
+   * Turns {@code size + 1} fetched rows into a page: the extra row only signals that a next page exists.
+   */
+  public <R> CursorPage<R> page(List<T> rows, int size, Function<T, R> mapper) {
+    return pageAll(rows, size, content -> content.stream().map(mapper).toList());
+  }
+
+  /** Like {@link #page} with a mapper that converts the whole page at once (e.g. one batched lookup). */
+  public <R> CursorPage<R> pageAll(List<T> rows, int size, Function<List<T>, List<R>> mapper) {
+    boolean hasNext = rows.size() > size;
+    List<T> content = hasNext ? rows.subList(0, size) : rows;
+    return CursorPage.<R>builder()
+        .content(mapper.apply(content))
+        .size(size)
+        .hasNext(hasNext)
+        .nextCursor(hasNext ? cursorAfter(content.get(content.size() - 1)) : null)
+        .build();
+  }
+
+  String cursorAfter(T last) {
+    StringBuilder raw = new StringBuilder(name);
+    for (Key<T> key : keys) {
+      raw.append(SEPARATOR).append(key.value().apply(last));
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private List<Object> decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split(SEPARATOR, -1);
+      if (parts.length != keys.size() + 1 || !parts[0].equals(name)) {
+        throw new BadRequestException("Invalid cursor for this sort order");
+      }
+      List<Object> values = new ArrayList<>(keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        values.add(parse(keys.get(i).type(), parts[i + 1]));
+      }
+      return values;
+    } catch (IllegalArgumentException | java.time.format.DateTimeParseException ex) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+
+  private static Object parse(Class<?> type, String value) {
+    if (type == String.class) {
+      return value;
+    } else if (type == Integer.class) {
+      return Integer.valueOf(value);
+    } else if (type == Long.class) {
+      return Long.valueOf(value);
+    } else if (type == Double.class) {
+      return Double.valueOf(value);
+    } else if (type == UUID.class) {
+      return UUID.fromString(value);
+    } else if (type == LocalDateTime.class) {
+      return LocalDateTime.parse(value);
+    }
+    throw new IllegalStateException("Unsupported keyset type: " + type.getName());
+  }
+
+  private static Path<?> path(Root<?> root, String attribute) {
+    Path<?> path = root;
+    for (String part : attribute.split("\\.")) {
+      path = path.get(part);
+    }
+    return path;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Predicate beyond(CriteriaBuilder cb, Path<?> path, Object value, Sort.Direction direction) {
+    return direction.isAscending()
+        ? cb.greaterThan((Path<Comparable>) path, (Comparable) value)
+        : cb.lessThan((Path<Comparable>) path, (Comparable) value);
+  }
+}
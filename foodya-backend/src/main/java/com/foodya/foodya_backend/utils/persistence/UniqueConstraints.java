@@ -0,0 +1,80 @@
+package com.foodya.foodya_backend.utils.persistence;
+
+import com.foodya.foodya_backend.exception.business.DuplicateResourceException;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Translate unique-constraint violations from an insert into the same
+ * {@link DuplicateResourceException} messages the old "exists" pre-checks produced.
+ * <p>
+ * Matching is by constraint name first. Databases created before the constraints were
+ * named carry generated names, so the key columns in the PostgreSQL error detail
+ * ({@code Key (a, b)=(...) already exists}) are used as a fallback.
+ */
+public final class UniqueConstraints {
+
+    private static final Pattern KEY_DETAIL = Pattern.compile("Key \\(([^)]+)\\)=");
+
+    /**
+     * @param constraintName name declared in the entity's {@code @UniqueConstraint}
+     * @param columns key columns, comma separated, as PostgreSQL reports them
+     * @param message message for the resulting {@link DuplicateResourceException}
+     */
+    public record Rule(String constraintName, String columns, String message) {
+    }
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * @return the matching duplicate error, or the original exception when no rule matches
+     */
+    public static RuntimeException translate(DataIntegrityViolationException ex, List<Rule> rules) {
+        String constraintName = constraintName(ex);
+        String keyColumns = keyColumns(ex);
+        for (Rule rule : rules) {
+            if (rule.constraintName().equalsIgnoreCase(constraintName)
+                    || normalize(rule.columns()).equals(keyColumns)) {
+                return new DuplicateResourceException(rule.message());
+            }
+        }
+        return ex;
+    }
+
+    private static String constraintName(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        return "";
+    }
+
+    private static String keyColumns(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null) {
+                Matcher matcher = KEY_DETAIL.matcher(cause.getMessage());
+                if (matcher.find()) {
+                    return normalize(matcher.group(1));
+                }
+            }
+        }
+        return "";
+    }
+
+    private static String normalize(String columns) {
+        return Arrays.stream(columns.split(","))
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,104 @@
+package com.foodya.foodya_backend.utils.rebuild;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory structure that is rebuilt from the database now and then while committed changes
+ * keep being applied to it.
+ * <p>
+ * A change is applied to the current value right away. While a rebuild is loading, it is also
+ * queued and replayed onto the rebuilt value, which then replaces the current one. Replay and swap
+ * hold a write lock that changes share, so a change lands either on the old value and the queue or
+ * on the new value alone, never on the new value twice. A change committed while the load runs may
+ * be loaded and replayed, so the replayed step must tolerate that: upserts and removals do. Counters
+ * pass their own replay step (see {@link #apply(Consumer, Consumer)}).
+ */
+public final class RebuildableState<T> {
+
+  /**
+   * How long a write may take to commit after stamping its row. A loaded row stamped more recently
+   * than this before the load may also come back as a replayed change.
+   */
+  public static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+  private final ConcurrentLinkedQueue<Consumer<T>> replay = new ConcurrentLinkedQueue<>();
+  private volatile T current;
+
+  public RebuildableState(T initial) {
+    this.current = initial;
+  }
+
+  /** The value to read; changes keep landing on it until the next swap. */
+  public T get() {
+    return current;
+  }
+
+  /** Applies a change now, and again onto the rebuilt value if a rebuild is loading. */
+  public void apply(Consumer<T> change) {
+    apply(change, change);
+  }
+
+  /**
+   * Applies {@code change} now and, if a rebuild is loading, {@code replayed} onto the rebuilt value:
+   * for changes the load or {@code beforeSwap} may already account for. {@code null} replays nothing.
+   */
+  public void apply(Consumer<T> change, Consumer<T> replayed) {
+    lock.readLock().lock();
+    try {
+      change.accept(current);
+      if (replayed != null && rebuilding.get()) {
+        replay.add(replayed);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Loads a new value, replays the changes applied meanwhile onto it and swaps it in.
+   *
+   * @return the new value, or {@code null} when another rebuild was already running
+   */
+  public T rebuild(Supplier<T> load) {
+    return rebuild(load, rebuilt -> { });
+  }
+
+  /**
+   * Like {@link #rebuild(Supplier)}, running {@code beforeSwap} on the new value after the replay,
+   * under the write lock: no change lands between it and the swap.
+   */
+  public T rebuild(Supplier<T> load, Consumer<T> beforeSwap) {
+    if (!rebuilding.compareAndSet(false, true)) {
+      return null;
+    }
+    T rebuilt = null;
+    try {
+      rebuilt = load.get();
+    } finally {
+      lock.writeLock().lock();
+      try {
+        if (rebuilt != null) {
+          Consumer<T> change;
+          while ((change = replay.poll()) != null) {
+            change.accept(rebuilt);
+          }
+          beforeSwap.accept(rebuilt);
+          current = rebuilt;
+        }
+        // A failed load leaves nothing to replay onto
+        replay.clear();
+        rebuilding.set(false);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    return rebuilt;
+  }
+}
@@ -0,0 +1,63 @@
+-- Full-text + trigram search for restaurants (app.search.fulltext.enabled=true).
+-- Idempotent; applied at startup after Hibernate has created/updated the tables.
+-- Statements are separated by "@@" because the DO blocks contain semicolons.
+-- Extensions may live outside "public" (Supabase installs them in "extensions"),
+-- so objects that reference them are created with the extension's schema looked up.
+-- Our own objects live in "public"; the search query calls them as public.* and qualifies the
+-- pg_trgm operator and functions with the schema RestaurantSearchSchema looks up at startup.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm
+@@
+CREATE EXTENSION IF NOT EXISTS unaccent
+@@
+-- unaccent() is only STABLE; generated columns and index expressions need an IMMUTABLE wrapper
+DO $$
+DECLARE
+  ext_schema text := (SELECT n.nspname FROM pg_extension e JOIN pg_namespace n ON n.oid = e.extnamespace
+                      WHERE e.extname = 'unaccent');
+BEGIN
+  EXECUTE format(
+    'CREATE OR REPLACE FUNCTION public.f_unaccent(text) RETURNS text '
+    'LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT '
+    'AS $f$ SELECT %I.unaccent(%L::regdictionary, $1) $f$',
+    ext_schema, ext_schema || '.unaccent');
+END
+$$
+@@
+-- "simple" parsing (no stemming, Vietnamese has none in Postgres) with diacritics stripped: "pho" matches "phở"
+DO $$
+DECLARE
+  ext_schema text := (SELECT n.nspname FROM pg_extension e JOIN pg_namespace n ON n.oid = e.extnamespace
+                      WHERE e.extname = 'unaccent');
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'foodya_unaccent') THEN
+    CREATE TEXT SEARCH CONFIGURATION public.foodya_unaccent (COPY = simple);
+    EXECUTE format(
+      'ALTER TEXT SEARCH CONFIGURATION public.foodya_unaccent '
+      'ALTER MAPPING FOR hword, hword_part, word WITH %I.unaccent, simple',
+      ext_schema);
+  END IF;
+END
+$$
+@@
+ALTER TABLE restaurants ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (
+    setweight(to_tsvector('public.foodya_unaccent'::regconfig, coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('public.foodya_unaccent'::regconfig, coalesce(cuisine, '')), 'B') ||
+    setweight(to_tsvector('public.foodya_unaccent'::regconfig, coalesce(description, '')), 'C')
+  ) STORED
+@@
+CREATE INDEX IF NOT EXISTS idx_restaurants_search_vector ON restaurants USING GIN (search_vector)
+@@
+-- Typo/prefix tolerant name matching while the user types ("pizz", "phở bo")
+DO $$
+DECLARE
+  ext_schema text := (SELECT n.nspname FROM pg_extension e JOIN pg_namespace n ON n.oid = e.extnamespace
+                      WHERE e.extname = 'pg_trgm');
+BEGIN
+  EXECUTE format(
+    'CREATE INDEX IF NOT EXISTS idx_restaurants_name_trgm ON restaurants '
+    'USING GIN (public.f_unaccent(lower(name)) %I.gin_trgm_ops)',
+    ext_schema);
+END
+$$
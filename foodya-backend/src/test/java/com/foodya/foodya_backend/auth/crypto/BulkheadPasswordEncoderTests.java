@@ -0,0 +1,27 @@
+package com.foodya.foodya_backend.auth.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Only hashes weaker than the configured cost are upgraded, so instances never rehash back and forth.
+ */
+class BulkheadPasswordEncoderTests {
+
+  @Test
+  void upgradesOnlyLowerCosts() {
+    BulkheadPasswordEncoder encoder = new BulkheadPasswordEncoder(11, 1, 4, 10_000, 1, new SimpleMeterRegistry());
+    try {
+      assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(10).encode("secret"))).isTrue();
+      assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+      assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(12).encode("secret"))).isFalse();
+      assertThat(encoder.upgradeEncoding(null)).isFalse();
+      assertThat(encoder.matches("secret", new BCryptPasswordEncoder(12).encode("secret"))).isTrue();
+    } finally {
+      encoder.shutdown();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.foodya.foodya_backend.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.foodya.foodya_backend.auth.repository.RevokedTokenRepository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A revocation committed while the filter is being rebuilt must survive the swap.
+ */
+class TokenRevocationServiceTests {
+
+  @Test
+  void revocationDuringRebuildIsKept() {
+    RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    TokenRevocationService service = new TokenRevocationService(repository, 1000, 0.01, 15000);
+    when(repository.insertIfAbsent(any(), any(), any(), any())).thenReturn(1);
+    when(repository.findActiveJtis(any())).thenAnswer(invocation -> {
+      // Committed after the load read the table
+      service.revoke("during", UUID.randomUUID(), System.currentTimeMillis() + 60_000);
+      return List.of("loaded");
+    });
+
+    service.rebuild();
+
+    assertThat(service.isRevoked("loaded")).isTrue();
+    assertThat(service.isRevoked("during")).isTrue();
+    assertThat(service.isRevoked("other")).isFalse();
+  }
+}
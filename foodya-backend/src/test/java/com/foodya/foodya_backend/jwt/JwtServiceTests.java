@@ -0,0 +1,127 @@
+package com.foodya.foodya_backend.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Verified claims are cached per token until the token's exp; only tokens whose signature checked
+ * out and that carry an exp are cached, so a cache hit never stands in for a failed verification.
+ */
+class JwtServiceTests {
+
+  private static final String SECRET = Base64.getEncoder()
+      .encodeToString("foodya-test-secret-foodya-test-secret".getBytes());
+  private static final String OTHER_SECRET = Base64.getEncoder()
+      .encodeToString("another-secret-another-secret-another".getBytes());
+
+  private JwtService jwtService;
+  private JwtParser parser;
+
+  @BeforeEach
+  void setUp() {
+    jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtService, "jwtExpirationTime", 3_600_000L);
+    ReflectionTestUtils.setField(jwtService, "refreshExpirationTime", 86_400_000L);
+    ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 100L);
+    jwtService.init();
+    // Counts real signature checks
+    parser = spy((JwtParser) ReflectionTestUtils.getField(jwtService, "parser"));
+    ReflectionTestUtils.setField(jwtService, "parser", parser);
+  }
+
+  @Test
+  void cacheHitReturnsTheSameClaimsWithoutReparsing() {
+    String token = jwtService.generateToken(new UsernamePasswordAuthenticationToken("lan", null, List.of()));
+
+    Optional<VerifiedClaims> first = jwtService.verify(token);
+    Optional<VerifiedClaims> second = jwtService.verify(token);
+
+    assertThat(first).isPresent();
+    assertThat(first.get().username()).isEqualTo("lan");
+    assertThat(first.get().type()).isEqualTo(VerifiedClaims.TYPE_ACCESS);
+    assertThat(second.get()).isSameAs(first.get());
+    assertThat(jwtService.extractExpirationTime(token)).isEqualTo(first.get().expiresAt());
+    verify(parser, times(1)).parseClaimsJws(token);
+  }
+
+  @Test
+  void expiredEntryIsNoLongerServed() throws InterruptedException {
+    // exp has second precision: between one and two seconds ahead
+    String token = token(SECRET, new Date(System.currentTimeMillis() + 2_000));
+    VerifiedClaims verified = jwtService.verify(token).orElseThrow();
+    assertThat(cachedClaims(token)).isSameAs(verified);
+
+    Thread.sleep(Math.max(0L, verified.expiresAt() - System.currentTimeMillis()) + 50);
+
+    assertThat(jwtService.verify(token)).isEmpty();
+    assertThat(cachedClaims(token)).isNull();
+    verify(parser, times(2)).parseClaimsJws(token);
+  }
+
+  @Test
+  void tamperedOrForeignTokensAreNeverCached() {
+    String token = token(SECRET, new Date(System.currentTimeMillis() + 60_000));
+    String[] parts = token.split("\\.");
+    String tamperedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+        new String(Base64.getUrlDecoder().decode(parts[1])).replace("lan", "admin").getBytes());
+    String tampered = parts[0] + "." + tamperedPayload + "." + parts[2];
+    String foreign = token(OTHER_SECRET, new Date(System.currentTimeMillis() + 60_000));
+
+    for (String rejected : List.of(tampered, foreign, "not.a.token")) {
+      assertThat(jwtService.verify(rejected)).isEmpty();
+      assertThat(jwtService.verify(rejected)).isEmpty();
+      assertThat(cachedClaims(rejected)).isNull();
+      verify(parser, times(2)).parseClaimsJws(rejected);
+    }
+  }
+
+  @Test
+  void tokenWithoutExpiryIsNotCached() {
+    String token = token(SECRET, null);
+
+    assertThat(jwtService.verify(token)).hasValueSatisfying(
+        claims -> assertThat(claims.expiresAt()).isEqualTo(Long.MAX_VALUE));
+    assertThat(jwtService.verify(token)).isPresent();
+
+    assertThat(cachedClaims(token)).isNull();
+    verify(parser, times(2)).parseClaimsJws(token);
+  }
+
+  private static String token(String secret, Date expiration) {
+    return Jwts.builder()
+        .setSubject("lan")
+        .setIssuedAt(new Date())
+        .setExpiration(expiration)
+        .claim(VerifiedClaims.TYPE, VerifiedClaims.TYPE_ACCESS)
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+        .compact();
+  }
+
+  @SuppressWarnings("unchecked")
+  private VerifiedClaims cachedClaims(String token) {
+    Cache<ByteBuffer, VerifiedClaims> cache =
+        (Cache<ByteBuffer, VerifiedClaims>) ReflectionTestUtils.getField(jwtService, "verifiedCache");
+    return cache.getIfPresent(ByteBuffer.wrap(HexFormat.of().parseHex(jwtService.fingerprint(token))));
+  }
+}
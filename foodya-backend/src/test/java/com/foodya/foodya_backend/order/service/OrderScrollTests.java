@@ -0,0 +1,148 @@
+package com.foodya.foodya_backend.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.foodya.foodya_backend.exception.business.BadRequestException;
+import com.foodya.foodya_backend.jwt.JwtPrincipal;
+import com.foodya.foodya_backend.order.dto.OrderResponse;
+import com.foodya.foodya_backend.order.model.Order;
+import com.foodya.foodya_backend.order.repository.OrderRepository;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.user.model.User;
+import com.foodya.foodya_backend.user.repository.UserRepository;
+import com.foodya.foodya_backend.user.service.CurrentUserResolver;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Order history scrolls newest first; orders placed in the same instant must neither repeat nor
+ * go missing between pages, and only the caller's own orders are listed.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({ OrderService.class, CurrentUserResolver.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderScrollTests {
+
+  private static final int ORDERS = 13;
+  private static final int PAGE_SIZE = 4;
+
+  @Autowired
+  private OrderService orderService;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  private Authentication customer;
+  private List<UUID> orderIds;
+
+  @BeforeEach
+  void setUp() {
+    User lan = userRepository.save(user("lan"));
+    User minh = userRepository.save(user("minh"));
+    Restaurant restaurant = restaurantRepository.save(Restaurant.builder()
+        .name("Pho 24")
+        .address("1 Le Loi")
+        .phoneNumber("+842800000001")
+        .cuisine("Vietnamese")
+        .ownerId(UUID.randomUUID())
+        .build());
+
+    // Three distinct instants, so most orders tie on orderDate
+    LocalDateTime lunch = LocalDateTime.of(2026, 10, 17, 12, 0);
+    orderIds = new ArrayList<>();
+    for (int i = 0; i < ORDERS; i++) {
+      orderIds.add(orderRepository.save(order(lan, restaurant, lunch.plusMinutes(i % 3))).getId());
+    }
+    orderRepository.save(order(minh, restaurant, lunch));
+
+    customer = new UsernamePasswordAuthenticationToken(new JwtPrincipal(lan.getId(), "lan", "CUSTOMER"), null,
+        List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+  }
+
+  @AfterEach
+  void tearDown() {
+    orderRepository.deleteAll();
+    restaurantRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void pagesCoverEveryOrderOnceNewestFirst() {
+    List<OrderResponse> scrolled = new ArrayList<>();
+    String cursor = null;
+    CursorPage<OrderResponse> page;
+    do {
+      page = orderService.scrollMyOrders(customer, cursor, PAGE_SIZE);
+      assertThat(page.getContent()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+      scrolled.addAll(page.getContent());
+      cursor = page.getNextCursor();
+    } while (page.isHasNext());
+
+    List<OrderResponse> single = orderService.scrollMyOrders(customer, null, ORDERS).getContent();
+    assertThat(scrolled).extracting(OrderResponse::getId)
+        .doesNotHaveDuplicates()
+        .containsExactlyInAnyOrderElementsOf(orderIds)
+        .containsExactlyElementsOf(single.stream().map(OrderResponse::getId).toList());
+    assertThat(scrolled).isSortedAccordingTo(Comparator.comparing(OrderResponse::getOrderDate).reversed());
+    assertThat(cursor).isNull();
+  }
+
+  @Test
+  void tamperedCursorIsRejected() {
+    String cursor = orderService.scrollMyOrders(customer, null, PAGE_SIZE).getNextCursor();
+
+    assertThat(cursor).isNotNull();
+    assertThatThrownBy(() -> orderService.scrollMyOrders(customer, cursor + "x", PAGE_SIZE))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> orderService.scrollMyOrders(customer, "bmV3ZXN0H3llc3RlcmRheR94", PAGE_SIZE))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  private static User user(String username) {
+    return User.builder()
+        .username(username)
+        .email(username + "@foodya.vn")
+        .password("{noop}secret")
+        .fullName(username)
+        .build();
+  }
+
+  private static Order order(User customer, Restaurant restaurant, LocalDateTime orderDate) {
+    return Order.builder()
+        .customer(customer)
+        .restaurant(restaurant)
+        .orderDate(orderDate)
+        .deliveryAddress("12 Nguyen Hue")
+        .build();
+  }
+}
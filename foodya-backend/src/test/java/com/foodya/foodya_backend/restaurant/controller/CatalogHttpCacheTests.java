@@ -0,0 +1,89 @@
+package com.foodya.foodya_backend.restaurant.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodya.foodya_backend.exception.business.ResourceNotFoundException;
+import com.foodya.foodya_backend.restaurant.service.CatalogVersionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bodies sent under one catalog version may differ in counters, so the tag is weak; a client
+ * sending it back (weak or strong form) still gets 304. Caching headers are only set once the
+ * body exists, so an endpoint error never goes out as a cacheable response.
+ */
+class CatalogHttpCacheTests {
+
+  private final UUID restaurantId = UUID.randomUUID();
+  private final CatalogHttpCache httpCache;
+
+  CatalogHttpCacheTests() {
+    CatalogVersionService catalogVersionService = mock(CatalogVersionService.class);
+    when(catalogVersionService.version(restaurantId)).thenReturn(Optional.of(7L));
+    CatalogBodyCache bodyCache = new CatalogBodyCache(new ObjectMapper(), new SimpleMeterRegistry(), 1 << 20, 30, 1024);
+    httpCache = new CatalogHttpCache(catalogVersionService, bodyCache, 30, 60);
+  }
+
+  @Test
+  void tagIsWeakAndRevalidates() {
+    MockHttpServletResponse first = get(null);
+    assertThat(first.getStatus()).isEqualTo(200);
+    assertThat(first.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"v7\"");
+
+    assertThat(get("W/\"v7\"").getStatus()).isEqualTo(304);
+    assertThat(get("\"v7\"").getStatus()).isEqualTo(304);
+    assertThat(get("W/\"v6\"").getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void notModifiedCarriesCachingHeaders() {
+    MockHttpServletResponse response = get("W/\"v7\"");
+
+    assertThat(response.getStatus()).isEqualTo(304);
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"v7\"");
+    assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("public");
+    assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void failedBodyLeavesNoCachingHeaders() {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertThatThrownBy(() -> get(null, response, () -> {
+      throw new ResourceNotFoundException("Menu item not found");
+    })).isInstanceOf(ResourceNotFoundException.class);
+
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+    assertThat(response.getHeader(HttpHeaders.VARY)).isNull();
+  }
+
+  private MockHttpServletResponse get(String ifNoneMatch) {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    get(ifNoneMatch, response, () -> Map.of("name", "Pho 24"));
+    return response;
+  }
+
+  private void get(String ifNoneMatch, MockHttpServletResponse response, Supplier<Object> body) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/restaurants/" + restaurantId);
+    if (ifNoneMatch != null) {
+      request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+    }
+    httpCache.respond(restaurantId, new ServletWebRequest(request, response), body);
+  }
+}
@@ -0,0 +1,146 @@
+package com.foodya.foodya_backend.restaurant.dish;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Bitmap answers must equal a plain scan of the same dishes, before and after incremental writes
+ * land in the unsorted tail.
+ */
+class DishBitmapIndexTests {
+
+  private static final String[] CATEGORIES = {"Noodles", "Rice", "Drinks", "Desserts", null};
+
+  private final Random random = new Random(42);
+  private final Map<UUID, IndexedRestaurant> restaurants = new HashMap<>();
+  private final Map<UUID, IndexedDish> dishes = new HashMap<>();
+
+  @Test
+  void filtersMatchAScan() {
+    List<UUID> restaurantIds = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      UUID id = UUID.randomUUID();
+      restaurantIds.add(id);
+      restaurants.put(id, new IndexedRestaurant(id, i % 7 != 0, i % 3 != 0));
+    }
+    DishBitmapIndex.Loader loader = new DishBitmapIndex.Loader();
+    restaurants.values().forEach(loader::restaurant);
+    for (int i = 0; i < 2000; i++) {
+      IndexedDish dish = randomDish(UUID.randomUUID(), restaurantIds);
+      dishes.put(dish.id(), dish);
+      loader.dish(dish);
+    }
+    DishBitmapIndex index = loader.finish();
+    assertMatchesScan(index);
+
+    // Writes after the build: updates, removals, new dishes, a restaurant closing and one going away
+    List<UUID> ids = new ArrayList<>(dishes.keySet());
+    for (int i = 0; i < 300; i++) {
+      UUID id = ids.get(random.nextInt(ids.size()));
+      if (i % 3 == 0) {
+        dishes.remove(id);
+        index.remove(id);
+      } else {
+        IndexedDish dish = randomDish(i % 2 == 0 ? id : UUID.randomUUID(), restaurantIds);
+        dishes.put(dish.id(), dish);
+        index.upsert(dish);
+      }
+    }
+    UUID closing = restaurantIds.get(1);
+    restaurants.put(closing, new IndexedRestaurant(closing, true, false));
+    index.restaurant(restaurants.get(closing));
+    UUID deleted = restaurantIds.get(2);
+    restaurants.remove(deleted);
+    dishes.values().removeIf(dish -> dish.restaurantId().equals(deleted));
+    index.removeRestaurant(deleted);
+
+    assertThat(index.unsortedSlots()).isPositive();
+    assertThat(index.size()).isEqualTo(dishes.size());
+    assertMatchesScan(index);
+  }
+
+  @Test
+  void pagesAreCheapestFirst() {
+    UUID restaurantId = UUID.randomUUID();
+    DishBitmapIndex.Loader loader = new DishBitmapIndex.Loader();
+    loader.restaurant(new IndexedRestaurant(restaurantId, true, true));
+    loader.dish(dish(restaurantId, 30000.0));
+    loader.dish(dish(restaurantId, 10000.0));
+    DishBitmapIndex index = loader.finish();
+    IndexedDish middle = dish(restaurantId, 20000.0);
+    index.upsert(middle);
+
+    DishFilter all = new DishFilter(null, null, null, null, null, null, null, false);
+    DishBitmapIndex.Result first = index.query(all, 0, 2);
+    DishBitmapIndex.Result second = index.query(all, 2, 2);
+    assertThat(first.total()).isEqualTo(3);
+    assertThat(first.ids()).hasSize(2).element(1).isEqualTo(middle.id());
+    assertThat(second.ids()).hasSize(1);
+  }
+
+  private void assertMatchesScan(DishBitmapIndex index) {
+    for (int i = 0; i < 200; i++) {
+      Double min = random.nextBoolean() ? null : random.nextInt(100) * 1000.0;
+      Double max = random.nextBoolean() ? null : random.nextInt(100) * 1000.0;
+      DishFilter filter = new DishFilter(randomFlag(), randomFlag(), randomFlag(), randomFlag(),
+          random.nextInt(3) == 0 ? CATEGORIES[random.nextInt(4)].toUpperCase() : null,
+          min, max, random.nextBoolean());
+
+      List<IndexedDish> expected = dishes.values().stream()
+          .filter(matches(filter))
+          .sorted(Comparator.comparingDouble(IndexedDish::price))
+          .toList();
+      DishBitmapIndex.Result result = index.query(filter, 0, Integer.MAX_VALUE);
+
+      assertThat(result.total()).isEqualTo(expected.size());
+      assertThat(result.ids()).containsExactlyInAnyOrderElementsOf(expected.stream().map(IndexedDish::id).toList());
+      assertThat(result.ids().stream().map(id -> dishes.get(id).price()).toList()).isSorted();
+      int offset = expected.size() / 2;
+      assertThat(index.query(filter, offset, 5).ids()).isEqualTo(result.ids().subList(offset,
+          Math.min(offset + 5, expected.size())));
+    }
+  }
+
+  private Predicate<IndexedDish> matches(DishFilter filter) {
+    return dish -> {
+      IndexedRestaurant restaurant = restaurants.get(dish.restaurantId());
+      return (filter.openNow() ? restaurant.openNow() : restaurant.listed())
+          && flag(filter.vegetarian(), dish.isVegetarian())
+          && flag(filter.vegan(), dish.isVegan())
+          && flag(filter.glutenFree(), dish.isGlutenFree())
+          && flag(filter.spicy(), dish.isSpicy())
+          && (filter.category() == null || filter.category().equalsIgnoreCase(dish.category()))
+          && (filter.minPrice() == null || dish.price() >= filter.minPrice())
+          && (filter.maxPrice() == null || dish.price() <= filter.maxPrice());
+    };
+  }
+
+  private static boolean flag(Boolean wanted, Boolean actual) {
+    return wanted == null || wanted == Boolean.TRUE.equals(actual);
+  }
+
+  private Boolean randomFlag() {
+    int value = random.nextInt(4);
+    return value == 0 ? Boolean.TRUE : value == 1 ? Boolean.FALSE : null;
+  }
+
+  private IndexedDish randomDish(UUID id, List<UUID> restaurantIds) {
+    return new IndexedDish(id, restaurantIds.get(random.nextInt(restaurantIds.size())),
+        random.nextInt(100) * 1000.0, CATEGORIES[random.nextInt(CATEGORIES.length)],
+        random.nextBoolean(), random.nextInt(4) == 0, random.nextInt(3) == 0, random.nextBoolean());
+  }
+
+  private static IndexedDish dish(UUID restaurantId, double price) {
+    return new IndexedDish(UUID.randomUUID(), restaurantId, price, "Noodles", false, false, false, false);
+  }
+}
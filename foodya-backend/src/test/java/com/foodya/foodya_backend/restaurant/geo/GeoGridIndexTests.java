@@ -0,0 +1,178 @@
+package com.foodya.foodya_backend.restaurant.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Grid answers must equal a brute-force haversine scan: across radius bands and the overflow list,
+ * on cell edges, near the poles and across the antimeridian, and after upserts and removals.
+ */
+class GeoGridIndexTests {
+
+  private static final double KM_PER_DEGREE = Math.PI * GeoGridIndex.EARTH_RADIUS_KM / 180.0;
+  // Delivery radii in every band, on band limits, and past the widest band (overflow list)
+  private static final double[] RADII_KM = {0.0, 0.3, 1.0, 1.5, 2.0, 3.9, 8.0, 20.0, 64.0, 127.0, 128.0, 150.0, 400.0};
+  // Margin around the disc edge where float rounding may go either way
+  private static final double EDGE_KM = 1e-5;
+
+  private final Random random = new Random(11);
+  private final GeoGridIndex<Disc> index = new GeoGridIndex<>();
+  private final Map<UUID, Disc> discs = new HashMap<>();
+
+  private record Disc(UUID id, double latitude, double longitude, double radiusKm) {
+  }
+
+  @Test
+  void matchesABruteForceScan() {
+    double[][] centers = {
+        {21.0278, 105.8342},   // Hanoi
+        {0.0, 0.0},
+        {-33.87, 151.21},
+        {0.0, 179.999},        // antimeridian
+        {-65.0, -179.99},
+        {75.0, 179.5},
+        {89.99, 0.0},          // poles
+        {-89.95, 120.0},
+        {89.5, -45.0},
+    };
+    for (double[] center : centers) {
+      for (int i = 0; i < 150; i++) {
+        double radius = RADII_KM[random.nextInt(RADII_KM.length)];
+        double[] point = near(center, 2 * radius + 1.0);
+        put(point[0], point[1], radius);
+      }
+    }
+    assertThat(index.size()).isEqualTo(discs.size());
+
+    for (double[] center : centers) {
+      for (int i = 0; i < 200; i++) {
+        double[] query = near(center, 1 + random.nextDouble() * 300);
+        assertMatchesScan(query[0], query[1]);
+      }
+    }
+  }
+
+  @Test
+  void discsOnCellEdgesAreFound() {
+    // Each band's cells are its largest radius wide: put discs on a corner and query across it
+    for (int band = 0; band < 8; band++) {
+      double radius = Math.pow(2, band);
+      double cellDegrees = radius / KM_PER_DEGREE;
+      double edgeLat = -90.0 + Math.floor((21.0 + 90.0) / cellDegrees) * cellDegrees;
+      double edgeLng = -180.0 + Math.floor((105.8 + 180.0) / cellDegrees) * cellDegrees;
+      for (double dLat : new double[] {-1e-9, 0.0, 1e-9}) {
+        for (double dLng : new double[] {-1e-9, 0.0, 1e-9}) {
+          put(edgeLat + dLat, edgeLng + dLng, radius);
+        }
+      }
+      for (int i = 0; i < 50; i++) {
+        double[] query = near(new double[] {edgeLat, edgeLng}, radius * 1.5);
+        assertMatchesScan(query[0], query[1]);
+      }
+      assertMatchesScan(edgeLat + 0.999 * cellDegrees, edgeLng);
+      assertMatchesScan(edgeLat, edgeLng - 0.999 * cellDegrees);
+      assertMatchesScan(edgeLat - 0.7 * cellDegrees, edgeLng + 0.7 * cellDegrees);
+    }
+  }
+
+  @Test
+  void upsertsAndRemovalsAreReflected() {
+    double[] hanoi = {21.0278, 105.8342};
+    for (int i = 0; i < 300; i++) {
+      double[] point = near(hanoi, 30);
+      put(point[0], point[1], RADII_KM[random.nextInt(RADII_KM.length)]);
+    }
+    List<UUID> ids = new ArrayList<>(discs.keySet());
+    for (int round = 0; round < 200; round++) {
+      UUID id = ids.get(random.nextInt(ids.size()));
+      if (random.nextInt(3) == 0) {
+        index.remove(id);
+        discs.remove(id);
+      } else {
+        // Moves the disc, possibly into another cell or band
+        double[] point = near(hanoi, 30);
+        put(id, point[0], point[1], RADII_KM[random.nextInt(RADII_KM.length)]);
+      }
+      double[] query = near(hanoi, 40);
+      assertMatchesScan(query[0], query[1]);
+    }
+    index.remove(UUID.randomUUID());
+    assertThat(index.size()).isEqualTo(discs.size());
+
+    discs.keySet().forEach(index::remove);
+    assertThat(index.size()).isZero();
+    assertThat(index.cellCount()).isZero();
+    assertThat(index.covering(hanoi[0], hanoi[1], disc -> true)).isEmpty();
+  }
+
+  @Test
+  void filterIsApplied() {
+    Disc open = put(10.0, 106.0, 5.0);
+    put(10.0, 106.0, 5.0);
+    assertThat(index.covering(10.0, 106.0, disc -> disc.id().equals(open.id())))
+        .extracting(GeoGridIndex.Hit::value)
+        .containsExactly(open);
+  }
+
+  private void assertMatchesScan(double latitude, double longitude) {
+    Map<UUID, Double> hits = new HashMap<>();
+    for (GeoGridIndex.Hit<Disc> hit : index.covering(latitude, longitude, disc -> true)) {
+      assertThat(hits.put(hit.value().id(), hit.distanceKm())).as("hit listed once").isNull();
+    }
+    List<String> mismatches = new ArrayList<>();
+    for (Disc disc : discs.values()) {
+      double distance = haversineKm(latitude, longitude, disc.latitude(), disc.longitude());
+      Double found = hits.get(disc.id());
+      boolean inside = distance <= disc.radiusKm() - EDGE_KM;
+      boolean outside = distance > disc.radiusKm() + EDGE_KM;
+      if (inside && (found == null || Math.abs(found - distance) > EDGE_KM) || outside && found != null) {
+        mismatches.add(disc + " at " + distance + " km, found at " + found);
+      }
+    }
+    assertThat(mismatches).as("from (%s, %s)", latitude, longitude).isEmpty();
+  }
+
+  // A random point within roughly maxKm of the center, longitude wrapped into [-180, 180)
+  private double[] near(double[] center, double maxKm) {
+    double distance = random.nextDouble() * maxKm;
+    double bearing = random.nextDouble() * 2 * Math.PI;
+    double angular = distance / GeoGridIndex.EARTH_RADIUS_KM;
+    double lat1 = Math.toRadians(center[0]);
+    double lng1 = Math.toRadians(center[1]);
+    double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular)
+        + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+    double lng2 = lng1 + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+        Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+    double longitude = Math.toDegrees(lng2);
+    longitude = ((longitude + 180.0) % 360.0 + 360.0) % 360.0 - 180.0;
+    return new double[] {Math.toDegrees(lat2), longitude};
+  }
+
+  private Disc put(double latitude, double longitude, double radiusKm) {
+    return put(UUID.randomUUID(), latitude, longitude, radiusKm);
+  }
+
+  private Disc put(UUID id, double latitude, double longitude, double radiusKm) {
+    Disc disc = new Disc(id, latitude, longitude, radiusKm);
+    index.upsert(id, latitude, longitude, radiusKm, disc);
+    discs.put(id, disc);
+    return disc;
+  }
+
+  private static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLng = Math.toRadians(lng2 - lng1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+    return 2 * GeoGridIndex.EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+  }
+}
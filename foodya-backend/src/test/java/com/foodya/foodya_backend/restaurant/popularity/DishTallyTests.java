@@ -0,0 +1,65 @@
+package com.foodya.foodya_backend.restaurant.popularity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Concurrent deliveries must all be counted, and trending scores must decay by half per half-life.
+ */
+class DishTallyTests {
+
+  private static final long HOUR = 3_600_000L;
+
+  @Test
+  void trendingDecaysWhileAllTimeCountsStay() {
+    DishTally tally = new DishTally(HOUR, 0);
+    UUID steady = UUID.randomUUID();
+    UUID burst = UUID.randomUUID();
+    tally.addOrders(steady, 500);
+    tally.addTrending(steady, 8, 0);
+    tally.recordDelivered(burst, 5, 2 * HOUR);
+
+    // 8 two hours ago is worth 2 now
+    assertThat(tally.trending(steady, 2 * HOUR)).isCloseTo(2.0, within(1e-9));
+    assertThat(tally.trending(burst, 3 * HOUR)).isCloseTo(2.5, within(1e-9));
+    assertThat(tally.orders(steady, 0)).isEqualTo(500);
+    assertThat(tally.orders(burst, 0)).isEqualTo(5);
+    assertThat(tally.orders(UUID.randomUUID(), 7)).isEqualTo(7);
+    assertThat(tally.topTrending(5)).containsExactly(burst, steady);
+    assertThat(tally.topTrending(1)).containsExactly(burst);
+  }
+
+  @Test
+  void concurrentDeliveriesAreAllCounted() throws Exception {
+    DishTally tally = new DishTally(HOUR, 0);
+    List<UUID> dishes = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            tally.recordDelivered(dishes.get(i % dishes.size()), 1, 0);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    long total = dishes.stream().mapToLong(id -> tally.orders(id, 0)).sum();
+    assertThat(total).isEqualTo(80_000);
+    assertThat(dishes.stream().mapToDouble(id -> tally.trending(id, 0)).sum()).isCloseTo(80_000.0, within(1e-6));
+  }
+}
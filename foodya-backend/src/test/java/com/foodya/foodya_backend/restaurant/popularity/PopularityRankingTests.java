@@ -0,0 +1,121 @@
+package com.foodya.foodya_backend.restaurant.popularity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Heaps kept up by increments alone must match a full sort of the decayed scores, overall and per
+ * cuisine, across landmark rescales and restaurant changes.
+ */
+class PopularityRankingTests {
+
+  private static final long HOUR = 3_600_000L;
+  private static final String[] CUISINES = {"Vietnamese", "Japanese", "Italian"};
+
+  @Test
+  void recentOrdersOutrankOlderOnes() {
+    PopularityRanking ranking = new PopularityRanking(HOUR, 10, 0);
+    RankedRestaurant older = restaurant("Vietnamese", 100, true);
+    RankedRestaurant recent = restaurant("vietnamese ", 0, true);
+    RankedRestaurant quiet = restaurant("Japanese", 5, true);
+    RankedRestaurant closed = restaurant("Japanese", 500, false);
+    ranking.restaurants(List.of(older, recent, quiet, closed));
+
+    // Three orders two hours ago weigh 3/4 of one order now
+    for (int i = 0; i < 3; i++) {
+      ranking.recordOrder(older.id(), 0);
+    }
+    ranking.recordOrder(recent.id(), 2 * HOUR);
+    ranking.recordOrder(closed.id(), 2 * HOUR);
+
+    assertThat(ranking.top(null, 10)).containsExactly(recent.id(), older.id(), quiet.id());
+    assertThat(ranking.top(" VIETNAMESE", 1)).containsExactly(recent.id());
+    assertThat(ranking.top("Japanese", 10)).containsExactly(quiet.id());
+    assertThat(ranking.top("Thai", 10)).isEmpty();
+    assertThat(ranking.size()).isEqualTo(3);
+
+    // Delivered counts break ties between restaurants without recent orders
+    RankedRestaurant other = restaurant("Japanese", 0, true);
+    ranking.restaurant(other);
+    ranking.recordDelivered(other.id(), 6);
+    assertThat(ranking.top("Japanese", 10)).containsExactly(other.id(), quiet.id());
+    // Reloading a restaurant keeps the deliveries counted since, whatever the stored count says
+    ranking.restaurant(other);
+    assertThat(ranking.top("Japanese", 10)).containsExactly(other.id(), quiet.id());
+
+    ranking.restaurant(new RankedRestaurant(closed.id(), "Japanese", true, 500, 0, 0.0));
+    assertThat(ranking.top("Japanese", 1)).containsExactly(closed.id());
+    ranking.removeRestaurant(recent.id());
+    assertThat(ranking.top(null, 10)).doesNotContain(recent.id()).first().isEqualTo(closed.id());
+  }
+
+  @Test
+  void heapsMatchASort() {
+    Random random = new Random(7);
+    int topK = 5;
+    // Short half-life against ~250 hours of orders, so the run crosses a few landmark rescales
+    PopularityRanking ranking = new PopularityRanking(HOUR, topK, 0);
+    Map<UUID, RankedRestaurant> restaurants = new HashMap<>();
+    Map<UUID, Double> decayed = new HashMap<>();
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      RankedRestaurant restaurant = restaurant(CUISINES[i % CUISINES.length], random.nextInt(5), i % 9 != 0);
+      restaurants.put(restaurant.id(), restaurant);
+      decayed.put(restaurant.id(), 0.0);
+      ids.add(restaurant.id());
+    }
+    ranking.restaurants(restaurants.values());
+
+    long now = 0;
+    double lambda = Math.log(2) / HOUR;
+    for (int i = 0; i < 3000; i++) {
+      long step = random.nextInt(600_000);
+      now += step;
+      double factor = Math.exp(-lambda * step);
+      decayed.replaceAll((id, score) -> score * factor);
+      // Skewed, so some restaurants stay hot while others come and go
+      UUID id = ids.get((int) (Math.pow(random.nextDouble(), 2) * ids.size()));
+      decayed.merge(id, 1.0, Double::sum);
+      ranking.recordOrder(id, now);
+
+      if (i % 500 == 499) {
+        UUID changed = ids.get(random.nextInt(ids.size()));
+        RankedRestaurant restaurant = new RankedRestaurant(changed, CUISINES[random.nextInt(CUISINES.length)],
+            random.nextBoolean(), restaurants.get(changed).orderCount(), 0, 0.0);
+        restaurants.put(changed, restaurant);
+        ranking.restaurant(restaurant);
+      }
+      if (i % 100 == 99) {
+        for (String cuisine : new String[] {null, "Vietnamese", "japanese", "ITALIAN"}) {
+          assertThat(ranking.top(cuisine, topK)).isEqualTo(expectedTop(restaurants, decayed, cuisine, topK));
+        }
+      }
+    }
+  }
+
+  private static List<UUID> expectedTop(Map<UUID, RankedRestaurant> restaurants, Map<UUID, Double> decayed,
+      String cuisine, int limit) {
+    return restaurants.values().stream()
+        .filter(RankedRestaurant::isActive)
+        .filter(restaurant -> cuisine == null || restaurant.cuisine().equalsIgnoreCase(cuisine))
+        .sorted(Comparator.comparing((RankedRestaurant restaurant) -> decayed.get(restaurant.id()))
+            .thenComparing(RankedRestaurant::orderCount)
+            .reversed())
+        .limit(limit)
+        .map(RankedRestaurant::id)
+        .toList();
+  }
+
+  private static RankedRestaurant restaurant(String cuisine, int orderCount, boolean active) {
+    return new RankedRestaurant(UUID.randomUUID(), cuisine, active, orderCount, 0, 0.0);
+  }
+}
@@ -0,0 +1,39 @@
+package com.foodya.foodya_backend.restaurant.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The search SQL only runs on Postgres with the search script applied; these tests pin how it is built.
+ */
+class RestaurantSearchQueriesTests {
+
+  @Test
+  void trigramOperatorAndFunctionsAreSchemaQualified() {
+    String where = RestaurantSearchQueriesImpl.where("extensions");
+    String orderBy = RestaurantSearchQueriesImpl.orderBy("extensions", "popular");
+
+    assertThat(where)
+        .contains("public.f_unaccent(lower(r.name)) OPERATOR(\"extensions\".%>) public.f_unaccent(lower(:keyword))")
+        .contains("websearch_to_tsquery('public.foodya_unaccent', :keyword)")
+        .doesNotContain(") %> ");
+    assertThat(orderBy)
+        .contains("\"extensions\".word_similarity(")
+        .doesNotContain(" word_similarity(");
+    assertThat(RestaurantSearchQueriesImpl.quote("my\"schema")).isEqualTo("\"my\"\"schema\"");
+  }
+
+  @Test
+  void sortByOrdersRowsOfEqualRelevance() {
+    assertThat(RestaurantSearchQueriesImpl.orderBy("public", "popular"))
+        .startsWith("ORDER BY ts_rank_cd(")
+        .endsWith("DESC,     r.total_reviews DESC, r.rating DESC, r.id");
+    assertThat(RestaurantSearchQueriesImpl.orderBy("public", null))
+        .endsWith("r.total_reviews DESC, r.rating DESC, r.id");
+    assertThat(RestaurantSearchQueriesImpl.orderBy("public", "rating"))
+        .endsWith("r.rating DESC, r.total_reviews DESC, r.id");
+    assertThat(RestaurantSearchQueriesImpl.orderBy("public", "name"))
+        .endsWith("r.name ASC, r.id");
+  }
+}
@@ -0,0 +1,92 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.foodya.foodya_backend.restaurant.event.CategoryChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+/**
+ * ETags of public catalog responses come from restaurants.catalog_version: every committed write
+ * must bump it, and a rolled-back write must not.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO",
+    "app.catalog.version.revalidate-ms=0"
+})
+@Import(CatalogVersionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogVersionTests {
+
+  @Autowired
+  private CatalogVersionService catalogVersionService;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void committedWritesBumpTheVersion() {
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    UUID id = tx.execute(status -> {
+      Restaurant restaurant = restaurantRepository.save(Restaurant.builder()
+          .name("Pho")
+          .address("1 Le Loi")
+          .phoneNumber("+842800000001")
+          .cuisine("Vietnamese")
+          .ownerId(UUID.randomUUID())
+          .build());
+      eventPublisher.publishEvent(
+          new RestaurantChangedEvent(restaurant.getId(), restaurant.getOwnerId(), ChangeType.CREATED));
+      return restaurant.getId();
+    });
+    assertThat(catalogVersionService.version(id)).contains(1L);
+
+    tx.executeWithoutResult(status -> {
+      Restaurant restaurant = restaurantRepository.findById(id).orElseThrow();
+      restaurant.setDescription("Noodles");
+      eventPublisher.publishEvent(new RestaurantChangedEvent(id, restaurant.getOwnerId(), ChangeType.UPDATED));
+    });
+    tx.executeWithoutResult(status -> eventPublisher.publishEvent(
+        new MenuItemChangedEvent(UUID.randomUUID(), id, ChangeType.CREATED)));
+    tx.executeWithoutResult(status -> eventPublisher.publishEvent(
+        new CategoryChangedEvent(UUID.randomUUID(), id, ChangeType.UPDATED)));
+
+    assertThat(catalogVersionService.version(id)).contains(4L);
+    assertThat(restaurantRepository.findById(id).orElseThrow().getDescription()).isEqualTo("Noodles");
+
+    assertThatThrownBy(() -> tx.executeWithoutResult(status -> {
+      eventPublisher.publishEvent(new MenuItemChangedEvent(UUID.randomUUID(), id, ChangeType.DELETED));
+      throw new IllegalStateException("rollback");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(catalogVersionService.version(id)).contains(4L);
+  }
+
+  @Test
+  void unknownRestaurantHasNoVersion() {
+    assertThat(catalogVersionService.version(UUID.randomUUID())).isEmpty();
+  }
+}
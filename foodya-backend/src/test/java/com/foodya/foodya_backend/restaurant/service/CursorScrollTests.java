@@ -0,0 +1,190 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.foodya.foodya_backend.exception.business.BadRequestException;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemMapper;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantMapper;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
+import com.foodya.foodya_backend.restaurant.model.MenuItem;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.utils.pagination.CursorPage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Scrolling page by page must return every row exactly once, in the order of a single large page,
+ * even when most rows share their sort value; a cursor that was not issued for the sort is a 400.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({ RestaurantService.class, RestaurantMapper.class, RestaurantListingCache.class,
+    RestaurantSearchSchema.class, NearbyRestaurantIndex.class, SimpleMeterRegistry.class,
+    MenuItemService.class, MenuItemMapper.class, MenuSnapshotService.class, CatalogVersionService.class,
+    DishFilterIndex.class, RestaurantPopularityService.class, DishPopularityService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CursorScrollTests {
+
+  private static final int RESTAURANTS = 17;
+  private static final int MENU_ITEMS = 11;
+  private static final int PAGE_SIZE = 4;
+
+  @Autowired
+  private RestaurantService restaurantService;
+
+  @Autowired
+  private MenuItemService menuItemService;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  private UUID menuRestaurantId;
+
+  @BeforeEach
+  void setUp() {
+    UUID ownerId = UUID.randomUUID();
+    for (int i = 0; i < RESTAURANTS; i++) {
+      // Three review counts and two ratings: most rows tie on every key but id.
+      // Names are unique; dishes share two prices and one order count
+      Restaurant restaurant = Restaurant.builder()
+          .name("Restaurant " + i)
+          .address("Address " + i)
+          .phoneNumber("+8428000000" + String.format("%02d", i))
+          .cuisine("Vietnamese")
+          .totalReviews(i % 3)
+          .rating(i % 2 == 0 ? 4.5 : 4.0)
+          .ownerId(ownerId)
+          .build();
+      if (i == 0) {
+        for (int j = 0; j < MENU_ITEMS; j++) {
+          restaurant.addMenuItem(MenuItem.builder()
+              .name("Dish " + j)
+              .price(j % 2 == 0 ? 45000.0 : 50000.0)
+              .category("Main Course")
+              .build());
+        }
+      }
+      restaurant = restaurantRepository.save(restaurant);
+      if (i == 0) {
+        menuRestaurantId = restaurant.getId();
+      }
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    restaurantRepository.deleteAll();
+  }
+
+  @Test
+  void restaurantPagesCoverEveryRowOnceInSortOrder() {
+    for (String sortBy : List.of("popular", "rating", "name", " Rating ")) {
+      List<RestaurantResponse> scrolled = scrollAll(
+          (cursor, size) -> restaurantService.scrollRestaurantsWithFilters(null, null, null, sortBy, cursor, size));
+      List<RestaurantResponse> single = restaurantService
+          .scrollRestaurantsWithFilters(null, null, null, sortBy, null, RESTAURANTS)
+          .getContent();
+
+      assertThat(ids(scrolled, RestaurantResponse::getId))
+          .as("sort %s", sortBy)
+          .hasSize(RESTAURANTS)
+          .doesNotHaveDuplicates()
+          .containsExactlyElementsOf(ids(single, RestaurantResponse::getId));
+    }
+
+    List<RestaurantResponse> popular = scrollAll(
+        (cursor, size) -> restaurantService.scrollRestaurantsWithFilters(null, null, null, null, cursor, size));
+    assertThat(popular).isSortedAccordingTo(Comparator.comparing(RestaurantResponse::getTotalReviews).reversed()
+        .thenComparing(Comparator.comparing(RestaurantResponse::getRating).reversed()));
+  }
+
+  @Test
+  void restaurantScrollRejectsUnknownSortsAndForeignCursors() {
+    String ratingCursor = restaurantService
+        .scrollRestaurantsWithFilters(null, null, null, "rating", null, PAGE_SIZE)
+        .getNextCursor();
+
+    assertThat(ratingCursor).isNotNull();
+    assertThatThrownBy(() -> restaurantService.scrollRestaurantsWithFilters(null, null, null, "distance", null, 5))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> restaurantService.scrollRestaurantsWithFilters(null, null, null, "name", ratingCursor, 5))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> restaurantService.scrollRestaurantsWithFilters(null, null, null, "rating",
+        "x" + ratingCursor, 5)).isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  void menuItemPagesCoverEveryRowOnceInSortOrder() {
+    for (String sortBy : List.of("price", "name", "orderCount")) {
+      for (String direction : List.of("asc", "desc")) {
+        List<MenuItemResponse> scrolled = scrollAll((cursor, size) ->
+            menuItemService.scrollMenuItemsByRestaurant(menuRestaurantId, cursor, size, sortBy, direction));
+        List<MenuItemResponse> single = menuItemService
+            .scrollMenuItemsByRestaurant(menuRestaurantId, null, MENU_ITEMS, sortBy, direction)
+            .getContent();
+
+        assertThat(ids(scrolled, MenuItemResponse::getId))
+            .as("sort %s %s", sortBy, direction)
+            .hasSize(MENU_ITEMS)
+            .doesNotHaveDuplicates()
+            .containsExactlyElementsOf(ids(single, MenuItemResponse::getId));
+      }
+    }
+
+    List<MenuItemResponse> byPrice = scrollAll((cursor, size) ->
+        menuItemService.scrollMenuItemsByRestaurant(menuRestaurantId, cursor, size, "price", "desc"));
+    assertThat(byPrice).isSortedAccordingTo(Comparator.comparing(MenuItemResponse::getPrice).reversed());
+  }
+
+  @Test
+  void menuItemScrollRejectsForeignCursors() {
+    String priceCursor = menuItemService
+        .scrollMenuItemsByRestaurant(menuRestaurantId, null, PAGE_SIZE, "price", "asc")
+        .getNextCursor();
+
+    assertThat(priceCursor).isNotNull();
+    assertThatThrownBy(() -> menuItemService.scrollMenuItemsByRestaurant(menuRestaurantId, priceCursor, 5, "price",
+        "desc")).isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> menuItemService.scrollMenuItemsByRestaurant(menuRestaurantId, "garbage!", 5, "price",
+        "asc")).isInstanceOf(BadRequestException.class);
+  }
+
+  private static <T> List<T> scrollAll(BiFunction<String, Integer, CursorPage<T>> fetch) {
+    List<T> rows = new ArrayList<>();
+    String cursor = null;
+    CursorPage<T> page;
+    do {
+      page = fetch.apply(cursor, PAGE_SIZE);
+      assertThat(page.getContent()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+      rows.addAll(page.getContent());
+      cursor = page.getNextCursor();
+    } while (page.isHasNext());
+    assertThat(cursor).isNull();
+    return rows;
+  }
+
+  private static <T> List<UUID> ids(List<T> rows, Function<T, UUID> id) {
+    return rows.stream().map(id).toList();
+  }
+}
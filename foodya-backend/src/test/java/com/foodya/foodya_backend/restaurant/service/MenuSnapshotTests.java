@@ -0,0 +1,209 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+import com.foodya.foodya_backend.exception.business.BadRequestException;
+import com.foodya.foodya_backend.order.event.OrderDeliveredEvent;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemMapper;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
+import com.foodya.foodya_backend.restaurant.model.Category;
+import com.foodya.foodya_backend.restaurant.model.MenuItem;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.CategoryRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Public menu listings are filters over an in-memory snapshot: they must match the repository
+ * queries they replaced, and a committed write must swap in a new snapshot.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO",
+    // Re-read the catalog version on every access, as if another instance could write at any time
+    "app.catalog.version.revalidate-ms=0"
+})
+@Import({ MenuSnapshotService.class, CatalogVersionService.class, MenuItemService.class, DishFilterIndex.class,
+    DishPopularityService.class, MenuItemMapper.class,
+    SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuSnapshotTests {
+
+  @Autowired
+  private MenuSnapshotService menuSnapshotService;
+
+  @Autowired
+  private MenuItemService menuItemService;
+
+  @Autowired
+  private DishPopularityService dishPopularityService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private UUID restaurantId;
+
+  @BeforeEach
+  void setUp() {
+    Restaurant restaurant = Restaurant.builder()
+        .name("Pho 24")
+        .address("1 Le Loi")
+        .phoneNumber("+842800000001")
+        .cuisine("Vietnamese")
+        .ownerId(UUID.randomUUID())
+        .build();
+    restaurant.addMenuItem(item("Pho Bo", "Noodles", 50000.0, 40, false));
+    restaurant.addMenuItem(item("Pho Chay", "Noodles", 45000.0, 15, true));
+    restaurant.addMenuItem(item("Tra Da", "Drinks", 5000.0, 90, true));
+    restaurant.addMenuItem(item("Goi Cuon", "Starters", 30000.0, 60, true));
+    MenuItem unavailable = item("Che", "Desserts", 20000.0, 70, true);
+    unavailable.setIsAvailable(false);
+    restaurant.addMenuItem(unavailable);
+    MenuItem inactive = item("Bun Cha", "Noodles", 55000.0, 99, false);
+    inactive.setIsActive(false);
+    restaurant.addMenuItem(inactive);
+    restaurantId = restaurantRepository.save(restaurant).getId();
+    categoryRepository.save(Category.builder().name("Noodles").restaurant(restaurant).build());
+    categoryRepository.save(Category.builder().name("Drinks").restaurant(restaurant).build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    categoryRepository.deleteAll();
+    restaurantRepository.deleteAll();
+  }
+
+  @Test
+  void listingsFilterTheSnapshot() {
+    assertThat(names(menuItemService.getAllMenuItemsByRestaurant(restaurantId)))
+        .containsExactly("Bun Cha", "Che", "Goi Cuon", "Pho Bo", "Pho Chay", "Tra Da");
+    assertThat(names(menuItemService.getMenuItemsByRestaurant(restaurantId, 0, 2, "price", "desc").getContent()))
+        .containsExactly("Pho Bo", "Pho Chay");
+    assertThat(menuItemService.getMenuItemsByRestaurant(restaurantId, 1, 2, "name", "asc").getTotalElements())
+        .isEqualTo(4);
+    assertThat(names(menuItemService.getPopularMenuItems(restaurantId, 3)))
+        .containsExactly("Tra Da", "Che", "Goi Cuon");
+    assertThat(names(menuItemService.getMenuItemsByCategory(restaurantId, "Noodles")))
+        .containsExactly("Pho Bo", "Pho Chay");
+    assertThat(names(menuItemService.getMenuItemsByDietaryPreferences(restaurantId, true, null, null)))
+        .containsExactly("Che", "Goi Cuon", "Pho Chay", "Tra Da");
+    assertThat(names(menuItemService.searchMenuItems(restaurantId, "PHO")))
+        .containsExactly("Pho Bo", "Pho Chay");
+
+    MenuSnapshot snapshot = menuSnapshotService.snapshot(restaurantId).orElseThrow();
+    // Restaurant's categories first (by name), then the other category names
+    assertThat(snapshot.sections()).extracting(section -> section.getCategory())
+        .containsExactly("Drinks", "Noodles", "Starters");
+
+    assertThatThrownBy(() -> menuItemService.getMenuItemsByRestaurant(restaurantId, 0, 10, "secret", "asc"))
+        .isInstanceOf(BadRequestException.class);
+    assertThat(menuItemService.getPopularMenuItems(UUID.randomUUID(), 3)).isEmpty();
+  }
+
+  @Test
+  void writesSwapInANewSnapshot() {
+    MenuSnapshot before = menuSnapshotService.snapshot(restaurantId).orElseThrow();
+    UUID teaId = before.items().stream().filter(item -> item.getName().equals("Tra Da")).findFirst()
+        .orElseThrow().getId();
+
+    menuItemService.toggleAvailability(teaId);
+
+    MenuSnapshot after = menuSnapshotService.snapshot(restaurantId).orElseThrow();
+    assertThat(after.version()).isGreaterThan(before.version());
+    assertThat(names(after.availablePage(0, 10, "name", "asc").getContent())).doesNotContain("Tra Da");
+    // Readers holding the old snapshot are unaffected
+    assertThat(names(before.availablePage(0, 10, "name", "asc").getContent())).contains("Tra Da");
+    assertThat(meterRegistry.get("foodya.menu.snapshot.build").tag("trigger", "write").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void snapshotBehindTheCatalogVersionIsRebuilt() {
+    MenuSnapshot before = menuSnapshotService.snapshot(restaurantId).orElseThrow();
+
+    // A write on another instance: version bumped, no local event
+    restaurantRepository.bumpCatalogVersion(restaurantId);
+
+    MenuSnapshot after = menuSnapshotService.snapshot(restaurantId).orElseThrow();
+    assertThat(after).isNotSameAs(before);
+    assertThat(after.version()).isEqualTo(before.version() + 1);
+    assertThat(menuSnapshotService.snapshot(restaurantId).orElseThrow()).isSameAs(after);
+  }
+
+  @Test
+  void deliveriesRankPopularAndTrendingItems() {
+    dishPopularityService.rebuild();
+    MenuSnapshot snapshot = menuSnapshotService.snapshot(restaurantId).orElseThrow();
+    UUID phoChay = id(snapshot, "Pho Chay");
+    UUID goiCuon = id(snapshot, "Goi Cuon");
+
+    dishPopularityService.onOrderDelivered(
+        new OrderDeliveredEvent(UUID.randomUUID(), restaurantId, Map.of(phoChay, 80, goiCuon, 2)));
+
+    // Same snapshot, live counts: 15 + 80 now leads Tra Da's 90
+    assertThat(menuItemService.getPopularMenuItems(restaurantId, 2))
+        .extracting(MenuItemResponse::getName, MenuItemResponse::getOrderCount)
+        .containsExactly(tuple("Pho Chay", 95), tuple("Tra Da", 90));
+    assertThat(menuSnapshotService.snapshot(restaurantId).orElseThrow()).isSameAs(snapshot);
+
+    dishPopularityService.flush();
+    assertThat(jdbcTemplate.queryForObject("SELECT order_count FROM menu_items WHERE id = ?", Integer.class, phoChay))
+        .isEqualTo(95);
+    assertThat(jdbcTemplate.queryForObject("SELECT trending_score FROM menu_items WHERE id = ?", Double.class, goiCuon))
+        .isCloseTo(2.0, within(0.01));
+    assertThat(names(menuItemService.getTrendingDishes(10))).containsExactly("Pho Chay", "Goi Cuon");
+
+    // Flushed counts are loaded back, not counted twice
+    dishPopularityService.rebuild();
+    dishPopularityService.flush();
+    assertThat(dishPopularityService.orderCount(phoChay, 0)).isEqualTo(95);
+    assertThat(jdbcTemplate.queryForObject("SELECT order_count FROM menu_items WHERE id = ?", Integer.class, phoChay))
+        .isEqualTo(95);
+  }
+
+  private static UUID id(MenuSnapshot snapshot, String name) {
+    return snapshot.items().stream().filter(item -> item.getName().equals(name)).findFirst().orElseThrow().getId();
+  }
+
+  private static MenuItem item(String name, String category, double price, int orderCount, boolean vegetarian) {
+    return MenuItem.builder()
+        .name(name)
+        .category(category)
+        .price(price)
+        .orderCount(orderCount)
+        .isVegetarian(vegetarian)
+        .build();
+  }
+
+  private static List<String> names(List<MenuItemResponse> items) {
+    return items.stream().map(MenuItemResponse::getName).toList();
+  }
+}
@@ -0,0 +1,126 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.geo.GeoGridIndex;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.restaurant.service.NearbyRestaurantIndex.NearbyRestaurant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * The rebuild streams listing projections of active restaurants with coordinates; the listings must
+ * carry the same fields the entities did, and no entity is loaded by a rebuild or a change.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({ NearbyRestaurantIndex.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NearbyRestaurantIndexTests {
+
+  // Ben Thanh market, District 1
+  private static final double LATITUDE = 10.7725;
+  private static final double LONGITUDE = 106.6980;
+
+  @Autowired
+  private NearbyRestaurantIndex nearbyRestaurantIndex;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private Statistics statistics;
+  private Restaurant pho;
+  private UUID closedId;
+  private UUID unlocatedId;
+
+  @BeforeEach
+  void setUp() {
+    pho = restaurant("Pho 24", "+842800000001", true, LATITUDE, LONGITUDE);
+    pho.setRating(4.5);
+    pho.setTotalReviews(12);
+    pho.setIsOpen(true);
+    pho.setDeliveryFee(15000.0);
+    pho.setEstimatedDeliveryTime(25);
+    pho = restaurantRepository.save(pho);
+    closedId = restaurantRepository.save(restaurant("Com Tam", "+842800000002", false, LATITUDE, LONGITUDE)).getId();
+    unlocatedId = restaurantRepository.save(restaurant("Bun Cha", "+842800000003", true, null, null)).getId();
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    restaurantRepository.deleteAll();
+  }
+
+  @Test
+  void rebuildStreamsActiveLocatedRestaurants() {
+    nearbyRestaurantIndex.rebuild();
+
+    assertThat(nearbyRestaurantIndex.covering(LATITUDE, LONGITUDE, restaurant -> true))
+        .extracting(GeoGridIndex.Hit::value)
+        .containsExactly(new NearbyRestaurant(pho.getId(), "Pho 24", "1 Le Loi", "Vietnamese", null, 4.5, 12, true,
+            15000.0, 25, 5.0, LATITUDE, LONGITUDE));
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  void changesReadTheSameProjection() {
+    nearbyRestaurantIndex.rebuild();
+
+    Restaurant closed = restaurantRepository.findById(closedId).orElseThrow();
+    closed.setIsActive(true);
+    restaurantRepository.save(closed);
+    Restaurant unlocated = restaurantRepository.findById(unlocatedId).orElseThrow();
+    unlocated.setIsActive(false);
+    restaurantRepository.save(unlocated);
+    statistics.clear();
+
+    nearbyRestaurantIndex.onRestaurantChanged(new RestaurantChangedEvent(closedId, null, ChangeType.UPDATED));
+    nearbyRestaurantIndex.onRestaurantChanged(new RestaurantChangedEvent(unlocatedId, null, ChangeType.UPDATED));
+    nearbyRestaurantIndex.onRestaurantChanged(new RestaurantChangedEvent(pho.getId(), null, ChangeType.DELETED));
+
+    assertThat(nearbyRestaurantIndex.covering(LATITUDE, LONGITUDE, restaurant -> true))
+        .extracting(hit -> hit.value().name())
+        .containsExactly("Com Tam");
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  private static Restaurant restaurant(String name, String phoneNumber, boolean active, Double latitude,
+      Double longitude) {
+    return Restaurant.builder()
+        .name(name)
+        .address("1 Le Loi")
+        .phoneNumber(phoneNumber)
+        .cuisine("Vietnamese")
+        .ownerId(UUID.randomUUID())
+        .isActive(active)
+        .latitude(latitude)
+        .longitude(longitude)
+        .maxDeliveryDistance(5.0)
+        .build();
+  }
+}
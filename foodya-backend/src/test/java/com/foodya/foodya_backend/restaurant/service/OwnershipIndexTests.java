@@ -0,0 +1,97 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Positive answers come from the cache; a "not owner" is always checked against the owner column,
+ * so restaurants created or transferred on another instance are never refused.
+ */
+class OwnershipIndexTests {
+
+  private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+  private final OwnershipIndex index = new OwnershipIndex(restaurantRepository, mock(MenuItemRepository.class),
+      100, 30);
+
+  private final UUID owner = UUID.randomUUID();
+  private final UUID other = UUID.randomUUID();
+  private final UUID restaurant = UUID.randomUUID();
+
+  @Test
+  void ownedRestaurantIsAnsweredFromTheCache() {
+    when(restaurantRepository.findIdsByOwnerId(owner)).thenReturn(List.of(restaurant));
+
+    assertThat(index.owns(owner, restaurant)).isTrue();
+    assertThat(index.owns(owner, restaurant)).isTrue();
+    verify(restaurantRepository, times(1)).findIdsByOwnerId(owner);
+    verify(restaurantRepository, never()).findOwnerIdById(restaurant);
+  }
+
+  @Test
+  void notOwnerIsConfirmed() {
+    when(restaurantRepository.findIdsByOwnerId(other)).thenReturn(List.of());
+    when(restaurantRepository.findOwnerIdById(restaurant)).thenReturn(Optional.of(owner));
+
+    assertThat(index.owns(other, restaurant)).isFalse();
+    assertThat(index.owns(other, UUID.randomUUID())).isFalse();
+    verify(restaurantRepository).findOwnerIdById(restaurant);
+  }
+
+  @Test
+  void restaurantCreatedElsewhereIsNotRefused() {
+    when(restaurantRepository.findIdsByOwnerId(owner)).thenReturn(List.of());
+    assertThat(index.owns(owner, restaurant)).isFalse();
+
+    // Created on another instance: no event reaches this one
+    when(restaurantRepository.findIdsByOwnerId(owner)).thenReturn(List.of(restaurant));
+    when(restaurantRepository.findOwnerIdById(restaurant)).thenReturn(Optional.of(owner));
+    assertThat(index.owns(owner, restaurant)).isTrue();
+    // The stale entry was dropped: the next check is a cache hit again
+    assertThat(index.owns(owner, restaurant)).isTrue();
+    verify(restaurantRepository, times(2)).findIdsByOwnerId(owner);
+    verify(restaurantRepository, times(2)).findOwnerIdById(restaurant);
+  }
+
+  @Test
+  void committedChangesInvalidate() {
+    when(restaurantRepository.findIdsByOwnerId(owner)).thenReturn(List.of());
+    when(restaurantRepository.findIdsByOwnerId(other)).thenReturn(List.of());
+    index.owns(owner, UUID.randomUUID());
+    index.owns(other, UUID.randomUUID());
+
+    // Created here: the owner's entry is reloaded, no confirmation needed
+    when(restaurantRepository.findIdsByOwnerId(owner)).thenReturn(List.of(restaurant));
+    index.onRestaurantChanged(new RestaurantChangedEvent(restaurant, owner, ChangeType.CREATED));
+    assertThat(index.owns(owner, restaurant)).isTrue();
+    verify(restaurantRepository, never()).findOwnerIdById(restaurant);
+
+    // Transferred: the previous owner's entry no longer lists it
+    when(restaurantRepository.findIdsByOwnerId(owner)).thenReturn(List.of());
+    when(restaurantRepository.findIdsByOwnerId(other)).thenReturn(List.of(restaurant));
+    when(restaurantRepository.findOwnerIdById(restaurant)).thenReturn(Optional.of(other));
+    index.onRestaurantChanged(new RestaurantChangedEvent(restaurant, other, ChangeType.UPDATED));
+    assertThat(index.owns(owner, restaurant)).isFalse();
+    assertThat(index.owns(other, restaurant)).isTrue();
+
+    // Deleted: no entry lists it
+    when(restaurantRepository.findIdsByOwnerId(other)).thenReturn(List.of());
+    when(restaurantRepository.findOwnerIdById(restaurant)).thenReturn(Optional.empty());
+    index.onRestaurantChanged(new RestaurantChangedEvent(restaurant, other, ChangeType.DELETED));
+    assertThat(index.owns(other, restaurant)).isFalse();
+  }
+}
@@ -0,0 +1,93 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.foodya.foodya_backend.restaurant.dto.RestaurantMapper;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+/**
+ * Keyword listings use the full-text query only once the search schema is installed, and pass it
+ * the trigram schema and the requested sort; everything else stays on the LIKE card queries.
+ */
+class RestaurantFullTextSearchTests {
+
+  private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+  private final RestaurantListingCache restaurantListingCache = mock(RestaurantListingCache.class);
+  private final RestaurantSearchSchema restaurantSearchSchema = mock(RestaurantSearchSchema.class);
+  private final RestaurantService restaurantService = new RestaurantService(restaurantRepository,
+      new RestaurantMapper(mock(MenuItemRepository.class)), mock(ApplicationEventPublisher.class),
+      restaurantListingCache, mock(PlatformTransactionManager.class), restaurantSearchSchema,
+      mock(NearbyRestaurantIndex.class), mock(RestaurantPopularityService.class));
+
+  @BeforeEach
+  void loadThroughTheCache() {
+    when(restaurantListingCache.get(any(), any())).thenAnswer(
+        invocation -> invocation.<Supplier<Page<RestaurantResponse>>>getArgument(1).get());
+    when(restaurantRepository.searchFullText(any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+    when(restaurantRepository.findCardsByFilters(any(), any(), any(), any())).thenReturn(Page.empty());
+    when(restaurantRepository.findActiveCards(any())).thenReturn(Page.empty());
+  }
+
+  @Test
+  void keywordSearchIsRankedWithSortByAsTieBreak() {
+    when(restaurantSearchSchema.isAvailable()).thenReturn(true);
+    when(restaurantSearchSchema.trigramSchema()).thenReturn("extensions");
+
+    restaurantService.getRestaurantsWithFilters("Phở", "Vietnamese", 4.0, "Rating", 1, 10);
+
+    verify(restaurantRepository).searchFullText("phở", "vietnamese", 4.0, "extensions", "rating",
+        PageRequest.of(1, 10));
+    verify(restaurantRepository, never()).findCardsByFilters(any(), any(), any(), any());
+  }
+
+  @Test
+  void listingsWithoutKeywordOrSearchSchemaUseLikeQueries() {
+    when(restaurantSearchSchema.isAvailable()).thenReturn(true);
+    when(restaurantSearchSchema.trigramSchema()).thenReturn("public");
+    restaurantService.getRestaurantsWithFilters(null, "Vietnamese", null, "name", 0, 10);
+    verify(restaurantRepository).findCardsByFilters(isNull(), eq("vietnamese"), isNull(),
+        eq(PageRequest.of(0, 10, Sort.by("name").ascending())));
+
+    when(restaurantSearchSchema.isAvailable()).thenReturn(false);
+    when(restaurantSearchSchema.trigramSchema()).thenReturn(null);
+    restaurantService.getRestaurantsWithFilters("pho", null, null, null, 0, 10);
+    verify(restaurantRepository).findCardsByFilters(eq("pho"), isNull(), isNull(), any(Pageable.class));
+
+    verify(restaurantRepository, never()).searchFullText(anyString(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void failedScriptLeavesSearchUnavailable() throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenThrow(new SQLException("permission denied to create extension"));
+    RestaurantSearchSchema schema = new RestaurantSearchSchema(dataSource, true);
+
+    schema.afterSingletonsInstantiated();
+
+    assertThat(schema.isAvailable()).isFalse();
+    assertThat(schema.trigramSchema()).isNull();
+  }
+}
@@ -0,0 +1,146 @@
+package com.foodya.foodya_backend.restaurant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.foodya.foodya_backend.restaurant.dto.MenuItemMapper;
+import com.foodya.foodya_backend.restaurant.dto.MenuItemResponse;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantMapper;
+import com.foodya.foodya_backend.restaurant.dto.RestaurantResponse;
+import com.foodya.foodya_backend.restaurant.model.MenuItem;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+/**
+ * GET /api/v1/restaurants must cost a constant number of SQL statements per page,
+ * whatever the page size: page select, count, and one grouped menu item count.
+ * List pages are read as card projections, so no entity is hydrated.
+ * Menu pages come from the menu snapshot: a fixed number of statements to build it, none after.
+ * Fixtures are committed because snapshots are built in their own transaction.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({ RestaurantService.class, RestaurantMapper.class, RestaurantListingCache.class,
+    RestaurantSearchSchema.class, NearbyRestaurantIndex.class, SimpleMeterRegistry.class,
+    MenuItemService.class, MenuItemMapper.class, MenuSnapshotService.class, CatalogVersionService.class,
+    DishFilterIndex.class, RestaurantPopularityService.class, DishPopularityService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RestaurantListingQueryCountTests {
+
+  private static final int RESTAURANTS = 30;
+  private static final int MENU_ITEMS_PER_RESTAURANT = 3;
+
+  @Autowired
+  private RestaurantService restaurantService;
+
+  @Autowired
+  private MenuItemService menuItemService;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> persistRestaurants());
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    restaurantRepository.deleteAll();
+  }
+
+  private void persistRestaurants() {
+    UUID ownerId = UUID.randomUUID();
+    for (int i = 0; i < RESTAURANTS; i++) {
+      Restaurant restaurant = Restaurant.builder()
+          .name("Restaurant " + i)
+          .address("Address " + i)
+          .phoneNumber("+8428000000" + String.format("%02d", i))
+          .cuisine("Vietnamese")
+          .totalReviews(i)
+          .ownerId(ownerId)
+          .build();
+      for (int j = 0; j < MENU_ITEMS_PER_RESTAURANT; j++) {
+        restaurant.addMenuItem(MenuItem.builder()
+            .name("Dish " + i + "-" + j)
+            .price(50000.0)
+            .category("Main Course")
+            .build());
+      }
+      entityManager.persist(restaurant);
+    }
+  }
+
+  @Test
+  void listingPageCostsConstantQueries() {
+    Page<RestaurantResponse> small = restaurantService.getRestaurantsWithFilters(null, null, null, "popular", 0, 5);
+    long smallPageStatements = statistics.getPrepareStatementCount();
+
+    statistics.clear();
+    Page<RestaurantResponse> large = restaurantService.getRestaurantsWithFilters(null, null, null, "rating", 0, 20);
+    long largePageStatements = statistics.getPrepareStatementCount();
+
+    assertThat(small.getContent()).hasSize(5);
+    assertThat(large.getContent()).hasSize(20);
+    assertThat(large.getContent()).allSatisfy(
+        restaurant -> assertThat(restaurant.getMenuItemsCount()).isEqualTo(MENU_ITEMS_PER_RESTAURANT));
+    assertThat(statistics.getCollectionLoadCount()).isZero();
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(smallPageStatements).isEqualTo(3);
+    assertThat(largePageStatements).isEqualTo(3);
+  }
+
+  @Test
+  void menuItemPagesComeFromTheSnapshot() {
+    UUID restaurantId = restaurantService.getRestaurantsWithFilters(null, null, null, "name", 0, 1)
+        .getContent().get(0).getId();
+    statistics.clear();
+
+    Page<MenuItemResponse> items = menuItemService.getMenuItemsByRestaurant(restaurantId, 0, 20, "price", "asc");
+
+    assertThat(items.getContent()).hasSize(MENU_ITEMS_PER_RESTAURANT);
+    assertThat(items.getContent()).allSatisfy(item -> {
+      assertThat(item.getRestaurantId()).isEqualTo(restaurantId);
+      assertThat(item.getRestaurantName()).isNotNull();
+    });
+    // Version check, then the build: version, categories, menu cards
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+
+    statistics.clear();
+    menuItemService.getMenuItemsByRestaurant(restaurantId, 0, 20, "name", "desc");
+    menuItemService.getPopularMenuItems(restaurantId, 2);
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+  }
+}
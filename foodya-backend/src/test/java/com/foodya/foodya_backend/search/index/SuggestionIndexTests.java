@@ -0,0 +1,95 @@
+package com.foodya.foodya_backend.search.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.foodya.foodya_backend.search.index.SuggestionIndex.Kind;
+import com.foodya.foodya_backend.search.index.SuggestionIndex.Suggestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Live entry counts, deduplication by kind and folded text, and top-K order must survive adds and
+ * removes, incremental or bulk.
+ */
+class SuggestionIndexTests {
+
+  @Test
+  void countsLiveEntries() {
+    SuggestionIndex index = new SuggestionIndex(5);
+    index.add(Kind.DISH, "Cơm rang", 3);
+    assertThat(index.size()).isEqualTo(1);
+    index.add(Kind.DISH, "Bún chả", 2);
+    assertThat(index.size()).isEqualTo(2);
+
+    index.remove(Kind.DISH, "Bún chả", 2);
+    assertThat(index.size()).isEqualTo(1);
+    // Withdrawing again, or something never added, changes nothing
+    index.remove(Kind.DISH, "Bún chả", 2);
+    index.remove(Kind.DISH, "Phở cuốn", 1);
+    assertThat(index.size()).isEqualTo(1);
+
+    index.add(Kind.DISH, "Bún chả", 4);
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.suggest("bun", 5)).containsExactly(new Suggestion("Bún chả", Kind.DISH, 4));
+  }
+
+  @Test
+  void dedupsByKindAndFoldedText() {
+    SuggestionIndex index = new SuggestionIndex(5);
+    index.add(Kind.DISH, "Cơm rang", 3);
+    index.add(Kind.DISH, "com  RANG", 4);
+    index.add(Kind.CUISINE, "Cơm rang", 1);
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.suggest("com r", 5)).containsExactly(
+        new Suggestion("Cơm rang", Kind.DISH, 7),
+        new Suggestion("Cơm rang", Kind.CUISINE, 1));
+
+    // One of the two dish sources goes away: still listed, lighter
+    index.remove(Kind.DISH, "com rang", 4);
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.suggest("rang", 5)).containsExactly(
+        new Suggestion("Cơm rang", Kind.DISH, 3),
+        new Suggestion("Cơm rang", Kind.CUISINE, 1));
+  }
+
+  @Test
+  void keepsTopKInWeightOrder() {
+    SuggestionIndex index = new SuggestionIndex(3);
+    index.add(Kind.RESTAURANT, "Phở Thìn", 50);
+    index.add(Kind.RESTAURANT, "Phở Hà Nội", 30);
+    index.add(Kind.DISH, "Phở bò", 40);
+    index.add(Kind.DISH, "Phở gà", 10);
+    assertThat(texts(index.suggest("pho", 10))).containsExactly("Phở Thìn", "Phở bò", "Phở Hà Nội");
+    // Reachable from the start of a later word
+    assertThat(texts(index.suggest("thin", 10))).containsExactly("Phở Thìn");
+
+    index.remove(Kind.RESTAURANT, "Phở Thìn", 50);
+    assertThat(texts(index.suggest("pho", 10))).containsExactly("Phở bò", "Phở Hà Nội", "Phở gà");
+    assertThat(index.suggest("thin", 10)).isEmpty();
+
+    index.add(Kind.DISH, "Phở gà", 60);
+    assertThat(texts(index.suggest("pho", 2))).containsExactly("Phở gà", "Phở bò");
+    assertThat(index.size()).isEqualTo(3);
+  }
+
+  @Test
+  void bulkLoadMatchesIncrementalAdds() {
+    SuggestionIndex bulk = new SuggestionIndex(3);
+    SuggestionIndex incremental = new SuggestionIndex(3);
+    String[] names = {"Bánh mì", "Bánh xèo", "Bánh cuốn", "Bánh bao", "Bánh mì", "Bún bò"};
+    for (int i = 0; i < names.length; i++) {
+      bulk.bulkAdd(Kind.DISH, names[i], i + 1);
+      incremental.add(Kind.DISH, names[i], i + 1);
+    }
+    bulk.finishBulkLoad();
+    assertThat(bulk.size()).isEqualTo(5).isEqualTo(incremental.size());
+    assertThat(bulk.suggest("banh", 3)).isEqualTo(incremental.suggest("banh", 3))
+        .extracting(Suggestion::text).containsExactly("Bánh mì", "Bánh bao", "Bánh cuốn");
+  }
+
+  private static List<String> texts(List<Suggestion> suggestions) {
+    return suggestions.stream().map(Suggestion::text).toList();
+  }
+}
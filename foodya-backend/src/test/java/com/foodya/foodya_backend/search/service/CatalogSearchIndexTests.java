@@ -0,0 +1,133 @@
+package com.foodya.foodya_backend.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.foodya.foodya_backend.restaurant.event.ChangeType;
+import com.foodya.foodya_backend.restaurant.event.MenuItemChangedEvent;
+import com.foodya.foodya_backend.restaurant.event.RestaurantChangedEvent;
+import com.foodya.foodya_backend.restaurant.model.MenuItem;
+import com.foodya.foodya_backend.restaurant.model.Restaurant;
+import com.foodya.foodya_backend.restaurant.repository.MenuItemRepository;
+import com.foodya.foodya_backend.restaurant.repository.RestaurantRepository;
+import com.foodya.foodya_backend.search.index.SearchDocument;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * The rebuild streams projections of active restaurants and dishes; the documents must carry the
+ * same fields the entities did, and single-document updates must read the same projections.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({ CatalogSearchIndex.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogSearchIndexTests {
+
+  @Autowired
+  private CatalogSearchIndex catalogSearchIndex;
+
+  @Autowired
+  private RestaurantRepository restaurantRepository;
+
+  @Autowired
+  private MenuItemRepository menuItemRepository;
+
+  private Restaurant restaurant;
+  private UUID closedId;
+
+  @BeforeEach
+  void setUp() {
+    restaurant = restaurant("Pho 24", "+842800000001", true);
+    restaurant.setRating(4.5);
+    restaurant.setOrderCount(12);
+    restaurant.setDescription("Pho bo Ha Noi");
+    MenuItem pho = item("Pho Bo", 50000.0, 40);
+    pho.setIsAvailable(false);
+    restaurant.addMenuItem(pho);
+    MenuItem inactive = item("Bun Cha", 55000.0, 99);
+    inactive.setIsActive(false);
+    restaurant.addMenuItem(inactive);
+    restaurant = restaurantRepository.save(restaurant);
+    closedId = restaurantRepository.save(restaurant("Com Tam", "+842800000002", false)).getId();
+  }
+
+  @AfterEach
+  void tearDown() {
+    restaurantRepository.deleteAll();
+  }
+
+  @Test
+  void rebuildIndexesActiveRowsOnly() {
+    catalogSearchIndex.rebuild();
+
+    UUID phoId = dishId("Pho Bo");
+    assertThat(catalogSearchIndex.index().size()).isEqualTo(2);
+    assertThat(catalogSearchIndex.index().get(restaurant.getId())).isEqualTo(new SearchDocument(
+        restaurant.getId(), SearchDocument.Kind.RESTAURANT, restaurant.getId(), "Pho 24", "Vietnamese",
+        "Pho bo Ha Noi", 4.5, 12, null, null, true));
+    assertThat(catalogSearchIndex.index().get(phoId)).isEqualTo(new SearchDocument(
+        phoId, SearchDocument.Kind.DISH, restaurant.getId(), "Pho Bo", "Noodles", null, 0.0, 40, 50000.0, null,
+        false));
+    assertThat(catalogSearchIndex.index().get(closedId)).isNull();
+    assertThat(catalogSearchIndex.index().get(dishId("Bun Cha"))).isNull();
+  }
+
+  @Test
+  void changesReadTheSameProjections() {
+    catalogSearchIndex.rebuild();
+    UUID phoId = dishId("Pho Bo");
+
+    MenuItem pho = menuItemRepository.findById(phoId).orElseThrow();
+    pho.setIsActive(false);
+    menuItemRepository.save(pho);
+    catalogSearchIndex.onMenuItemChanged(new MenuItemChangedEvent(phoId, restaurant.getId(), ChangeType.UPDATED));
+    assertThat(catalogSearchIndex.index().get(phoId)).isNull();
+
+    Restaurant closed = restaurantRepository.findById(closedId).orElseThrow();
+    closed.setIsActive(true);
+    restaurantRepository.save(closed);
+    catalogSearchIndex.onRestaurantChanged(new RestaurantChangedEvent(closedId, null, ChangeType.UPDATED));
+    assertThat(catalogSearchIndex.index().get(closedId).name()).isEqualTo("Com Tam");
+  }
+
+  private UUID dishId(String name) {
+    return menuItemRepository.findByRestaurantId(restaurant.getId()).stream()
+        .filter(item -> item.getName().equals(name))
+        .findFirst()
+        .orElseThrow()
+        .getId();
+  }
+
+  private static Restaurant restaurant(String name, String phoneNumber, boolean active) {
+    return Restaurant.builder()
+        .name(name)
+        .address("1 Le Loi")
+        .phoneNumber(phoneNumber)
+        .cuisine("Vietnamese")
+        .ownerId(UUID.randomUUID())
+        .isActive(active)
+        .build();
+  }
+
+  private static MenuItem item(String name, double price, int orderCount) {
+    return MenuItem.builder()
+        .name(name)
+        .category("Noodles")
+        .price(price)
+        .orderCount(orderCount)
+        .build();
+  }
+}
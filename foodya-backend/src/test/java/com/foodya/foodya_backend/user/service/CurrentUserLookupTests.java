@@ -0,0 +1,139 @@
+package com.foodya.foodya_backend.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.foodya.foodya_backend.jwt.JwtService;
+import com.foodya.foodya_backend.jwt.VerifiedClaims;
+import com.foodya.foodya_backend.middleware.JwtAuthenticationFilter;
+import com.foodya.foodya_backend.user.controller.UserController;
+import com.foodya.foodya_backend.user.model.User;
+import com.foodya.foodya_backend.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * A request goes through the JWT filter, the controller and the service with at most one user
+ * row read from the database, with or without stateless principals, and a profile update lands
+ * on the stored row. Rows are counted with Hibernate statistics, not the resolver's counter.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({UserService.class, CurrentUserResolver.class, UserAvailabilityService.class, SecurityEpochService.class,
+    CurrentUserLookupTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CurrentUserLookupTests {
+
+  private static final String TOKEN = "access-token";
+
+  @TestConfiguration
+  static class Metrics {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private Statistics statistics;
+  private User user;
+
+  @BeforeEach
+  void signIn() {
+    userRepository.deleteAll();
+    user = userRepository.save(User.builder()
+        .username("lan")
+        .email("lan@foodya.vn")
+        .password("{noop}secret")
+        .fullName("Lan")
+        .build());
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @AfterEach
+  void signOut() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void profileReadLoadsTheUserOnce() throws Exception {
+    for (boolean stateless : new boolean[] {false, true}) {
+      assertThat(userRowsLoadedBy(stateless, get("/api/v1/users/me")))
+          .as("stateless principal: %s", stateless)
+          .isOne();
+    }
+  }
+
+  @Test
+  void profileUpdateLoadsTheUserOnceAndIsStored() throws Exception {
+    for (boolean stateless : new boolean[] {false, true}) {
+      String fullName = stateless ? "Lan Tran" : "Lan Nguyen";
+      assertThat(userRowsLoadedBy(stateless, put("/api/v1/users/me")
+          .contentType(MediaType.APPLICATION_JSON)
+          .content("{\"fullName\": \"" + fullName + "\"}")))
+          .as("stateless principal: %s", stateless)
+          .isOne();
+      assertThat(userRepository.findById(user.getId()).orElseThrow().getFullName()).isEqualTo(fullName);
+    }
+  }
+
+  private long userRowsLoadedBy(boolean stateless, MockHttpServletRequestBuilder request) throws Exception {
+    long now = System.currentTimeMillis();
+    JwtService jwtService = mock(JwtService.class);
+    when(jwtService.verify(TOKEN)).thenReturn(Optional.of(new VerifiedClaims(user.getUsername(), user.getId(),
+        user.getRole().name(), user.getSecurityEpochOrZero(), null, VerifiedClaims.TYPE_ACCESS, now, now + 3_600_000)));
+    SecurityEpochService securityEpochService = new SecurityEpochService(userRepository, stateless, 30_000, 100);
+    JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService,
+        new CustomUserDetailsService(userRepository), securityEpochService, false);
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService))
+        .addFilters(filter)
+        .build();
+
+    statistics.clear();
+    mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.username").value("lan"));
+    SecurityContextHolder.clearContext();
+    return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+  }
+}
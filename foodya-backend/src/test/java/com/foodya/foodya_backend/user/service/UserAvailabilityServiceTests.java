@@ -0,0 +1,61 @@
+package com.foodya.foodya_backend.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.foodya.foodya_backend.user.model.User;
+import com.foodya.foodya_backend.user.repository.UserRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Names loaded by a rebuild or registered elsewhere since must read as taken; "taken" is always
+ * confirmed against the table.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "logging.level.org.springframework.jdbc=INFO",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@Import(UserAvailabilityService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserAvailabilityServiceTests {
+
+  @Autowired
+  private UserAvailabilityService userAvailabilityService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Test
+  void registrationsShowUpAsTaken() {
+    save("an", "an@foodya.vn");
+    userAvailabilityService.rebuild();
+    assertThat(userAvailabilityService.isUsernameAvailable("an")).isFalse();
+    assertThat(userAvailabilityService.isEmailAvailable("an@foodya.vn")).isFalse();
+    assertThat(userAvailabilityService.isUsernameAvailable("binh")).isTrue();
+
+    // Registered on another instance: known here after the next sync
+    save("binh", "binh@foodya.vn");
+    userAvailabilityService.syncFromDatabase();
+    assertThat(userAvailabilityService.isUsernameAvailable("binh")).isFalse();
+    assertThat(userAvailabilityService.isEmailAvailable("binh@foodya.vn")).isFalse();
+
+    // A deleted user stays in the filter until the next rebuild, but the exists query frees the name
+    userRepository.delete(userRepository.findByUsername("an").orElseThrow());
+    assertThat(userAvailabilityService.isUsernameAvailable("an")).isTrue();
+  }
+
+  private void save(String username, String email) {
+    userRepository.save(User.builder()
+        .username(username)
+        .email(email)
+        .password("{noop}secret")
+        .fullName(username)
+        .build());
+  }
+}
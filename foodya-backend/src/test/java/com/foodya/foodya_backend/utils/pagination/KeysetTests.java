@@ -0,0 +1,86 @@
+package com.foodya.foodya_backend.utils.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.foodya.foodya_backend.exception.business.BadRequestException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cursors carry the last row's keys and the ordering name; anything else is rejected as a 400.
+ * Seeking across real rows is covered by the scroll tests of each listing.
+ */
+class KeysetTests {
+
+  private record Row(LocalDateTime placedAt, Double price, String name, UUID id) {
+  }
+
+  private static final Keyset<Row> NEWEST = Keyset.<Row>named("newest")
+      .by("placedAt", LocalDateTime.class, Sort.Direction.DESC, Row::placedAt)
+      .by("price", Double.class, Sort.Direction.ASC, Row::price)
+      .by("name", String.class, Sort.Direction.ASC, Row::name)
+      .by("id", UUID.class, Sort.Direction.DESC, Row::id);
+
+  private static final Keyset<Row> CHEAPEST = Keyset.<Row>named("cheapest")
+      .by("price", Double.class, Sort.Direction.ASC, Row::price)
+      .by("id", UUID.class, Sort.Direction.ASC, Row::id);
+
+  @Test
+  void pageTrimsTheLookaheadRowAndPointsAtTheLastRow() {
+    Row first = row("Phở bò");
+    Row last = row("Bún chả");
+    CursorPage<String> page = NEWEST.page(List.of(first, last, row("extra")), 2, Row::name);
+
+    assertThat(page.getContent()).containsExactly("Phở bò", "Bún chả");
+    assertThat(page.isHasNext()).isTrue();
+    assertThat(page.getNextCursor()).isEqualTo(NEWEST.cursorAfter(last));
+    assertThat(decoded(page.getNextCursor()))
+        .isEqualTo(String.join("\u001f", "newest", last.placedAt().toString(), last.price().toString(),
+            last.name(), last.id().toString()));
+    // Decodes back under the ordering that issued it
+    assertThat(NEWEST.<Row>after(page.getNextCursor())).isNotNull();
+
+    CursorPage<String> lastPage = NEWEST.page(List.of(first), 2, Row::name);
+    assertThat(lastPage.isHasNext()).isFalse();
+    assertThat(lastPage.getNextCursor()).isNull();
+    assertThat(NEWEST.<Row>after(null)).isNull();
+    assertThat(NEWEST.<Row>after(" ")).isNull();
+  }
+
+  @Test
+  void tamperedCursorsAreRejected() {
+    Row row = row("Phở bò");
+    String cursor = NEWEST.cursorAfter(row);
+
+    assertThatThrownBy(() -> CHEAPEST.after(cursor)).isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> NEWEST.after("not a cursor!")).isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> NEWEST.after(encoded("newest\u001f" + row.placedAt())))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> NEWEST.after(encoded("newest\u001fyesterday\u001f1.0\u001fa\u001f" + row.id())))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> NEWEST.after(encoded("newest\u001f" + row.placedAt() + "\u001fcheap\u001fa\u001f"
+        + row.id()))).isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> NEWEST.after(encoded("newest\u001f" + row.placedAt() + "\u001f1.0\u001fa\u001fnot-an-id")))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  private static Row row(String name) {
+    return new Row(LocalDateTime.of(2026, 10, 17, 12, 30, 15, 123_456_789), 45000.5, name, UUID.randomUUID());
+  }
+
+  private static String decoded(String cursor) {
+    return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+  }
+
+  private static String encoded(String raw) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,66 @@
+package com.foodya.foodya_backend.utils.rebuild;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Changes made while a rebuild loads must reach the rebuilt value; a failed load must leave the
+ * current value in place and nothing queued for the next rebuild.
+ */
+class RebuildableStateTests {
+
+  @Test
+  void changesDuringTheLoadAreReplayed() {
+    RebuildableState<List<String>> state = new RebuildableState<>(new ArrayList<>(List.of("old")));
+
+    List<String> rebuilt = state.rebuild(() -> {
+      state.apply(list -> list.add("during"));
+      assertThat(state.rebuild(ArrayList::new)).as("a second rebuild is skipped").isNull();
+      return new ArrayList<>(List.of("loaded"));
+    });
+    state.apply(list -> list.add("after"));
+
+    assertThat(rebuilt).isSameAs(state.get());
+    assertThat(state.get()).containsExactly("loaded", "during", "after");
+  }
+
+  @Test
+  void countsCoveredByTheSwapAreNotReplayed() {
+    // A stored total plus what is pending, as the popularity services keep their delivered counts
+    AtomicLong pending = new AtomicLong();
+    RebuildableState<AtomicLong> state = new RebuildableState<>(new AtomicLong());
+    Runnable deliver = () -> state.apply(count -> {
+      pending.incrementAndGet();
+      count.incrementAndGet();
+    }, null);
+
+    deliver.run();
+    AtomicLong rebuilt = state.rebuild(() -> {
+      deliver.run();
+      return new AtomicLong(10);
+    }, count -> count.addAndGet(pending.get()));
+    deliver.run();
+
+    assertThat(rebuilt.get()).isEqualTo(13);
+  }
+
+  @Test
+  void failedLoadKeepsTheCurrentValue() {
+    List<String> initial = new ArrayList<>();
+    RebuildableState<List<String>> state = new RebuildableState<>(initial);
+
+    assertThatThrownBy(() -> state.rebuild(() -> {
+      state.apply(list -> list.add("during"));
+      throw new IllegalStateException("database down");
+    })).isInstanceOf(IllegalStateException.class);
+
+    assertThat(state.get()).isSameAs(initial).containsExactly("during");
+    assertThat(state.rebuild(ArrayList::new)).isEmpty();
+  }
+}